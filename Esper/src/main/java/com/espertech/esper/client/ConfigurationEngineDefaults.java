@@ -38,6 +38,7 @@ public class ConfigurationEngineDefaults implements Serializable
     private AlternativeContext alternativeContext;
     private Cluster cluster;
     private Patterns patterns;
+    private MatchRecognize matchRecognize;
     private Scripts scripts;
 
     /**
@@ -61,6 +62,7 @@ public class ConfigurationEngineDefaults implements Serializable
         alternativeContext = new AlternativeContext();
         cluster = new Cluster();
         patterns = new Patterns();
+        matchRecognize = new MatchRecognize();
         scripts = new Scripts();
     }
 
@@ -246,6 +248,22 @@ public class ConfigurationEngineDefaults implements Serializable
         this.patterns = patterns;
     }
 
+    /**
+     * Return match-recognize settings.
+     * @return match-recognize settings
+     */
+    public MatchRecognize getMatchRecognize() {
+        return matchRecognize;
+    }
+
+    /**
+     * Sets match-recognize settings.
+     * @param matchRecognize settings to set
+     */
+    public void setMatchRecognize(MatchRecognize matchRecognize) {
+        this.matchRecognize = matchRecognize;
+    }
+
     /**
      * Returns script engine settings.
      * @return script engine settings
@@ -288,10 +306,17 @@ public class ConfigurationEngineDefaults implements Serializable
         private int threadPoolInboundNumThreads;
         private int threadPoolRouteExecNumThreads;
         private int threadPoolOutboundNumThreads;
+        private boolean isThreadPoolFireAndForget;
+        private int threadPoolFireAndForgetNumThreads;
+        private boolean isThreadPoolNamedWindowDispatch;
+        private int threadPoolNamedWindowDispatchNumThreads;
         private Integer threadPoolTimerExecCapacity;
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private Integer threadPoolNamedWindowDispatchCapacity;
+        private ThreadPoolQueue threadPoolQueue;
+        private WaitStrategy threadPoolWaitStrategy;
 
         private boolean engineFairlock;
 
@@ -320,6 +345,10 @@ public class ConfigurationEngineDefaults implements Serializable
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolFireAndForgetNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolNamedWindowDispatchNumThreads = Runtime.getRuntime().availableProcessors();
+            threadPoolQueue = ThreadPoolQueue.BLOCKING;
+            threadPoolWaitStrategy = WaitStrategy.YIELD;
         }
 
         /**
@@ -597,6 +626,108 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolOutboundNumThreads = num;
         }
 
+        /**
+         * Returns true for fire-and-forget query threading enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, fire-and-forget queries against named windows take the snapshots of context partitions
+         * and evaluate the where-clause over chunks of large named windows in parallel.
+         * @return indicator whether fire-and-forget query threading is enabled
+         */
+        public boolean isThreadPoolFireAndForget()
+        {
+            return isThreadPoolFireAndForget;
+        }
+
+        /**
+         * Set to true for fire-and-forget query threading enabled, the default is false for not enabled.
+         * @param threadPoolFireAndForget indicator whether fire-and-forget query threading is enabled
+         */
+        public void setThreadPoolFireAndForget(boolean threadPoolFireAndForget)
+        {
+            isThreadPoolFireAndForget = threadPoolFireAndForget;
+        }
+
+        /**
+         * Returns the number of threads in the fire-and-forget query thread pool, the default is the number of processors.
+         * @return number of threads
+         */
+        public int getThreadPoolFireAndForgetNumThreads()
+        {
+            return threadPoolFireAndForgetNumThreads;
+        }
+
+        /**
+         * Sets the number of threads in the fire-and-forget query thread pool.
+         * @param num number of threads
+         */
+        public void setThreadPoolFireAndForgetNumThreads(int num)
+        {
+            this.threadPoolFireAndForgetNumThreads = num;
+        }
+
+        /**
+         * Returns true for named window consumer dispatch threading enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, the results of a named window are dispatched to consuming statements by a pool of threads
+         * instead of by the producing thread. Each consuming statement is always processed by the same thread
+         * therefore receives the results of the named window in order. Results of named windows produced by
+         * an isolated service provider are always dispatched by the producing thread.
+         * @return indicator whether named window consumer dispatch threading is enabled
+         */
+        public boolean isThreadPoolNamedWindowDispatch()
+        {
+            return isThreadPoolNamedWindowDispatch;
+        }
+
+        /**
+         * Set to true for named window consumer dispatch threading enabled, the default is false for not enabled.
+         * @param threadPoolNamedWindowDispatch indicator whether named window consumer dispatch threading is enabled
+         */
+        public void setThreadPoolNamedWindowDispatch(boolean threadPoolNamedWindowDispatch)
+        {
+            isThreadPoolNamedWindowDispatch = threadPoolNamedWindowDispatch;
+        }
+
+        /**
+         * Returns the number of threads dispatching named window results to consumers, the default is the number of processors.
+         * @return number of threads
+         */
+        public int getThreadPoolNamedWindowDispatchNumThreads()
+        {
+            return threadPoolNamedWindowDispatchNumThreads;
+        }
+
+        /**
+         * Sets the number of threads dispatching named window results to consumers.
+         * @param num number of threads
+         */
+        public void setThreadPoolNamedWindowDispatchNumThreads(int num)
+        {
+            this.threadPoolNamedWindowDispatchNumThreads = num;
+        }
+
+        /**
+         * Returns the capacity of the queue of each named window dispatch thread, or null if none defined (the unbounded case, default).
+         * <p>
+         * Submitting to a dispatch thread never blocks and keeps the order of results per consuming statement. When the backlog of a
+         * dispatch thread reaches the capacity, the producing thread waits after releasing the event processing lock until the backlog
+         * falls below the capacity. Named window dispatch threads do not wait.
+         * @return capacity or null if none defined
+         */
+        public Integer getThreadPoolNamedWindowDispatchCapacity()
+        {
+            return threadPoolNamedWindowDispatchCapacity;
+        }
+
+        /**
+         * Sets the capacity of the queue of each named window dispatch thread, or null if none defined (the unbounded case, default).
+         * @param capacity capacity or null if none defined
+         */
+        public void setThreadPoolNamedWindowDispatchCapacity(Integer capacity)
+        {
+            this.threadPoolNamedWindowDispatchCapacity = capacity;
+        }
+
         /**
          * Returns the number of thread in the route execution thread pool.
          * @return number of threads
@@ -705,6 +836,44 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns the queue type used by the inbound, outbound, timer and route execution thread pools,
+         * the default is {@link ThreadPoolQueue#BLOCKING}.
+         * @return queue type
+         */
+        public ThreadPoolQueue getThreadPoolQueue()
+        {
+            return threadPoolQueue;
+        }
+
+        /**
+         * Sets the queue type used by the inbound, outbound, timer and route execution thread pools.
+         * @param threadPoolQueue queue type
+         */
+        public void setThreadPoolQueue(ThreadPoolQueue threadPoolQueue)
+        {
+            this.threadPoolQueue = threadPoolQueue;
+        }
+
+        /**
+         * Returns the strategy by which thread pool threads wait for work when using the ring buffer queue,
+         * the default is {@link WaitStrategy#YIELD}.
+         * @return wait strategy
+         */
+        public WaitStrategy getThreadPoolWaitStrategy()
+        {
+            return threadPoolWaitStrategy;
+        }
+
+        /**
+         * Sets the strategy by which thread pool threads wait for work when using the ring buffer queue.
+         * @param threadPoolWaitStrategy wait strategy
+         */
+        public void setThreadPoolWaitStrategy(WaitStrategy threadPoolWaitStrategy)
+        {
+            this.threadPoolWaitStrategy = threadPoolWaitStrategy;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -746,6 +915,44 @@ public class ConfigurationEngineDefaults implements Serializable
              */
             SUSPEND
         }
+
+        /**
+         * Enumeration of queue types for engine thread pools.
+         */
+        public enum ThreadPoolQueue
+        {
+            /**
+             * Work units are queued to a blocking queue that is consumed by a thread pool executor, the default.
+             */
+            BLOCKING,
+
+            /**
+             * Work units are placed into the pre-allocated slots of a lock-free ring buffer that is consumed by
+             * dedicated threads, avoiding queue locks and thread wake-ups at the cost of waiting threads using CPU.
+             */
+            RINGBUFFER
+        }
+
+        /**
+         * Enumeration of strategies for threads waiting on a ring buffer queue.
+         */
+        public enum WaitStrategy
+        {
+            /**
+             * Threads spin, for lowest latency at the cost of one fully used CPU per waiting thread.
+             */
+            BUSYSPIN,
+
+            /**
+             * Threads yield while waiting.
+             */
+            YIELD,
+
+            /**
+             * Threads park for a short time while waiting.
+             */
+            PARK
+        }
     }
 
     /**
@@ -1110,6 +1317,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private static final long serialVersionUID = -7596853289989573800L;
         private Long maxSubexpressions;
         private boolean maxSubexpressionPreventStart = true;
+        private boolean sharedCorrelatedFilters;
 
         /**
          * Returns the maximum number of subexpressions
@@ -1144,6 +1352,72 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setMaxSubexpressionPreventStart(boolean maxSubexpressionPreventStart) {
             this.maxSubexpressionPreventStart = maxSubexpressionPreventStart;
         }
+
+        /**
+         * Returns true to indicate that filters of followed-by subexpressions under "every" that correlate to a prior
+         * tagged event by an equals-comparison share a single filter registration and route to the outstanding
+         * subexpressions through a hash index on the correlation value, instead of registering one filter per subexpression.
+         * @return indicator, false by default
+         */
+        public boolean isSharedCorrelatedFilters() {
+            return sharedCorrelatedFilters;
+        }
+
+        /**
+         * Set to true to indicate that filters of followed-by subexpressions under "every" that correlate to a prior
+         * tagged event by an equals-comparison share a single filter registration.
+         * @param sharedCorrelatedFilters indicator
+         */
+        public void setSharedCorrelatedFilters(boolean sharedCorrelatedFilters) {
+            this.sharedCorrelatedFilters = sharedCorrelatedFilters;
+        }
+    }
+
+    /**
+     * Match-recognize settings.
+     */
+    public static class MatchRecognize implements Serializable
+    {
+        private static final long serialVersionUID = 5308374265810361472L;
+        private Long maxStates;
+        private boolean maxStatesPreventStart = true;
+
+        /**
+         * Returns the maximum number of partial match states per statement, or null for no limit (the default).
+         * <p>
+         * For statements declared with a context the maximum applies to each context partition separately.
+         * @return state count
+         */
+        public Long getMaxStates() {
+            return maxStates;
+        }
+
+        /**
+         * Sets the maximum number of partial match states per statement, or null for no limit.
+         * For statements declared with a context the maximum applies to each context partition separately.
+         * @param maxStates state count
+         */
+        public void setMaxStates(Long maxStates) {
+            this.maxStates = maxStates;
+        }
+
+        /**
+         * Returns true, the default, to indicate that if there is a maximum defined
+         * it is being enforced and new partial matches are not started.
+         * @return indicate whether enforced or not
+         */
+        public boolean isMaxStatesPreventStart() {
+            return maxStatesPreventStart;
+        }
+
+        /**
+         * Set to true, the default, to indicate that if there is a maximum defined
+         * it is being enforced and new partial matches are not started.
+         * @param maxStatesPreventStart indicate whether enforced or not
+         */
+        public void setMaxStatesPreventStart(boolean maxStatesPreventStart) {
+            this.maxStatesPreventStart = maxStatesPreventStart;
+        }
     }
 
     /**
@@ -1285,6 +1559,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private boolean extendedAggregation;
         private boolean duckTyping;
         private MathContext mathContext;
+        private boolean codeGeneration;
 
         /**
          * Ctor.
@@ -1425,6 +1700,26 @@ public class ConfigurationEngineDefaults implements Serializable
             this.duckTyping = duckTyping;
         }
 
+        /**
+         * Returns true to indicate that where-clause, select-clause and group-by expressions
+         * as well as filter expressions are compiled to bytecode, false (the default) for interpreted evaluation.
+         * @return indicator
+         */
+        public boolean isCodeGeneration()
+        {
+            return codeGeneration;
+        }
+
+        /**
+         * Set to true to have where-clause, select-clause and group-by expressions
+         * as well as filter expressions compiled to bytecode, false (the default) for interpreted evaluation.
+         * @param codeGeneration indicator
+         */
+        public void setCodeGeneration(boolean codeGeneration)
+        {
+            this.codeGeneration = codeGeneration;
+        }
+
         /**
          * Returns the math context for big decimal operations, or null to leave the math context undefined.
          * @return math context or null
@@ -1451,6 +1746,10 @@ public class ConfigurationEngineDefaults implements Serializable
         private boolean fairlock;
         private boolean disableLocking;
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
+        private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READWRITE;
+        private SchedulingServiceType schedulingServiceType = SchedulingServiceType.SORTED;
+        private int fireAndForgetPlanCacheSize;
+        private boolean fireAndForgetResultCache;
 
         private static final long serialVersionUID = 0L;
 
@@ -1533,6 +1832,76 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setThreadingProfile(ThreadingProfile threadingProfile) {
             this.threadingProfile = threadingProfile;
         }
+
+        /**
+         * Returns the filter service profile.
+         * @return profile
+         */
+        public FilterServiceProfile getFilterServiceProfile() {
+            return filterServiceProfile;
+        }
+
+        /**
+         * Sets the filter service profile.
+         * @param filterServiceProfile profile to set
+         */
+        public void setFilterServiceProfile(FilterServiceProfile filterServiceProfile) {
+            this.filterServiceProfile = filterServiceProfile;
+        }
+
+        /**
+         * Returns the scheduling service implementation type.
+         * @return type
+         */
+        public SchedulingServiceType getSchedulingServiceType() {
+            return schedulingServiceType;
+        }
+
+        /**
+         * Sets the scheduling service implementation type.
+         * @param schedulingServiceType type to set
+         */
+        public void setSchedulingServiceType(SchedulingServiceType schedulingServiceType) {
+            this.schedulingServiceType = schedulingServiceType;
+        }
+
+        /**
+         * Returns the maximum number of compiled fire-and-forget queries that the runtime keeps, keyed by EPL text,
+         * for reuse by executeQuery. The default is zero, meaning each execution compiles the query.
+         * @return plan cache size
+         */
+        public int getFireAndForgetPlanCacheSize() {
+            return fireAndForgetPlanCacheSize;
+        }
+
+        /**
+         * Sets the maximum number of compiled fire-and-forget queries that the runtime keeps, keyed by EPL text,
+         * for reuse by executeQuery. Least-recently used queries are evicted first. Zero disables the cache.
+         * @param fireAndForgetPlanCacheSize plan cache size
+         */
+        public void setFireAndForgetPlanCacheSize(int fireAndForgetPlanCacheSize) {
+            this.fireAndForgetPlanCacheSize = fireAndForgetPlanCacheSize;
+        }
+
+        /**
+         * Returns indicator whether cached fire-and-forget select queries also retain the last result,
+         * returned again while none of the named windows queried changed. The default is false.
+         * @return result cache indicator
+         */
+        public boolean isFireAndForgetResultCache() {
+            return fireAndForgetResultCache;
+        }
+
+        /**
+         * Set to true to have cached fire-and-forget select queries also retain the last result, returned again
+         * while none of the named windows queried changed. Applies only with a plan cache, and not to queries
+         * that use variables or that provide context partition selectors. Queries that depend on time or on
+         * non-deterministic functions should not be executed with a result cache.
+         * @param fireAndForgetResultCache result cache indicator
+         */
+        public void setFireAndForgetResultCache(boolean fireAndForgetResultCache) {
+            this.fireAndForgetResultCache = fireAndForgetResultCache;
+        }
     }
 
     /**
@@ -1551,6 +1920,40 @@ public class ConfigurationEngineDefaults implements Serializable
         NORMAL
     }
 
+    /**
+     * Filter service profile.
+     */
+    public enum FilterServiceProfile
+    {
+        /**
+         * If filters are frequently added and removed, the filter index tree is protected by fine-grained read-write locks.
+         */
+        READWRITE,
+
+        /**
+         * If filters are mostly static, the filter index tree is kept in concurrent collections and events are matched
+         * without taking any locks, while filter add and remove are serialized by a single engine-wide lock.
+         */
+        READMOSTLY
+    }
+
+    /**
+     * Scheduling service implementation type.
+     */
+    public enum SchedulingServiceType
+    {
+        /**
+         * Schedules are kept sorted by time, add and remove take logarithmic time in the number of distinct times.
+         */
+        SORTED,
+
+        /**
+         * Schedules are kept in a hierarchical timing wheel, add and remove take constant time,
+         * preferable for a large number of schedules.
+         */
+        TIMINGWHEEL
+    }
+
     /**
      * Time source type.
      */
@@ -1019,6 +1019,10 @@ class ConfigurationParser {
             {
                 handleDefaultsPatterns(configuration, subElement);
             }
+            if (subElement.getNodeName().equals("match-recognize"))
+            {
+                handleDefaultsMatchRecognize(configuration, subElement);
+            }
             if (subElement.getNodeName().equals("stream-selection"))
             {
                 handleDefaultsStreamSelection(configuration, subElement);
@@ -1111,6 +1115,19 @@ class ConfigurationParser {
                             ConfigurationEngineDefaults.Threading.Locking.valueOf(value.toUpperCase()));
                 }
             }
+            if (subElement.getNodeName().equals("threadpool-queue"))
+            {
+                String typeText = getRequiredAttribute(subElement, "type");
+                configuration.getEngineDefaults().getThreading().setThreadPoolQueue(
+                        ConfigurationEngineDefaults.Threading.ThreadPoolQueue.valueOf(typeText.toUpperCase()));
+
+                if (subElement.getAttributes().getNamedItem("wait-strategy") != null)
+                {
+                    String value = subElement.getAttributes().getNamedItem("wait-strategy").getTextContent();
+                    configuration.getEngineDefaults().getThreading().setThreadPoolWaitStrategy(
+                            ConfigurationEngineDefaults.Threading.WaitStrategy.valueOf(value.toUpperCase()));
+                }
+            }
             if (subElement.getNodeName().equals("internal-timer"))
             {
                 String enabledText = getRequiredAttribute(subElement, "enabled");
@@ -1148,6 +1165,19 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-fireandforget"))
+            {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForget(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(result.getNumThreads());
+            }
+            if (subElement.getNodeName().equals("threadpool-namedwindow-dispatch"))
+            {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatch(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatchNumThreads(result.getNumThreads());
+                configuration.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatchCapacity(result.getCapacity());
+            }
         }
     }
 
@@ -1259,6 +1289,31 @@ class ConfigurationParser {
                     configuration.getEngineDefaults().getPatterns().setMaxSubexpressionPreventStart(Boolean.parseBoolean(preventText));
                 }
             }
+            if (subElement.getNodeName().equals("shared-correlated-filters"))
+            {
+                String enabledText = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getPatterns().setSharedCorrelatedFilters(Boolean.parseBoolean(enabledText));
+            }
+        }
+    }
+
+    private static void handleDefaultsMatchRecognize(Configuration configuration, Element parentElement)
+    {
+        DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
+        while (nodeIterator.hasNext())
+        {
+            Element subElement = nodeIterator.next();
+            if (subElement.getNodeName().equals("max-state"))
+            {
+                String valueText = getRequiredAttribute(subElement, "value");
+                Long value = Long.parseLong(valueText);
+                configuration.getEngineDefaults().getMatchRecognize().setMaxStates(value);
+
+                String preventText = getOptionalAttribute(subElement, "prevent-start");
+                if (preventText != null) {
+                    configuration.getEngineDefaults().getMatchRecognize().setMaxStatesPreventStart(Boolean.parseBoolean(preventText));
+                }
+            }
         }
     }
 
@@ -1438,6 +1493,12 @@ class ConfigurationParser {
             boolean duckTyping = Boolean.parseBoolean(duckTypingStr);
             configuration.getEngineDefaults().getExpression().setDuckTyping(duckTyping);
         }
+        String codeGenerationStr = getOptionalAttribute(parentElement, "code-generation");
+        if (codeGenerationStr != null)
+        {
+            boolean codeGeneration = Boolean.parseBoolean(codeGenerationStr);
+            configuration.getEngineDefaults().getExpression().setCodeGeneration(codeGeneration);
+        }
         String mathContextStr = getOptionalAttribute(parentElement, "math-context");
         if (mathContextStr != null)
         {
@@ -1477,6 +1538,28 @@ class ConfigurationParser {
             ConfigurationEngineDefaults.ThreadingProfile profile = ConfigurationEngineDefaults.ThreadingProfile.valueOf(threadingProfileStr.toUpperCase());
             configuration.getEngineDefaults().getExecution().setThreadingProfile(profile);
         }
+        String filterServiceProfileStr = getOptionalAttribute(parentElement, "filter-service-profile");
+        if (filterServiceProfileStr != null)
+        {
+            ConfigurationEngineDefaults.FilterServiceProfile profile = ConfigurationEngineDefaults.FilterServiceProfile.valueOf(filterServiceProfileStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
+        }
+        String schedulingServiceTypeStr = getOptionalAttribute(parentElement, "scheduling-service-type");
+        if (schedulingServiceTypeStr != null)
+        {
+            ConfigurationEngineDefaults.SchedulingServiceType type = ConfigurationEngineDefaults.SchedulingServiceType.valueOf(schedulingServiceTypeStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceType(type);
+        }
+        String fafPlanCacheSizeStr = getOptionalAttribute(parentElement, "fire-and-forget-plan-cache-size");
+        if (fafPlanCacheSizeStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setFireAndForgetPlanCacheSize(Integer.parseInt(fafPlanCacheSizeStr));
+        }
+        String fafResultCacheStr = getOptionalAttribute(parentElement, "fire-and-forget-result-cache");
+        if (fafResultCacheStr != null)
+        {
+            configuration.getEngineDefaults().getExecution().setFireAndForgetResultCache(Boolean.parseBoolean(fafResultCacheStr));
+        }
     }
 
     private static void handleDefaultScriptConfig(Configuration configuration, Element parentElement)
@@ -11,9 +11,12 @@ package com.espertech.esper.client;
 import com.espertech.esper.client.context.ContextPartitionSelector;
 import com.espertech.esper.client.dataflow.EPDataFlowRuntime;
 import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.client.time.ReplayEvent;
+import com.espertech.esper.client.time.ReplayResult;
 import com.espertech.esper.client.util.EventRenderer;
 
 import java.net.URI;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -70,6 +73,65 @@ public interface EPRuntime
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of events represented by plain Java objects to the event stream processing runtime.
+     * <p>
+     * Events are processed in the order provided, as if each was sent via {@link #sendEvent(Object)}.
+     * The runtime acquires its internal locks and thread-local state once for a run of events
+     * and delivers the listener results produced by the batch together, after the batch or before
+     * any routed or inserted-into event gets processed. Listeners may therefore receive the results of
+     * multiple events of the batch in a single invocation.
+     * <p>
+     * Use the route method for sending events into the runtime from within UpdateListener code.
+     *
+     * @param objects is the events to send to the runtime, null elements are ignored
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(Object[] objects) throws EPException;
+
+    /**
+     * Send a batch of maps containing event property values to the event stream processing runtime.
+     * <p>
+     * See {@link #sendEvents(Object[])} for the batch processing semantics.
+     *
+     * @param maps - maps that contain event property values, each representing an event of the same type
+     * @param mapEventTypeName - the name for the Map event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(Map[] maps, String mapEventTypeName) throws EPException;
+
+    /**
+     * Send a batch of object arrays containing event property values to the event stream processing runtime.
+     * <p>
+     * See {@link #sendEvents(Object[])} for the batch processing semantics.
+     *
+     * @param objectarrays - arrays that contain event property values, each representing an event of the same type
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(Object[][] objectarrays, String objectArrayEventTypeName) throws EPException;
+
+    /**
+     * Replay timestamped events using external time, for example for backtesting.
+     * <p>
+     * For each event the runtime advances engine time to the event timestamp before processing the event.
+     * Time advances from one due statement schedule to the next as for a {@link com.espertech.esper.client.time.CurrentTimeSpanEvent},
+     * and the runtime only evaluates schedules and dispatches for points in time at which schedules are due.
+     * A timestamp that is less than the current engine time does not change engine time.
+     * <p>
+     * With batch dispatch, runs of events that have the same timestamp are processed as a batch with the
+     * semantics of {@link #sendEvents(Object[])}.
+     * <p>
+     * Events are processed by the calling thread. External clocking must be enabled via
+     * {@link com.espertech.esper.client.time.TimerControlEvent} before replay.
+     *
+     * @param events timestamped events in timestamp order
+     * @param batchDispatch true to process runs of events with the same timestamp as a batch
+     * @return replay result including events per second
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public ReplayResult replay(Iterator<ReplayEvent> events, boolean batchDispatch) throws EPException;
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
@@ -44,6 +44,55 @@ public enum HintEnum
      */
     RECLAIM_GROUP_FREQ("RECLAIM_GROUP_FREQ", true, true, false),
 
+    /**
+     * For use with group-by, keep aggregation state for groups in a compact table that flattens sum, average and count
+     * aggregations into primitive arrays, reducing the memory per group. Applies when there are no access aggregations
+     * (first, last, window etc.) and no reclaim-aged hint.
+     */
+    COMPACT_GROUP_STATE("COMPACT_GROUP_STATE", false, false, false),
+
+    /**
+     * For use with create-window, store the rows of an object-array or map-typed named window in off-heap memory slabs
+     * and materialize the event properties on access, reducing garbage collection pressure for large windows.
+     */
+    OFFHEAP_STORAGE("OFFHEAP_STORAGE", false, false, false),
+
+    /**
+     * For use with create-context for a hash-segmented context, the number of worker threads that own the hash buckets.
+     * Each worker owns a contiguous range of buckets and processes the events for context partitions in its range
+     * in arrival order, instead of the sending thread. Ignored for nested contexts.
+     */
+    PARALLEL_CONTEXT_PARTITIONS("PARALLEL_CONTEXT_PARTITIONS", true, true, false),
+
+    /**
+     * For use with create-context for a keyed segmented context, register a single filter per statement filter and route
+     * events to context partitions by partition key, instead of registering the key-specific filters of each
+     * context partition with the filter service.
+     */
+    PARTITION_KEY_INDEX("PARTITION_KEY_INDEX", false, false, false),
+
+    /**
+     * For use with create-context for a keyed segmented context or a hash segmented context that does not preallocate,
+     * the number of seconds after which a context partition that receives no events is stopped, releasing its
+     * statement resources. The context partition is started again upon the next event for its key.
+     * <p>
+     * A stopped context partition loses all its statement state, such as data window contents and aggregation values,
+     * and the restarted context partition begins empty. Not supported for nested contexts and for hash segmented
+     * contexts that preallocate.
+     */
+    RECLAIM_PARTITION_AGED("RECLAIM_PARTITION_AGED", true, true, false),
+
+    /**
+     * For use with create-context for a keyed segmented context or a hash segmented context that does not preallocate,
+     * the maximum number of started context partitions, stopping the least-recently used context partition when exceeded.
+     * The value must be a positive integer.
+     * <p>
+     * A stopped context partition loses all its statement state, such as data window contents and aggregation values,
+     * and a context partition started again for the same key begins empty. Not supported for nested contexts and for
+     * hash segmented contexts that preallocate.
+     */
+    RECLAIM_PARTITION_MAX("RECLAIM_PARTITION_MAX", true, true, false),
+
     /**
      * For use with create-named-window statements only, to indicate that statements that subquery the named window
      * use named window data structures (unless the subquery statement specifies below DISBABLE hint and as listed below).
@@ -79,6 +128,13 @@ public enum HintEnum
      */
     PREFER_MERGE_JOIN("PREFER_MERGE_JOIN", false, false, false),
 
+    /**
+     * For use with inner-join query plans of three or more streams, the number of lookups after which the engine compares
+     * the observed cost of each stream's current lookup order against the alternative lookup orders that are fully
+     * index-navigable, switching to an alternative order that is at least twice as cheap.
+     */
+    ADAPTIVE_JOIN_PLAN("ADAPTIVE_JOIN_PLAN", true, true, false),
+
     /**
      * For use everywhere where indexes are used (subquery, joins, fire-and-forget, onl-select etc.), index hint.
      */
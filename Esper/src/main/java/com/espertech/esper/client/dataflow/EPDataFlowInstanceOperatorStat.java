@@ -22,6 +22,7 @@ public class EPDataFlowInstanceOperatorStat {
     private final long[] submittedPerPortCount;
     private final long timeOverall;
     private final long[] timePerPort;
+    private final int queueDepth;
 
     /**
      * Ctor.
@@ -34,6 +35,21 @@ public class EPDataFlowInstanceOperatorStat {
      * @param timePerPort time spent submitting events per port
      */
     public EPDataFlowInstanceOperatorStat(String operatorName, String operatorPrettyPrint, int operatorNumber, long submittedOverallCount, long[] submittedPerPortCount, long timeOverall, long[] timePerPort) {
+        this(operatorName, operatorPrettyPrint, operatorNumber, submittedOverallCount, submittedPerPortCount, timeOverall, timePerPort, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param operatorName operator name
+     * @param operatorPrettyPrint operator pretty print
+     * @param operatorNumber operator number
+     * @param submittedOverallCount count of submitted events
+     * @param submittedPerPortCount count of events submitted per port
+     * @param timeOverall time spent submitting events
+     * @param timePerPort time spent submitting events per port
+     * @param queueDepth number of events and signals queued for an asynchronously-executing operator
+     */
+    public EPDataFlowInstanceOperatorStat(String operatorName, String operatorPrettyPrint, int operatorNumber, long submittedOverallCount, long[] submittedPerPortCount, long timeOverall, long[] timePerPort, int queueDepth) {
         this.operatorName = operatorName;
         this.operatorPrettyPrint = operatorPrettyPrint;
         this.operatorNumber = operatorNumber;
@@ -41,6 +57,7 @@ public class EPDataFlowInstanceOperatorStat {
         this.submittedPerPortCount = submittedPerPortCount;
         this.timeOverall = timeOverall;
         this.timePerPort = timePerPort;
+        this.queueDepth = queueDepth;
     }
 
     /**
@@ -98,4 +115,13 @@ public class EPDataFlowInstanceOperatorStat {
     public long[] getTimePerPort() {
         return timePerPort;
     }
+
+    /**
+     * Returns the number of events and signals currently queued for the operator, always zero
+     * for operators that do not execute asynchronously.
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
 }
@@ -32,6 +32,9 @@ public class EPDataFlowInstantiationOptions implements Serializable {
     private boolean cpuStatistics;
     private EPRuntimeEventSender surrogateEventSender;
     private Map<String, Object> parametersURIs;
+    private boolean asyncChannels;
+    private int asyncChannelCapacity = 1024;
+    private Map<String, Integer> operatorThreads;
 
     /**
      * Returns the operator provider.
@@ -258,4 +261,95 @@ public class EPDataFlowInstantiationOptions implements Serializable {
     public void setParametersURIs(Map<String, Object> parametersURIs) {
         this.parametersURIs = parametersURIs;
     }
+
+    /**
+     * Returns indicator whether each operator that has input ports receives its input from a bounded queue
+     * and executes on its own thread(s), rather than on the thread of the submitting operator.
+     * @return async channels indicator
+     */
+    public boolean isAsyncChannels() {
+        return asyncChannels;
+    }
+
+    /**
+     * Sets indicator whether each operator that has input ports receives its input from a bounded queue
+     * and executes on its own thread(s), rather than on the thread of the submitting operator.
+     * @param asyncChannels async channels indicator
+     * @return this options object
+     */
+    public EPDataFlowInstantiationOptions asyncChannels(boolean asyncChannels) {
+        this.asyncChannels = asyncChannels;
+        return this;
+    }
+
+    /**
+     * Sets indicator whether each operator that has input ports receives its input from a bounded queue
+     * and executes on its own thread(s), rather than on the thread of the submitting operator.
+     * @param asyncChannels async channels indicator
+     */
+    public void setAsyncChannels(boolean asyncChannels) {
+        this.asyncChannels = asyncChannels;
+    }
+
+    /**
+     * Returns the capacity of the bounded queue of each asynchronous operator, the submitting operator
+     * blocks when the queue is full.
+     * @return queue capacity
+     */
+    public int getAsyncChannelCapacity() {
+        return asyncChannelCapacity;
+    }
+
+    /**
+     * Sets the capacity of the bounded queue of each asynchronous operator, the submitting operator
+     * blocks when the queue is full.
+     * @param asyncChannelCapacity queue capacity
+     * @return this options object
+     */
+    public EPDataFlowInstantiationOptions asyncChannelCapacity(int asyncChannelCapacity) {
+        this.asyncChannelCapacity = asyncChannelCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of the bounded queue of each asynchronous operator, the submitting operator
+     * blocks when the queue is full.
+     * @param asyncChannelCapacity queue capacity
+     */
+    public void setAsyncChannelCapacity(int asyncChannelCapacity) {
+        this.asyncChannelCapacity = asyncChannelCapacity;
+    }
+
+    /**
+     * Executes the named operator asynchronously using the given number of threads.
+     * <p>
+     * A number of threads greater then one is only allowed for stateless operators, i.e. the Filter operator.
+     * Operators consuming from a multi-threaded operator are always executed asynchronously by a single thread.
+     * @param operatorName name of the operator
+     * @param numThreads number of threads
+     * @return this options object
+     */
+    public EPDataFlowInstantiationOptions operatorThreads(String operatorName, int numThreads) {
+        if (operatorThreads == null) {
+            operatorThreads = new HashMap<String, Integer>();
+        }
+        operatorThreads.put(operatorName, numThreads);
+        return this;
+    }
+
+    /**
+     * Returns the number of threads per operator name for asynchronously-executing operators.
+     * @return threads per operator name
+     */
+    public Map<String, Integer> getOperatorThreads() {
+        return operatorThreads;
+    }
+
+    /**
+     * Sets the number of threads per operator name for asynchronously-executing operators.
+     * @param operatorThreads threads per operator name
+     */
+    public void setOperatorThreads(Map<String, Integer> operatorThreads) {
+        this.operatorThreads = operatorThreads;
+    }
 }
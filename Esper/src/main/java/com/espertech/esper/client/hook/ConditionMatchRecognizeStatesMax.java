@@ -0,0 +1,37 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.client.hook;
+
+/**
+ * Indicates that the match-recognize partial match states of a statement, or of a context partition of a statement
+ * declared with a context, have reached the configured limit at runtime. Reported once each time the limit is reached.
+ */
+public class ConditionMatchRecognizeStatesMax implements BaseCondition
+{
+    private final long max;
+
+    /**
+     * Ctor.
+     * @param max limit reached
+     */
+    public ConditionMatchRecognizeStatesMax(long max) {
+        this.max = max;
+    }
+
+    /**
+     * Returns the limit reached.
+     * @return limit
+     */
+    public long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,48 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.client.time;
+
+import java.io.Serializable;
+
+/**
+ * Event and the timestamp that engine time advances to before the event is processed, for use with
+ * {@link com.espertech.esper.client.EPRuntime#replay(java.util.Iterator, boolean)}.
+ */
+public final class ReplayEvent implements Serializable
+{
+    private static final long serialVersionUID = 2370874617227640924L;
+    private final long timestamp;
+    private final Object event;
+
+    /**
+     * Ctor.
+     * @param timestamp engine time in milliseconds at which the event is processed
+     * @param event event to process, or null to only advance time
+     */
+    public ReplayEvent(long timestamp, Object event) {
+        this.timestamp = timestamp;
+        this.event = event;
+    }
+
+    /**
+     * Returns the engine time in milliseconds at which the event is processed.
+     * @return timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the event to process, or null to only advance time.
+     * @return event
+     */
+    public Object getEvent() {
+        return event;
+    }
+}
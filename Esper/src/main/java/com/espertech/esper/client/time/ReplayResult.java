@@ -0,0 +1,91 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.client.time;
+
+import java.io.Serializable;
+
+/**
+ * Result of a replay via {@link com.espertech.esper.client.EPRuntime#replay(java.util.Iterator, boolean)}.
+ */
+public final class ReplayResult implements Serializable
+{
+    private static final long serialVersionUID = -4851392045937421270L;
+    private final long numEvents;
+    private final long numScheduleEvaluations;
+    private final long elapsedNanos;
+    private final long endTime;
+
+    /**
+     * Ctor.
+     * @param numEvents number of events processed
+     * @param numScheduleEvaluations number of times that schedules were evaluated
+     * @param elapsedNanos wall time spent in nanoseconds
+     * @param endTime engine time in milliseconds after the replay
+     */
+    public ReplayResult(long numEvents, long numScheduleEvaluations, long elapsedNanos, long endTime) {
+        this.numEvents = numEvents;
+        this.numScheduleEvaluations = numScheduleEvaluations;
+        this.elapsedNanos = elapsedNanos;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Returns the number of events processed.
+     * @return number of events
+     */
+    public long getNumEvents() {
+        return numEvents;
+    }
+
+    /**
+     * Returns the number of times that schedules were evaluated, each time being a point in engine time
+     * at which at least one schedule was due.
+     * @return number of schedule evaluations
+     */
+    public long getNumScheduleEvaluations() {
+        return numScheduleEvaluations;
+    }
+
+    /**
+     * Returns the wall time spent in nanoseconds.
+     * @return elapsed nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the engine time in milliseconds after the replay.
+     * @return engine time
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns the number of events processed per second of wall time.
+     * @return events per second
+     */
+    public double getEventsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return numEvents * 1000000000d / elapsedNanos;
+    }
+
+    public String toString() {
+        return "ReplayResult{" +
+                "numEvents=" + numEvents +
+                ", numScheduleEvaluations=" + numScheduleEvaluations +
+                ", elapsedNanos=" + elapsedNanos +
+                ", endTime=" + endTime +
+                ", eventsPerSecond=" + getEventsPerSecond() +
+                '}';
+    }
+}
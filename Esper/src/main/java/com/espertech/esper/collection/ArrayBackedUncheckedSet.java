@@ -0,0 +1,138 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set backed by an array that does not check for duplicates when adding elements, for use
+ * where the caller guarantees that elements are unique, such as join results that originate
+ * from a single stream's lookup.
+ * <p>
+ * Preserves insertion order. Removal through the iterator nulls the slot and the array is compacted
+ * when elements are next added or iterated.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class ArrayBackedUncheckedSet<T> extends AbstractSet<T>
+{
+    private Object[] handles;
+    private int count;
+    private int removed;
+
+    /**
+     * Ctor.
+     * @param initialSize is the initial size of the backing array.
+     */
+    public ArrayBackedUncheckedSet(int initialSize)
+    {
+        this.handles = new Object[initialSize < 1 ? 1 : initialSize];
+    }
+
+    public boolean add(T object)
+    {
+        if (removed > 0)
+        {
+            compact();
+        }
+        if (count == handles.length)
+        {
+            Object[] newHandles = new Object[handles.length * 2];
+            System.arraycopy(handles, 0, newHandles, 0, count);
+            handles = newHandles;
+        }
+        handles[count++] = object;
+        return true;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            handles[i] = null;
+        }
+        count = 0;
+        removed = 0;
+    }
+
+    public int size()
+    {
+        return count - removed;
+    }
+
+    public boolean isEmpty()
+    {
+        return count == removed;
+    }
+
+    public Iterator<T> iterator()
+    {
+        if (removed > 0)
+        {
+            compact();
+        }
+        return new UncheckedSetIterator();
+    }
+
+    private void compact()
+    {
+        int target = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (handles[i] != null)
+            {
+                handles[target++] = handles[i];
+            }
+        }
+        for (int i = target; i < count; i++)
+        {
+            handles[i] = null;
+        }
+        count = target;
+        removed = 0;
+    }
+
+    private class UncheckedSetIterator implements Iterator<T>
+    {
+        private int next;
+        private int last = -1;
+
+        public boolean hasNext()
+        {
+            while (next < count && handles[next] == null)
+            {
+                next++;
+            }
+            return next < count;
+        }
+
+        public T next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            return (T) handles[next++];
+        }
+
+        public void remove()
+        {
+            if (last == -1 || handles[last] == null)
+            {
+                throw new IllegalStateException();
+            }
+            handles[last] = null;
+            removed++;
+            last = -1;
+        }
+    }
+}
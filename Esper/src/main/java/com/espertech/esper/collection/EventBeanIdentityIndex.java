@@ -0,0 +1,154 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Map of event to long value by event identity, using open addressing with linear probing into parallel arrays.
+ * <p>
+ * Does not call the event's hashCode or equals method and does not allocate per entry.
+ */
+public final class EventBeanIdentityIndex
+{
+    private final static int MIN_CAPACITY = 16;
+
+    private EventBean[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+    private int threshold;
+
+    /**
+     * Ctor.
+     */
+    public EventBeanIdentityIndex()
+    {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Adds or replaces the value for an event.
+     * @param theEvent key
+     * @param value value
+     */
+    public void put(EventBean theEvent, long value)
+    {
+        int index = hash(theEvent) & mask;
+        while (keys[index] != null)
+        {
+            if (keys[index] == theEvent)
+            {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = theEvent;
+        values[index] = value;
+        if (++size > threshold)
+        {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes an event.
+     * @param theEvent to remove
+     * @return value of the event or -1 if not found
+     */
+    public long remove(EventBean theEvent)
+    {
+        int index = hash(theEvent) & mask;
+        while (keys[index] != null)
+        {
+            if (keys[index] == theEvent)
+            {
+                long value = values[index];
+                delete(index);
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear()
+    {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    // backward-shift deletion keeps probe sequences intact without tombstones
+    private void delete(int index)
+    {
+        int gap = index;
+        int current = (index + 1) & mask;
+        while (keys[current] != null)
+        {
+            int home = hash(keys[current]) & mask;
+            if (((current - home) & mask) >= ((current - gap) & mask))
+            {
+                keys[gap] = keys[current];
+                values[gap] = values[current];
+                gap = current;
+            }
+            current = (current + 1) & mask;
+        }
+        keys[gap] = null;
+        size--;
+    }
+
+    private void resize(int capacity)
+    {
+        EventBean[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] == null)
+            {
+                continue;
+            }
+            int index = hash(oldKeys[i]) & mask;
+            while (keys[index] != null)
+            {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new EventBean[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        threshold = capacity / 2;
+    }
+
+    private static int hash(EventBean theEvent)
+    {
+        int h = System.identityHashCode(theEvent) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
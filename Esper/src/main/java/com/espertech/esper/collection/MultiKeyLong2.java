@@ -0,0 +1,82 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.MetaDefItem;
+
+import java.io.Serializable;
+
+/**
+ * Functions as a key value for Maps where keys are composed of two integral values, such as int or long
+ * group-by expressions, storing the values as primitives without an array of boxed objects.
+ */
+public final class MultiKeyLong2 implements MetaDefItem, Serializable
+{
+    private final long key1;
+    private final long key2;
+    private final int hashCode;
+    private static final long serialVersionUID = 6231487340198765412L;
+
+    /**
+     * Ctor.
+     * @param key1 is the first key value
+     * @param key2 is the second key value
+     */
+    public MultiKeyLong2(long key1, long key2)
+    {
+        this.key1 = key1;
+        this.key2 = key2;
+        int total = 0;
+        total = total * 31 + (int) (key1 ^ (key1 >>> 32));
+        total = total * 31 + (int) (key2 ^ (key2 >>> 32));
+        this.hashCode = total;
+    }
+
+    /**
+     * Returns the first key value.
+     * @return key value
+     */
+    public long getKey1()
+    {
+        return key1;
+    }
+
+    /**
+     * Returns the second key value.
+     * @return key value
+     */
+    public long getKey2()
+    {
+        return key2;
+    }
+
+    public boolean equals(Object other)
+    {
+        if (other == this)
+        {
+            return true;
+        }
+        if (!(other instanceof MultiKeyLong2))
+        {
+            return false;
+        }
+        MultiKeyLong2 o = (MultiKeyLong2) other;
+        return key1 == o.key1 && key2 == o.key2;
+    }
+
+    public int hashCode()
+    {
+        return hashCode;
+    }
+
+    public String toString()
+    {
+        return "MultiKeyLong2[" + key1 + "," + key2 + "]";
+    }
+}
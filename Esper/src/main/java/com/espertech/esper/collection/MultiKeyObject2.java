@@ -0,0 +1,83 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.MetaDefItem;
+
+import java.io.Serializable;
+
+/**
+ * Functions as a key value for Maps where keys are composed of two objects, holding the
+ * objects in fields rather than in an array.
+ */
+public final class MultiKeyObject2 implements MetaDefItem, Serializable
+{
+    private final Object key1;
+    private final Object key2;
+    private final int hashCode;
+    private static final long serialVersionUID = -4402981256617730208L;
+
+    /**
+     * Ctor.
+     * @param key1 is the first key object, or null
+     * @param key2 is the second key object, or null
+     */
+    public MultiKeyObject2(Object key1, Object key2)
+    {
+        this.key1 = key1;
+        this.key2 = key2;
+        int total = 0;
+        total = total * 31 + (key1 == null ? 0 : key1.hashCode());
+        total = total * 31 + (key2 == null ? 0 : key2.hashCode());
+        this.hashCode = total;
+    }
+
+    /**
+     * Returns the first key object.
+     * @return key object
+     */
+    public Object getKey1()
+    {
+        return key1;
+    }
+
+    /**
+     * Returns the second key object.
+     * @return key object
+     */
+    public Object getKey2()
+    {
+        return key2;
+    }
+
+    public boolean equals(Object other)
+    {
+        if (other == this)
+        {
+            return true;
+        }
+        if (!(other instanceof MultiKeyObject2))
+        {
+            return false;
+        }
+        MultiKeyObject2 o = (MultiKeyObject2) other;
+        return (key1 == null ? o.key1 == null : key1.equals(o.key1)) &&
+               (key2 == null ? o.key2 == null : key2.equals(o.key2));
+    }
+
+    public int hashCode()
+    {
+        return hashCode;
+    }
+
+    public String toString()
+    {
+        return "MultiKeyObject2[" + key1 + "," + key2 + "]";
+    }
+}
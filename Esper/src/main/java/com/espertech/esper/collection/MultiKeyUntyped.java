@@ -35,6 +35,17 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable
             throw new IllegalArgumentException("The array of keys must not be null");
         }
 
+        this.hashCode = computeHashCode(keys);
+        this.keys = keys;
+    }
+
+    /**
+     * Computes the hash code for an array of key objects, as used by this class and by {@link MultiKeyUntypedProbe}.
+     * @param keys is an array of key objects
+     * @return hash code
+     */
+    public static int computeHashCode(Object[] keys)
+    {
         int total = 0;
         for (int i = 0; i < keys.length; i++)
         {
@@ -43,9 +54,7 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable
                 total ^= keys[i].hashCode();
             }
         }
-
-        this.hashCode = total;
-        this.keys = keys;
+        return total;
     }
 
     /**
@@ -120,6 +129,11 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable
             MultiKeyUntyped otherKeys = (MultiKeyUntyped) other;
             return Arrays.equals(keys, otherKeys.keys);
         }
+        if (other instanceof MultiKeyUntypedProbe)
+        {
+            MultiKeyUntypedProbe probe = (MultiKeyUntypedProbe) other;
+            return Arrays.equals(keys, probe.getKeys());
+        }
         return false;
     }
 
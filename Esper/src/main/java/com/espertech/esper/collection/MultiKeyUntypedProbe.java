@@ -0,0 +1,95 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+
+/**
+ * Reusable lookup key for Maps that use {@link MultiKeyUntyped} keys.
+ * <p>
+ * The probe is populated with key values for each lookup and is equal to any {@link MultiKeyUntyped} holding the
+ * same values, so that a lookup that finds an existing entry does not allocate.
+ * The probe must never be used as a key to store in a Map: use {@link #toKey()} to obtain an immutable key for that.
+ * Not thread-safe, the probe is meant for use by a single statement under its lock.
+ */
+public final class MultiKeyUntypedProbe
+{
+    private final Object[] keys;
+    private int hashCode;
+
+    /**
+     * Ctor.
+     * @param size number of key objects
+     */
+    public MultiKeyUntypedProbe(int size)
+    {
+        this.keys = new Object[size];
+    }
+
+    /**
+     * Sets the key object at the specified position, call {@link #computeHashCode()} after all keys are set.
+     * @param index is the array position
+     * @param key is the key object
+     */
+    public void set(int index, Object key)
+    {
+        keys[index] = key;
+    }
+
+    /**
+     * Computes the hash code for the current key objects.
+     */
+    public void computeHashCode()
+    {
+        hashCode = MultiKeyUntyped.computeHashCode(keys);
+    }
+
+    /**
+     * Returns the current key objects.
+     * @return key objects
+     */
+    public Object[] getKeys()
+    {
+        return keys;
+    }
+
+    /**
+     * Returns an immutable key holding a copy of the current key objects.
+     * @return key
+     */
+    public MultiKeyUntyped toKey()
+    {
+        Object[] copy = new Object[keys.length];
+        System.arraycopy(keys, 0, copy, 0, keys.length);
+        return new MultiKeyUntyped(copy);
+    }
+
+    public boolean equals(Object other)
+    {
+        if (other == this)
+        {
+            return true;
+        }
+        if (other instanceof MultiKeyUntyped)
+        {
+            return Arrays.equals(keys, ((MultiKeyUntyped) other).getKeys());
+        }
+        return false;
+    }
+
+    public int hashCode()
+    {
+        return hashCode;
+    }
+
+    public String toString()
+    {
+        return "MultiKeyUntypedProbe" + Arrays.asList(keys).toString();
+    }
+}
@@ -0,0 +1,118 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map backed by a {@link ConcurrentHashMap} that in addition allows a null key, for use where concurrent
+ * readers must not lock and keys may be null. Null values are not allowed.
+ * <p>
+ * Iterators are weakly consistent, same as for the backing map.
+ */
+public final class NullKeyConcurrentMap<K, V> extends AbstractMap<K, V>
+{
+    private final static Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, V> map;
+    private EntrySet entrySet;
+
+    /**
+     * Ctor.
+     */
+    public NullKeyConcurrentMap()
+    {
+        map = new ConcurrentHashMap<Object, V>();
+    }
+
+    public V get(Object key)
+    {
+        return map.get(key == null ? NULL_KEY : key);
+    }
+
+    public boolean containsKey(Object key)
+    {
+        return map.containsKey(key == null ? NULL_KEY : key);
+    }
+
+    public V put(K key, V value)
+    {
+        return map.put(key == null ? NULL_KEY : key, value);
+    }
+
+    public V remove(Object key)
+    {
+        return map.remove(key == null ? NULL_KEY : key);
+    }
+
+    public int size()
+    {
+        return map.size();
+    }
+
+    public boolean isEmpty()
+    {
+        return map.isEmpty();
+    }
+
+    public void clear()
+    {
+        map.clear();
+    }
+
+    public Collection<V> values()
+    {
+        return map.values();
+    }
+
+    public Set<Entry<K, V>> entrySet()
+    {
+        if (entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>>
+    {
+        public Iterator<Entry<K, V>> iterator()
+        {
+            final Iterator<Entry<Object, V>> it = map.entrySet().iterator();
+            return new Iterator<Entry<K, V>>()
+            {
+                public boolean hasNext()
+                {
+                    return it.hasNext();
+                }
+
+                public Entry<K, V> next()
+                {
+                    Entry<Object, V> entry = it.next();
+                    if (entry.getKey() == NULL_KEY)
+                    {
+                        return new SimpleImmutableEntry<K, V>(null, entry.getValue());
+                    }
+                    return (Entry<K, V>) entry;
+                }
+
+                public void remove()
+                {
+                    it.remove();
+                }
+            };
+        }
+
+        public int size()
+        {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Time window backed by a ring buffer of event and timestamp slots, one slot per event.
+ * The time is provided as long milliseconds by client classes.
+ * <p>
+ * It is assumed that the timestamp passed to the add method is ascending, as for {@link TimeWindow}.
+ * Expiry removes a contiguous range of slots starting at the oldest slot and copies the expired events into an exactly-sized
+ * array, without intermediate collections. The slot arrays are retained and reused, growing as needed.
+ * <p>
+ * When remove stream support is enabled, a reverse index by event identity maps each event to its sequence number
+ * so that removal of an event clears its slot. Cleared slots are skipped by iteration and expiry.
+ */
+public final class RingBufferTimeWindow implements Iterable<EventBean>
+{
+    private final static int INITIAL_CAPACITY = 16;
+
+    private final EventBeanIdentityIndex reverseIndex;
+    private long[] timestamps;
+    private EventBean[] events;
+    private int mask;
+    private int head;
+    private int size;
+    private long headSequence;
+
+    /**
+     * Ctor.
+     * @param isSupportRemoveStream true to indicate the time window should support effective removal of events
+     * in the window based on the remove stream events received, or false to not accomodate removal at all
+     */
+    public RingBufferTimeWindow(boolean isSupportRemoveStream)
+    {
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.events = new EventBean[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.reverseIndex = isSupportRemoveStream ? new EventBeanIdentityIndex() : null;
+    }
+
+    /**
+     * Adjust expiry dates.
+     * @param delta delta to adjust for
+     */
+    public void adjust(long delta)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            timestamps[(head + i) & mask] += delta;
+        }
+    }
+
+    /**
+     * Adds event to the time window for the specified timestamp.
+     * @param timestamp - the time slot for the event
+     * @param bean - event to add
+     */
+    public final void add(long timestamp, EventBean bean)
+    {
+        if (size == events.length)
+        {
+            grow();
+        }
+        int slot = (head + size) & mask;
+        timestamps[slot] = timestamp;
+        events[slot] = bean;
+        if (reverseIndex != null)
+        {
+            reverseIndex.put(bean, headSequence + size);
+        }
+        size++;
+    }
+
+    /**
+     * Removes the event from the window, if remove stream handling is enabled.
+     * @param theEvent to remove
+     */
+    public final void remove(EventBean theEvent)
+    {
+        if (reverseIndex == null)
+        {
+            throw new UnsupportedOperationException("Time window does not accept event removal");
+        }
+        long sequence = reverseIndex.remove(theEvent);
+        if (sequence == -1)
+        {
+            return;
+        }
+        events[(head + (int) (sequence - headSequence)) & mask] = null;
+        trimHead();
+    }
+
+    /**
+     * Return and remove events in time-slots earlier (less) then the timestamp passed in,
+     * returning the events expired.
+     * @param expireBefore is the timestamp from which on to keep events in the window
+     * @return array of events expired and removed from the window, or null if none expired
+     */
+    public final EventBean[] expireEvents(long expireBefore)
+    {
+        // determine the number of slots to expire and the number of events they hold
+        int numSlots = 0;
+        int numEvents = 0;
+        while (numSlots < size)
+        {
+            int slot = (head + numSlots) & mask;
+            if (timestamps[slot] >= expireBefore)
+            {
+                break;
+            }
+            if (events[slot] != null)
+            {
+                numEvents++;
+            }
+            numSlots++;
+        }
+        if (numSlots == 0)
+        {
+            return null;
+        }
+
+        EventBean[] expired = numEvents == 0 ? null : new EventBean[numEvents];
+        int count = 0;
+        for (int i = 0; i < numSlots; i++)
+        {
+            int slot = (head + i) & mask;
+            EventBean theEvent = events[slot];
+            if (theEvent != null)
+            {
+                expired[count++] = theEvent;
+                events[slot] = null;
+                if (reverseIndex != null)
+                {
+                    reverseIndex.remove(theEvent);
+                }
+            }
+        }
+        head = (head + numSlots) & mask;
+        headSequence += numSlots;
+        size -= numSlots;
+        trimHead();
+        return expired;
+    }
+
+    /**
+     * Returns event iterator.
+     * @return iterator over events currently in window
+     */
+    public final Iterator<EventBean> iterator()
+    {
+        return new RingBufferIterator();
+    }
+
+    /**
+     * Returns the oldest timestamp in the collection if there is at least one entry,
+     * else it returns null if the window is empty.
+     * @return null if empty, oldest timestamp if not empty
+     */
+    public final Long getOldestTimestamp()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+        return timestamps[head];
+    }
+
+    /**
+     * Returns true if the window is currently empty.
+     * @return true if empty, false if not
+     */
+    public final boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    // the oldest slot always holds an event, cleared slots at the head are released
+    private void trimHead()
+    {
+        while (size > 0 && events[head] == null)
+        {
+            head = (head + 1) & mask;
+            headSequence++;
+            size--;
+        }
+    }
+
+    private void grow()
+    {
+        int capacity = events.length << 1;
+        long[] newTimestamps = new long[capacity];
+        EventBean[] newEvents = new EventBean[capacity];
+        for (int i = 0; i < size; i++)
+        {
+            int slot = (head + i) & mask;
+            newTimestamps[i] = timestamps[slot];
+            newEvents[i] = events[slot];
+        }
+        timestamps = newTimestamps;
+        events = newEvents;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    private class RingBufferIterator implements Iterator<EventBean>
+    {
+        private int position;
+        private EventBean next;
+
+        private RingBufferIterator()
+        {
+            advance();
+        }
+
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        public EventBean next()
+        {
+            if (next == null)
+            {
+                throw new NoSuchElementException();
+            }
+            EventBean result = next;
+            advance();
+            return result;
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance()
+        {
+            next = null;
+            while (position < size)
+            {
+                EventBean candidate = events[(head + position) & mask];
+                position++;
+                if (candidate != null)
+                {
+                    next = candidate;
+                    return;
+                }
+            }
+        }
+    }
+}
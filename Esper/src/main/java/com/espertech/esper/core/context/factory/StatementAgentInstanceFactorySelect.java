@@ -75,6 +75,7 @@ public class StatementAgentInstanceFactorySelect implements StatementAgentInstan
     private final SubSelectStrategyCollection subSelectStrategyCollection;
     private final ViewResourceDelegateVerified viewResourceDelegate;
     private final OutputProcessViewFactory outputProcessViewFactory;
+    private final ExprEvaluator filterRootEval;
 
     public StatementAgentInstanceFactorySelect(int numStreams, ViewableActivator[] eventStreamParentViewableActivators, StatementContext statementContext, StatementSpecCompiled statementSpec, EPServicesContext services, StreamTypeService typeService, ViewFactoryChain[] unmaterializedViewChain, ResultSetProcessorFactoryDesc resultSetProcessorFactoryDesc, StreamJoinAnalysisResult joinAnalysisResult, boolean recoveringResilient, JoinSetComposerPrototype joinSetComposerPrototype, SubSelectStrategyCollection subSelectStrategyCollection, ViewResourceDelegateVerified viewResourceDelegate, OutputProcessViewFactory outputProcessViewFactory) {
         this.numStreams = numStreams;
@@ -90,6 +91,7 @@ public class StatementAgentInstanceFactorySelect implements StatementAgentInstan
         this.subSelectStrategyCollection = subSelectStrategyCollection;
         this.viewResourceDelegate = viewResourceDelegate;
         this.outputProcessViewFactory = outputProcessViewFactory;
+        this.filterRootEval = statementSpec.getFilterRootNode() == null ? null : ExprNodeCompiler.compile(statementSpec.getFilterRootNode(), statementContext.getConfigSnapshot());
     }
 
     public StatementAgentInstanceFactorySelectResult newContext(final AgentInstanceContext agentInstanceContext, boolean isRecoveringResilient)
@@ -312,7 +314,7 @@ public class StatementAgentInstanceFactorySelect implements StatementAgentInstan
         // Add filter view that evaluates the filter expression
         if (statementSpec.getFilterRootNode() != null)
         {
-            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode().getExprEvaluator(), agentInstanceContext);
+            FilterExprView filterView = new FilterExprView(filterRootEval, agentInstanceContext);
             finalView.addView(filterView);
             finalView = filterView;
         }
@@ -11,12 +11,21 @@
 
 package com.espertech.esper.core.context.mgr;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.*;
 import com.espertech.esper.core.context.util.ContextControllerSelectorUtil;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
 import com.espertech.esper.client.context.ContextPartitionState;
+import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.core.service.ExtensionServicesContext;
+import com.espertech.esper.core.thread.RingBufferExecutor;
 import com.espertech.esper.epl.spec.ContextDetailHashItem;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
 import com.espertech.esper.type.NumberSetParameter;
 
 import java.util.*;
@@ -33,11 +42,21 @@ public class ContextControllerHash implements ContextController, ContextControll
     protected ContextInternalFilterAddendum activationFilterAddendum;
     protected int currentSubpathId;
     protected List<NumberSetParameter> optionalPartitionRanges;
+    protected RingBufferExecutor[] partitionWorkers;
+    protected final ContextControllerPartitionReclaim reclaim;
 
     public ContextControllerHash(int pathId, ContextControllerLifecycleCallback activationCallback, ContextControllerHashFactory factory) {
         this.pathId = pathId;
         this.activationCallback = activationCallback;
         this.factory = factory;
+        this.reclaim = factory.getReclaimFactory() != null ? factory.getReclaimFactory().make() : null;
+        if (reclaim != null) {
+            reclaim.setAgingCallback(factory.getFactoryContext().getAgentInstanceContextCreate(), new ScheduleHandleCallback() {
+                public void scheduledTrigger(ExtensionServicesContext extensionServicesContext) {
+                    reclaimAged();
+                }
+            });
+        }
     }
 
     public void importContextPartitions(ContextControllerState state, int pathIdToUse, ContextInternalFilterAddendum filterAddendum, AgentInstanceSelector agentInstanceSelector) {
@@ -47,6 +66,9 @@ public class ContextControllerHash implements ContextController, ContextControll
     public void deletePath(ContextPartitionIdentifier identifier) {
         ContextPartitionIdentifierHash hash = (ContextPartitionIdentifierHash) identifier;
         partitionKeys.remove(hash.getHash());
+        if (reclaim != null) {
+            reclaim.remove(hash.getHash());
+        }
     }
 
     public void visitSelectedPartitions(ContextPartitionSelector contextPartitionSelector, ContextPartitionVisitor visitor) {
@@ -99,6 +121,7 @@ public class ContextControllerHash implements ContextController, ContextControll
     public void activate(EventBean optionalTriggeringEvent, Map<String, Object> optionalTriggeringPattern, ContextControllerState controllerState, ContextInternalFilterAddendum activationFilterAddendum, Integer importPathId) {
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
         this.activationFilterAddendum = activationFilterAddendum;
+        startPartitionWorkers();
 
         if (factoryContext.getNestingLevel() == 1) {
             controllerState = ContextControllerStateUtil.getRecoveryStates(factory.getStateCache(), factoryContext.getOutermostContextName());
@@ -158,13 +181,71 @@ public class ContextControllerHash implements ContextController, ContextControll
         }
     }
 
+    /**
+     * Assigns the agent instance of a context partition to the worker that owns the hash bucket, if parallel
+     * execution of context partitions is configured.
+     * @param handle agent instance handle
+     * @param hashId hash bucket
+     */
+    public void assignPartitionWorker(EPStatementAgentInstanceHandle handle, int hashId) {
+        if (partitionWorkers == null) {
+            return;
+        }
+        // each worker owns a contiguous range of buckets
+        int index = (int) ((long) hashId * partitionWorkers.length / factory.getHashedSpec().getGranularity());
+        handle.setOptionalPartitionWorker(partitionWorkers[Math.min(Math.max(index, 0), partitionWorkers.length - 1)]);
+    }
+
+    private void startPartitionWorkers() {
+        ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
+        if (partitionWorkers != null) {
+            return;
+        }
+        // nested contexts process on the sending thread, as their partitions are not assigned workers
+        if (!(activationCallback instanceof ContextManagerImpl)) {
+            return;
+        }
+        Hint hint = HintEnum.PARALLEL_CONTEXT_PARTITIONS.getHint(factoryContext.getAgentInstanceContextCreate().getStatementContext().getAnnotations());
+        if (hint == null) {
+            return;
+        }
+        int numThreads;
+        try {
+            numThreads = Integer.parseInt(HintEnum.PARALLEL_CONTEXT_PARTITIONS.getHintAssignedValue(hint).trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new EPException("Hint '" + HintEnum.PARALLEL_CONTEXT_PARTITIONS.getValue() + "' requires a number of threads: " + ex.getMessage(), ex);
+        }
+        numThreads = Math.min(numThreads, factory.getHashedSpec().getGranularity());
+        if (numThreads < 1) {
+            return;
+        }
+
+        // workers park when idle, so that idle partition workers do not each occupy a CPU
+        EPServicesContext services = factoryContext.getServicesContext();
+        partitionWorkers = new RingBufferExecutor[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            partitionWorkers[i] = new RingBufferExecutor(services.getEngineURI(), "Context-" + factoryContext.getContextName() + "-" + i, null, 1, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, services, null);
+        }
+    }
+
     public void setContextPartitionRange(List<NumberSetParameter> partitionRanges) {
         optionalPartitionRanges = partitionRanges;
     }
 
     public synchronized void create(int id, EventBean theEvent) {
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
-        if (partitionKeys.containsKey(id)) {
+        ContextControllerInstanceHandle existing = partitionKeys.get(id);
+        if (existing != null) {
+            if (reclaim != null) {
+                long time = factoryContext.getAgentInstanceContextCreate().getStatementContext().getSchedulingService().getTime();
+                reclaim.touch(id, time);
+                if (existing.getInstances().getState() == ContextPartitionState.STOPPED) {
+                    activationCallback.contextPartitionRehydrate(existing, this, theEvent, factory.getBinding().toByteArray(id));
+                    reclaimPartitions(reclaim.sweepExceeding());
+                    reclaim.scheduleAging(time);
+                }
+            }
             return;
         }
 
@@ -195,6 +276,32 @@ public class ContextControllerHash implements ContextController, ContextControll
         ContextControllerInstanceHandle handle = activationCallback.contextPartitionInstantiate(null, currentSubpathId, null, this, theEvent, null, id, properties, null, filterAddendumToUse, factory.getFactoryContext().isRecoveringResilient(), ContextPartitionState.STARTED);
         partitionKeys.put(id, handle);
         factory.getStateCache().addContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, currentSubpathId, handle.getContextPartitionOrPathId(), id, factory.getBinding());
+
+        if (reclaim != null) {
+            long time = factoryContext.getAgentInstanceContextCreate().getStatementContext().getSchedulingService().getTime();
+            reclaim.touch(id, time);
+            reclaimPartitions(reclaim.sweepExceeding());
+            reclaim.scheduleAging(time);
+        }
+    }
+
+    private synchronized void reclaimAged() {
+        long time = factory.getFactoryContext().getAgentInstanceContextCreate().getStatementContext().getSchedulingService().getTime();
+        reclaimPartitions(reclaim.sweepAged(time));
+        reclaim.scheduleAging(time);
+    }
+
+    // hash ids are bounded by the granularity, a reclaimed context partition keeps its handle and is restarted by the next event
+    private void reclaimPartitions(List<Object> ids) {
+        if (ids == null) {
+            return;
+        }
+        for (Object id : ids) {
+            ContextControllerInstanceHandle handle = partitionKeys.get(id);
+            if (handle != null) {
+                activationCallback.contextPartitionEvict(handle, factory.getBinding().toByteArray(id));
+            }
+        }
     }
 
     public ContextControllerFactory getFactory() {
@@ -212,6 +319,15 @@ public class ContextControllerHash implements ContextController, ContextControll
         }
         partitionKeys.clear();
         filterCallbacks.clear();
+        if (reclaim != null) {
+            reclaim.clear();
+        }
+        if (partitionWorkers != null) {
+            for (RingBufferExecutor worker : partitionWorkers) {
+                worker.destroy();
+            }
+            partitionWorkers = null;
+        }
         factory.getStateCache().removeContextParentPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId);
     }
 
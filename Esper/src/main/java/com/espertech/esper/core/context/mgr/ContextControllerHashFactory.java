@@ -13,6 +13,7 @@ package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierHash;
 import com.espertech.esper.collection.Pair;
@@ -42,6 +43,7 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
     private final ContextStatePathValueBinding binding;
 
     private Map<String, Object> contextBuiltinProps;
+    private ContextControllerPartitionReclaimFactory reclaimFactory;
 
     public ContextControllerHashFactory(ContextControllerFactoryContext factoryContext, ContextDetailHash hashedSpec, List<FilterSpecCompiled> filtersSpecsNestedContexts, ContextStateCache stateCache) {
         super(factoryContext);
@@ -66,6 +68,10 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
     public void validateFactory() throws ExprValidationException {
         validatePopulateContextDesc();
         contextBuiltinProps = ContextPropertyEventType.getHashType();
+        reclaimFactory = ContextControllerPartitionReclaimFactory.make(factoryContext);
+        if (reclaimFactory != null && hashedSpec.isPreallocate()) {
+            throw new ExprValidationException("For context '" + factoryContext.getContextName() + "' the hints '" + HintEnum.RECLAIM_PARTITION_AGED + "' and '" + HintEnum.RECLAIM_PARTITION_MAX + "' are not supported for a hash context that preallocates context partitions");
+        }
     }
 
     public ContextControllerStatementCtxCache validateStatement(ContextControllerStatementBase statement) throws ExprValidationException {
@@ -129,6 +135,10 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
         return hashedSpec;
     }
 
+    public ContextControllerPartitionReclaimFactory getReclaimFactory() {
+        return reclaimFactory;
+    }
+
     public Map<String, Object> getContextBuiltinProps() {
         return contextBuiltinProps;
     }
@@ -186,7 +196,12 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
 
             if (hashFunction == HashFunctionEnum.CONSISTENT_HASH_CRC32) {
                 if (item.getFunction().getParameters().size() > 1 || paramType != String.class) {
-                    getter = new ContextControllerHashedGetterCRC32Serialized(factoryContext.getAgentInstanceContextCreate().getStatementContext().getStatementName(), item.getFunction().getParameters(), hashedSpec.getGranularity());
+                    if (ContextControllerHashedGetterCRC32Direct.isSupported(item.getFunction().getParameters())) {
+                        getter = new ContextControllerHashedGetterCRC32Direct(factoryContext.getAgentInstanceContextCreate().getStatementContext().getStatementName(), item.getFunction().getParameters(), hashedSpec.getGranularity());
+                    }
+                    else {
+                        getter = new ContextControllerHashedGetterCRC32Serialized(factoryContext.getAgentInstanceContextCreate().getStatementContext().getStatementName(), item.getFunction().getParameters(), hashedSpec.getGranularity());
+                    }
                 }
                 else {
                     getter = new ContextControllerHashedGetterCRC32Single(eval, hashedSpec.getGranularity());
@@ -0,0 +1,205 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.zip.CRC32;
+
+/**
+ * Per-thread scratch state for consistent-hash getters: a reusable event array, byte buffer and checksum.
+ * <p>
+ * Values are written in the same big-endian layout as {@link java.io.DataOutputStream} so that the
+ * resulting hash codes are identical to those computed over the serialized form.
+ */
+public class ContextControllerHashedGetterCRC32Buffer {
+
+    private static final ThreadLocal<ContextControllerHashedGetterCRC32Buffer> buffers = new ThreadLocal<ContextControllerHashedGetterCRC32Buffer>() {
+        protected synchronized ContextControllerHashedGetterCRC32Buffer initialValue() {
+            return new ContextControllerHashedGetterCRC32Buffer();
+        }
+    };
+
+    private final EventBean[] events = new EventBean[1];
+    private final CRC32 crc = new CRC32();
+    private byte[] bytes = new byte[64];
+    private int length;
+
+    /**
+     * Returns the buffer for the current thread, reset for use.
+     * @return buffer
+     */
+    public static ContextControllerHashedGetterCRC32Buffer get() {
+        ContextControllerHashedGetterCRC32Buffer buffer = buffers.get();
+        buffer.length = 0;
+        return buffer;
+    }
+
+    /**
+     * Returns the reusable event array holding the single event provided.
+     * @param eventBean event
+     * @return array
+     */
+    public EventBean[] getEvents(EventBean eventBean) {
+        events[0] = eventBean;
+        return events;
+    }
+
+    /**
+     * Clear the event reference so that the event may be collected.
+     */
+    public void clearEvents() {
+        events[0] = null;
+    }
+
+    /**
+     * Discard all bytes written so far.
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    public void writeShort(int value) {
+        ensureCapacity(2);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    /**
+     * Write a string in modified UTF-8 preceded by a two-byte length, same as {@link java.io.DataOutputStream#writeUTF(String)}.
+     * @param value to write
+     * @return false if the encoded string exceeds the maximum length
+     */
+    public boolean writeUTF(String value) {
+        int strlen = value.length();
+        int utflen = 0;
+        for (int i = 0; i < strlen; i++) {
+            char c = value.charAt(i);
+            if ((c >= 0x0001) && (c <= 0x007F)) {
+                utflen++;
+            }
+            else if (c > 0x07FF) {
+                utflen += 3;
+            }
+            else {
+                utflen += 2;
+            }
+        }
+        if (utflen > 65535) {
+            return false;
+        }
+
+        ensureCapacity(utflen + 2);
+        bytes[length++] = (byte) (utflen >>> 8);
+        bytes[length++] = (byte) utflen;
+        for (int i = 0; i < strlen; i++) {
+            char c = value.charAt(i);
+            if ((c >= 0x0001) && (c <= 0x007F)) {
+                bytes[length++] = (byte) c;
+            }
+            else if (c > 0x07FF) {
+                bytes[length++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else {
+                bytes[length++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write a string in standard UTF-8 without a length prefix, same as {@link String#getBytes(String)} for the UTF-8 charset.
+     * Unpaired surrogates are written as '?'.
+     * @param value to write
+     */
+    public void writeUTF8(String value) {
+        int strlen = value.length();
+        ensureCapacity(strlen * 3);
+        for (int i = 0; i < strlen; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            }
+            else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < strlen && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c)) {
+                bytes[length++] = (byte) '?';
+            }
+            else {
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Compute the CRC32 checksum over the bytes written.
+     * @return checksum
+     */
+    public long crc32() {
+        crc.reset();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+
+    /**
+     * Compute the CRC32 checksum over the bytes provided, using the thread's checksum instance.
+     * @param value bytes
+     * @return checksum
+     */
+    public long crc32(byte[] value) {
+        crc.reset();
+        crc.update(value, 0, value.length);
+        return crc.getValue();
+    }
+
+    private void ensureCapacity(int required) {
+        if (length + required <= bytes.length) {
+            return;
+        }
+        int newSize = Math.max(bytes.length * 2, length + required);
+        byte[] newBytes = new byte[newSize];
+        System.arraycopy(bytes, 0, newBytes, 0, length);
+        bytes = newBytes;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.epl.expression.ExprEvaluator;
+import com.espertech.esper.epl.expression.ExprNode;
+import com.espertech.esper.util.JavaClassHelper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.List;
+
+/**
+ * Consistent hash getter for primitive, String and multi-field keys that computes the CRC32 directly over
+ * a reused per-thread buffer, without serializing the values.
+ * <p>
+ * The bytes hashed are the same as produced by {@link ContextControllerHashedGetterCRC32Serialized} and
+ * therefore partition assignment is identical and stable across engine instances and JVMs.
+ */
+public class ContextControllerHashedGetterCRC32Direct implements EventPropertyGetter {
+    private static final Log log = LogFactory.getLog(ContextControllerHashedGetterCRC32Direct.class);
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_FLOAT = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BYTE = 5;
+    private static final byte TYPE_SHORT = 6;
+    private static final byte TYPE_STRING = 7;
+    private static final byte TYPE_BOOLEAN = 8;
+
+    private final String statementName;
+    private final ExprEvaluator[] evaluators;
+    private final byte[] types;
+    private final int granularity;
+
+    public ContextControllerHashedGetterCRC32Direct(String statementName, List<ExprNode> nodes, int granularity) {
+        this.statementName = statementName;
+        evaluators = new ExprEvaluator[nodes.size()];
+        types = new byte[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            evaluators[i] = nodes.get(i).getExprEvaluator();
+            types[i] = getTypeCode(evaluators[i].getType());
+            if (types[i] < 0) {
+                throw new IllegalArgumentException("Unsupported type for direct hashing: " + evaluators[i].getType());
+            }
+        }
+        this.granularity = granularity;
+    }
+
+    /**
+     * Returns true if all expressions return types that can be hashed directly.
+     * @param nodes expressions
+     * @return indicator
+     */
+    public static boolean isSupported(List<ExprNode> nodes) {
+        for (ExprNode node : nodes) {
+            if (getTypeCode(node.getExprEvaluator().getType()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Object get(EventBean eventBean) throws PropertyAccessException {
+        ContextControllerHashedGetterCRC32Buffer buffer = ContextControllerHashedGetterCRC32Buffer.get();
+        EventBean[] events = buffer.getEvents(eventBean);
+        try {
+            for (int i = 0; i < evaluators.length; i++) {
+                Object value = evaluators[i].evaluate(events, true, null);
+                if (value == null) {
+                    continue;
+                }
+                switch (types[i]) {
+                    case TYPE_INT:
+                        buffer.writeInt((Integer) value);
+                        break;
+                    case TYPE_LONG:
+                        buffer.writeLong((Long) value);
+                        break;
+                    case TYPE_FLOAT:
+                        buffer.writeInt(Float.floatToIntBits((Float) value));
+                        break;
+                    case TYPE_DOUBLE:
+                        buffer.writeLong(Double.doubleToLongBits((Double) value));
+                        break;
+                    case TYPE_BYTE:
+                        buffer.writeByte((Byte) value);
+                        break;
+                    case TYPE_SHORT:
+                        buffer.writeShort((Short) value);
+                        break;
+                    case TYPE_STRING:
+                        if (!buffer.writeUTF((String) value)) {
+                            log.error("Exception serializing parameters for computing consistent hash for statement '" + statementName + "': encoded string too long");
+                            buffer.reset();
+                            i = evaluators.length;
+                        }
+                        break;
+                    case TYPE_BOOLEAN:
+                        buffer.writeByte((Boolean) value ? 1 : 0);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        finally {
+            buffer.clearEvents();
+        }
+
+        long value = buffer.crc32() % granularity;
+
+        int result = (int) value;
+        if (result >= 0) {
+            return result;
+        }
+        return -result;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return false;
+    }
+
+    public Object getFragment(EventBean eventBean) throws PropertyAccessException {
+        return null;
+    }
+
+    private static byte getTypeCode(Class type) {
+        if (type == null) {
+            return TYPE_NULL;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == Integer.class) {
+            return TYPE_INT;
+        }
+        if (boxed == Long.class) {
+            return TYPE_LONG;
+        }
+        if (boxed == Float.class) {
+            return TYPE_FLOAT;
+        }
+        if (boxed == Double.class) {
+            return TYPE_DOUBLE;
+        }
+        if (boxed == Byte.class) {
+            return TYPE_BYTE;
+        }
+        if (boxed == Short.class) {
+            return TYPE_SHORT;
+        }
+        if (boxed == String.class) {
+            return TYPE_STRING;
+        }
+        if (boxed == Boolean.class) {
+            return TYPE_BOOLEAN;
+        }
+        return -1;
+    }
+}
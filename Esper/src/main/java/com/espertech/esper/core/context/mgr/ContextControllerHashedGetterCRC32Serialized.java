@@ -23,7 +23,6 @@ import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.zip.CRC32;
 
 public class ContextControllerHashedGetterCRC32Serialized implements EventPropertyGetter {
     private static final Log log = LogFactory.getLog(ContextControllerHashedGetterCRC32Serialized.class);
@@ -61,9 +60,7 @@ public class ContextControllerHashedGetterCRC32Serialized implements EventProper
             bytes = new byte[0];
         }
 
-        CRC32 crc = new CRC32();
-        crc.update(bytes);
-        long value = crc.getValue() % granularity;
+        long value = ContextControllerHashedGetterCRC32Buffer.get().crc32(bytes) % granularity;
 
         int result = (int) value;
         if (result >= 0) {
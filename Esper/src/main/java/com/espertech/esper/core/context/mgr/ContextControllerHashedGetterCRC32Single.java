@@ -16,8 +16,6 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.PropertyAccessException;
 import com.espertech.esper.epl.expression.ExprEvaluator;
 
-import java.util.zip.CRC32;
-
 public class ContextControllerHashedGetterCRC32Single implements EventPropertyGetter {
 
     private final ExprEvaluator eval;
@@ -29,17 +27,22 @@ public class ContextControllerHashedGetterCRC32Single implements EventPropertyGe
     }
 
     public Object get(EventBean eventBean) throws PropertyAccessException {
-        EventBean[] events = new EventBean[] {eventBean};
-        String code = (String) eval.evaluate(events, true, null);
+        ContextControllerHashedGetterCRC32Buffer buffer = ContextControllerHashedGetterCRC32Buffer.get();
+        String code;
+        try {
+            code = (String) eval.evaluate(buffer.getEvents(eventBean), true, null);
+        }
+        finally {
+            buffer.clearEvents();
+        }
 
         long value;
         if (code == null) {
             value = 0;
         }
         else {
-            CRC32 crc = new CRC32();
-            crc.update(code.getBytes());
-            value = crc.getValue() % granularity;
+            buffer.writeUTF8(code);
+            value = buffer.crc32() % granularity;
         }
 
         int result = (int) value;
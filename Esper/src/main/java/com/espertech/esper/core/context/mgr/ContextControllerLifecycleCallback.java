@@ -37,4 +37,11 @@ public interface ContextControllerLifecycleCallback {
 
     public void contextPartitionTerminate(ContextControllerInstanceHandle contextNestedHandle,
                                           Map<String, Object> terminationProperties);
+
+    public boolean contextPartitionEvict(ContextControllerInstanceHandle existingHandle, byte[] payload);
+
+    public void contextPartitionRehydrate(ContextControllerInstanceHandle existingHandle,
+                                          ContextController originator,
+                                          EventBean triggeringEvent,
+                                          byte[] payload);
 }
@@ -0,0 +1,146 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.StatementAgentInstanceFilterVersion;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
+import com.espertech.esper.schedule.ScheduleSlot;
+
+import java.util.*;
+
+/**
+ * Tracks the last event time of the started context partitions of a keyed context controller, in least-recently-used
+ * order, and determines the context partitions to stop because they aged or because the number of started
+ * context partitions exceeds the maximum. Aging is evaluated by a schedule set for the oldest context partition.
+ * <p>
+ * Not thread-safe, the client controller synchronizes.
+ */
+public class ContextControllerPartitionReclaim {
+
+    private final long maxAgeMSec;
+    private final int maxResident;
+    private final LinkedHashMap<Object, Long> resident = new LinkedHashMap<Object, Long>(16, 0.75f, true);
+
+    private AgentInstanceContext agentInstanceContext;
+    private ScheduleSlot agingSlot;
+    private EPStatementHandleCallback agingHandle;
+    private boolean agingScheduled;
+
+    public ContextControllerPartitionReclaim(long maxAgeMSec, int maxResident) {
+        this.maxAgeMSec = maxAgeMSec;
+        this.maxResident = maxResident;
+    }
+
+    /**
+     * Provide the callback for evaluating aging, if aging applies.
+     * @param agentInstanceContext context of the create-context statement
+     * @param agingCallback callback that sweeps aged context partitions and schedules aging again
+     */
+    public void setAgingCallback(AgentInstanceContext agentInstanceContext, ScheduleHandleCallback agingCallback) {
+        if (maxAgeMSec <= 0) {
+            return;
+        }
+        this.agentInstanceContext = agentInstanceContext;
+        this.agingSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
+        EPStatementAgentInstanceHandle agentHandle = new EPStatementAgentInstanceHandle(agentInstanceContext.getStatementContext().getEpStatementHandle(), agentInstanceContext.getStatementContext().getDefaultAgentInstanceLock(), -1, new StatementAgentInstanceFilterVersion());
+        this.agingHandle = new EPStatementHandleCallback(agentHandle, agingCallback);
+    }
+
+    /**
+     * Record an event for the context partition.
+     * @param key partition key
+     * @param time engine time
+     */
+    public void touch(Object key, long time) {
+        resident.put(key, time);
+    }
+
+    /**
+     * Returns the partition keys of the context partitions to stop as the number of started context partitions
+     * exceeds the maximum, considering them stopped.
+     * @return keys, or null if none
+     */
+    public List<Object> sweepExceeding() {
+        if (maxResident <= 0 || resident.size() <= maxResident) {
+            return null;
+        }
+        List<Object> result = new ArrayList<Object>();
+        Iterator<Object> it = resident.keySet().iterator();
+        while (resident.size() > maxResident) {
+            result.add(it.next());
+            it.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the partition keys of the context partitions to stop as they aged, considering them stopped.
+     * To be called by the aging callback, which the call indicates as no longer scheduled.
+     * @param time engine time
+     * @return keys, or null if none
+     */
+    public List<Object> sweepAged(long time) {
+        agingScheduled = false;
+        List<Object> result = null;
+        long cutoff = time - maxAgeMSec;
+        Iterator<Map.Entry<Object, Long>> it = resident.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Object, Long> entry = it.next();
+            if (entry.getValue() > cutoff) {
+                break;
+            }
+            if (result == null) {
+                result = new ArrayList<Object>();
+            }
+            result.add(entry.getKey());
+            it.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Schedule the aging callback for when the least-recently used context partition ages, unless already scheduled.
+     * @param time engine time
+     */
+    public void scheduleAging(long time) {
+        if (agingHandle == null || agingScheduled || resident.isEmpty()) {
+            return;
+        }
+        long oldest = resident.values().iterator().next();
+        long delta = Math.max(1, oldest + maxAgeMSec - time);
+        agentInstanceContext.getStatementContext().getSchedulingService().add(delta, agingHandle, agingSlot);
+        agingScheduled = true;
+    }
+
+    /**
+     * Forget the context partition.
+     * @param key partition key
+     */
+    public void remove(Object key) {
+        resident.remove(key);
+    }
+
+    public int getNumResident() {
+        return resident.size();
+    }
+
+    public void clear() {
+        resident.clear();
+        if (agingScheduled) {
+            agentInstanceContext.getStatementContext().getSchedulingService().remove(agingHandle, agingSlot);
+            agingScheduled = false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
+import com.espertech.esper.epl.expression.ExprValidationException;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Factory for the reclaim policy of keyed context partitions, as provided by the
+ * {@link HintEnum#RECLAIM_PARTITION_AGED} and {@link HintEnum#RECLAIM_PARTITION_MAX} hints of the create-context statement.
+ */
+public class ContextControllerPartitionReclaimFactory {
+
+    private final long maxAgeMSec;
+    private final int maxResident;
+
+    public ContextControllerPartitionReclaimFactory(long maxAgeMSec, int maxResident) {
+        this.maxAgeMSec = maxAgeMSec;
+        this.maxResident = maxResident;
+    }
+
+    /**
+     * Returns the reclaim factory for the context, or null if no reclaim policy is declared.
+     * @param factoryContext context factory information
+     * @return factory or null
+     * @throws ExprValidationException if a hint value is invalid or the context is nested
+     */
+    public static ContextControllerPartitionReclaimFactory make(ContextControllerFactoryContext factoryContext) throws ExprValidationException {
+        Annotation[] annotations = factoryContext.getAgentInstanceContextCreate().getStatementContext().getAnnotations();
+        Hint agedHint = HintEnum.RECLAIM_PARTITION_AGED.getHint(annotations);
+        Hint maxHint = HintEnum.RECLAIM_PARTITION_MAX.getHint(annotations);
+        if (agedHint == null && maxHint == null) {
+            return null;
+        }
+        if (!factoryContext.getContextName().equals(factoryContext.getOutermostContextName())) {
+            throw new ExprValidationException("For context '" + factoryContext.getContextName() + "' the hints '" + HintEnum.RECLAIM_PARTITION_AGED + "' and '" + HintEnum.RECLAIM_PARTITION_MAX + "' are not supported for nested contexts");
+        }
+
+        long maxAgeMSec = -1;
+        if (agedHint != null) {
+            double seconds = parse(factoryContext, HintEnum.RECLAIM_PARTITION_AGED, HintEnum.RECLAIM_PARTITION_AGED.getHintAssignedValue(agedHint));
+            maxAgeMSec = Math.round(seconds * 1000d);
+            if (maxAgeMSec <= 0) {
+                throw new ExprValidationException("For context '" + factoryContext.getContextName() + "' expected a positive number of seconds for hint '" + HintEnum.RECLAIM_PARTITION_AGED + "'");
+            }
+        }
+
+        int maxResident = -1;
+        if (maxHint != null) {
+            double max = parse(factoryContext, HintEnum.RECLAIM_PARTITION_MAX, HintEnum.RECLAIM_PARTITION_MAX.getHintAssignedValue(maxHint));
+            if (max <= 0 || max > Integer.MAX_VALUE || max != Math.floor(max)) {
+                throw new ExprValidationException("For context '" + factoryContext.getContextName() + "' expected a positive integer number of context partitions for hint '" + HintEnum.RECLAIM_PARTITION_MAX + "'");
+            }
+            maxResident = (int) max;
+        }
+        return new ContextControllerPartitionReclaimFactory(maxAgeMSec, maxResident);
+    }
+
+    public ContextControllerPartitionReclaim make() {
+        return new ContextControllerPartitionReclaim(maxAgeMSec, maxResident);
+    }
+
+    private static double parse(ContextControllerFactoryContext factoryContext, HintEnum hint, String value) throws ExprValidationException {
+        if (value == null) {
+            throw new ExprValidationException("Required hint value for hint '" + hint + "' has not been provided");
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new ExprValidationException("For context '" + factoryContext.getContextName() + "' failed to parse hint value '" + value + "' for hint '" + hint + "' as a number");
+        }
+    }
+}
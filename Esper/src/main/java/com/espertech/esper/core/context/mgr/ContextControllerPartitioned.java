@@ -16,9 +16,11 @@ import com.espertech.esper.client.context.*;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.core.context.util.ContextControllerSelectorUtil;
 import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
+import com.espertech.esper.core.service.ExtensionServicesContext;
 import com.espertech.esper.client.context.ContextPartitionState;
 import com.espertech.esper.epl.spec.ContextDetailPartitionItem;
 import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
 import com.espertech.esper.type.NumberSetParameter;
 
 import java.util.*;
@@ -34,11 +36,20 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
     private ContextInternalFilterAddendum activationFilterAddendum;
     protected int currentSubpathId;
+    protected final ContextControllerPartitionReclaim reclaim;
 
     public ContextControllerPartitioned(int pathId, ContextControllerLifecycleCallback activationCallback, ContextControllerPartitionedFactory factory) {
         this.pathId = pathId;
         this.activationCallback = activationCallback;
         this.factory = factory;
+        this.reclaim = factory.getReclaimFactory() != null ? factory.getReclaimFactory().make() : null;
+        if (reclaim != null) {
+            reclaim.setAgingCallback(factory.getFactoryContext().getAgentInstanceContextCreate(), new ScheduleHandleCallback() {
+                public void scheduledTrigger(ExtensionServicesContext extensionServicesContext) {
+                    reclaimAged();
+                }
+            });
+        }
     }
 
     public void importContextPartitions(ContextControllerState state, int pathIdToUse, ContextInternalFilterAddendum filterAddendum, AgentInstanceSelector agentInstanceSelector) {
@@ -47,7 +58,11 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
     public void deletePath(ContextPartitionIdentifier identifier) {
         ContextPartitionIdentifierPartitioned partitioned = (ContextPartitionIdentifierPartitioned) identifier;
-        partitionKeys.remove(getKeyObjectForLookup(partitioned.getKeys()));
+        Object key = getKeyObjectForLookup(partitioned.getKeys());
+        partitionKeys.remove(key);
+        if (reclaim != null) {
+            reclaim.remove(key);
+        }
     }
 
     public void visitSelectedPartitions(ContextPartitionSelector contextPartitionSelector, ContextPartitionVisitor visitor) {
@@ -147,12 +162,18 @@ public class ContextControllerPartitioned implements ContextController, ContextC
         }
         partitionKeys.clear();
         filterCallbacks.clear();
+        if (reclaim != null) {
+            reclaim.clear();
+        }
         factory.getStateCache().removeContextParentPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId);
     }
 
     public synchronized void create(Object key, EventBean theEvent) {
-        boolean exists = partitionKeys.containsKey(key);
-        if (exists) {
+        ContextControllerInstanceHandle existing = partitionKeys.get(key);
+        if (existing != null) {
+            if (reclaim != null) {
+                reclaim.touch(key, factory.getFactoryContext().getAgentInstanceContextCreate().getStatementContext().getSchedulingService().getTime());
+            }
             return;
         }
 
@@ -175,6 +196,35 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
         Object[] keyObjectSaved = getKeyObjectsAccountForMultikey(key);
         factory.getStateCache().addContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, currentSubpathId, handle.getContextPartitionOrPathId(), keyObjectSaved, factory.getBinding());
+
+        if (reclaim != null) {
+            long time = factoryContext.getAgentInstanceContextCreate().getStatementContext().getSchedulingService().getTime();
+            reclaim.touch(key, time);
+            reclaimPartitions(reclaim.sweepExceeding());
+            reclaim.scheduleAging(time);
+        }
+    }
+
+    private synchronized void reclaimAged() {
+        long time = factory.getFactoryContext().getAgentInstanceContextCreate().getStatementContext().getSchedulingService().getTime();
+        reclaimPartitions(reclaim.sweepAged(time));
+        reclaim.scheduleAging(time);
+    }
+
+    // a reclaimed context partition is terminated and forgotten, the next event for its key starts a new context partition
+    private void reclaimPartitions(List<Object> keys) {
+        if (keys == null) {
+            return;
+        }
+        ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
+        for (Object key : keys) {
+            ContextControllerInstanceHandle handle = partitionKeys.remove(key);
+            if (handle == null) {
+                continue;
+            }
+            activationCallback.contextPartitionTerminate(handle, null);
+            factory.getStateCache().removeContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, handle.getSubPathId());
+        }
     }
 
     private Object[] getKeyObjectsAccountForMultikey(Object key) {
@@ -12,6 +12,7 @@
 package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierPartitioned;
 import com.espertech.esper.collection.MultiKeyUntyped;
@@ -39,6 +40,8 @@ public class ContextControllerPartitionedFactory extends ContextControllerFactor
     private final ContextStatePathValueBinding binding;
 
     private Map<String, Object> contextBuiltinProps;
+    private ContextControllerPartitionReclaimFactory reclaimFactory;
+    private boolean partitionKeyIndex;
 
     public ContextControllerPartitionedFactory(ContextControllerFactoryContext factoryContext, ContextDetailPartitioned segmentedSpec, List<FilterSpecCompiled> filtersSpecsNestedContexts, ContextStateCache stateCache) {
         super(factoryContext);
@@ -63,6 +66,9 @@ public class ContextControllerPartitionedFactory extends ContextControllerFactor
     public void validateFactory() throws ExprValidationException {
         Class[] propertyTypes = ContextControllerPartitionedUtil.validateContextDesc(factoryContext.getContextName(), segmentedSpec);
         contextBuiltinProps = ContextPropertyEventType.getPartitionType(segmentedSpec, propertyTypes);
+        partitionKeyIndex = factoryContext.getNestingLevel() == 1 &&
+                HintEnum.PARTITION_KEY_INDEX.getHint(factoryContext.getAgentInstanceContextCreate().getStatementContext().getAnnotations()) != null;
+        reclaimFactory = ContextControllerPartitionReclaimFactory.make(factoryContext);
     }
 
     public ContextControllerStatementCtxCache validateStatement(ContextControllerStatementBase statement) throws ExprValidationException {
@@ -73,14 +79,14 @@ public class ContextControllerPartitionedFactory extends ContextControllerFactor
 
     public void populateFilterAddendums(IdentityHashMap<FilterSpecCompiled, FilterValueSetParam[]> filterAddendum, ContextControllerStatementDesc statement, Object key, int contextId) {
         ContextControllerStatementCtxCacheFilters statementInfo = (ContextControllerStatementCtxCacheFilters) statement.getCaches()[factoryContext.getNestingLevel() - 1];
-        ContextControllerPartitionedUtil.populateAddendumFilters(key, statementInfo.getFilterSpecs(), segmentedSpec, statement.getStatement().getStatementSpec(), filterAddendum);
+        ContextControllerPartitionedUtil.populateAddendumFilters(key, statementInfo.getFilterSpecs(), segmentedSpec, statement.getStatement().getStatementSpec(), filterAddendum, partitionKeyIndex ? this : null);
     }
 
     public void populateContextInternalFilterAddendums(ContextInternalFilterAddendum filterAddendum, Object key) {
         if (filtersSpecsNestedContexts == null || filtersSpecsNestedContexts.isEmpty()) {
             return;
         }
-        ContextControllerPartitionedUtil.populateAddendumFilters(key, filtersSpecsNestedContexts, segmentedSpec, null, filterAddendum.getFilterAddendum());
+        ContextControllerPartitionedUtil.populateAddendumFilters(key, filtersSpecsNestedContexts, segmentedSpec, null, filterAddendum.getFilterAddendum(), null);
     }
 
     public FilterSpecLookupable getFilterLookupable(EventType eventType) {
@@ -111,6 +117,14 @@ public class ContextControllerPartitionedFactory extends ContextControllerFactor
         return segmentedSpec;
     }
 
+    public boolean isPartitionKeyIndex() {
+        return partitionKeyIndex;
+    }
+
+    public ContextControllerPartitionReclaimFactory getReclaimFactory() {
+        return reclaimFactory;
+    }
+
     public Map<String, Object> getContextBuiltinProps() {
         return contextBuiltinProps;
     }
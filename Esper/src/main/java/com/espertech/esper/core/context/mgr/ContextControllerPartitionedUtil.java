@@ -165,7 +165,8 @@ public class ContextControllerPartitionedUtil {
     }
 
     // Compare filters in statement with filters in segmented context, addendum filter compilation
-    public static void populateAddendumFilters(Object keyValue, List<FilterSpecCompiled> filtersSpecs, ContextDetailPartitioned segmentedSpec, StatementSpecCompiled optionalStatementSpecCompiled, IdentityHashMap<FilterSpecCompiled, FilterValueSetParam[]> addendums) {
+    // When a routing group is provided the key is matched through a router shared by all partitions of the group
+    public static void populateAddendumFilters(Object keyValue, List<FilterSpecCompiled> filtersSpecs, ContextDetailPartitioned segmentedSpec, StatementSpecCompiled optionalStatementSpecCompiled, IdentityHashMap<FilterSpecCompiled, FilterValueSetParam[]> addendums, Object optionalRoutingGroup) {
 
         // determine whether create-named-window
         boolean isCreateWindow = optionalStatementSpecCompiled != null && optionalStatementSpecCompiled.getCreateWindowDesc() != null;
@@ -185,7 +186,17 @@ public class ContextControllerPartitionedUtil {
                 }
 
                 List<FilterValueSetParam> addendumFilters = new ArrayList<FilterValueSetParam>(foundPartition.getPropertyNames().size());
-                if (foundPartition.getPropertyNames().size() == 1) {
+                if (optionalRoutingGroup != null) {
+                    EventType itemType = foundPartition.getFilterSpecCompiled().getFilterForEventType();
+                    EventPropertyGetter[] getters = new EventPropertyGetter[foundPartition.getPropertyNames().size()];
+                    for (int i = 0; i < getters.length; i++) {
+                        getters[i] = itemType.getGetter(foundPartition.getPropertyNames().get(i));
+                    }
+                    String firstPropertyName = foundPartition.getPropertyNames().get(0);
+                    FilterSpecLookupable lookupable = new FilterSpecLookupable(firstPropertyName, getters[0], itemType.getPropertyType(firstPropertyName));
+                    addendumFilters.add(new FilterValueSetParamRouted(lookupable, getters, keyValue, optionalRoutingGroup));
+                }
+                else if (foundPartition.getPropertyNames().size() == 1) {
                     String propertyName = foundPartition.getPropertyNames().get(0);
                     EventPropertyGetter getter = foundPartition.getFilterSpecCompiled().getFilterForEventType().getGetter(propertyName);
                     Class resultType = foundPartition.getFilterSpecCompiled().getFilterForEventType().getPropertyType(propertyName);
@@ -194,6 +194,45 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
         }
     }
 
+    public synchronized boolean contextPartitionEvict(ContextControllerInstanceHandle existingHandle, byte[] payload) {
+        ContextNestedHandleImpl handle = (ContextNestedHandleImpl) existingHandle;
+        ContextControllerTreeAgentInstanceList entry = agentInstances.get(handle.getContextPartitionOrPathId());
+        if (entry == null || entry.getState() != ContextPartitionState.STARTED) {
+            return false;
+        }
+        entry.setState(ContextPartitionState.STOPPED);
+        StatementAgentInstanceUtil.stopAgentInstances(entry.getAgentInstances(), null, servicesContext, false);
+        entry.clearAgentInstances();
+        ContextStatePathKey key = new ContextStatePathKey(1, 0, handle.getSubPathId());
+        ContextStatePathValue value = new ContextStatePathValue(handle.getContextPartitionOrPathId(), payload, ContextPartitionState.STOPPED);
+        rootContext.getFactory().getStateCache().updateContextPath(contextName, key, value);
+        return true;
+    }
+
+    public synchronized void contextPartitionRehydrate(ContextControllerInstanceHandle existingHandle, ContextController originator, EventBean triggeringEvent, byte[] payload) {
+        ContextNestedHandleImpl handle = (ContextNestedHandleImpl) existingHandle;
+        ContextControllerTreeAgentInstanceList entry = agentInstances.get(handle.getContextPartitionOrPathId());
+        if (entry == null || entry.getState() != ContextPartitionState.STOPPED) {
+            return;
+        }
+        entry.setState(ContextPartitionState.STARTED);
+        entry.getAgentInstances().clear();
+        for (Map.Entry<String, ContextControllerStatementDesc> statement : statements.entrySet()) {
+            AgentInstance instance = startStatement(handle.getContextPartitionOrPathId(), statement.getValue(), originator, entry.getInitPartitionKey(), entry.getInitContextProperties(), false);
+            entry.getAgentInstances().add(instance);
+        }
+        ContextStatePathKey key = new ContextStatePathKey(1, 0, handle.getSubPathId());
+        ContextStatePathValue value = new ContextStatePathValue(handle.getContextPartitionOrPathId(), payload, ContextPartitionState.STARTED);
+        rootContext.getFactory().getStateCache().updateContextPath(contextName, key, value);
+
+        // the statements did not see the event that caused the restart
+        if (triggeringEvent != null) {
+            for (AgentInstance instance : entry.getAgentInstances()) {
+                StatementAgentInstanceUtil.evaluateEventForStatement(servicesContext, triggeringEvent, null, instance.getAgentInstanceContext());
+            }
+        }
+    }
+
     public void contextPartitionNavigate(ContextControllerInstanceHandle existingHandle, ContextController originator, ContextControllerState controllerState, int exportedCPOrPathId, ContextInternalFilterAddendum filterAddendum, AgentInstanceSelector agentInstanceSelector, byte[] payload) {
         ContextControllerTreeAgentInstanceList entry = agentInstances.get(existingHandle.getContextPartitionOrPathId());
         if (entry == null) {
@@ -423,6 +462,9 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
 
         // activate
         StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient);
+        if (originator instanceof ContextControllerHash) {
+            ((ContextControllerHash) originator).assignPartitionWorker(result.getAgentInstanceContext().getEpStatementAgentInstanceHandle(), (Integer) partitionKey);
+        }
 
         // save only instance data
         return new AgentInstance(result.getStopCallback(), result.getAgentInstanceContext(), result.getFinalView());
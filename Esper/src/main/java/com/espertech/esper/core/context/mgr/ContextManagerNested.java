@@ -287,6 +287,14 @@ public class ContextManagerNested implements ContextManager, ContextControllerLi
         throw new UnsupportedOperationException();
     }
 
+    public boolean contextPartitionEvict(ContextControllerInstanceHandle existingHandle, byte[] payload) {
+        throw new UnsupportedOperationException("Context partition reclaim is not supported for nested contexts");
+    }
+
+    public void contextPartitionRehydrate(ContextControllerInstanceHandle existingHandle, ContextController originator, EventBean triggeringEvent, byte[] payload) {
+        throw new UnsupportedOperationException("Context partition reclaim is not supported for nested contexts");
+    }
+
     public void contextPartitionNavigate(ContextControllerInstanceHandle existingHandle, ContextController originator, ContextControllerState controllerState, int exportedCPOrPathId, ContextInternalFilterAddendum filterAddendum, AgentInstanceSelector agentInstanceSelector, byte[] payload) {
         ContextManagerNestedInstanceHandle nestedHandle = (ContextManagerNestedInstanceHandle) existingHandle;
 
@@ -15,6 +15,7 @@ import com.espertech.esper.core.service.EPStatementDispatch;
 import com.espertech.esper.core.service.EPStatementHandle;
 import com.espertech.esper.core.service.StatementAgentInstanceFilterVersion;
 import com.espertech.esper.core.service.StatementAgentInstanceLock;
+import com.espertech.esper.core.thread.RingBufferExecutor;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
 import com.espertech.esper.filter.FilterFaultHandler;
 
@@ -28,6 +29,7 @@ public class EPStatementAgentInstanceHandle {
 
     private final int hashCode;
     private FilterFaultHandler filterFaultHandler;
+    private RingBufferExecutor optionalPartitionWorker;
 
     public EPStatementAgentInstanceHandle(EPStatementHandle statementHandle, StatementAgentInstanceLock statementAgentInstanceLock, int agentInstanceId, StatementAgentInstanceFilterVersion statementFilterVersion) {
         this.statementHandle = statementHandle;
@@ -151,6 +153,23 @@ public class EPStatementAgentInstanceHandle {
         this.filterFaultHandler = filterFaultHandler;
     }
 
+    /**
+     * Returns the worker that owns the processing of events for the agent instance, or null if events
+     * are processed by the sending thread.
+     * @return worker or null
+     */
+    public RingBufferExecutor getOptionalPartitionWorker() {
+        return optionalPartitionWorker;
+    }
+
+    /**
+     * Sets the worker that owns the processing of events for the agent instance.
+     * @param optionalPartitionWorker worker or null
+     */
+    public void setOptionalPartitionWorker(RingBufferExecutor optionalPartitionWorker) {
+        this.optionalPartitionWorker = optionalPartitionWorker;
+    }
+
     public String getStatementId() {
         return statementHandle.getStatementId();
     }
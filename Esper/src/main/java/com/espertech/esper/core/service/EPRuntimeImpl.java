@@ -14,6 +14,8 @@ import com.espertech.esper.client.dataflow.EPDataFlowRuntime;
 import com.espertech.esper.client.soda.EPStatementObjectModel;
 import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.client.time.ReplayEvent;
+import com.espertech.esper.client.time.ReplayResult;
 import com.espertech.esper.client.time.TimerControlEvent;
 import com.espertech.esper.client.time.TimerEvent;
 import com.espertech.esper.client.util.EventRenderer;
@@ -33,6 +35,7 @@ import com.espertech.esper.epl.expression.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.ExprNodeSubselectDeclaredDotVisitor;
 import com.espertech.esper.epl.expression.ExprValidationException;
 import com.espertech.esper.epl.metric.MetricReportingPath;
+import com.espertech.esper.epl.named.NamedWindowService;
 import com.espertech.esper.epl.script.AgentInstanceScriptContext;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.epl.spec.util.StatementSpecRawAnalyzer;
@@ -79,6 +82,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     private ThreadLocal<ArrayBackedCollection<ScheduleHandle>> scheduleArrayThreadLocal;
     private ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> matchesPerStmtThreadLocal;
     private ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> schedulePerStmtThreadLocal;
+    private FireAndForgetQueryCache fireAndForgetQueryCache;
 
     /**
      * Constructor.
@@ -92,6 +96,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         isUsingExternalClocking = !this.services.getEngineSettingsService().getEngineSettings().getThreading().isInternalTimerEnabled();
         isSubselectPreeval = services.getEngineSettingsService().getEngineSettings().getExpression().isSelfSubselectPreeval();
         isPrioritized = services.getEngineSettingsService().getEngineSettings().getExecution().isPrioritized();
+        ConfigurationEngineDefaults.Execution execution = services.getEngineSettingsService().getEngineSettings().getExecution();
+        if (execution.getFireAndForgetPlanCacheSize() > 0)
+        {
+            fireAndForgetQueryCache = new FireAndForgetQueryCache(execution.getFireAndForgetPlanCacheSize(), execution.isFireAndForgetResultCache(), new FireAndForgetQueryCache.Compiler() {
+                public EPPreparedExecuteMethod compile(String epl) {
+                    return getExecuteMethod(epl, null);
+                }
+            });
+            services.getNamedWindowService().addObserver(fireAndForgetQueryCache);
+        }
         routedInternal = new AtomicLong();
         routedExternal = new AtomicLong();
         engineFilterAndDispatchTimeContext = new ExprEvaluatorContext()
@@ -191,7 +205,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            services.getThreadingService().submitInbound(InboundUnitType.EVENT, theEvent, null);
         }
         else
         {
@@ -215,7 +229,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            services.getThreadingService().submitInbound(InboundUnitType.DOM, document, null);
         }
         else
         {
@@ -261,7 +275,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            services.getThreadingService().submitInbound(InboundUnitType.MAP, map, mapEventTypeName);
         }
         else
         {
@@ -285,7 +299,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            services.getThreadingService().submitInbound(InboundUnitType.OBJECTARRAY, propertyValues, objectArrayEventTypeName);
         }
         else
         {
@@ -295,6 +309,164 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(Object[] objects) throws EPException
+    {
+        if (objects == null)
+        {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Object theEvent : objects)
+            {
+                sendEvent(theEvent);
+            }
+            return;
+        }
+
+        processEventBatch(objects);
+    }
+
+    public void sendEvents(Map[] maps, String mapEventTypeName) throws EPException
+    {
+        if (maps == null)
+        {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+        for (Map map : maps)
+        {
+            if (map == null)
+            {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Map map : maps)
+            {
+                sendEvent(map, mapEventTypeName);
+            }
+            return;
+        }
+        if (maps.length == 0)
+        {
+            return;
+        }
+
+        // resolve the type once for the batch
+        EventBean[] events = new EventBean[maps.length];
+        events[0] = wrapEvent(maps[0], mapEventTypeName);
+        EventType eventType = events[0].getEventType();
+        for (int i = 1; i < maps.length; i++)
+        {
+            events[i] = services.getEventAdapterService().adapterForTypedMap(maps[i], eventType);
+        }
+        processEventBatch(events);
+    }
+
+    public void sendEvents(Object[][] objectarrays, String objectArrayEventTypeName) throws EPException
+    {
+        if (objectarrays == null)
+        {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+        for (Object[] propertyValues : objectarrays)
+        {
+            if (propertyValues == null)
+            {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Object[] propertyValues : objectarrays)
+            {
+                sendEvent(propertyValues, objectArrayEventTypeName);
+            }
+            return;
+        }
+        if (objectarrays.length == 0)
+        {
+            return;
+        }
+
+        // resolve the type once for the batch
+        EventBean[] events = new EventBean[objectarrays.length];
+        events[0] = wrapEvent(objectarrays[0], objectArrayEventTypeName);
+        EventType eventType = events[0].getEventType();
+        for (int i = 1; i < objectarrays.length; i++)
+        {
+            events[i] = services.getEventAdapterService().adapterForTypedObjectArray(objectarrays[i], eventType);
+        }
+        processEventBatch(events);
+    }
+
+    public ReplayResult replay(Iterator<ReplayEvent> events, boolean batchDispatch) throws EPException
+    {
+        if (events == null)
+        {
+            throw new IllegalArgumentException("Invalid null event iterator");
+        }
+        if (!isUsingExternalClocking)
+        {
+            throw new EPException("Replay requires external clocking, please send a TimerControlEvent to disable the internal timer");
+        }
+
+        long startNanos = System.nanoTime();
+        long numEvents = 0;
+        long numScheduleEvaluations = 0;
+        List<Object> batch = batchDispatch ? new ArrayList<Object>() : null;
+        long batchTime = 0;
+
+        while (events.hasNext())
+        {
+            ReplayEvent replayEvent = events.next();
+            if (replayEvent == null)
+            {
+                continue;
+            }
+            long timestamp = replayEvent.getTimestamp();
+
+            // a run of events with the same timestamp completes when time advances
+            if ((batch != null) && (!batch.isEmpty()) && (timestamp != batchTime))
+            {
+                processEventBatch(batch.toArray());
+                batch.clear();
+            }
+
+            if (timestamp > services.getSchedulingService().getTime())
+            {
+                numScheduleEvaluations += advanceTimeToDueSchedules(timestamp);
+            }
+
+            Object theEvent = replayEvent.getEvent();
+            if (theEvent == null)
+            {
+                continue;
+            }
+            numEvents++;
+            if (batch != null)
+            {
+                batch.add(theEvent);
+                batchTime = timestamp;
+            }
+            else
+            {
+                processEvent(theEvent);
+            }
+        }
+
+        if ((batch != null) && (!batch.isEmpty()))
+        {
+            processEventBatch(batch.toArray());
+        }
+
+        return new ReplayResult(numEvents, numScheduleEvaluations, System.nanoTime() - startNanos, services.getSchedulingService().getTime());
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -596,6 +768,57 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    /**
+     * Advance time to the target time, evaluating schedules only at the points in time at which schedules are due.
+     * @param targetTime time to advance to
+     * @return number of schedule evaluations
+     */
+    private long advanceTimeToDueSchedules(long targetTime)
+    {
+        long numEvaluations = 0;
+        while (true)
+        {
+            Long nearest = services.getSchedulingService().getNearestTimeHandle();
+            if ((nearest == null) || (nearest > targetTime))
+            {
+                break;
+            }
+            if (nearest < services.getSchedulingService().getTime())
+            {
+                nearest = services.getSchedulingService().getTime();
+            }
+
+            services.getSchedulingService().setTime(nearest);
+
+            if (MetricReportingPath.isMetricsEnabled)
+            {
+                services.getMetricsReportingService().processTimeEvent(nearest);
+            }
+
+            processSchedule();
+
+            // Let listeners know of results
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route()
+            processThreadWorkQueue();
+            numEvaluations++;
+
+            if (nearest == targetTime)
+            {
+                break;
+            }
+        }
+
+        // no schedule is due until the target time, setting the time does not require evaluation
+        services.getSchedulingService().setTime(targetTime);
+        if (MetricReportingPath.isMetricsEnabled)
+        {
+            services.getMetricsReportingService().processTimeEvent(targetTime);
+        }
+        return numEvaluations;
+    }
+
     private void processSchedule()
     {
         ArrayBackedCollection<ScheduleHandle> handles = scheduleArrayThreadLocal.get();
@@ -760,7 +983,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         DualWorkQueue queues = threadWorkQueue.getThreadQueue();
 
         if (queues.getFrontQueue().isEmpty()) {
-            boolean haveDispatched = services.getNamedWindowService().dispatch(engineFilterAndDispatchTimeContext);
+            boolean haveDispatched = services.getNamedWindowService().dispatch(engineFilterAndDispatchTimeContext, true);
             if (haveDispatched)
             {
                 // Dispatch results to listeners
@@ -791,7 +1014,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 processThreadWorkQueueUnlatched(item);
             }
 
-            boolean haveDispatched = services.getNamedWindowService().dispatch(engineFilterAndDispatchTimeContext);
+            boolean haveDispatched = services.getNamedWindowService().dispatch(engineFilterAndDispatchTimeContext, true);
             if (haveDispatched)
             {
                 dispatch();
@@ -820,7 +1043,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 processThreadWorkQueueUnlatched(item);
             }
 
-            boolean haveDispatched = services.getNamedWindowService().dispatch(engineFilterAndDispatchTimeContext);
+            boolean haveDispatched = services.getNamedWindowService().dispatch(engineFilterAndDispatchTimeContext, true);
             if (haveDispatched)
             {
                 dispatch();
@@ -966,6 +1189,13 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 continue;
             }
 
+            // context partition owned by a worker
+            if (handle.getOptionalPartitionWorker() != null)
+            {
+                handle.getOptionalPartitionWorker().submitOrRunInline(new RouteUnitSingle(this, handleCallback, theEvent, version));
+                continue;
+            }
+
             if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
             {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
@@ -1002,7 +1232,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             EPStatementAgentInstanceHandle handle = entry.getKey();
             Object callbackList = entry.getValue();
 
-            if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
+            if (handle.getOptionalPartitionWorker() != null)
+            {
+                handle.getOptionalPartitionWorker().submitOrRunInline(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+            }
+            else if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
             {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
                 long wallTimeBefore = MetricUtil.getWall();
@@ -1039,6 +1273,103 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         stmtCallbacks.clear();
     }
 
+    /**
+     * Process a batch of unwrapped or wrapped events.
+     * <p>
+     * Runs of events are processed under a single acquisition of the engine lock and with a single listener dispatch
+     * at the end of each run, while the matches of each event are processed as for single events. A run ends when an
+     * event routes or inserts-into an event or produces a named window result, so that such work is processed before
+     * the next event, as for single events.
+     * @param events to process
+     */
+    private void processEventBatch(Object[] events)
+    {
+        // update-istream preprocessing acquires statement locks, and processes per event
+        if (internalEventRouter.isHasPreprocessing())
+        {
+            for (Object theEvent : events)
+            {
+                if (theEvent == null)
+                {
+                    log.fatal(".sendEvents Null object supplied");
+                    continue;
+                }
+                processEvent(theEvent);
+            }
+            return;
+        }
+
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        NamedWindowService namedWindowService = services.getNamedWindowService();
+
+        int index = 0;
+        while (index < events.length)
+        {
+            if (events[index] instanceof TimerEvent)
+            {
+                processTimeEvent((TimerEvent) events[index]);
+                index++;
+                continue;
+            }
+
+            services.getEventProcessingRWLock().acquireReadLock();
+            try
+            {
+                for (; index < events.length; index++)
+                {
+                    Object theEvent = events[index];
+                    if (theEvent == null)
+                    {
+                        log.fatal(".sendEvents Null object supplied");
+                        continue;
+                    }
+                    if (theEvent instanceof TimerEvent)
+                    {
+                        break;
+                    }
+
+                    EventBean eventBean;
+                    if (theEvent instanceof EventBean)
+                    {
+                        eventBean = (EventBean) theEvent;
+                    }
+                    else
+                    {
+                        eventBean = wrapEvent(theEvent);
+                    }
+
+                    processMatches(eventBean);
+
+                    // routed and inserted-into events, and named window results, are processed before the next event
+                    if ((!queues.getFrontQueue().isEmpty()) || (!queues.getBackQueue().isEmpty()) || (namedWindowService.isDispatchPending()))
+                    {
+                        index++;
+                        break;
+                    }
+                }
+            }
+            catch (RuntimeException ex)
+            {
+                matches.clear();
+                stmtCallbacks.clear();
+                throw new EPException(ex);
+            }
+            finally
+            {
+                services.getEventProcessingRWLock().releaseReadLock();
+            }
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into
+            processThreadWorkQueue();
+        }
+    }
+
     /**
      * Processing multiple schedule matches for a statement.
      * @param handle statement handle
@@ -1459,6 +1790,16 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     {
         try
         {
+            if (fireAndForgetQueryCache != null && epl != null)
+            {
+                FireAndForgetQueryCache.Entry entry = fireAndForgetQueryCache.get(epl);
+                if (entry == null)
+                {
+                    long generation = fireAndForgetQueryCache.getGeneration();
+                    entry = fireAndForgetQueryCache.put(epl, getExecuteMethod(epl, null), generation);
+                }
+                return new EPQueryResultImpl(entry.execute(contextPartitionSelectors));
+            }
             EPPreparedExecuteMethod executeMethod = getExecuteMethod(epl, model);
             EPPreparedQueryResult result = executeMethod.execute(contextPartitionSelectors);
             return new EPQueryResultImpl(result);
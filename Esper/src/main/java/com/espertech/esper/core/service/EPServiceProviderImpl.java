@@ -407,7 +407,9 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolTimerExec() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolInbound() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolRouteExec() ||
-                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound());
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound() ||
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolFireAndForget() ||
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolNamedWindowDispatch());
         
         if (engine != null)
         {
@@ -93,7 +93,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService, configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceType());
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineImportService engineImportService = makeEngineImportService(configSnapshot);
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
@@ -134,9 +134,10 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
 
         StatementLockFactory statementLockFactory = new StatementLockFactoryImpl(configSnapshot.getEngineDefaults().getExecution().isFairlock(), configSnapshot.getEngineDefaults().getExecution().isDisableLocking());
         StreamFactoryService streamFactoryService = StreamFactoryServiceProvider.newService(epServiceProvider.getURI(), configSnapshot.getEngineDefaults().getViewResources().isShareViews());
-        FilterServiceSPI filterService = FilterServiceProvider.newService();
+        FilterServiceSPI filterService = FilterServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getFilterServiceProfile());
         MetricReportingServiceImpl metricsReporting = new MetricReportingServiceImpl(configSnapshot.getEngineDefaults().getMetricsReporting(), epServiceProvider.getURI());
-        NamedWindowService namedWindowService = new NamedWindowServiceImpl(statementLockFactory, variableService, engineSettingsService.getEngineSettings().getExecution().isPrioritized(), eventProcessingRWLock, exceptionHandlingService, configSnapshot.getEngineDefaults().getLogging().isEnableQueryPlan(), metricsReporting);
+        ThreadingService threadingService = new ThreadingServiceImpl(configSnapshot.getEngineDefaults().getThreading());
+        NamedWindowService namedWindowService = new NamedWindowServiceImpl(statementLockFactory, variableService, engineSettingsService.getEngineSettings().getExecution().isPrioritized(), eventProcessingRWLock, exceptionHandlingService, configSnapshot.getEngineDefaults().getLogging().isEnableQueryPlan(), metricsReporting, threadingService);
 
         ValueAddEventService valueAddEventService = new ValueAddEventServiceImpl();
         valueAddEventService.init(configSnapshot.getRevisionEventTypes(), configSnapshot.getVariantStreams(), eventAdapterService, eventTypeIdGenerator);
@@ -144,8 +145,6 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         StatementEventTypeRef statementEventTypeRef = new StatementEventTypeRefImpl();
         StatementVariableRef statementVariableRef = new StatementVariableRefImpl(variableService);
 
-        ThreadingService threadingService = new ThreadingServiceImpl(configSnapshot.getEngineDefaults().getThreading());
-
         InternalEventRouterImpl internalEventRouterImpl = new InternalEventRouterImpl();
 
         StatementIsolationServiceImpl statementIsolationService = new StatementIsolationServiceImpl();
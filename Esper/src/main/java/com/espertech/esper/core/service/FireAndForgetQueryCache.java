@@ -0,0 +1,228 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.context.ContextPartitionSelector;
+import com.espertech.esper.core.start.EPPreparedExecuteMethod;
+import com.espertech.esper.core.start.EPPreparedExecuteMethodQuery;
+import com.espertech.esper.epl.named.NamedWindowLifecycleEvent;
+import com.espertech.esper.epl.named.NamedWindowLifecycleObserver;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Least-recently-used cache of compiled fire-and-forget queries keyed by EPL text, for use by the runtime's executeQuery.
+ * <p>
+ * Optionally retains the last result of a select query, returning a copy of it while the change versions of the named
+ * windows queried remain unchanged. Only select queries with deterministic expressions and without variables retain results,
+ * and change versions are tracked only for the named windows such queries read.
+ * <p>
+ * The cache is cleared when any named window is created or destroyed. A query compiled before such a change is not cached,
+ * since it may refer to a named window that no longer exists.
+ * <p>
+ * As a compiled query holds processing state, each cached query keeps a pool of compiled queries, compiling another one
+ * when concurrent executions find the pool empty, so that concurrent executions of the same query do not wait for each other.
+ */
+public class FireAndForgetQueryCache implements NamedWindowLifecycleObserver
+{
+    private final boolean isResultCache;
+    private final Compiler compiler;
+    private final LinkedHashMap<String, Entry> entries;
+    private long generation;
+
+    /**
+     * Ctor.
+     * @param maxSize maximum number of compiled queries to keep
+     * @param isResultCache whether to retain the last result of select queries
+     * @param compiler compiles additional instances of a cached query for concurrent executions
+     */
+    public FireAndForgetQueryCache(final int maxSize, boolean isResultCache, Compiler compiler)
+    {
+        this.isResultCache = isResultCache;
+        this.compiler = compiler;
+        this.entries = new LinkedHashMap<String, Entry>(Math.min(maxSize, 16), 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached query.
+     * @param epl EPL text
+     * @return cached query or null if not cached
+     */
+    public synchronized Entry get(String epl)
+    {
+        return entries.get(epl);
+    }
+
+    /**
+     * Returns the generation, which changes when any named window is created or destroyed.
+     * @return generation
+     */
+    public synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+    /**
+     * Adds a compiled query, returning the entry to use.
+     * @param epl EPL text
+     * @param executeMethod compiled query
+     * @param compileGeneration generation obtained before compiling the query
+     * @return entry, an existing entry if another thread compiled the same query concurrently,
+     * or an entry that is not cached if named windows were created or destroyed while compiling
+     */
+    public synchronized Entry put(String epl, EPPreparedExecuteMethod executeMethod, long compileGeneration)
+    {
+        if (compileGeneration != generation)
+        {
+            return new Entry(epl, compiler, executeMethod, null);
+        }
+        Entry existing = entries.get(epl);
+        if (existing != null)
+        {
+            return existing;
+        }
+        NamedWindowProcessor[] processors = null;
+        if (isResultCache && executeMethod instanceof EPPreparedExecuteMethodQuery)
+        {
+            EPPreparedExecuteMethodQuery query = (EPPreparedExecuteMethodQuery) executeMethod;
+            if (query.isResultDependsOnWindowsOnly())
+            {
+                processors = query.getProcessors();
+                for (NamedWindowProcessor processor : processors)
+                {
+                    processor.enableVersionTracking();
+                }
+            }
+        }
+        Entry entry = new Entry(epl, compiler, executeMethod, processors);
+        entries.put(epl, entry);
+        return entry;
+    }
+
+    /**
+     * Remove all cached queries.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * Returns the number of cached queries.
+     * @return size
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    public void observe(NamedWindowLifecycleEvent theEvent)
+    {
+        clear();
+    }
+
+    /**
+     * Compiles a fire-and-forget query.
+     */
+    public static interface Compiler
+    {
+        /**
+         * Compile the query.
+         * @param epl EPL text
+         * @return compiled query
+         */
+        public EPPreparedExecuteMethod compile(String epl);
+    }
+
+    /**
+     * Cached query, keeping a pool of compiled queries for concurrent executions and the last result, if retained.
+     */
+    public static class Entry
+    {
+        private final String epl;
+        private final Compiler compiler;
+        private final NamedWindowProcessor[] processors;
+        private final ConcurrentLinkedQueue<EPPreparedExecuteMethod> idle = new ConcurrentLinkedQueue<EPPreparedExecuteMethod>();
+        private volatile RetainedResult retained;
+
+        private Entry(String epl, Compiler compiler, EPPreparedExecuteMethod executeMethod, NamedWindowProcessor[] processors)
+        {
+            this.epl = epl;
+            this.compiler = compiler;
+            this.processors = processors;
+            this.idle.add(executeMethod);
+        }
+
+        /**
+         * Execute the query, or return the retained result if the named windows did not change.
+         * @param contextPartitionSelectors selectors or null
+         * @return result
+         */
+        public EPPreparedQueryResult execute(ContextPartitionSelector[] contextPartitionSelectors)
+        {
+            if (processors == null || contextPartitionSelectors != null)
+            {
+                return executePooled(contextPartitionSelectors);
+            }
+
+            // versions are taken before execution so that any concurrent change invalidates the result
+            long[] versions = new long[processors.length];
+            for (int i = 0; i < processors.length; i++)
+            {
+                versions[i] = processors[i].getVersion();
+            }
+            RetainedResult current = retained;
+            if (current == null || !Arrays.equals(versions, current.versions))
+            {
+                current = new RetainedResult(versions, executePooled(null));
+                retained = current;
+            }
+
+            EventBean[] events = current.result.getResult();
+            return new EPPreparedQueryResult(current.result.getEventType(), events == null ? null : events.clone());
+        }
+
+        // a compiled query that failed to execute is not returned to the pool, as its processing state is unknown
+        private EPPreparedQueryResult executePooled(ContextPartitionSelector[] contextPartitionSelectors)
+        {
+            EPPreparedExecuteMethod executeMethod = idle.poll();
+            if (executeMethod == null)
+            {
+                executeMethod = compiler.compile(epl);
+            }
+            EPPreparedQueryResult result = executeMethod.execute(contextPartitionSelectors);
+            idle.add(executeMethod);
+            return result;
+        }
+    }
+
+    private static class RetainedResult
+    {
+        private final long[] versions;
+        private final EPPreparedQueryResult result;
+
+        private RetainedResult(long[] versions, EPPreparedQueryResult result)
+        {
+            this.versions = versions;
+            this.result = result;
+        }
+    }
+}
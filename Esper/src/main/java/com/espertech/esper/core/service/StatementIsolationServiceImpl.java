@@ -15,7 +15,7 @@ import com.espertech.esper.client.EPServiceProviderIsolated;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.filter.FilterServiceProvider;
 import com.espertech.esper.filter.FilterServiceSPI;
-import com.espertech.esper.schedule.SchedulingServiceImpl;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
 import com.espertech.esper.schedule.SchedulingServiceSPI;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -60,8 +60,8 @@ public class StatementIsolationServiceImpl implements StatementIsolationService
             return serviceProviderIsolated;
         }
 
-        FilterServiceSPI filterService = FilterServiceProvider.newService();
-        SchedulingServiceSPI scheduleService = new SchedulingServiceImpl(epServicesContext.getTimeSource());
+        FilterServiceSPI filterService = FilterServiceProvider.newService(epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getFilterServiceProfile());
+        SchedulingServiceSPI scheduleService = SchedulingServiceProvider.newService(epServicesContext.getTimeSource(), epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getSchedulingServiceType());
         EPIsolationUnitServices services = new EPIsolationUnitServices(name, currentUnitId, filterService, scheduleService);
         serviceProviderIsolated = new EPServiceProviderIsolatedImpl(name, services, epServicesContext, isolatedProviders);
         isolatedProviders.put(name, serviceProviderIsolated);
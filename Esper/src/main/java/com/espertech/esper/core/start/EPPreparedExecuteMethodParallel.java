@@ -0,0 +1,123 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.start;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.ExprNode;
+import com.espertech.esper.epl.expression.ExprNodeUtility;
+import com.espertech.esper.epl.variable.VariableService;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel execution of fire-and-forget query work using the engine fire-and-forget fork-join pool.
+ */
+public class EPPreparedExecuteMethodParallel
+{
+    /**
+     * Minimum number of events per chunk when filtering a snapshot in parallel.
+     */
+    public final static int MIN_CHUNK_SIZE = 16384;
+
+    /**
+     * Returns true if a snapshot of the given size should be filtered in parallel.
+     * @param pool pool or null if not enabled
+     * @param size snapshot size
+     * @return indicator
+     */
+    public static boolean isParallelFilter(ForkJoinPool pool, int size) {
+        return pool != null && size >= 2 * MIN_CHUNK_SIZE;
+    }
+
+    /**
+     * Filter a snapshot by evaluating the filter expressions over chunks of the snapshot in parallel,
+     * preserving the order of events.
+     * @param pool pool to use
+     * @param snapshot events to filter
+     * @param filterExpressions filters
+     * @param exprEvaluatorContext evaluation context
+     * @param variableService for setting the variable version of pool threads
+     * @return filtered events
+     */
+    public static Collection<EventBean> filter(ForkJoinPool pool, Collection<EventBean> snapshot, final List<ExprNode> filterExpressions, final ExprEvaluatorContext exprEvaluatorContext, VariableService variableService) {
+        final List<EventBean> events = Arrays.asList(snapshot.toArray(new EventBean[snapshot.size()]));
+        int numChunks = Math.max(1, Math.min(pool.getParallelism() * 4, events.size() / MIN_CHUNK_SIZE));
+        int chunkSize = (events.size() + numChunks - 1) / numChunks;
+
+        List<Callable<ArrayDeque<EventBean>>> tasks = new ArrayList<Callable<ArrayDeque<EventBean>>>(numChunks);
+        for (int start = 0; start < events.size(); start += chunkSize) {
+            final List<EventBean> chunk = events.subList(start, Math.min(events.size(), start + chunkSize));
+            tasks.add(new Callable<ArrayDeque<EventBean>>() {
+                public ArrayDeque<EventBean> call() throws Exception {
+                    ArrayDeque<EventBean> result = new ArrayDeque<EventBean>(Math.min(chunk.size(), 16));
+                    ExprNodeUtility.applyFilterExpressionsIterable(chunk, filterExpressions, exprEvaluatorContext, result);
+                    return result;
+                }
+            });
+        }
+
+        List<ArrayDeque<EventBean>> results = invokeAll(pool, tasks, variableService);
+        int size = 0;
+        for (ArrayDeque<EventBean> result : results) {
+            size += result.size();
+        }
+        ArrayDeque<EventBean> filtered = new ArrayDeque<EventBean>(Math.max(size, 16));
+        for (ArrayDeque<EventBean> result : results) {
+            filtered.addAll(result);
+        }
+        return filtered;
+    }
+
+    /**
+     * Execute the tasks in the pool and return their results in task order.
+     * <p>
+     * Each task first sets the variable version of the pool thread, as pool threads
+     * otherwise read variable values of the version last set by the thread, if any.
+     * @param pool pool to use
+     * @param tasks tasks
+     * @param variableService for setting the variable version of pool threads
+     * @param <T> result type
+     * @return results
+     */
+    public static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks, final VariableService variableService) {
+        List<Callable<T>> versionedTasks = new ArrayList<Callable<T>>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            versionedTasks.add(new Callable<T>() {
+                public T call() throws Exception {
+                    variableService.setLocalVersion();
+                    return task.call();
+                }
+            });
+        }
+        List<Future<T>> futures = pool.invokeAll(versionedTasks);
+        List<T> results = new ArrayList<T>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted executing fire-and-forget query", e);
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new EPException("Failed to execute fire-and-forget query: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return results;
+    }
+}
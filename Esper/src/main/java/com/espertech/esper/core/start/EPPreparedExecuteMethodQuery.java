@@ -22,12 +22,16 @@ import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.epl.core.*;
 import com.espertech.esper.epl.expression.ExprNode;
+import com.espertech.esper.epl.expression.ExprNodeDeterministicVisitor;
 import com.espertech.esper.epl.expression.ExprNodeUtility;
 import com.espertech.esper.epl.expression.ExprValidationException;
 import com.espertech.esper.epl.join.base.*;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
 import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
 import com.espertech.esper.epl.spec.NamedWindowConsumerStreamSpec;
+import com.espertech.esper.epl.spec.OrderByItem;
+import com.espertech.esper.epl.spec.SelectClauseElementCompiled;
+import com.espertech.esper.epl.spec.SelectClauseExprCompiledSpec;
 import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.spec.StreamSpecCompiled;
 import com.espertech.esper.event.EventBeanReader;
@@ -42,6 +46,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Starts and provides the stop method for EPL statements.
@@ -59,6 +65,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
     private EventBeanReader eventBeanReader;
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final FilterSpecCompiled[] filters;
+    private final boolean deterministic;
 
     /**
      * Ctor.
@@ -174,6 +181,8 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
                 throw new ExprValidationException("Joins in runtime queries for context partitions are not supported");
             }
         }
+
+        deterministic = isDeterministic(statementSpec);
     }
 
     /**
@@ -185,6 +194,25 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         return resultSetProcessor.getResultEventType();
     }
 
+    /**
+     * Returns the named window processors for the streams.
+     * @return processors
+     */
+    public NamedWindowProcessor[] getProcessors()
+    {
+        return processors;
+    }
+
+    /**
+     * Returns indicator whether the query result depends only on the contents of the named windows,
+     * i.e. the query does not use variables and its expressions are deterministic.
+     * @return indicator
+     */
+    public boolean isResultDependsOnWindowsOnly()
+    {
+        return !statementSpec.isHasVariables() && deterministic;
+    }
+
     /**
      * Executes the prepared query.
      * @return query results
@@ -197,6 +225,11 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
             throw new IllegalArgumentException("Number of context partition selectors does not match the number of named windows in the from-clause");
         }
 
+        // variables are read using the version of the executing thread, pool threads set their own version
+        if (statementSpec.isHasVariables()) {
+            services.getVariableService().setLocalVersion();
+        }
+
         // handle non-context case
         if (statementSpec.getOptionalContextName() == null) {
 
@@ -217,12 +250,28 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         // context partition runtime query
         Collection<Integer> agentInstanceIds = EPPreparedExecuteMethodHelper.getAgentInstanceIds(processors[0], singleSelector, services.getContextManagementService(), statementSpec.getOptionalContextName());
 
-        // collect events and agent instances
-        for (int agentInstanceId : agentInstanceIds) {
-            NamedWindowProcessorInstance processorInstance = processors[0].getProcessorInstance(agentInstanceId);
-            if (processorInstance != null) {
-                Collection<EventBean> coll = processorInstance.getTailViewInstance().snapshot(filters[0], statementSpec.getAnnotations());
-                contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getTailViewInstance().getAgentInstanceContext()));
+        // collect events and agent instances, each context partition snapshot is taken under the partition's lock
+        ForkJoinPool pool = services.getThreadingService().getFireAndForgetPool();
+        if (pool != null && agentInstanceIds.size() > 1) {
+            List<Callable<ContextPartitionResult>> tasks = new ArrayList<Callable<ContextPartitionResult>>(agentInstanceIds.size());
+            for (int agentInstanceId : agentInstanceIds) {
+                final NamedWindowProcessorInstance processorInstance = processors[0].getProcessorInstance(agentInstanceId);
+                if (processorInstance != null) {
+                    tasks.add(new Callable<ContextPartitionResult>() {
+                        public ContextPartitionResult call() throws Exception {
+                            return getContextPartitionResult(processorInstance);
+                        }
+                    });
+                }
+            }
+            contextPartitionResults.addAll(EPPreparedExecuteMethodParallel.invokeAll(pool, tasks, services.getVariableService()));
+        }
+        else {
+            for (int agentInstanceId : agentInstanceIds) {
+                NamedWindowProcessorInstance processorInstance = processors[0].getProcessorInstance(agentInstanceId);
+                if (processorInstance != null) {
+                    contextPartitionResults.add(getContextPartitionResult(processorInstance));
+                }
             }
         }
 
@@ -230,9 +279,6 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         ArrayDeque<EventBean[]> events = new ArrayDeque<EventBean[]>();
         for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
             Collection<EventBean> snapshot = contextPartitionResult.getEvents();
-            if (statementSpec.getFilterRootNode() != null) {
-                snapshot = getFiltered(snapshot, Collections.singletonList(statementSpec.getFilterRootNode()));
-            }
             EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
             resultSetProcessor.setAgentInstanceContext(contextPartitionResult.getContext());
             UniformPair<EventBean[]> results = resultSetProcessor.processViewResult(rows, null, true);
@@ -243,6 +289,14 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         return new EPPreparedQueryResult(resultSetProcessor.getResultEventType(), EventBeanUtility.flatten(events));
     }
 
+    private ContextPartitionResult getContextPartitionResult(NamedWindowProcessorInstance processorInstance) {
+        Collection<EventBean> coll = processorInstance.getTailViewInstance().snapshot(filters[0], statementSpec.getAnnotations());
+        if (statementSpec.getFilterRootNode() != null) {
+            coll = getFiltered(coll, Collections.singletonList(statementSpec.getFilterRootNode()));
+        }
+        return new ContextPartitionResult(coll, processorInstance.getTailViewInstance().getAgentInstanceContext());
+    }
+
     private Collection<EventBean> getStreamFilterSnapshot(int streamNum, ContextPartitionSelector contextPartitionSelector) {
         final StreamSpecCompiled streamSpec = statementSpec.getStreamSpecs()[streamNum];
         NamedWindowConsumerStreamSpec namedSpec = (NamedWindowConsumerStreamSpec) streamSpec;
@@ -259,6 +313,25 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
 
         // collect events
         ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
+        ForkJoinPool pool = services.getThreadingService().getFireAndForgetPool();
+        if (pool != null && contextPartitions.size() > 1) {
+            final FilterSpecCompiled filter = filters[streamNum];
+            List<Callable<Collection<EventBean>>> tasks = new ArrayList<Callable<Collection<EventBean>>>(contextPartitions.size());
+            for (int agentInstanceId : contextPartitions) {
+                final NamedWindowProcessorInstance instance = namedWindowProcessor.getProcessorInstance(agentInstanceId);
+                if (instance != null) {
+                    tasks.add(new Callable<Collection<EventBean>>() {
+                        public Collection<EventBean> call() throws Exception {
+                            return instance.getTailViewInstance().snapshot(filter, statementSpec.getAnnotations());
+                        }
+                    });
+                }
+            }
+            for (Collection<EventBean> coll : EPPreparedExecuteMethodParallel.invokeAll(pool, tasks, services.getVariableService())) {
+                events.addAll(coll);
+            }
+            return events;
+        }
         for (int agentInstanceId : contextPartitions) {
             processorInstance = namedWindowProcessor.getProcessorInstance(agentInstanceId);
             if (processorInstance != null) {
@@ -336,11 +409,57 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
 
     private Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions)
     {
+        ForkJoinPool pool = services.getThreadingService().getFireAndForgetPool();
+        if (EPPreparedExecuteMethodParallel.isParallelFilter(pool, snapshot.size())) {
+            return EPPreparedExecuteMethodParallel.filter(pool, snapshot, filterExpressions, agentInstanceContext, services.getVariableService());
+        }
         ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
         ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
         return deque;
     }
 
+    private static boolean isDeterministic(StatementSpecCompiled statementSpec)
+    {
+        ExprNodeDeterministicVisitor visitor = new ExprNodeDeterministicVisitor();
+        for (SelectClauseElementCompiled element : statementSpec.getSelectClauseSpec().getSelectExprList())
+        {
+            if (element instanceof SelectClauseExprCompiledSpec)
+            {
+                ((SelectClauseExprCompiledSpec) element).getSelectExpression().accept(visitor);
+            }
+        }
+        for (StreamSpecCompiled streamSpec : statementSpec.getStreamSpecs())
+        {
+            for (ExprNode filter : ((NamedWindowConsumerStreamSpec) streamSpec).getFilterExpressions())
+            {
+                filter.accept(visitor);
+            }
+        }
+        if (statementSpec.getFilterRootNode() != null)
+        {
+            statementSpec.getFilterRootNode().accept(visitor);
+        }
+        if (statementSpec.getGroupByExpressions() != null)
+        {
+            for (ExprNode groupBy : statementSpec.getGroupByExpressions())
+            {
+                groupBy.accept(visitor);
+            }
+        }
+        if (statementSpec.getHavingExprRootNode() != null)
+        {
+            statementSpec.getHavingExprRootNode().accept(visitor);
+        }
+        if (statementSpec.getOrderByList() != null)
+        {
+            for (OrderByItem orderBy : statementSpec.getOrderByList())
+            {
+                orderBy.getExprNode().accept(visitor);
+            }
+        }
+        return visitor.isDeterministic();
+    }
+
     private static class ContextPartitionResult
     {
         private final Collection<EventBean> events;
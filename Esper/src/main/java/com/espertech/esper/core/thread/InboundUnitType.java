@@ -0,0 +1,35 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.thread;
+
+/**
+ * Type of event submitted for inbound processing.
+ */
+public enum InboundUnitType
+{
+    /**
+     * Any event object, including a Java object or an event bean.
+     */
+    EVENT,
+
+    /**
+     * XML DOM node.
+     */
+    DOM,
+
+    /**
+     * Map event with event type name.
+     */
+    MAP,
+
+    /**
+     * Object-array event with event type name.
+     */
+    OBJECTARRAY
+}
@@ -0,0 +1,74 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named window dispatch unit: processes the results of a named window for a consuming statement and
+ * then dispatches the listener results and routed events of the consuming statement on the same thread.
+ */
+public class NamedWindowDispatchUnit implements Runnable
+{
+    private static final Log log = LogFactory.getLog(NamedWindowDispatchUnit.class);
+
+    private final EPRuntimeImpl epRuntime;
+    private final Runnable consumerDispatch;
+    private final AtomicInteger backlog;
+    private final int capacity;
+
+    /**
+     * Ctor.
+     * @param epRuntime runtime to process
+     * @param consumerDispatch processing of the named window results by the consuming statement
+     * @param backlog number of units submitted to the dispatch thread and not yet completed, also the monitor that
+     * producers waiting for the backlog to fall below capacity wait on
+     * @param capacity backlog below which waiting producers are notified, or -1 for unbounded
+     */
+    public NamedWindowDispatchUnit(EPRuntimeImpl epRuntime, Runnable consumerDispatch, AtomicInteger backlog, int capacity)
+    {
+        this.epRuntime = epRuntime;
+        this.consumerDispatch = consumerDispatch;
+        this.backlog = backlog;
+        this.capacity = capacity;
+    }
+
+    public void run()
+    {
+        try
+        {
+            consumerDispatch.run();
+
+            epRuntime.dispatch();
+
+            epRuntime.processThreadWorkQueue();
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Unexpected error processing named window dispatch: " + e.getMessage(), e);
+        }
+        finally
+        {
+            if (backlog.decrementAndGet() == capacity - 1)
+            {
+                synchronized (backlog)
+                {
+                    backlog.notifyAll();
+                }
+            }
+        }
+    }
+}
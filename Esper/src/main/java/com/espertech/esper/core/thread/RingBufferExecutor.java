@@ -0,0 +1,439 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import com.espertech.esper.core.service.EPServicesContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executes work placed into the pre-allocated slots of a bounded lock-free ring buffer on a fixed set of threads.
+ * <p>
+ * Any number of threads may publish and consume. Each slot carries a sequence number that tells producers
+ * when the slot is free and consumers when it is published, so that producers and consumers only contend
+ * on a compare-and-set of their cursor. Neither side takes a lock or signals the other side,
+ * waiting threads follow the configured wait strategy instead.
+ * <p>
+ * Inbound events are placed into the slot directly, without allocating a unit of work per event.
+ * <p>
+ * A consuming thread of any ring buffer executor never waits to publish: when the ring is full, or when earlier work
+ * of the executor is already in overflow, it appends the work to an unbounded overflow list instead. Consuming threads
+ * publishing into each other's full rings would otherwise wait for each other forever. Overflow work is executed after
+ * the work that was published to the ring before it, so that work of a single publishing thread remains in order.
+ */
+public class RingBufferExecutor
+{
+    private static final Log log = LogFactory.getLog(RingBufferExecutor.class);
+
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+    private static final long PARK_NANOS = 50 * 1000;
+    private static final int SPIN_LIMIT = 100;
+    private static final ThreadLocal<RingBufferExecutor> consumingExecutor = new ThreadLocal<RingBufferExecutor>();
+
+    private final String name;
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+    private final ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy;
+    private final EPServicesContext services;
+    private final EPRuntimeImpl runtime;
+    private final Thread[] threads;
+    private final ArrayDeque<Slot> overflow = new ArrayDeque<Slot>();
+    private volatile boolean hasOverflow;
+    private volatile boolean shutdown;
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param name name of the pool
+     * @param capacity capacity, or null or non-positive for the default capacity, rounded up to a power of 2
+     * @param numThreads number of consuming threads
+     * @param waitStrategy strategy for waiting threads
+     * @param services engine services
+     * @param runtime runtime
+     */
+    public RingBufferExecutor(String engineURI, String name, Integer capacity, int numThreads, ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy, EPServicesContext services, EPRuntimeImpl runtime)
+    {
+        this.name = name;
+        this.waitStrategy = waitStrategy;
+        this.services = services;
+        this.runtime = runtime;
+
+        int size = 1;
+        int requested = (capacity == null || capacity <= 0 || capacity > (1 << 30)) ? DEFAULT_CAPACITY : capacity;
+        while (size < requested)
+        {
+            size <<= 1;
+        }
+        slots = new Slot[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+
+        if (engineURI == null)
+        {
+            engineURI = "default";
+        }
+        ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + engineURI + "-" + name);
+        EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, name, threadGroup, Thread.NORM_PRIORITY);
+        threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++)
+        {
+            threads[i] = threadFactory.newThread(new Runnable()
+            {
+                public void run()
+                {
+                    consumingExecutor.set(RingBufferExecutor.this);
+                    consume();
+                }
+            });
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Publish a unit of work.
+     * @param unit to execute
+     */
+    public void submit(Runnable unit)
+    {
+        publish(unit, null, null, null);
+    }
+
+    /**
+     * Publish a unit of work, or execute it on the calling thread if the calling thread is a consuming thread
+     * of this executor. A consuming thread that publishes to its own full ring would otherwise wait forever.
+     * @param unit to execute
+     */
+    public void submitOrRunInline(Runnable unit)
+    {
+        if (isConsumingThread())
+        {
+            unit.run();
+            return;
+        }
+        publish(unit, null, null, null);
+    }
+
+    /**
+     * Publish an inbound event.
+     * @param type type of event
+     * @param theEvent event
+     * @param eventTypeName event type name or null if not applicable
+     */
+    public void submitInbound(InboundUnitType type, Object theEvent, String eventTypeName)
+    {
+        publish(null, type, theEvent, eventTypeName);
+    }
+
+    /**
+     * Returns the number of published units not yet taken by a consuming thread.
+     * @return backlog
+     */
+    public int getBacklog()
+    {
+        long backlog = producerCursor.get() - consumerCursor.get();
+        return backlog < 0 ? 0 : (int) backlog;
+    }
+
+    /**
+     * Stop the consuming threads, discarding unprocessed work.
+     */
+    public void destroy()
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Shutting down ring buffer " + name);
+        }
+        shutdown = true;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Thread thread : threads)
+        {
+            try
+            {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining > 0)
+                {
+                    thread.join(remaining);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                log.error("Interruped awaiting termination", e);
+                break;
+            }
+        }
+        for (Slot slot : slots)
+        {
+            slot.clear();
+        }
+        synchronized (overflow)
+        {
+            if (!overflow.isEmpty())
+            {
+                log.info("Discarding " + overflow.size() + " overflow units of ring buffer " + name);
+            }
+            overflow.clear();
+            hasOverflow = false;
+        }
+    }
+
+    private void publish(Runnable unit, InboundUnitType type, Object theEvent, String eventTypeName)
+    {
+        boolean isConsumer = consumingExecutor.get() != null;
+        int idle = 0;
+        while (true)
+        {
+            if (shutdown)
+            {
+                log.info("Submit after shutdown of ring buffer " + name + ", discarding unit");
+                return;
+            }
+            if (isConsumer && hasOverflow)
+            {
+                if (addOverflow(unit, type, theEvent, eventTypeName))
+                {
+                    return;
+                }
+                continue;
+            }
+            long sequence = producerCursor.get();
+            int index = (int) sequence & mask;
+            long available = sequences.get(index) - sequence;
+            if (available == 0)
+            {
+                if (producerCursor.compareAndSet(sequence, sequence + 1))
+                {
+                    Slot slot = slots[index];
+                    slot.unit = unit;
+                    slot.type = type;
+                    slot.theEvent = theEvent;
+                    slot.eventTypeName = eventTypeName;
+                    sequences.set(index, sequence + 1);     // publish
+                    return;
+                }
+            }
+            else if (available < 0)
+            {
+                // full: a consuming thread must not wait, as the thread that drains the ring may be waiting for it
+                if (isConsumer && addOverflow(unit, type, theEvent, eventTypeName))
+                {
+                    return;
+                }
+                idle(idle);
+                if (idle < SPIN_LIMIT)
+                {
+                    idle++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the calling thread is a consuming thread of this executor.
+     * @return indicator
+     */
+    public boolean isConsumingThread()
+    {
+        return consumingExecutor.get() == this;
+    }
+
+    private boolean addOverflow(Runnable unit, InboundUnitType type, Object theEvent, String eventTypeName)
+    {
+        synchronized (overflow)
+        {
+            // the ring may have drained and the overflow executed since the caller looked, the caller then retries the ring
+            long sequence = producerCursor.get();
+            if (overflow.isEmpty() && sequences.get((int) sequence & mask) - sequence == 0)
+            {
+                return false;
+            }
+            Slot slot = new Slot();
+            slot.unit = unit;
+            slot.type = type;
+            slot.theEvent = theEvent;
+            slot.eventTypeName = eventTypeName;
+            slot.afterSequence = sequence;
+            overflow.add(slot);
+            hasOverflow = true;
+            return true;
+        }
+    }
+
+    private Slot pollOverflow()
+    {
+        synchronized (overflow)
+        {
+            Slot slot = overflow.peek();
+            if (slot == null || consumerCursor.get() < slot.afterSequence)
+            {
+                return null;
+            }
+            overflow.poll();
+            hasOverflow = !overflow.isEmpty();
+            return slot;
+        }
+    }
+
+    private void consume()
+    {
+        int idle = 0;
+        while (!shutdown)
+        {
+            long sequence = consumerCursor.get();
+            int index = (int) sequence & mask;
+            long available = sequences.get(index) - (sequence + 1);
+            if (available == 0)
+            {
+                if (consumerCursor.compareAndSet(sequence, sequence + 1))
+                {
+                    // copy out and release the slot before processing so producers can reuse it
+                    Slot slot = slots[index];
+                    Runnable unit = slot.unit;
+                    InboundUnitType type = slot.type;
+                    Object theEvent = slot.theEvent;
+                    String eventTypeName = slot.eventTypeName;
+                    slot.clear();
+                    sequences.set(index, sequence + mask + 1);
+
+                    if (unit != null)
+                    {
+                        unit.run();
+                    }
+                    else
+                    {
+                        processInbound(type, theEvent, eventTypeName);
+                    }
+                    idle = 0;
+
+                    if (hasOverflow)
+                    {
+                        consumeOverflow();
+                    }
+                }
+            }
+            else if (available < 0)
+            {
+                // empty
+                if (hasOverflow && consumeOverflow())
+                {
+                    idle = 0;
+                    continue;
+                }
+                idle(idle);
+                if (idle < SPIN_LIMIT)
+                {
+                    idle++;
+                }
+            }
+        }
+    }
+
+    private boolean consumeOverflow()
+    {
+        Slot slot = pollOverflow();
+        if (slot == null)
+        {
+            return false;
+        }
+        if (slot.unit != null)
+        {
+            slot.unit.run();
+        }
+        else
+        {
+            processInbound(slot.type, slot.theEvent, slot.eventTypeName);
+        }
+        return true;
+    }
+
+    private void processInbound(InboundUnitType type, Object theEvent, String eventTypeName)
+    {
+        try
+        {
+            switch (type)
+            {
+                case EVENT:
+                    runtime.processEvent(theEvent);
+                    break;
+                case DOM:
+                    runtime.processEvent(services.getEventAdapterService().adapterForDOM((org.w3c.dom.Node) theEvent));
+                    break;
+                case MAP:
+                    EventBean mapEvent = services.getEventAdapterService().adapterForMap((Map) theEvent, eventTypeName);
+                    runtime.processWrappedEvent(mapEvent);
+                    break;
+                default:
+                    EventBean objectArrayEvent = services.getEventAdapterService().adapterForObjectArray((Object[]) theEvent, eventTypeName);
+                    runtime.processWrappedEvent(objectArrayEvent);
+                    break;
+            }
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Unexpected error processing " + type + " event: " + e.getMessage(), e);
+        }
+    }
+
+    private void idle(int count)
+    {
+        switch (waitStrategy)
+        {
+            case BUSYSPIN:
+                break;
+            case YIELD:
+                Thread.yield();
+                break;
+            default:
+                // spin briefly before parking
+                if (count < SPIN_LIMIT)
+                {
+                    Thread.yield();
+                }
+                else
+                {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                break;
+        }
+    }
+
+    private static class Slot
+    {
+        private Runnable unit;
+        private InboundUnitType type;
+        private Object theEvent;
+        private String eventTypeName;
+        private long afterSequence;
+
+        private void clear()
+        {
+            unit = null;
+            type = null;
+            theEvent = null;
+            eventTypeName = null;
+        }
+    }
+}
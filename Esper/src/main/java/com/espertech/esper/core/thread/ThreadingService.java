@@ -11,10 +11,12 @@
 
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -58,6 +60,15 @@ public interface ThreadingService
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Submit an event for inbound processing. With a ring buffer queue the event is placed into a
+     * pre-allocated slot, else a unit of work is allocated for the event.
+     * @param type type of the event
+     * @param theEvent event object, DOM node, Map or Object-array
+     * @param eventTypeName event type name for Map and Object-array events, or null
+     */
+    public void submitInbound(InboundUnitType type, Object theEvent, String eventTypeName);
+
     /**
      * Returns true for route execution threading enabled.
      * @return indicator
@@ -84,51 +95,77 @@ public interface ThreadingService
 
     /**
      * Returns the outbound queue.
-     * @return queue
+     * @return queue, or null when using the ring buffer queue type
      */
     public BlockingQueue<Runnable> getOutboundQueue();
 
     /**
      * Returns the outbound thread pool
-     * @return thread pool
+     * @return thread pool, or null when using the ring buffer queue type
      */
     public ThreadPoolExecutor getOutboundThreadPool();
 
     /**
      * Returns the route queue.
-     * @return queue
+     * @return queue, or null when using the ring buffer queue type
      */
     public BlockingQueue<Runnable> getRouteQueue();
 
     /**
      * Returns the route thread pool
-     * @return thread pool
+     * @return thread pool, or null when using the ring buffer queue type
      */
     public ThreadPoolExecutor getRouteThreadPool();
 
     /**
      * Returns the timer queue.
-     * @return queue
+     * @return queue, or null when using the ring buffer queue type
      */
     public BlockingQueue<Runnable> getTimerQueue();
 
     /**
      * Returns the timer thread pool
-     * @return thread pool
+     * @return thread pool, or null when using the ring buffer queue type
      */
     public ThreadPoolExecutor getTimerThreadPool();
 
     /**
      * Returns the inbound queue.
-     * @return queue
+     * @return queue, or null when using the ring buffer queue type
      */
     public BlockingQueue<Runnable> getInboundQueue();
 
     /**
      * Returns the inbound thread pool
-     * @return thread pool
+     * @return thread pool, or null when using the ring buffer queue type
      */
     public ThreadPoolExecutor getInboundThreadPool();
 
+    /**
+     * Returns the fork-join pool for fire-and-forget query execution.
+     * @return pool, or null when fire-and-forget query threading is not enabled
+     */
+    public ForkJoinPool getFireAndForgetPool();
+
+    /**
+     * Returns true for named window consumer dispatch threading.
+     * @return indicator
+     */
+    public boolean isNamedWindowDispatchThreading();
+
+    /**
+     * Submit named window results for processing by a consuming statement, the same statement is always
+     * processed by the same thread.
+     * @param handle consuming statement
+     * @param consumerDispatch processing of the named window results by the consuming statement
+     */
+    public void submitNamedWindowDispatch(EPStatementAgentInstanceHandle handle, Runnable consumerDispatch);
+
+    /**
+     * Wait until the named window dispatch threads have a backlog below the configured capacity, if any.
+     * Must not be called while holding the event processing lock. Returns immediately when called by a dispatch thread.
+     */
+    public void awaitNamedWindowDispatchCapacity();
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable);
 }
@@ -12,12 +12,15 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation for engine-level threading.
@@ -31,6 +34,8 @@ public class ThreadingServiceImpl implements ThreadingService
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isFireAndForgetThreading;
+    private final boolean isNamedWindowDispatchThreading;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -42,6 +47,21 @@ public class ThreadingServiceImpl implements ThreadingService
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private RingBufferExecutor timerRingBuffer;
+    private RingBufferExecutor inboundRingBuffer;
+    private RingBufferExecutor routeRingBuffer;
+    private RingBufferExecutor outboundRingBuffer;
+
+    private ForkJoinPool fireAndForgetPool;
+    private BlockingQueue<Runnable>[] namedWindowDispatchQueues;
+    private ThreadPoolExecutor[] namedWindowDispatchThreadPools;
+    private AtomicInteger[] namedWindowDispatchBacklogs;
+    private int namedWindowDispatchCapacity;
+    private String namedWindowDispatchThreadGroupPrefix;
+
+    private EPServicesContext services;
+    private EPRuntimeImpl runtime;
+
     /**
      * Ctor.
      * @param threadingConfig configuration
@@ -55,6 +75,8 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isFireAndForgetThreading = threadingConfig.isThreadPoolFireAndForget();
+            isNamedWindowDispatchThreading = threadingConfig.isThreadPoolNamedWindowDispatch();
         }
         else
         {
@@ -62,6 +84,8 @@ public class ThreadingServiceImpl implements ThreadingService
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isFireAndForgetThreading = false;
+            isNamedWindowDispatchThreading = false;
         }
     }
 
@@ -87,6 +111,40 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime)
     {
+        this.services = services;
+        this.runtime = runtime;
+
+        if (isFireAndForgetThreading)
+        {
+            fireAndForgetPool = getForkJoinPool(services.getEngineURI(), "FireAndForget", config.getThreadPoolFireAndForgetNumThreads());
+        }
+
+        if (isNamedWindowDispatchThreading)
+        {
+            // single-threaded pools so that each consuming statement sees results in order, the queues are unbounded
+            // as submitting happens under the event processing lock, and producers wait for capacity after releasing it
+            int numThreads = Math.max(1, config.getThreadPoolNamedWindowDispatchNumThreads());
+            Integer capacity = config.getThreadPoolNamedWindowDispatchCapacity();
+            namedWindowDispatchCapacity = (capacity == null || capacity <= 0 || capacity == Integer.MAX_VALUE) ? -1 : capacity;
+            namedWindowDispatchQueues = new BlockingQueue[numThreads];
+            namedWindowDispatchThreadPools = new ThreadPoolExecutor[numThreads];
+            namedWindowDispatchBacklogs = new AtomicInteger[numThreads];
+            for (int i = 0; i < numThreads; i++)
+            {
+                namedWindowDispatchQueues[i] = new LinkedBlockingQueue<Runnable>();
+                namedWindowDispatchThreadPools[i] = getThreadPool(services.getEngineURI(), "NamedWindowDispatch-" + i, namedWindowDispatchQueues[i], 1);
+                namedWindowDispatchBacklogs[i] = new AtomicInteger();
+            }
+            String engineURI = services.getEngineURI() == null ? "default" : services.getEngineURI();
+            namedWindowDispatchThreadGroupPrefix = "com.espertech.esper." + engineURI + "-NamedWindowDispatch-";
+        }
+
+        if (config.getThreadPoolQueue() == ConfigurationEngineDefaults.Threading.ThreadPoolQueue.RINGBUFFER)
+        {
+            initRingBuffers(services, runtime);
+            return;
+        }
+
         if (isInboundThreading)
         {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
@@ -112,6 +170,30 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    private void initRingBuffers(EPServicesContext services, EPRuntimeImpl runtime)
+    {
+        ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy = config.getThreadPoolWaitStrategy();
+        if (isInboundThreading)
+        {
+            inboundRingBuffer = new RingBufferExecutor(services.getEngineURI(), "Inbound", config.getThreadPoolInboundCapacity(), config.getThreadPoolInboundNumThreads(), waitStrategy, services, runtime);
+        }
+
+        if (isTimerThreading)
+        {
+            timerRingBuffer = new RingBufferExecutor(services.getEngineURI(), "TimerExec", config.getThreadPoolTimerExecCapacity(), config.getThreadPoolTimerExecNumThreads(), waitStrategy, services, runtime);
+        }
+
+        if (isRouteThreading)
+        {
+            routeRingBuffer = new RingBufferExecutor(services.getEngineURI(), "RouteExec", config.getThreadPoolRouteExecCapacity(), config.getThreadPoolRouteExecNumThreads(), waitStrategy, services, runtime);
+        }
+
+        if (isOutboundThreading)
+        {
+            outboundRingBuffer = new RingBufferExecutor(services.getEngineURI(), "Outbound", config.getThreadPoolOutboundCapacity(), config.getThreadPoolOutboundNumThreads(), waitStrategy, services, runtime);
+        }
+    }
+
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity)
     {
         if ((threadPoolTimerExecCapacity == null) ||
@@ -128,6 +210,11 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitRoute(RouteUnitRunnable unit)
     {
+        if (routeRingBuffer != null)
+        {
+            routeRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             routeQueue.put(unit);
@@ -140,6 +227,11 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitInbound(InboundUnitRunnable unit)
     {
+        if (inboundRingBuffer != null)
+        {
+            inboundRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             inboundQueue.put(unit);
@@ -152,6 +244,11 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitOutbound(OutboundUnitRunnable unit)
     {
+        if (outboundRingBuffer != null)
+        {
+            outboundRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             outboundQueue.put(unit);
@@ -164,6 +261,11 @@ public class ThreadingServiceImpl implements ThreadingService
 
     public void submitTimerWork(TimerUnit unit)
     {
+        if (timerRingBuffer != null)
+        {
+            timerRingBuffer.submit(unit);
+            return;
+        }
         try
         {
             timerQueue.put(unit);
@@ -174,6 +276,33 @@ public class ThreadingServiceImpl implements ThreadingService
         }
     }
 
+    public void submitInbound(InboundUnitType type, Object theEvent, String eventTypeName)
+    {
+        if (inboundRingBuffer != null)
+        {
+            inboundRingBuffer.submitInbound(type, theEvent, eventTypeName);
+            return;
+        }
+
+        InboundUnitRunnable unit;
+        switch (type)
+        {
+            case EVENT:
+                unit = new InboundUnitSendEvent(theEvent, runtime);
+                break;
+            case DOM:
+                unit = new InboundUnitSendDOM((org.w3c.dom.Node) theEvent, services, runtime);
+                break;
+            case MAP:
+                unit = new InboundUnitSendMap((Map) theEvent, eventTypeName, services, runtime);
+                break;
+            default:
+                unit = new InboundUnitSendObjectArray((Object[]) theEvent, eventTypeName, services, runtime);
+                break;
+        }
+        submitInbound(unit);
+    }
+
     public BlockingQueue<Runnable> getOutboundQueue()
     {
         return outboundQueue;
@@ -214,8 +343,79 @@ public class ThreadingServiceImpl implements ThreadingService
         return inboundThreadPool;
     }
 
+    public ForkJoinPool getFireAndForgetPool()
+    {
+        return fireAndForgetPool;
+    }
+
+    public boolean isNamedWindowDispatchThreading()
+    {
+        return isNamedWindowDispatchThreading;
+    }
+
+    public void submitNamedWindowDispatch(EPStatementAgentInstanceHandle handle, Runnable consumerDispatch)
+    {
+        int index = (handle.hashCode() & Integer.MAX_VALUE) % namedWindowDispatchQueues.length;
+        namedWindowDispatchBacklogs[index].incrementAndGet();
+        namedWindowDispatchQueues[index].add(new NamedWindowDispatchUnit(runtime, consumerDispatch, namedWindowDispatchBacklogs[index], namedWindowDispatchCapacity));
+    }
+
+    public void awaitNamedWindowDispatchCapacity()
+    {
+        if (namedWindowDispatchCapacity == -1)
+        {
+            return;
+        }
+        for (int i = 0; i < namedWindowDispatchBacklogs.length; i++)
+        {
+            AtomicInteger backlog = namedWindowDispatchBacklogs[i];
+            if (backlog.get() < namedWindowDispatchCapacity)
+            {
+                continue;
+            }
+
+            // dispatch threads do not wait, as the dispatch thread that drains the backlog may be waiting for them
+            if (Thread.currentThread().getThreadGroup().getName().startsWith(namedWindowDispatchThreadGroupPrefix))
+            {
+                return;
+            }
+            synchronized (backlog)
+            {
+                while (backlog.get() >= namedWindowDispatchCapacity && !namedWindowDispatchThreadPools[i].isShutdown())
+                {
+                    try
+                    {
+                        backlog.wait(100);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        log.info("Wait for named window dispatch capacity interrupted:" + e);
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
     public void destroy()
     {
+        if (timerRingBuffer != null)
+        {
+            timerRingBuffer.destroy();
+        }
+        if (routeRingBuffer != null)
+        {
+            routeRingBuffer.destroy();
+        }
+        if (outboundRingBuffer != null)
+        {
+            outboundRingBuffer.destroy();
+        }
+        if (inboundRingBuffer != null)
+        {
+            inboundRingBuffer.destroy();
+        }
         if (timerThreadPool != null)
         {
             stopPool(timerThreadPool, timerQueue, "TimerExec");
@@ -232,6 +432,40 @@ public class ThreadingServiceImpl implements ThreadingService
         {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (namedWindowDispatchThreadPools != null)
+        {
+            for (int i = 0; i < namedWindowDispatchThreadPools.length; i++)
+            {
+                stopPool(namedWindowDispatchThreadPools[i], namedWindowDispatchQueues[i], "NamedWindowDispatch-" + i);
+            }
+        }
+        if (fireAndForgetPool != null)
+        {
+            if (log.isInfoEnabled())
+            {
+                log.info("Shutting down pool FireAndForget");
+            }
+            fireAndForgetPool.shutdownNow();
+        }
+    }
+
+    private ForkJoinPool getForkJoinPool(String engineURI, final String name, int numThreads)
+    {
+        if (log.isInfoEnabled())
+        {
+            log.info("Starting pool " + name + " with " + numThreads + " threads");
+        }
+
+        final String engineURIName = engineURI == null ? "default" : engineURI;
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            private final AtomicInteger currThreadCount = new AtomicInteger();
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("com.espertech.esper." + name + "-" + engineURIName + "-" + currThreadCount.getAndIncrement());
+                return thread;
+            }
+        };
+        return new ForkJoinPool(Math.max(1, numThreads), factory, null, false);
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads)
@@ -11,15 +11,23 @@
 
 package com.espertech.esper.dataflow.core;
 
+import java.util.List;
+
 public class DataflowStartDesc {
 
     private final OperatorStatisticsProvider statisticsProvider;
+    private final List<OperatorChannelAsync> asyncChannels;
 
-    public DataflowStartDesc(OperatorStatisticsProvider statisticsProvider) {
+    public DataflowStartDesc(OperatorStatisticsProvider statisticsProvider, List<OperatorChannelAsync> asyncChannels) {
         this.statisticsProvider = statisticsProvider;
+        this.asyncChannels = asyncChannels;
     }
 
     public OperatorStatisticsProvider getStatisticsProvider() {
         return statisticsProvider;
     }
+
+    public List<OperatorChannelAsync> getAsyncChannels() {
+        return asyncChannels;
+    }
 }
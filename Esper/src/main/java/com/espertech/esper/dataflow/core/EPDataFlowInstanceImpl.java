@@ -41,12 +41,13 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
     private final Map<Integer, Object> operators;
     private final Set<Integer> operatorBuildOrder;
     private final EPDataFlowInstanceStatistics statisticsProvider;
+    private final List<OperatorChannelAsync> asyncChannels;
 
     private List<CountDownLatch> joinedThreadLatches;
     private List<Thread> threads;
     private Thread runCurrentThread;
 
-    public EPDataFlowInstanceImpl(String engineURI, String statementName, boolean audit, String dataFlowName, Object userObject, String instanceId, EPDataFlowState state, List<GraphSourceRunnable> sourceRunnables, Map<Integer, Object> operators, Set<Integer> operatorBuildOrder, EPDataFlowInstanceStatistics statisticsProvider) {
+    public EPDataFlowInstanceImpl(String engineURI, String statementName, boolean audit, String dataFlowName, Object userObject, String instanceId, EPDataFlowState state, List<GraphSourceRunnable> sourceRunnables, Map<Integer, Object> operators, Set<Integer> operatorBuildOrder, EPDataFlowInstanceStatistics statisticsProvider, List<OperatorChannelAsync> asyncChannels) {
         this.engineURI = engineURI;
         this.statementName = statementName;
         this.audit = audit;
@@ -57,6 +58,7 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
         this.operators = operators;
         this.operatorBuildOrder = operatorBuildOrder;
         this.statisticsProvider = statisticsProvider;
+        this.asyncChannels = asyncChannels;
         setState(state);
     }
 
@@ -83,6 +85,7 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
         setState(EPDataFlowState.RUNNING);
 
         callOperatorOpen();
+        startAsyncChannels();
 
         Map<String, Emitter> emitters = new HashMap<String, Emitter>();
         for (Object operator : operators.values()) {
@@ -105,7 +108,8 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
         }
 
         callOperatorOpen();
-        
+        startAsyncChannels();
+
         GraphSourceRunnable sourceRunnable = sourceRunnables.get(0);
         setState(EPDataFlowState.RUNNING);
         runCurrentThread = Thread.currentThread();
@@ -113,15 +117,18 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
             sourceRunnable.runSync();
         }
         catch (InterruptedException ex) {
+            shutdownAsyncChannels();
             callOperatorClose();
             setState(EPDataFlowState.CANCELLED);
             throw new EPDataFlowCancellationException("Data flow '" + dataFlowName + "' execution was cancelled", dataFlowName);
         }
         catch (Throwable t) {
+            shutdownAsyncChannels();
             callOperatorClose();
             setState(EPDataFlowState.COMPLETE);
             throw new EPDataFlowExecutionException("Exception encountered running data flow '" + dataFlowName + "': " + t.getMessage(), t, dataFlowName);
         }
+        drainAsyncChannels();
         callOperatorClose();
         if (state != EPDataFlowState.CANCELLED) {
             setState(EPDataFlowState.COMPLETE);
@@ -134,6 +141,7 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
         checkExecRunningState();
 
         callOperatorOpen();
+        startAsyncChannels();
 
         final AtomicInteger countdown = new AtomicInteger(sourceRunnables.size());
         threads = new ArrayList<Thread>();
@@ -215,6 +223,7 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
             runCurrentThread = null;
         }
 
+        shutdownAsyncChannels();
         callOperatorClose();
 
         setState(EPDataFlowState.CANCELLED);
@@ -222,6 +231,9 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
     }
 
     public synchronized void completed() {
+        // async operators finish processing before the instance reports completion
+        drainAsyncChannels();
+
         if (state != EPDataFlowState.CANCELLED) {
             setState(EPDataFlowState.COMPLETE);
         }
@@ -257,6 +269,31 @@ public class EPDataFlowInstanceImpl implements EPDataFlowInstance, CompletionLis
         }
     }
 
+    private void startAsyncChannels() {
+        for (OperatorChannelAsync channel : asyncChannels) {
+            channel.start();
+        }
+    }
+
+    private void drainAsyncChannels() {
+        // channels are in build order, each upstream channel is idle before waiting for the downstream channel
+        try {
+            for (OperatorChannelAsync channel : asyncChannels) {
+                channel.awaitIdle();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        shutdownAsyncChannels();
+    }
+
+    private void shutdownAsyncChannels() {
+        for (OperatorChannelAsync channel : asyncChannels) {
+            channel.shutdown();
+        }
+    }
+
     private void callOperatorClose() {
         for (Integer opNum : operatorBuildOrder) {
             Object operator = operators.get(opNum);
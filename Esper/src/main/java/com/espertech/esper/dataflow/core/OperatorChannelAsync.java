@@ -0,0 +1,227 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.core;
+
+import com.espertech.esper.client.dataflow.EPDataFlowSignal;
+import com.espertech.esper.dataflow.interfaces.EPDataFlowEmitter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue and worker thread(s) for an operator that executes asynchronously.
+ * <p>
+ * Submitting operators block when the queue is full. Signals act as a barrier: a signal is only processed
+ * after all previously-queued events completed, and no later event starts before the signal completed.
+ */
+public class OperatorChannelAsync {
+
+    private static final Log log = LogFactory.getLog(OperatorChannelAsync.class);
+
+    private final String dataFlowName;
+    private final int operatorNum;
+    private final String operatorPrettyPrint;
+    private final int numThreads;
+    private final BlockingQueue<Item> queue;
+    private final Lock takeLock = new ReentrantLock();
+    private final Object monitor = new Object();
+
+    private Thread[] threads;
+    private int pending;
+    private int inFlight;
+    private volatile boolean shutdown;
+
+    public OperatorChannelAsync(String dataFlowName, int operatorNum, String operatorPrettyPrint, int numThreads, int capacity) {
+        this.dataFlowName = dataFlowName;
+        this.operatorNum = operatorNum;
+        this.operatorPrettyPrint = operatorPrettyPrint;
+        this.numThreads = numThreads;
+        this.queue = new ArrayBlockingQueue<Item>(capacity);
+    }
+
+    public int getOperatorNum() {
+        return operatorNum;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public void submit(SubmitHandler handler, Object object) {
+        put(new Item(handler, null, object, null));
+    }
+
+    public void submitSignal(SubmitHandler handler, EPDataFlowSignal signal) {
+        put(new Item(handler, null, null, signal));
+    }
+
+    public void forwardSignal(EPDataFlowEmitter emitter, EPDataFlowSignal signal) {
+        put(new Item(null, emitter, null, signal));
+    }
+
+    public synchronized void start() {
+        if (threads != null) {
+            return;
+        }
+        threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    runLoop();
+                }
+            }, "esper." + dataFlowName + "-" + operatorPrettyPrint + "-" + i);
+            thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+            thread.setDaemon(true);
+            threads[i] = thread;
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Wait until all queued events and signals have been processed.
+     * @throws InterruptedException when interrupted
+     */
+    public void awaitIdle() throws InterruptedException {
+        synchronized (monitor) {
+            while (pending > 0 && !shutdown) {
+                monitor.wait();
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads, discarding queued events and signals.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (threads != null) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        queue.clear();
+        synchronized (monitor) {
+            pending = 0;
+            monitor.notifyAll();
+        }
+    }
+
+    private void put(Item item) {
+        if (shutdown) {
+            return;
+        }
+        synchronized (monitor) {
+            pending++;
+        }
+        try {
+            queue.put(item);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            completed(false);
+        }
+    }
+
+    private void runLoop() {
+        while (!shutdown) {
+            Item item;
+            boolean signal;
+            try {
+                takeLock.lockInterruptibly();
+            }
+            catch (InterruptedException ex) {
+                return;
+            }
+            try {
+                item = queue.take();
+                signal = item.signal != null;
+                synchronized (monitor) {
+                    if (signal) {
+                        while (inFlight > 0) {
+                            monitor.wait();
+                        }
+                    }
+                    else {
+                        inFlight++;
+                    }
+                }
+                // signals are processed while holding the take-lock so that no later event starts
+                if (signal) {
+                    process(item);
+                    completed(false);
+                }
+            }
+            catch (InterruptedException ex) {
+                return;
+            }
+            finally {
+                takeLock.unlock();
+            }
+
+            if (!signal) {
+                process(item);
+                completed(true);
+            }
+        }
+    }
+
+    private void process(Item item) {
+        try {
+            if (item.forward != null) {
+                item.forward.submitSignal(item.signal);
+            }
+            else if (item.signal != null) {
+                item.handler.handleSignal(item.signal);
+            }
+            else {
+                item.handler.submitInternal(item.object);
+            }
+        }
+        catch (RuntimeException ex) {
+            log.error("Exception encountered processing queued input for data flow '" + dataFlowName + "' operator " + operatorPrettyPrint + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private void completed(boolean event) {
+        synchronized (monitor) {
+            if (event) {
+                inFlight--;
+            }
+            if (pending > 0) {
+                pending--;
+            }
+            if (inFlight == 0 || pending == 0) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    private static class Item {
+        private final SubmitHandler handler;
+        private final EPDataFlowEmitter forward;
+        private final Object object;
+        private final EPDataFlowSignal signal;
+
+        private Item(SubmitHandler handler, EPDataFlowEmitter forward, Object object, EPDataFlowSignal signal) {
+            this.handler = handler;
+            this.forward = forward;
+            this.object = object;
+            this.signal = signal;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import com.espertech.esper.client.dataflow.EPDataFlowInstanceStatistics;
 import com.espertech.esper.dataflow.util.OperatorMetadataDescriptor;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -23,11 +24,13 @@ public class OperatorStatisticsProvider implements EPDataFlowInstanceStatistics
     private final long[][] submitCounts;
     private final long[][] cpuDelta;
     private final OperatorMetadataDescriptor[] desc;
+    private final OperatorChannelAsync[] asyncChannels;
 
     public OperatorStatisticsProvider(Map<Integer, OperatorMetadataDescriptor> operatorMetadata) {
         submitCounts = new long[operatorMetadata.size()][];
         cpuDelta = new long[operatorMetadata.size()][];
         desc = new OperatorMetadataDescriptor[operatorMetadata.size()];
+        asyncChannels = new OperatorChannelAsync[operatorMetadata.size()];
         for (Map.Entry<Integer, OperatorMetadataDescriptor> entry : operatorMetadata.entrySet()) {
             int opNum = entry.getKey();
             desc[opNum] = entry.getValue();
@@ -53,13 +56,21 @@ public class OperatorStatisticsProvider implements EPDataFlowInstanceStatistics
                 timeOverall += port;
             }
 
+            int queueDepth = asyncChannels[i] == null ? 0 : asyncChannels[i].getQueueDepth();
+
             OperatorMetadataDescriptor meta = desc[i];
-            EPDataFlowInstanceOperatorStat stat = new EPDataFlowInstanceOperatorStat(meta.getOperatorName(), meta.getOperatorPrettyPrint(), i, submittedOverall, submittedPerPort, timeOverall, timePerPort);
+            EPDataFlowInstanceOperatorStat stat = new EPDataFlowInstanceOperatorStat(meta.getOperatorName(), meta.getOperatorPrettyPrint(), i, submittedOverall, submittedPerPort, timeOverall, timePerPort, queueDepth);
             result.add(stat);
         }
         return result;
     }
 
+    public void setAsyncChannels(Collection<OperatorChannelAsync> channels) {
+        for (OperatorChannelAsync channel : channels) {
+            asyncChannels[channel.getOperatorNum()] = channel;
+        }
+    }
+
     public void countSubmitPort(int producerOpNum, int portNumber) {
         submitCounts[producerOpNum][portNumber]++;
     }
@@ -13,12 +13,14 @@ package com.espertech.esper.dataflow.core;
 
 import com.espertech.esper.client.annotation.AuditEnum;
 import com.espertech.esper.client.dataflow.EPDataFlowExceptionHandler;
+import com.espertech.esper.client.dataflow.EPDataFlowInstantiationException;
 import com.espertech.esper.client.dataflow.EPDataFlowInstantiationOptions;
 import com.espertech.esper.client.dataflow.EPDataFlowSignal;
 import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.dataflow.annotations.DataFlowContext;
 import com.espertech.esper.dataflow.interfaces.EPDataFlowEmitter;
+import com.espertech.esper.dataflow.ops.Filter;
 import com.espertech.esper.dataflow.util.*;
 import com.espertech.esper.util.JavaClassHelper;
 import org.apache.commons.logging.Log;
@@ -41,11 +43,15 @@ public class RealizationFactoryInterface {
                                          StatementContext statementContext) {
 
 
+        // Determine operators that execute asynchronously
+        Map<Integer, OperatorChannelAsync> asyncChannels = determineAsyncChannels(dataFlowName, operators, operatorMetadata, operatorBuildOrder, bindings, options);
+
         // First pass: inject runtime context
         Map<Integer, EPDataFlowEmitter> runtimeContexts = new HashMap<Integer, EPDataFlowEmitter>();
         OperatorStatisticsProvider statisticsProvider = null;
-        if (options.isOperatorStatistics()) {
+        if (options.isOperatorStatistics() || !asyncChannels.isEmpty()) {
             statisticsProvider = new OperatorStatisticsProvider(operatorMetadata);
+            statisticsProvider.setAsyncChannels(asyncChannels.values());
         }
 
         boolean audit = AuditEnum.DATAFLOW_OP.getAudit(statementContext.getAnnotations()) != null;
@@ -60,7 +66,7 @@ public class RealizationFactoryInterface {
             int numOutputStreams = operatorMetadata.get(producerOpNum).getOperatorSpec().getOutput().getItems().size();
             List<ObjectBindingPair>[] targets = getOperatorConsumersPerStream(numOutputStreams, producerOpNum, operators, operatorMetadata, bindings);
 
-            EPDataFlowEmitter runtimeContext = generateRuntimeContext(statementContext.getEngineURI(), statementContext.getStatementName(), audit, dataFlowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, targets, options);
+            EPDataFlowEmitter runtimeContext = generateRuntimeContext(statementContext.getEngineURI(), statementContext.getStatementName(), audit, dataFlowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, targets, options, asyncChannels);
 
             if (options.isOperatorStatistics()) {
                 runtimeContext = new EPDataFlowEmitterWrapperWStatistics(runtimeContext, producerOpNum, statisticsProvider, options.isCpuStatistics());
@@ -92,6 +98,16 @@ public class RealizationFactoryInterface {
                 if (context == null) {
                     continue;
                 }
+                // for asynchronous consumers, forward the signal only after the consumer processed the events queued before it
+                final OperatorChannelAsync channel = asyncChannels.get(consumerPunc);
+                if (channel != null) {
+                    dataFlowSignalManager.addSignalListener(producerOpNum, new DataFlowSignalListener() {
+                        public void processSignal(EPDataFlowSignal signal) {
+                            channel.forwardSignal(context, signal);
+                        }
+                    });
+                    continue;
+                }
                 dataFlowSignalManager.addSignalListener(producerOpNum, new DataFlowSignalListener() {
                     public void processSignal(EPDataFlowSignal signal) {
                         context.submitSignal(signal);
@@ -100,7 +116,62 @@ public class RealizationFactoryInterface {
             }
         }
 
-        return new DataflowStartDesc(statisticsProvider);
+        return new DataflowStartDesc(statisticsProvider, new ArrayList<OperatorChannelAsync>(asyncChannels.values()));
+    }
+
+    private static Map<Integer, OperatorChannelAsync> determineAsyncChannels(String dataFlowName, Map<Integer, Object> operators, Map<Integer, OperatorMetadataDescriptor> operatorMetadata, Set<Integer> operatorBuildOrder, List<LogicalChannelBinding> bindings, EPDataFlowInstantiationOptions options) {
+        if (!options.isAsyncChannels() && (options.getOperatorThreads() == null || options.getOperatorThreads().isEmpty())) {
+            return Collections.emptyMap();
+        }
+        if (options.getAsyncChannelCapacity() < 1) {
+            throw new EPDataFlowInstantiationException("Invalid asynchronous channel capacity " + options.getAsyncChannelCapacity() + ", the capacity must be at least 1");
+        }
+
+        Set<Integer> consumingOps = new HashSet<Integer>();
+        for (LogicalChannelBinding binding : bindings) {
+            consumingOps.add(binding.getLogicalChannel().getConsumingOpNum());
+        }
+
+        // operators consuming from a multi-threaded operator receive a single-threaded channel, so they are never called concurrently
+        Set<Integer> multiThreadedOps = new HashSet<Integer>();
+        if (options.getOperatorThreads() != null) {
+            for (int opNum : operatorBuildOrder) {
+                Integer numThreads = options.getOperatorThreads().get(operatorMetadata.get(opNum).getOperatorName());
+                if (numThreads != null && numThreads > 1) {
+                    multiThreadedOps.add(opNum);
+                }
+            }
+        }
+        Set<Integer> downstreamOfMultiThreaded = new HashSet<Integer>();
+        for (LogicalChannelBinding binding : bindings) {
+            if (multiThreadedOps.contains(binding.getLogicalChannel().getOutputPort().getProducingOpNum())) {
+                downstreamOfMultiThreaded.add(binding.getLogicalChannel().getConsumingOpNum());
+            }
+        }
+
+        // keyed by operator number in build order, such that upstream channels drain first
+        Map<Integer, OperatorChannelAsync> channels = new LinkedHashMap<Integer, OperatorChannelAsync>();
+        for (int opNum : operatorBuildOrder) {
+            OperatorMetadataDescriptor meta = operatorMetadata.get(opNum);
+            Integer numThreads = options.getOperatorThreads() == null ? null : options.getOperatorThreads().get(meta.getOperatorName());
+            if (numThreads == null) {
+                if (!options.isAsyncChannels() && !downstreamOfMultiThreaded.contains(opNum)) {
+                    continue;
+                }
+                numThreads = 1;
+            }
+            if (!consumingOps.contains(opNum)) {
+                continue;
+            }
+            if (numThreads < 1) {
+                throw new EPDataFlowInstantiationException("Invalid number of threads " + numThreads + " for operator " + meta.getOperatorPrettyPrint() + ", the number of threads must be at least 1");
+            }
+            if (numThreads > 1 && !(operators.get(opNum) instanceof Filter)) {
+                throw new EPDataFlowInstantiationException("Operator " + meta.getOperatorPrettyPrint() + " does not allow multiple threads, multiple threads are only allowed for the stateless Filter operator");
+            }
+            channels.put(opNum, new OperatorChannelAsync(dataFlowName, opNum, meta.getOperatorPrettyPrint(), numThreads, options.getAsyncChannelCapacity()));
+        }
+        return channels;
     }
 
     private static List<ObjectBindingPair>[] getOperatorConsumersPerStream(int numOutputStreams, int producingOperator, Map<Integer, Object> operators, Map<Integer, OperatorMetadataDescriptor> operatorMetadata, List<LogicalChannelBinding> bindings) {
@@ -143,7 +214,16 @@ public class RealizationFactoryInterface {
         }
     }
 
-    private static SubmitHandler getSubmitHandler(String engineURI, String statementName, boolean audit, String dataflowName, int producerOpNum, String operatorPrettyPrint, DataFlowSignalManager dataFlowSignalManager, ObjectBindingPair target, EPDataFlowExceptionHandler optionalExceptionHandler) {
+    private static SubmitHandler getSubmitHandler(String engineURI, String statementName, boolean audit, String dataflowName, int producerOpNum, String operatorPrettyPrint, DataFlowSignalManager dataFlowSignalManager, ObjectBindingPair target, EPDataFlowExceptionHandler optionalExceptionHandler, Map<Integer, OperatorChannelAsync> asyncChannels) {
+        SubmitHandler handler = getSubmitHandlerSync(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, target, optionalExceptionHandler);
+        OperatorChannelAsync channel = asyncChannels.get(target.getBinding().getLogicalChannel().getConsumingOpNum());
+        if (channel == null) {
+            return handler;
+        }
+        return new SubmitHandlerAsync(producerOpNum, dataFlowSignalManager, handler, channel);
+    }
+
+    private static SubmitHandler getSubmitHandlerSync(String engineURI, String statementName, boolean audit, String dataflowName, int producerOpNum, String operatorPrettyPrint, DataFlowSignalManager dataFlowSignalManager, ObjectBindingPair target, EPDataFlowExceptionHandler optionalExceptionHandler) {
         SignalHandler signalHandler = getSignalHandler(producerOpNum, target.getTarget(), target.getBinding().getConsumingSignalBindingDesc());
 
         int receivingOpNum = target.getBinding().getLogicalChannel().getConsumingOpNum();
@@ -175,7 +255,8 @@ public class RealizationFactoryInterface {
                                                             String operatorPrettyPrint,
                                                             DataFlowSignalManager dataFlowSignalManager,
                                                             List<ObjectBindingPair>[] targetsPerStream,
-                                                            EPDataFlowInstantiationOptions options) {
+                                                            EPDataFlowInstantiationOptions options,
+                                                            Map<Integer, OperatorChannelAsync> asyncChannels) {
         // handle no targets
         if (targetsPerStream == null) {
             return new EPDataFlowEmitterNoTarget(producerOpNum, dataFlowSignalManager);
@@ -188,12 +269,12 @@ public class RealizationFactoryInterface {
             // handle single-stream single target case
             if (targets.size() == 1) {
                 ObjectBindingPair target = targets.get(0);
-                return getSubmitHandler(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, target, options.getExceptionHandler());
+                return getSubmitHandler(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, target, options.getExceptionHandler(), asyncChannels);
             }
 
             SubmitHandler[] handlers = new SubmitHandler[targets.size()];
             for (int i = 0; i < handlers.length; i++) {
-                handlers[i] = getSubmitHandler(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, targets.get(i), options.getExceptionHandler());
+                handlers[i] = getSubmitHandler(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, targets.get(i), options.getExceptionHandler(), asyncChannels);
             }
             return new EPDataFlowEmitter1StreamNTarget(producerOpNum, dataFlowSignalManager, handlers);
         }
@@ -204,7 +285,7 @@ public class RealizationFactoryInterface {
                 SubmitHandler[] handlers = new SubmitHandler[targetsPerStream[streamNum].size()];
                 handlersPerStream[streamNum] = handlers;
                 for (int i = 0; i < handlers.length; i++) {
-                    handlers[i] = getSubmitHandler(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, targetsPerStream[streamNum].get(i), options.getExceptionHandler());
+                    handlers[i] = getSubmitHandler(engineURI, statementName, audit, dataflowName, producerOpNum, operatorPrettyPrint, dataFlowSignalManager, targetsPerStream[streamNum].get(i), options.getExceptionHandler(), asyncChannels);
                 }
             }
             return new EPDataFlowEmitterNStreamNTarget(producerOpNum, dataFlowSignalManager, handlersPerStream);
@@ -0,0 +1,61 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.core;
+
+import com.espertech.esper.client.dataflow.EPDataFlowSignal;
+import com.espertech.esper.dataflow.util.DataFlowSignalManager;
+import net.sf.cglib.reflect.FastMethod;
+
+/**
+ * Submit handler that queues events and signals to the channel of an asynchronously-executing target operator.
+ */
+public class SubmitHandlerAsync implements SubmitHandler {
+
+    private final int operatorNum;
+    private final DataFlowSignalManager signalManager;
+    private final SubmitHandler target;
+    private final OperatorChannelAsync channel;
+
+    public SubmitHandlerAsync(int operatorNum, DataFlowSignalManager signalManager, SubmitHandler target, OperatorChannelAsync channel) {
+        this.operatorNum = operatorNum;
+        this.signalManager = signalManager;
+        this.target = target;
+        this.channel = channel;
+    }
+
+    public void submitInternal(Object object) {
+        channel.submit(target, object);
+    }
+
+    public void handleSignal(EPDataFlowSignal signal) {
+        channel.submitSignal(target, signal);
+    }
+
+    public FastMethod getFastMethod() {
+        return target.getFastMethod();
+    }
+
+    public void submit(Object object) {
+        channel.submit(target, object);
+    }
+
+    public void submitSignal(EPDataFlowSignal signal) {
+        signalManager.processSignal(operatorNum, signal);
+        channel.submitSignal(target, signal);
+    }
+
+    public void submitPort(int portNumber, Object object) {
+        if (portNumber == 0) {
+            submit(object);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.dataflow.annotations.DataFlowOpParameter;
+import com.espertech.esper.dataflow.annotations.DataFlowOperator;
+import com.espertech.esper.dataflow.interfaces.*;
+import com.espertech.esper.dataflow.ops.file.FileOpRecordCodec;
+import com.espertech.esper.dataflow.ops.file.FileOpRecordCodecFactory;
+import com.espertech.esper.epl.expression.ExprValidationException;
+import com.espertech.esper.event.EventBeanSPI;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes delimited or binary event records to a file through memory-mapped regions of the file.
+ * <p>
+ * The file grows by one region at a time and is truncated to the written size when the operator closes.
+ * When appending to a file that was not closed, such as after a crash, the zero-filled tail beyond the last record
+ * is truncated first.
+ */
+@DataFlowOperator
+public class FileSink implements DataFlowOpLifecycle {
+
+    private static final Log log = LogFactory.getLog(FileSink.class);
+
+    @DataFlowOpParameter
+    private String file;
+
+    @DataFlowOpParameter
+    private String format;
+
+    @DataFlowOpParameter
+    private String delimiter;
+
+    @DataFlowOpParameter
+    private boolean header;
+
+    @DataFlowOpParameter
+    private boolean append;
+
+    private boolean objectArrayType;
+    private EventPropertyGetter[] getters;
+    private EventBeanSPI shell;
+    private FileOpRecordCodec codec;
+
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private long regionStart;
+    private MappedByteBuffer region;
+
+    public DataFlowOpInitializeResult initialize(DataFlowOpInitializateContext context) throws Exception {
+        if (!context.getOutputPorts().isEmpty()) {
+            throw new IllegalArgumentException("FileSink operator does not provide an output stream");
+        }
+        if (context.getInputPorts().size() != 1) {
+            throw new IllegalArgumentException("FileSink operator requires one input stream but receives " + context.getInputPorts().size() + " streams");
+        }
+        EventType eventType = context.getInputPorts().get(0).getTypeDesc().getEventType();
+        if (eventType == null) {
+            throw new IllegalArgumentException("FileSink operator requires an event type for the input stream");
+        }
+        if (file == null) {
+            throw new ExprValidationException("Required parameter 'file' providing the file name is not provided");
+        }
+
+        codec = FileOpRecordCodecFactory.make(format, delimiter, eventType);
+        objectArrayType = eventType instanceof ObjectArrayEventType;
+        String[] propertyNames = eventType.getPropertyNames();
+        getters = new EventPropertyGetter[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            getters[i] = eventType.getGetter(propertyNames[i]);
+        }
+        shell = context.getStatementContext().getEventAdapterService().getShellForType(eventType);
+        return null;
+    }
+
+    public void open(DataFlowOpOpenContext openContext) {
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            channel = randomAccessFile.getChannel();
+            long size;
+            if (!append) {
+                channel.truncate(0);
+                size = 0;
+            }
+            else {
+                size = findWrittenEnd();
+                channel.truncate(size);
+            }
+            mapRegion(size);
+            if (header && size == 0) {
+                codec.encodeHeader(region);
+            }
+        }
+        catch (IOException ex) {
+            close(null);
+            throw new EPException("Failed to open file '" + file + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    public synchronized void onInput(Object row) {
+        if (region == null) {
+            return;
+        }
+        Object[] values = getValues(row);
+
+        int recordStart = region.position();
+        try {
+            codec.encode(values, region);
+        }
+        catch (BufferOverflowException ex) {
+            if (recordStart == 0) {
+                throw new EPException("Record exceeds the mapped region size of " + FileSource.MAP_REGION_SIZE + " bytes for file '" + file + "'");
+            }
+
+            // the record does not fit the remainder of the region, write it into a region starting at the record
+            try {
+                mapRegion(regionStart + recordStart);
+            }
+            catch (IOException ioex) {
+                throw new EPException("Failed to map file '" + file + "': " + ioex.getMessage(), ioex);
+            }
+            codec.encode(values, region);
+        }
+    }
+
+    public synchronized void close(DataFlowOpCloseContext closeContext) {
+        if (randomAccessFile == null) {
+            return;
+        }
+        try {
+            if (region != null) {
+                long end = regionStart + region.position();
+                region.force();
+                region = null;
+                channel.truncate(end);
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Failed to truncate file '" + file + "': " + ex.getMessage(), ex);
+        }
+        try {
+            randomAccessFile.close();
+        }
+        catch (IOException ex) {
+            log.warn("Failed to close file '" + file + "': " + ex.getMessage(), ex);
+        }
+        randomAccessFile = null;
+        channel = null;
+    }
+
+    private Object[] getValues(Object row) {
+        EventBean theEvent;
+        if (row instanceof EventBean) {
+            theEvent = (EventBean) row;
+            if (objectArrayType && theEvent.getUnderlying() instanceof Object[]) {
+                return (Object[]) theEvent.getUnderlying();
+            }
+        }
+        else {
+            if (objectArrayType && row instanceof Object[]) {
+                return (Object[]) row;
+            }
+            shell.setUnderlying(row);
+            theEvent = shell;
+        }
+
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = getters[i].get(theEvent);
+        }
+        return values;
+    }
+
+    // records end with a non-zero byte, the written end is after the last non-zero byte of the file
+    private long findWrittenEnd() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear();
+            buffer.limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) != 0) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private void mapRegion(long position) throws IOException {
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, FileSource.MAP_REGION_SIZE);
+    }
+}
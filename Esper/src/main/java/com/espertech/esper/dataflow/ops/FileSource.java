@@ -0,0 +1,216 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.dataflow.EPDataFlowSignalFinalMarker;
+import com.espertech.esper.dataflow.annotations.DataFlowContext;
+import com.espertech.esper.dataflow.annotations.DataFlowOpParameter;
+import com.espertech.esper.dataflow.annotations.DataFlowOperator;
+import com.espertech.esper.dataflow.interfaces.*;
+import com.espertech.esper.dataflow.ops.file.FileOpRecordCodec;
+import com.espertech.esper.dataflow.ops.file.FileOpRecordCodecFactory;
+import com.espertech.esper.epl.expression.ExprValidationException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventBeanManufacturer;
+import com.espertech.esper.event.EventTypeUtility;
+import com.espertech.esper.event.WriteablePropertyDescriptor;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Set;
+
+/**
+ * Reads delimited or binary event records from a file through memory-mapped regions of the file.
+ * <p>
+ * For an object-array output type the decoded values become the event underlying without further copying.
+ */
+@DataFlowOperator
+public class FileSource implements DataFlowSourceOperator {
+
+    private static final Log log = LogFactory.getLog(FileSource.class);
+
+    protected static final long MAP_REGION_SIZE = 64L * 1024 * 1024;
+
+    @DataFlowOpParameter
+    private String file;
+
+    @DataFlowOpParameter
+    private String format;
+
+    @DataFlowOpParameter
+    private String delimiter;
+
+    @DataFlowOpParameter
+    private boolean header;
+
+    @DataFlowContext
+    private EPDataFlowEmitter graphContext;
+
+    private EventType eventType;
+    private EventAdapterService eventAdapterService;
+    private EventBeanManufacturer manufacturer;
+    private boolean submitEventBean;
+    private FileOpRecordCodec codec;
+
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private long fileSize;
+    private long regionStart;
+    private MappedByteBuffer region;
+    private boolean headerSkipped;
+
+    public DataFlowOpInitializeResult initialize(DataFlowOpInitializateContext context) throws Exception {
+        if (!context.getInputPorts().isEmpty()) {
+            throw new IllegalArgumentException("FileSource operator does not take an input stream");
+        }
+        if (context.getOutputPorts().size() != 1) {
+            throw new IllegalArgumentException("FileSource operator requires one output stream but produces " + context.getOutputPorts().size() + " streams");
+        }
+        DataFlowOpOutputPort portZero = context.getOutputPorts().get(0);
+        if (portZero.getOptionalDeclaredType() == null || portZero.getOptionalDeclaredType().getEventType() == null) {
+            throw new IllegalArgumentException("FileSource operator requires an event type declared for the output stream");
+        }
+        if (file == null) {
+            throw new ExprValidationException("Required parameter 'file' providing the file name is not provided");
+        }
+
+        eventType = portZero.getOptionalDeclaredType().getEventType();
+        submitEventBean = !portZero.getOptionalDeclaredType().isUnderlying();
+        eventAdapterService = context.getStatementContext().getEventAdapterService();
+        codec = FileOpRecordCodecFactory.make(format, delimiter, eventType);
+
+        // object-array types take the decoded values as-is, other types go through a manufacturer
+        if (!(eventType instanceof ObjectArrayEventType)) {
+            Set<WriteablePropertyDescriptor> writeables = eventAdapterService.getWriteableProperties(eventType);
+            String[] propertyNames = eventType.getPropertyNames();
+            WriteablePropertyDescriptor[] writables = new WriteablePropertyDescriptor[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                writables[i] = EventTypeUtility.findWritable(propertyNames[i], writeables);
+                if (writables[i] == null) {
+                    throw new ExprValidationException("Failed to find writable property '" + propertyNames[i] + "' for event type '" + eventType.getName() + "'");
+                }
+            }
+            manufacturer = eventAdapterService.getManufacturer(eventType, writables, context.getServicesContext().getEngineImportService());
+        }
+        return null;
+    }
+
+    public void open(DataFlowOpOpenContext openContext) {
+        try {
+            randomAccessFile = new RandomAccessFile(file, "r");
+            channel = randomAccessFile.getChannel();
+            fileSize = channel.size();
+            mapRegion(0);
+        }
+        catch (IOException ex) {
+            close(null);
+            throw new EPException("Failed to open file '" + file + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    public void next() throws InterruptedException {
+        Object[] values = decodeNext();
+        if (values == null) {
+            graphContext.submitSignal(new EPDataFlowSignalFinalMarker() {});
+            return;
+        }
+
+        if (manufacturer == null) {
+            if (submitEventBean) {
+                graphContext.submit(eventAdapterService.adapterForTypedObjectArray(values, eventType));
+            }
+            else {
+                graphContext.submit(values);
+            }
+        }
+        else {
+            if (submitEventBean) {
+                graphContext.submit(manufacturer.make(values));
+            }
+            else {
+                graphContext.submit(manufacturer.makeUnderlying(values));
+            }
+        }
+    }
+
+    public synchronized void close(DataFlowOpCloseContext closeContext) {
+        region = null;
+        if (randomAccessFile != null) {
+            try {
+                randomAccessFile.close();
+            }
+            catch (IOException ex) {
+                log.warn("Failed to close file '" + file + "': " + ex.getMessage(), ex);
+            }
+            randomAccessFile = null;
+            channel = null;
+        }
+    }
+
+    private Object[] decodeNext() {
+        if (region == null) {
+            return null;
+        }
+
+        while (true) {
+            int recordStart = region.position();
+            boolean endOfInput = regionStart + region.limit() >= fileSize;
+            if (endOfInput && !region.hasRemaining()) {
+                return null;
+            }
+
+            Object[] values;
+            if (header && !headerSkipped) {
+                headerSkipped = codec.skipHeader(region, endOfInput);
+                values = null;
+                if (headerSkipped) {
+                    continue;
+                }
+            }
+            else {
+                values = codec.decode(region, endOfInput);
+                if (values != null) {
+                    return values;
+                }
+            }
+
+            if (endOfInput) {
+                log.warn("Incomplete record of " + (region.limit() - recordStart) + " bytes at the end of file '" + file + "' is ignored");
+                region.position(region.limit());
+                return null;
+            }
+            if (recordStart == 0) {
+                throw new EPException("Record at offset " + regionStart + " of file '" + file + "' exceeds the mapped region size of " + MAP_REGION_SIZE + " bytes");
+            }
+
+            // the record spans the end of the region, continue with a region starting at the record
+            try {
+                mapRegion(regionStart + recordStart);
+            }
+            catch (IOException ex) {
+                throw new EPException("Failed to map file '" + file + "': " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private void mapRegion(long position) throws IOException {
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_REGION_SIZE, fileSize - position));
+    }
+}
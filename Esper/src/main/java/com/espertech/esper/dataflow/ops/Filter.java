@@ -22,6 +22,7 @@ import com.espertech.esper.epl.expression.ExprEvaluator;
 import com.espertech.esper.epl.expression.ExprNode;
 import com.espertech.esper.epl.expression.ExprNodeUtility;
 import com.espertech.esper.epl.expression.ExprValidationException;
+import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventBeanSPI;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,8 +38,7 @@ public class Filter implements DataFlowOpLifecycle {
     private ExprNode filter;
     
     private ExprEvaluator evaluator;
-    private EventBeanSPI theEvent;
-    private EventBean[] eventsPerStream = new EventBean[1];
+    private ThreadLocal<EventBean[]> shellPerThread;
     private boolean singleOutputPort;
 
     @DataFlowContext
@@ -61,8 +61,14 @@ public class Filter implements DataFlowOpLifecycle {
 
         ExprNode validated = ExprNodeUtility.validateSimpleGetSubtree(filter, prepareContext.getStatementContext(), eventType);
         evaluator = validated.getExprEvaluator();
-        theEvent = prepareContext.getServicesContext().getEventAdapterService().getShellForType(eventType);
-        eventsPerStream[0] = theEvent;
+        // the shell is per-thread as the operator may execute on multiple threads
+        final EventAdapterService eventAdapterService = prepareContext.getServicesContext().getEventAdapterService();
+        final EventType shellType = eventType;
+        shellPerThread = new ThreadLocal<EventBean[]>() {
+            protected EventBean[] initialValue() {
+                return new EventBean[] {eventAdapterService.getShellForType(shellType)};
+            }
+        };
 
         GraphTypeDesc[] typesPerPort = new GraphTypeDesc[prepareContext.getOutputPorts().size()];
         for (int i = 0; i < typesPerPort.length; i++) {
@@ -76,11 +82,13 @@ public class Filter implements DataFlowOpLifecycle {
             log.debug("Received row for filtering: " + Arrays.toString((Object[]) row));
         }
 
+        EventBean[] eventsPerStream;
         if (!(row instanceof EventBean)) {
-            theEvent.setUnderlying(row);
+            eventsPerStream = shellPerThread.get();
+            ((EventBeanSPI) eventsPerStream[0]).setUnderlying(row);
         }
         else {
-            theEvent = (EventBeanSPI) row;
+            eventsPerStream = new EventBean[] {(EventBean) row};
         }
 
         Boolean pass = (Boolean) evaluator.evaluate(eventsPerStream, true, null);
@@ -0,0 +1,62 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops.file;
+
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Property types supported by file records.
+ */
+public enum FileOpFieldType {
+    STRING,
+    INT,
+    LONG,
+    DOUBLE,
+    FLOAT,
+    SHORT,
+    BYTE,
+    BOOLEAN;
+
+    /**
+     * Returns the field type for a property type.
+     * @param type property type
+     * @return field type or null if the type is not supported
+     */
+    public static FileOpFieldType fromType(Class type) {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == String.class) {
+            return STRING;
+        }
+        if (boxed == Integer.class) {
+            return INT;
+        }
+        if (boxed == Long.class) {
+            return LONG;
+        }
+        if (boxed == Double.class) {
+            return DOUBLE;
+        }
+        if (boxed == Float.class) {
+            return FLOAT;
+        }
+        if (boxed == Short.class) {
+            return SHORT;
+        }
+        if (boxed == Byte.class) {
+            return BYTE;
+        }
+        if (boxed == Boolean.class) {
+            return BOOLEAN;
+        }
+        return null;
+    }
+}
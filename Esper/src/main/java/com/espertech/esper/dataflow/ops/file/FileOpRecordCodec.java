@@ -0,0 +1,55 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops.file;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes event records for the file source and sink operators, the property values
+ * of a record are in the order of the property names of the event type.
+ * <p>
+ * Encoded records and headers end with a non-zero byte, so that the zero-filled tail of a file that was
+ * extended for mapping and not truncated can be told apart from the records.
+ */
+public interface FileOpRecordCodec {
+
+    /**
+     * Decode the record at the current buffer position.
+     * @param buffer buffer to read
+     * @param endOfInput indicator whether the buffer ends with the end of the file
+     * @return property values or null when the buffer does not hold a complete record
+     */
+    public Object[] decode(ByteBuffer buffer, boolean endOfInput);
+
+    /**
+     * Skip the header at the current buffer position.
+     * @param buffer buffer to read
+     * @param endOfInput indicator whether the buffer ends with the end of the file
+     * @return false when the buffer does not hold the complete header
+     */
+    public boolean skipHeader(ByteBuffer buffer, boolean endOfInput);
+
+    /**
+     * Encode the record at the current buffer position.
+     * @param values property values
+     * @param buffer buffer to write
+     * @throws java.nio.BufferOverflowException when the buffer does not have sufficient space
+     */
+    public void encode(Object[] values, ByteBuffer buffer);
+
+    /**
+     * Encode the header at the current buffer position.
+     * @param buffer buffer to write
+     * @throws java.nio.BufferOverflowException when the buffer does not have sufficient space
+     */
+    public void encodeHeader(ByteBuffer buffer);
+}
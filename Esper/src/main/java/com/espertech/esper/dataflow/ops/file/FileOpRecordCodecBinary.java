@@ -0,0 +1,172 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops.file;
+
+import com.espertech.esper.client.EPException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Binary record layout: a null-indicator bitmap of one bit per property followed by the non-null values
+ * in property order, numbers use their fixed-width big-endian representation and strings an int length
+ * followed by the UTF-8 bytes, and a record end marker byte.
+ */
+public class FileOpRecordCodecBinary implements FileOpRecordCodec {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final byte RECORD_END = (byte) '\n';
+
+    private final FileOpFieldType[] fieldTypes;
+    private final int nullBitmapSize;
+
+    public FileOpRecordCodecBinary(FileOpFieldType[] fieldTypes) {
+        this.fieldTypes = fieldTypes;
+        this.nullBitmapSize = (fieldTypes.length + 7) / 8;
+    }
+
+    public Object[] decode(ByteBuffer buffer, boolean endOfInput) {
+        if (buffer.remaining() < nullBitmapSize) {
+            return null;
+        }
+        int bitmapStart = buffer.position();
+        buffer.position(bitmapStart + nullBitmapSize);
+
+        Object[] values = new Object[fieldTypes.length];
+        for (int i = 0; i < fieldTypes.length; i++) {
+            if ((buffer.get(bitmapStart + (i >> 3)) & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            int remaining = buffer.remaining();
+            switch (fieldTypes[i]) {
+                case STRING:
+                    if (remaining < 4) {
+                        return null;
+                    }
+                    int length = buffer.getInt();
+                    if (buffer.remaining() < length) {
+                        return null;
+                    }
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    values[i] = new String(bytes, UTF8);
+                    break;
+                case INT:
+                    if (remaining < 4) {
+                        return null;
+                    }
+                    values[i] = buffer.getInt();
+                    break;
+                case LONG:
+                    if (remaining < 8) {
+                        return null;
+                    }
+                    values[i] = buffer.getLong();
+                    break;
+                case DOUBLE:
+                    if (remaining < 8) {
+                        return null;
+                    }
+                    values[i] = buffer.getDouble();
+                    break;
+                case FLOAT:
+                    if (remaining < 4) {
+                        return null;
+                    }
+                    values[i] = buffer.getFloat();
+                    break;
+                case SHORT:
+                    if (remaining < 2) {
+                        return null;
+                    }
+                    values[i] = buffer.getShort();
+                    break;
+                case BYTE:
+                    if (remaining < 1) {
+                        return null;
+                    }
+                    values[i] = buffer.get();
+                    break;
+                case BOOLEAN:
+                    if (remaining < 1) {
+                        return null;
+                    }
+                    values[i] = buffer.get() != 0;
+                    break;
+                default:
+                    throw new IllegalStateException("Unrecognized field type " + fieldTypes[i]);
+            }
+        }
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        if (buffer.get() != RECORD_END) {
+            throw new EPException("Invalid binary record, expected a record end marker at position " + (buffer.position() - 1));
+        }
+        return values;
+    }
+
+    public boolean skipHeader(ByteBuffer buffer, boolean endOfInput) {
+        return true;
+    }
+
+    public void encode(Object[] values, ByteBuffer buffer) {
+        int bitmapStart = buffer.position();
+        for (int i = 0; i < nullBitmapSize; i++) {
+            buffer.put((byte) 0);
+        }
+
+        for (int i = 0; i < fieldTypes.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                int index = bitmapStart + (i >> 3);
+                buffer.put(index, (byte) (buffer.get(index) | (1 << (i & 7))));
+                continue;
+            }
+            switch (fieldTypes[i]) {
+                case STRING:
+                    byte[] bytes = value.toString().getBytes(UTF8);
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                    break;
+                case INT:
+                    buffer.putInt(((Number) value).intValue());
+                    break;
+                case LONG:
+                    buffer.putLong(((Number) value).longValue());
+                    break;
+                case DOUBLE:
+                    buffer.putDouble(((Number) value).doubleValue());
+                    break;
+                case FLOAT:
+                    buffer.putFloat(((Number) value).floatValue());
+                    break;
+                case SHORT:
+                    buffer.putShort(((Number) value).shortValue());
+                    break;
+                case BYTE:
+                    buffer.put(((Number) value).byteValue());
+                    break;
+                case BOOLEAN:
+                    buffer.put((byte) (((Boolean) value) ? 1 : 0));
+                    break;
+                default:
+                    throw new IllegalStateException("Unrecognized field type " + fieldTypes[i]);
+            }
+        }
+        buffer.put(RECORD_END);
+    }
+
+    public void encodeHeader(ByteBuffer buffer) {
+        // no header for binary records
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops.file;
+
+import com.espertech.esper.client.EPException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Delimited record layout: one line per record, values in property order separated by the delimiter,
+ * an empty value is a null value. Values are not quoted and cannot contain the delimiter or line breaks,
+ * such values are rejected when writing. Integral values outside the range of the property type are rejected when reading.
+ */
+public class FileOpRecordCodecDelimited implements FileOpRecordCodec {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final String[] propertyNames;
+    private final FileOpFieldType[] fieldTypes;
+    private final byte delimiter;
+
+    public FileOpRecordCodecDelimited(String[] propertyNames, FileOpFieldType[] fieldTypes, byte delimiter) {
+        this.propertyNames = propertyNames;
+        this.fieldTypes = fieldTypes;
+        this.delimiter = delimiter;
+    }
+
+    public Object[] decode(ByteBuffer buffer, boolean endOfInput) {
+        int start = buffer.position();
+        int lineEnd = findLineEnd(buffer, endOfInput);
+        if (lineEnd == -1) {
+            return null;
+        }
+        int valueEnd = lineEnd;
+        if (valueEnd > start && buffer.get(valueEnd - 1) == CR) {
+            valueEnd--;
+        }
+
+        // values are decoded from the buffer in place without copying the line
+        Object[] values = new Object[fieldTypes.length];
+        int fieldStart = start;
+        int field = 0;
+        for (int i = start; i <= valueEnd && field < fieldTypes.length; i++) {
+            if (i == valueEnd || buffer.get(i) == delimiter) {
+                if (i > fieldStart) {
+                    values[field] = parse(buffer, fieldStart, i, field);
+                }
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+
+        buffer.position(lineEnd < buffer.limit() ? lineEnd + 1 : lineEnd);
+        return values;
+    }
+
+    public boolean skipHeader(ByteBuffer buffer, boolean endOfInput) {
+        int lineEnd = findLineEnd(buffer, endOfInput);
+        if (lineEnd == -1) {
+            return false;
+        }
+        buffer.position(lineEnd < buffer.limit() ? lineEnd + 1 : lineEnd);
+        return true;
+    }
+
+    public void encode(Object[] values, ByteBuffer buffer) {
+        int recordStart = buffer.position();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.put(delimiter);
+            }
+            Object value = values[i];
+            if (value != null) {
+                byte[] bytes = value.toString().getBytes(UTF8);
+                for (byte b : bytes) {
+                    if (b == delimiter || b == LF || b == CR) {
+                        buffer.position(recordStart);   // discard the partially written record
+                        throw new EPException("Value '" + value + "' for property '" + propertyNames[i] + "' contains the delimiter or a line break and cannot be written in delimited format");
+                    }
+                }
+                buffer.put(bytes);
+            }
+        }
+        buffer.put(LF);
+    }
+
+    public void encodeHeader(ByteBuffer buffer) {
+        encode(propertyNames, buffer);
+    }
+
+    private int findLineEnd(ByteBuffer buffer, boolean endOfInput) {
+        int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            if (buffer.get(i) == LF) {
+                return i;
+            }
+        }
+        if (endOfInput && buffer.position() < limit) {
+            return limit;
+        }
+        return -1;
+    }
+
+    private Object parse(ByteBuffer buffer, int start, int end, int field) {
+        switch (fieldTypes[field]) {
+            case INT:
+                return (int) parseLong(buffer, start, end, field, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case LONG:
+                return parseLong(buffer, start, end, field, Long.MIN_VALUE, Long.MAX_VALUE);
+            case SHORT:
+                return (short) parseLong(buffer, start, end, field, Short.MIN_VALUE, Short.MAX_VALUE);
+            case BYTE:
+                return (byte) parseLong(buffer, start, end, field, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            default:
+                break;
+        }
+
+        String text = toString(buffer, start, end);
+        try {
+            switch (fieldTypes[field]) {
+                case STRING:
+                    return text;
+                case DOUBLE:
+                    return Double.parseDouble(text);
+                case FLOAT:
+                    return Float.parseFloat(text);
+                case BOOLEAN:
+                    return Boolean.parseBoolean(text.trim());
+                default:
+                    throw new IllegalStateException("Unrecognized field type " + fieldTypes[field]);
+            }
+        }
+        catch (NumberFormatException ex) {
+            throw makeParseException(text, field);
+        }
+    }
+
+    private long parseLong(ByteBuffer buffer, int start, int end, int field, long min, long max) {
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) {
+            throw makeParseException(toString(buffer, start, end), field);
+        }
+
+        // accumulate negatively so that the minimum value, which has no positive counterpart, can be parsed
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw makeParseException(toString(buffer, start, end), field);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw makeParseException(toString(buffer, start, end), field);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private String toString(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, UTF8);
+    }
+
+    private EPException makeParseException(String text, int field) {
+        return new EPException("Failed to parse value '" + text + "' for property '" + propertyNames[field] + "' of type " + fieldTypes[field]);
+    }
+}
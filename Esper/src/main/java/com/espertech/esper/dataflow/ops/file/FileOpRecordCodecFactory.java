@@ -0,0 +1,70 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.dataflow.ops.file;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.expression.ExprValidationException;
+
+import java.util.Arrays;
+
+/**
+ * Factory for record codecs.
+ */
+public class FileOpRecordCodecFactory {
+
+    /**
+     * Make a codec for the event type.
+     * @param format format name, or null for delimited
+     * @param delimiter delimiter for the delimited format, or null for comma
+     * @param eventType event type providing property names and types
+     * @return codec
+     * @throws ExprValidationException if the format or a property type is not supported
+     */
+    public static FileOpRecordCodec make(String format, String delimiter, EventType eventType) throws ExprValidationException {
+        FileOpFormat formatEnum = FileOpFormat.delimited;
+        if (format != null) {
+            try {
+                formatEnum = FileOpFormat.valueOf(format.trim().toLowerCase());
+            }
+            catch (RuntimeException ex) {
+                throw new ExprValidationException("Format '" + format + "' is not supported, expecting any of " + Arrays.toString(FileOpFormat.values()));
+            }
+        }
+
+        String[] propertyNames = eventType.getPropertyNames();
+        FileOpFieldType[] fieldTypes = new FileOpFieldType[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            fieldTypes[i] = FileOpFieldType.fromType(eventType.getPropertyType(propertyNames[i]));
+            if (fieldTypes[i] == null) {
+                throw new ExprValidationException("Property '" + propertyNames[i] + "' of event type '" + eventType.getName() + "' has type " + eventType.getPropertyType(propertyNames[i]).getName() + " which is not supported, expecting any of " + Arrays.toString(FileOpFieldType.values()));
+            }
+        }
+
+        if (formatEnum == FileOpFormat.binary) {
+            return new FileOpRecordCodecBinary(fieldTypes);
+        }
+
+        byte delimiterByte = ',';
+        if (delimiter != null) {
+            if (delimiter.length() != 1 || delimiter.charAt(0) > 127 || delimiter.charAt(0) == '\n' || delimiter.charAt(0) == '\r') {
+                throw new ExprValidationException("Delimiter '" + delimiter + "' is not supported, expecting a single ASCII character other than line feed or carriage return");
+            }
+            delimiterByte = (byte) delimiter.charAt(0);
+        }
+        return new FileOpRecordCodecDelimited(propertyNames, fieldTypes, delimiterByte);
+    }
+
+    public static enum FileOpFormat {
+        binary,
+        delimited
+    }
+}
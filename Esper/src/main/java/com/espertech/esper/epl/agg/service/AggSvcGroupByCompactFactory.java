@@ -0,0 +1,38 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.ExprEvaluator;
+
+/**
+ * Factory for aggregation service with grouping by group-keys, keeping aggregation state in a compact table.
+ */
+public class AggSvcGroupByCompactFactory extends AggregationServiceFactoryBase
+{
+    private final boolean isReclaim;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * aggregation states for each group
+     * @param isReclaim - true to remove groups that have no more data points
+     */
+    public AggSvcGroupByCompactFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], boolean isReclaim)
+    {
+        super(evaluators, prototypes);
+        this.isReclaim = isReclaim;
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, MethodResolutionService methodResolutionService) {
+        return new AggSvcGroupByCompactImpl(evaluators, aggregators, methodResolutionService, agentInstanceContext.getAgentInstanceId(), isReclaim);
+    }
+}
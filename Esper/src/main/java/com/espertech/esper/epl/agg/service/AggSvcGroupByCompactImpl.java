@@ -0,0 +1,577 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.ExprEvaluator;
+import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state in a compact
+ * open-addressing table rather than a map of aggregator objects per group.
+ * <p>
+ * Groups occupy a slot in parallel arrays (linear probing, backward-shift deletion). Single group-by keys of type
+ * Long or Integer are kept as primitive longs, other keys as objects. The sum, average and count aggregations of
+ * the built-in aggregators are flattened into primitive arrays per column; other aggregations keep one aggregator
+ * instance per group and column.
+ */
+public class AggSvcGroupByCompactImpl extends AggregationServiceBaseGrouped
+{
+    private static final int KIND_AGGREGATOR = 0;
+    private static final int KIND_SUM_LONG = 1;
+    private static final int KIND_SUM_INTEGER = 2;
+    private static final int KIND_SUM_DOUBLE = 3;
+    private static final int KIND_AVG = 4;
+    private static final int KIND_COUNT = 5;
+    private static final int KIND_COUNT_NONNULL = 6;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final MethodResolutionService methodResolutionService;
+    private final int agentInstanceId;
+    private final boolean isReclaim;
+    private final int[] kinds;
+
+    // fresh aggregators providing the values for groups that don't exist
+    private final AggregationMethod[] emptyRow;
+
+    // slots 0 to capacity-1 are the hash table, slot "capacity" holds the null key
+    private int capacity;
+    private int size;
+    private boolean[] used;
+    private Object[] keys;
+    private long[] longKeys;
+    private Class longKeyClass;
+    private boolean isLongKeys;
+    private boolean isKeyModeAssigned;
+    private long[] refcounts;
+    private long[][] counts;
+    private long[][] longSums;
+    private double[][] doubleSums;
+    private AggregationMethod[][] methods;
+
+    private int currentSlot = -1;
+    private final List<Object> removedKeys;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * aggregation states for each group
+     * @param methodResolutionService - factory for creating additional aggregation method instances per group key
+     * @param agentInstanceId agent instance id
+     * @param isReclaim true to remove groups that have no more data points
+     */
+    public AggSvcGroupByCompactImpl(ExprEvaluator evaluators[],
+                                    AggregationMethodFactory prototypes[],
+                                    MethodResolutionService methodResolutionService,
+                                    int agentInstanceId,
+                                    boolean isReclaim)
+    {
+        super(evaluators, prototypes);
+        this.methodResolutionService = methodResolutionService;
+        this.agentInstanceId = agentInstanceId;
+        this.isReclaim = isReclaim;
+        this.removedKeys = new ArrayList<Object>();
+
+        emptyRow = methodResolutionService.newAggregators(prototypes, agentInstanceId);
+        kinds = new int[prototypes.length];
+        for (int i = 0; i < emptyRow.length; i++) {
+            kinds[i] = getKind(emptyRow[i]);
+        }
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        removedKeys.clear();
+        isKeyModeAssigned = false;
+        isLongKeys = false;
+        longKeyClass = null;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        handleRemovedKeys();
+
+        int slot = find(groupByKey);
+        if (slot == -1) {
+            slot = insert(groupByKey);
+        }
+        else {
+            refcounts[slot]++;
+        }
+        currentSlot = slot;
+
+        // For this row, evaluate sub-expressions, enter result
+        for (int j = 0; j < evaluators.length; j++)
+        {
+            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
+            enter(j, slot, columnResult);
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        int slot = find(groupByKey);
+        if (slot == -1) {
+            slot = insert(groupByKey);
+        }
+        currentSlot = slot;
+
+        // For this row, evaluate sub-expressions, enter result
+        for (int j = 0; j < evaluators.length; j++)
+        {
+            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
+            leave(j, slot, columnResult);
+        }
+
+        if (isReclaim) {
+            refcounts[slot]--;
+            if (refcounts[slot] <= 0)
+            {
+                removedKeys.add(groupByKey);
+                methodResolutionService.removeAggregators(exprEvaluatorContext.getAgentInstanceId(), groupByKey);  // allow persistence to remove keys already
+            }
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId)
+    {
+        currentSlot = find(groupByKey);
+    }
+
+    public Object getValue(int column, int agentInstanceId)
+    {
+        int slot = currentSlot;
+        if (slot == -1) {
+            return emptyRow[column].getValue();
+        }
+        switch (kinds[column]) {
+            case KIND_SUM_LONG:
+                return counts[column][slot] == 0 ? null : (Object) longSums[column][slot];
+            case KIND_SUM_INTEGER:
+                return counts[column][slot] == 0 ? null : (Object) (int) longSums[column][slot];
+            case KIND_SUM_DOUBLE:
+                return counts[column][slot] == 0 ? null : (Object) doubleSums[column][slot];
+            case KIND_AVG:
+                return counts[column][slot] == 0 ? null : (Object) (doubleSums[column][slot] / counts[column][slot]);
+            case KIND_COUNT:
+            case KIND_COUNT_NONNULL:
+                return counts[column][slot];
+            default:
+                return methods[column][slot].getValue();
+        }
+    }
+
+    public Collection<EventBean> getCollection(int column, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    /**
+     * Returns the number of groups.
+     * @return group count
+     */
+    public int getNumGroups() {
+        return used[capacity] ? size + 1 : size;
+    }
+
+    private void handleRemovedKeys() {
+        if (!removedKeys.isEmpty())     // we collect removed keys lazily on the next enter to reduce the chance of empty-group queries creating empty aggregators temporarily
+        {
+            for (Object removedKey : removedKeys)
+            {
+                int slot = find(removedKey);
+                if (slot != -1) {
+                    removeSlot(slot);
+                }
+            }
+            removedKeys.clear();
+        }
+    }
+
+    private void enter(int column, int slot, Object value) {
+        switch (kinds[column]) {
+            case KIND_SUM_LONG:
+                if (value != null) {
+                    counts[column][slot]++;
+                    longSums[column][slot] += (Long) value;
+                }
+                break;
+            case KIND_SUM_INTEGER:
+                if (value != null) {
+                    counts[column][slot]++;
+                    longSums[column][slot] += (Integer) value;
+                }
+                break;
+            case KIND_SUM_DOUBLE:
+                if (value != null) {
+                    counts[column][slot]++;
+                    doubleSums[column][slot] += (Double) value;
+                }
+                break;
+            case KIND_AVG:
+                if (value != null) {
+                    counts[column][slot]++;
+                    doubleSums[column][slot] += ((Number) value).doubleValue();
+                }
+                break;
+            case KIND_COUNT:
+                counts[column][slot]++;
+                break;
+            case KIND_COUNT_NONNULL:
+                if (value != null) {
+                    counts[column][slot]++;
+                }
+                break;
+            default:
+                methods[column][slot].enter(value);
+        }
+    }
+
+    private void leave(int column, int slot, Object value) {
+        switch (kinds[column]) {
+            case KIND_SUM_LONG:
+                if (value != null) {
+                    counts[column][slot]--;
+                    longSums[column][slot] -= (Long) value;
+                }
+                break;
+            case KIND_SUM_INTEGER:
+                if (value != null) {
+                    counts[column][slot]--;
+                    longSums[column][slot] -= (Integer) value;
+                }
+                break;
+            case KIND_SUM_DOUBLE:
+                if (value != null) {
+                    counts[column][slot]--;
+                    doubleSums[column][slot] -= (Double) value;
+                }
+                break;
+            case KIND_AVG:
+                if (value != null) {
+                    counts[column][slot]--;
+                    doubleSums[column][slot] -= ((Number) value).doubleValue();
+                }
+                break;
+            case KIND_COUNT:
+                counts[column][slot]--;
+                break;
+            case KIND_COUNT_NONNULL:
+                if (value != null) {
+                    counts[column][slot]--;
+                }
+                break;
+            default:
+                methods[column][slot].leave(value);
+        }
+    }
+
+    private static int getKind(AggregationMethod method) {
+        Class clazz = method.getClass();
+        if (clazz == AggregatorSumLong.class) {
+            return KIND_SUM_LONG;
+        }
+        if (clazz == AggregatorSumInteger.class) {
+            return KIND_SUM_INTEGER;
+        }
+        if (clazz == AggregatorSumDouble.class) {
+            return KIND_SUM_DOUBLE;
+        }
+        if (clazz == AggregatorAvg.class) {
+            return KIND_AVG;
+        }
+        if (clazz == AggregatorCount.class) {
+            return KIND_COUNT;
+        }
+        if (clazz == AggregatorCountNonNull.class) {
+            return KIND_COUNT_NONNULL;
+        }
+        return KIND_AGGREGATOR;
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        size = 0;
+        currentSlot = -1;
+        int slots = newCapacity + 1;
+        used = new boolean[slots];
+        keys = isLongKeys ? null : new Object[slots];
+        longKeys = isLongKeys ? new long[slots] : null;
+        refcounts = new long[slots];
+        counts = new long[kinds.length][];
+        longSums = new long[kinds.length][];
+        doubleSums = new double[kinds.length][];
+        methods = new AggregationMethod[kinds.length][];
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case KIND_SUM_LONG:
+                case KIND_SUM_INTEGER:
+                    counts[i] = new long[slots];
+                    longSums[i] = new long[slots];
+                    break;
+                case KIND_SUM_DOUBLE:
+                case KIND_AVG:
+                    counts[i] = new long[slots];
+                    doubleSums[i] = new double[slots];
+                    break;
+                case KIND_COUNT:
+                case KIND_COUNT_NONNULL:
+                    counts[i] = new long[slots];
+                    break;
+                default:
+                    methods[i] = new AggregationMethod[slots];
+            }
+        }
+    }
+
+    private int find(Object key) {
+        if (key == null) {
+            return used[capacity] ? capacity : -1;
+        }
+        if (!isKeyModeAssigned) {
+            return -1;
+        }
+        int mask = capacity - 1;
+        if (isLongKeys) {
+            if (key.getClass() != longKeyClass) {
+                return -1;
+            }
+            long value = ((Number) key).longValue();
+            int slot = hash(value) & mask;
+            while (used[slot]) {
+                if (longKeys[slot] == value) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (key.equals(keys[slot])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(Object key) {
+        if (key != null) {
+            if (!isKeyModeAssigned) {
+                isKeyModeAssigned = true;
+                Class clazz = key.getClass();
+                if (clazz == Long.class || clazz == Integer.class) {
+                    rehash(capacity, true, clazz);
+                }
+            }
+            else if (isLongKeys && key.getClass() != longKeyClass) {
+                // a different key type, continue with object keys
+                rehash(capacity, false, null);
+            }
+            if ((size + 1) * 4 > capacity * 3) {
+                rehash(capacity * 2, isLongKeys, longKeyClass);
+            }
+        }
+
+        int slot;
+        if (key == null) {
+            slot = capacity;
+        }
+        else {
+            int mask = capacity - 1;
+            slot = (isLongKeys ? hash(((Number) key).longValue()) : hash(key)) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            size++;
+            if (isLongKeys) {
+                longKeys[slot] = ((Number) key).longValue();
+            }
+            else {
+                keys[slot] = key;
+            }
+        }
+
+        used[slot] = true;
+        refcounts[slot] = 1;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == KIND_AGGREGATOR) {
+                methods[i][slot] = aggregators[i].make(methodResolutionService, agentInstanceId, -1, i);
+            }
+        }
+        return slot;
+    }
+
+    private void rehash(int newCapacity, boolean newLongKeys, Class newLongKeyClass) {
+        int oldCapacity = capacity;
+        boolean[] oldUsed = used;
+        Object[] oldKeys = keys;
+        long[] oldLongKeys = longKeys;
+        boolean oldIsLongKeys = isLongKeys;
+        Class oldLongKeyClass = longKeyClass;
+        long[] oldRefcounts = refcounts;
+        long[][] oldCounts = counts;
+        long[][] oldLongSums = longSums;
+        double[][] oldDoubleSums = doubleSums;
+        AggregationMethod[][] oldMethods = methods;
+
+        isLongKeys = newLongKeys;
+        longKeyClass = newLongKeyClass;
+        allocate(newCapacity);
+
+        for (int from = 0; from <= oldCapacity; from++) {
+            if (!oldUsed[from]) {
+                continue;
+            }
+            int to;
+            if (from == oldCapacity) {
+                to = capacity;
+            }
+            else {
+                int mask = capacity - 1;
+                Object key = null;
+                long longKey = 0;
+                if (oldIsLongKeys) {
+                    longKey = oldLongKeys[from];
+                    if (!isLongKeys) {
+                        key = oldLongKeyClass == Integer.class ? (Object) (int) longKey : (Object) longKey;
+                    }
+                }
+                else {
+                    key = oldKeys[from];
+                }
+                to = (isLongKeys ? hash(longKey) : hash(key)) & mask;
+                while (used[to]) {
+                    to = (to + 1) & mask;
+                }
+                if (isLongKeys) {
+                    longKeys[to] = longKey;
+                }
+                else {
+                    keys[to] = key;
+                }
+                size++;
+            }
+            used[to] = true;
+            refcounts[to] = oldRefcounts[from];
+            for (int i = 0; i < kinds.length; i++) {
+                if (counts[i] != null) {
+                    counts[i][to] = oldCounts[i][from];
+                }
+                if (longSums[i] != null) {
+                    longSums[i][to] = oldLongSums[i][from];
+                }
+                if (doubleSums[i] != null) {
+                    doubleSums[i][to] = oldDoubleSums[i][from];
+                }
+                if (methods[i] != null) {
+                    methods[i][to] = oldMethods[i][from];
+                }
+            }
+        }
+    }
+
+    private void removeSlot(int slot) {
+        if (slot == capacity) {
+            clearSlot(slot);
+            return;
+        }
+        clearSlot(slot);
+        size--;
+
+        // shift back entries that follow in the same probe sequence
+        int mask = capacity - 1;
+        int free = slot;
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            int home = (isLongKeys ? hash(longKeys[next]) : hash(keys[next])) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                moveSlot(next, free);
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void moveSlot(int from, int to) {
+        used[to] = true;
+        if (isLongKeys) {
+            longKeys[to] = longKeys[from];
+        }
+        else {
+            keys[to] = keys[from];
+        }
+        refcounts[to] = refcounts[from];
+        for (int i = 0; i < kinds.length; i++) {
+            if (counts[i] != null) {
+                counts[i][to] = counts[i][from];
+            }
+            if (longSums[i] != null) {
+                longSums[i][to] = longSums[i][from];
+            }
+            if (doubleSums[i] != null) {
+                doubleSums[i][to] = doubleSums[i][from];
+            }
+            if (methods[i] != null) {
+                methods[i][to] = methods[i][from];
+            }
+        }
+        clearSlot(from);
+    }
+
+    private void clearSlot(int slot) {
+        used[slot] = false;
+        if (keys != null) {
+            keys[slot] = null;
+        }
+        refcounts[slot] = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            if (counts[i] != null) {
+                counts[i][slot] = 0;
+            }
+            if (longSums[i] != null) {
+                longSums[i][slot] = 0;
+            }
+            if (doubleSums[i] != null) {
+                doubleSums[i][slot] = 0;
+            }
+            if (methods[i] != null) {
+                methods[i][slot] = null;
+            }
+        }
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
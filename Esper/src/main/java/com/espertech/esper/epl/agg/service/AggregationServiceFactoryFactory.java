@@ -292,9 +292,13 @@ public class AggregationServiceFactoryFactory
             boolean hasNoReclaim = HintEnum.DISABLE_RECLAIM_GROUP.getHint(annotations) != null;
             Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
             Hint reclaimGroupFrequency = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
+            boolean isCompact = HintEnum.COMPACT_GROUP_STATE.getHint(annotations) != null;
             if (hasNoReclaim)
             {
-                if ((evaluatorsArr.length > 0) && (accessorPairs.length == 0)) {
+                if ((evaluatorsArr.length > 0) && (accessorPairs.length == 0) && isCompact) {
+                    serviceFactory = factoryService.getGroupCompact(evaluatorsArr, aggregatorsArr, false);
+                }
+                else if ((evaluatorsArr.length > 0) && (accessorPairs.length == 0)) {
                     serviceFactory = factoryService.getGroupedNoReclaimNoAccess(evaluatorsArr, aggregatorsArr);
                 }
                 else if ((evaluatorsArr.length == 0) && (accessorPairs.length > 0)) {
@@ -310,7 +314,10 @@ public class AggregationServiceFactoryFactory
             }
             else
             {
-                if ((evaluatorsArr.length > 0) && (accessorPairs.length == 0)) {
+                if ((evaluatorsArr.length > 0) && (accessorPairs.length == 0) && isCompact) {
+                    serviceFactory = factoryService.getGroupCompact(evaluatorsArr, aggregatorsArr, true);
+                }
+                else if ((evaluatorsArr.length > 0) && (accessorPairs.length == 0)) {
                     serviceFactory = factoryService.getGroupReclaimNoAccess(evaluatorsArr, aggregatorsArr, accessorPairs, accessAggregations, isJoin);
                 }
                 else {
@@ -57,6 +57,10 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
         return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr);
     }
 
+    public AggregationServiceFactory getGroupCompact(ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean reclaim) {
+        return new AggSvcGroupByCompactFactory(evaluatorsArr, aggregatorsArr, reclaim);
+    }
+
     public AggregationServiceFactory getGroupReclaimMixable(ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join) {
         return new AggSvcGroupByRefcountedWAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join);
     }
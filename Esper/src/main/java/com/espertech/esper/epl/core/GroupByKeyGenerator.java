@@ -0,0 +1,29 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+
+/**
+ * Generates the group-by key for a row of events.
+ * <p>
+ * Keys generated by the same generator are comparable by equals and hashCode, keys of different generators are not.
+ */
+public interface GroupByKeyGenerator
+{
+    /**
+     * Returns the group-by key.
+     * @param eventsPerStream is the row of events
+     * @param isNewData is true for new data
+     * @param exprEvaluatorContext context for expression evaluation
+     * @return group-by key
+     */
+    public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext);
+}
@@ -0,0 +1,174 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyLong2;
+import com.espertech.esper.collection.MultiKeyLong3;
+import com.espertech.esper.collection.MultiKeyObject2;
+import com.espertech.esper.collection.MultiKeyObject3;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.epl.expression.ExprEvaluator;
+import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Factory for group-by key generators, choosing a key representation based on the number and
+ * the types of the group-by expressions.
+ * <p>
+ * A single expression produces the expression value as the key.
+ * Two or three expressions returning integral values produce a key holding primitive longs,
+ * or a key holding objects if any value is null. Other two or three expressions produce a key holding objects.
+ * More than three expressions produce a {@link MultiKeyUntyped}.
+ */
+public class GroupByKeyGeneratorFactory
+{
+    /**
+     * Returns the key generator for the group-by expressions.
+     * @param evaluators group-by expressions
+     * @return key generator
+     */
+    public static GroupByKeyGenerator make(ExprEvaluator[] evaluators)
+    {
+        if (evaluators.length == 1) {
+            return new GroupByKeyGeneratorSingle(evaluators[0]);
+        }
+        boolean integral = true;
+        for (ExprEvaluator evaluator : evaluators) {
+            integral &= isIntegral(evaluator.getType());
+        }
+        if (evaluators.length == 2) {
+            if (integral) {
+                return new GroupByKeyGeneratorLong2(evaluators[0], evaluators[1]);
+            }
+            return new GroupByKeyGeneratorObject2(evaluators[0], evaluators[1]);
+        }
+        if (evaluators.length == 3) {
+            if (integral) {
+                return new GroupByKeyGeneratorLong3(evaluators[0], evaluators[1], evaluators[2]);
+            }
+            return new GroupByKeyGeneratorObject3(evaluators[0], evaluators[1], evaluators[2]);
+        }
+        return new GroupByKeyGeneratorUntyped(evaluators);
+    }
+
+    private static boolean isIntegral(Class type)
+    {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        return boxed == Long.class || boxed == Integer.class || boxed == Short.class || boxed == Byte.class;
+    }
+
+    private static class GroupByKeyGeneratorSingle implements GroupByKeyGenerator
+    {
+        private final ExprEvaluator evaluator;
+
+        private GroupByKeyGeneratorSingle(ExprEvaluator evaluator) {
+            this.evaluator = evaluator;
+        }
+
+        public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+            return evaluator.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+        }
+    }
+
+    private static class GroupByKeyGeneratorUntyped implements GroupByKeyGenerator
+    {
+        private final ExprEvaluator[] evaluators;
+
+        private GroupByKeyGeneratorUntyped(ExprEvaluator[] evaluators) {
+            this.evaluators = evaluators;
+        }
+
+        public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+            Object[] keys = new Object[evaluators.length];
+            for (int i = 0; i < evaluators.length; i++) {
+                keys[i] = evaluators[i].evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            }
+            return new MultiKeyUntyped(keys);
+        }
+    }
+
+    private static class GroupByKeyGeneratorObject2 implements GroupByKeyGenerator
+    {
+        private final ExprEvaluator first;
+        private final ExprEvaluator second;
+
+        private GroupByKeyGeneratorObject2(ExprEvaluator first, ExprEvaluator second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+            return new MultiKeyObject2(first.evaluate(eventsPerStream, isNewData, exprEvaluatorContext),
+                                       second.evaluate(eventsPerStream, isNewData, exprEvaluatorContext));
+        }
+    }
+
+    private static class GroupByKeyGeneratorObject3 implements GroupByKeyGenerator
+    {
+        private final ExprEvaluator first;
+        private final ExprEvaluator second;
+        private final ExprEvaluator third;
+
+        private GroupByKeyGeneratorObject3(ExprEvaluator first, ExprEvaluator second, ExprEvaluator third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+
+        public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+            return new MultiKeyObject3(first.evaluate(eventsPerStream, isNewData, exprEvaluatorContext),
+                                       second.evaluate(eventsPerStream, isNewData, exprEvaluatorContext),
+                                       third.evaluate(eventsPerStream, isNewData, exprEvaluatorContext));
+        }
+    }
+
+    private static class GroupByKeyGeneratorLong2 implements GroupByKeyGenerator
+    {
+        private final ExprEvaluator first;
+        private final ExprEvaluator second;
+
+        private GroupByKeyGeneratorLong2(ExprEvaluator first, ExprEvaluator second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+            Object one = first.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            Object two = second.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            if (!(one instanceof Number) || !(two instanceof Number)) {
+                return new MultiKeyObject2(one, two);
+            }
+            return new MultiKeyLong2(((Number) one).longValue(), ((Number) two).longValue());
+        }
+    }
+
+    private static class GroupByKeyGeneratorLong3 implements GroupByKeyGenerator
+    {
+        private final ExprEvaluator first;
+        private final ExprEvaluator second;
+        private final ExprEvaluator third;
+
+        private GroupByKeyGeneratorLong3(ExprEvaluator first, ExprEvaluator second, ExprEvaluator third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+
+        public Object generate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+            Object one = first.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            Object two = second.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            Object three = third.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
+            if (!(one instanceof Number) || !(two instanceof Number) || !(three instanceof Number)) {
+                return new MultiKeyObject3(one, two, three);
+            }
+            return new MultiKeyLong3(((Number) one).longValue(), ((Number) two).longValue(), ((Number) three).longValue());
+        }
+    }
+}
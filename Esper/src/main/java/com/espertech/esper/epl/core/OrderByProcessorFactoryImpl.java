@@ -31,6 +31,7 @@ public class OrderByProcessorFactoryImpl implements OrderByProcessorFactory {
 
 	private final OrderByElement[] orderBy;
 	private final ExprEvaluator[] groupByNodes;
+	private final GroupByKeyGenerator groupByKeyGenerator;
 	private final boolean needsGroupByKeys;
 	private final Comparator<Object> comparator;
 
@@ -55,6 +56,7 @@ public class OrderByProcessorFactoryImpl implements OrderByProcessorFactory {
     {
 		this.orderBy = toElementArray(orderByList);
 		this.groupByNodes = ExprNodeUtility.getEvaluators(groupByNodes);
+		this.groupByKeyGenerator = this.groupByNodes == null ? null : GroupByKeyGeneratorFactory.make(this.groupByNodes);
 		this.needsGroupByKeys = needsGroupByKeys;
 
         comparator = getComparator(orderBy, isSortUsingCollator);
@@ -72,6 +74,10 @@ public class OrderByProcessorFactoryImpl implements OrderByProcessorFactory {
         return groupByNodes;
     }
 
+    public GroupByKeyGenerator getGroupByKeyGenerator() {
+        return groupByKeyGenerator;
+    }
+
     public boolean isNeedsGroupByKeys() {
         return needsGroupByKeys;
     }
@@ -259,19 +259,6 @@ public class OrderByProcessorImpl implements OrderByProcessor {
 
     private Object generateGroupKey(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
     {
-        ExprEvaluator[] evals = factory.getGroupByNodes();
-        if (evals.length == 1) {
-            return evals[0].evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
-        }
-
-        Object[] keys = new Object[evals.length];
-        int count = 0;
-        for (ExprEvaluator exprNode : evals)
-        {
-            keys[count] = exprNode.evaluate(eventsPerStream, isNewData, exprEvaluatorContext);
-            count++;
-        }
-
-        return new MultiKeyUntyped(keys);
+        return factory.getGroupByKeyGenerator().generate(eventsPerStream, isNewData, exprEvaluatorContext);
     }
 }
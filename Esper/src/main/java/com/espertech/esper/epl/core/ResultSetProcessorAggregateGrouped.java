@@ -12,7 +12,6 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.ArrayEventIterator;
 import com.espertech.esper.collection.MultiKey;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.service.AggregationRowRemovedCallback;
@@ -288,20 +287,7 @@ public class ResultSetProcessorAggregateGrouped implements ResultSetProcessor, A
      */
     protected Object generateGroupKey(EventBean[] eventsPerStream, boolean isNewData)
     {
-        if (prototype.getGroupKeyNode() != null) {
-            return prototype.getGroupKeyNode().evaluate(eventsPerStream, isNewData, agentInstanceContext);
-        }
-
-        Object[] keys = new Object[prototype.getGroupKeyNodes().length];
-
-        int count = 0;
-        for (ExprEvaluator exprNode : prototype.getGroupKeyNodes())
-        {
-            keys[count] = exprNode.evaluate(eventsPerStream, isNewData, agentInstanceContext);
-            count++;
-        }
-
-        return new MultiKeyUntyped(keys);
+        return prototype.getGroupKeyGenerator().generate(eventsPerStream, isNewData, agentInstanceContext);
     }
 
     private EventBean[] generateOutputEventsJoin(Set<MultiKey<EventBean>> resultSet, Object[] groupByKeys, Map<Object, EventBean[]> generators, boolean isNewData, boolean isSynthesize)
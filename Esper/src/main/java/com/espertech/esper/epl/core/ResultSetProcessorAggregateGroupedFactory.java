@@ -24,6 +24,7 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
     private final SelectExprProcessor selectExprProcessor;
     private final ExprEvaluator groupKeyNode;
     private final ExprEvaluator[] groupKeyNodes;
+    private final GroupByKeyGenerator groupKeyGenerator;
     private final ExprEvaluator optionalHavingNode;
     private final boolean isSorting;
     private final boolean isSelectRStream;
@@ -56,6 +57,7 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
             groupKeyNode = null;
         }
         this.groupKeyNodes = groupKeyNodes;
+        this.groupKeyGenerator = GroupByKeyGeneratorFactory.make(groupKeyNodes);
         this.optionalHavingNode = optionalHavingNode;
         this.isSorting = isSorting;
         this.isSelectRStream = isSelectRStream;
@@ -100,6 +102,10 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
         return outputLimitSpec;
     }
 
+    public GroupByKeyGenerator getGroupKeyGenerator() {
+        return groupKeyGenerator;
+    }
+
     public ExprEvaluator getGroupKeyNode() {
         return groupKeyNode;
     }
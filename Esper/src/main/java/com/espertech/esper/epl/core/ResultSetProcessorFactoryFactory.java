@@ -448,7 +448,7 @@ public class ResultSetProcessorFactoryFactory
         // There is a group-by clause, and all event properties in the select clause that are not under an aggregation
         // function are listed in the group-by clause, and if there is an order-by clause, all non-aggregated properties
         // referred to in the order-by clause also appear in the select (output one row per group, not one row per event)
-        ExprEvaluator[] groupByEval = ExprNodeUtility.getEvaluators(groupByNodes);
+        ExprEvaluator[] groupByEval = ExprNodeCompiler.compile(groupByNodes, stmtContext.getConfigSnapshot());
         if (allInGroupBy && allInSelect)
         {
             log.debug(".getProcessor Using ResultSetProcessorRowPerGroup");
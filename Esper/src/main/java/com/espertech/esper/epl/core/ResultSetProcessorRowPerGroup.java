@@ -12,7 +12,6 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.ArrayEventIterator;
 import com.espertech.esper.collection.MultiKey;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.service.AggregationRowRemovedCallback;
@@ -1573,19 +1572,6 @@ public class ResultSetProcessorRowPerGroup implements ResultSetProcessor, Aggreg
     }
 
     protected Object generateGroupKey(EventBean[] eventsPerStream, boolean isNewData) {
-        if (prototype.getGroupKeyNode() != null) {
-            return prototype.getGroupKeyNode().evaluate(eventsPerStream, isNewData, agentInstanceContext);
-        }
-        else {
-            ExprEvaluator[] evals = prototype.getGroupKeyNodes();
-            Object[] keys = new Object[evals.length];
-
-            for (int i = 0; i < evals.length; i++)
-            {
-                keys[i] = evals[i].evaluate(eventsPerStream, isNewData, agentInstanceContext);
-            }
-
-            return new MultiKeyUntyped(keys);
-        }
+        return prototype.getGroupKeyGenerator().generate(eventsPerStream, isNewData, agentInstanceContext);
     }
 }
@@ -25,6 +25,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     private final SelectExprProcessor selectExprProcessor;
     private final ExprEvaluator groupKeyNode;
     private final ExprEvaluator[] groupKeyNodes;
+    private final GroupByKeyGenerator groupKeyGenerator;
     private final ExprEvaluator optionalHavingNode;
     private final boolean isSorting;
     private final boolean isSelectRStream;
@@ -52,6 +53,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     {
         this.selectExprProcessor = selectExprProcessor;
         this.groupKeyNodes = groupKeyNodes;
+        this.groupKeyGenerator = GroupByKeyGeneratorFactory.make(groupKeyNodes);
         if (groupKeyNodes.length == 1) {
             this.groupKeyNode = groupKeyNodes[0];
         }
@@ -86,6 +88,10 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
         return groupKeyNodes;
     }
 
+    public GroupByKeyGenerator getGroupKeyGenerator() {
+        return groupKeyGenerator;
+    }
+
     public ExprEvaluator getGroupKeyNode() {
         return groupKeyNode;
     }
@@ -177,7 +177,7 @@ public class SelectExprProcessorHelper
         {
             ExprNode expr = selectionList.get(i).getSelectExpression();
             exprNodes[i] = expr;
-            exprEvaluators[i] = expr.getExprEvaluator();
+            exprEvaluators[i] = ExprNodeCompiler.compile(expr, configuration);
             Map<String, Object> eventTypeExpr = exprEvaluators[i].getEventType();
             if (eventTypeExpr == null) {
                 expressionReturnTypes[i] = exprEvaluators[i].getType();
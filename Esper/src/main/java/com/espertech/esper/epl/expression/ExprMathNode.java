@@ -171,4 +171,22 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
     {
         return mathArithTypeEnum;
     }
+
+    /**
+     * Returns true for integer division.
+     * @return indicator
+     */
+    public boolean isIntegerDivision()
+    {
+        return isIntegerDivision;
+    }
+
+    /**
+     * Returns true for division-by-zero returning null.
+     * @return indicator
+     */
+    public boolean isDivisionByZeroReturnsNull()
+    {
+        return isDivisionByZeroReturnsNull;
+    }
 }
@@ -0,0 +1,62 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression;
+
+import com.espertech.esper.client.EventPropertyGetter;
+
+import java.util.Map;
+
+/**
+ * Base class for expression evaluators generated by {@link ExprNodeCompiler}, holding the interpreted
+ * evaluators of sub-expressions that are not compiled, as well as constants and property getters.
+ */
+public abstract class ExprNodeCompiledEvaluatorBase implements ExprEvaluator
+{
+    /**
+     * Interpreted sub-expressions.
+     */
+    protected final ExprEvaluator[] evaluators;
+
+    /**
+     * Non-primitive constants.
+     */
+    protected final Object[] constants;
+
+    /**
+     * Property getters.
+     */
+    protected final EventPropertyGetter[] getters;
+
+    private final Class type;
+
+    /**
+     * Ctor.
+     * @param evaluators interpreted sub-expressions
+     * @param constants non-primitive constants
+     * @param getters property getters
+     * @param type result type
+     */
+    protected ExprNodeCompiledEvaluatorBase(ExprEvaluator[] evaluators, Object[] constants, EventPropertyGetter[] getters, Class type)
+    {
+        this.evaluators = evaluators;
+        this.constants = constants;
+        this.getters = getters;
+        this.type = type;
+    }
+
+    public Class getType()
+    {
+        return type;
+    }
+
+    public Map<String, Object> getEventType() throws ExprValidationException
+    {
+        return null;
+    }
+}
@@ -0,0 +1,884 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression;
+
+import com.espertech.esper.client.ConfigurationInformation;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.CoercionException;
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.ClassWriter;
+import net.sf.cglib.asm.Label;
+import net.sf.cglib.asm.MethodVisitor;
+import net.sf.cglib.asm.Opcodes;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles a validated expression node tree into a bytecode-generated {@link ExprEvaluator}.
+ * <p>
+ * Arithmetic on int, long, float and double results, relational operators on numeric operands,
+ * equals and is-operators as well as and, or and not are compiled into a single method that operates on
+ * primitive locals, removing the boxing and virtual dispatch between the nodes of the tree.
+ * Event properties are read directly through the property getter. Any other node is evaluated
+ * by its interpreted evaluator from within the generated method, such that the compiled evaluator
+ * returns the same results as the interpreted evaluator for any tree.
+ * <p>
+ * When code generation is not enabled, or the root node is not one of the compiled operators, or compilation
+ * fails for any reason, the interpreted evaluator of the node is returned.
+ */
+public class ExprNodeCompiler implements Opcodes
+{
+    private static final Log log = LogFactory.getLog(ExprNodeCompiler.class);
+
+    private static final String BASE_CLASS = "com/espertech/esper/epl/expression/ExprNodeCompiledEvaluatorBase";
+    private static final String CLASS_PREFIX = "com.espertech.esper.epl.expression.ExprNodeCompiledEvaluator";
+    private static final String EVALUATOR = "com/espertech/esper/epl/expression/ExprEvaluator";
+    private static final String GETTER = "com/espertech/esper/client/EventPropertyGetter";
+    private static final String EVALUATE_DESC = "([Lcom/espertech/esper/client/EventBean;ZLcom/espertech/esper/epl/expression/ExprEvaluatorContext;)Ljava/lang/Object;";
+    private static final String CTOR_DESC = "([Lcom/espertech/esper/epl/expression/ExprEvaluator;[Ljava/lang/Object;[Lcom/espertech/esper/client/EventPropertyGetter;Ljava/lang/Class;)V";
+
+    private static final AtomicLong classNumber = new AtomicLong();
+
+    private final MethodVisitor mv;
+    private final List<ExprEvaluator> evaluators = new ArrayList<ExprEvaluator>();
+    private final List<Object> constants = new ArrayList<Object>();
+    private final List<EventPropertyGetter> getters = new ArrayList<EventPropertyGetter>();
+    private int nextLocal = 4;  // this, eventsPerStream, isNewData, context
+
+    /**
+     * Returns the evaluator for the expression node, compiled if code generation is enabled by configuration.
+     * @param node validated expression node
+     * @param configuration engine configuration
+     * @return evaluator
+     */
+    public static ExprEvaluator compile(ExprNode node, ConfigurationInformation configuration)
+    {
+        if (configuration == null || !configuration.getEngineDefaults().getExpression().isCodeGeneration())
+        {
+            return node.getExprEvaluator();
+        }
+        return compile(node);
+    }
+
+    /**
+     * Returns the evaluators for the expression nodes, compiled if code generation is enabled by configuration.
+     * @param nodes validated expression nodes
+     * @param configuration engine configuration
+     * @return evaluators
+     */
+    public static ExprEvaluator[] compile(ExprNode[] nodes, ConfigurationInformation configuration)
+    {
+        ExprEvaluator[] result = new ExprEvaluator[nodes.length];
+        for (int i = 0; i < nodes.length; i++)
+        {
+            result[i] = compile(nodes[i], configuration);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a compiled evaluator for the expression node, or the interpreted evaluator if the node cannot be compiled.
+     * @param node validated expression node
+     * @return evaluator
+     */
+    public static ExprEvaluator compile(ExprNode node)
+    {
+        ExprEvaluator interpreted = node.getExprEvaluator();
+        try
+        {
+            if (compiledKind(node) == null)
+            {
+                return interpreted;
+            }
+            return generate(node, interpreted.getType());
+        }
+        catch (LinkageError ex)
+        {
+            log.debug("Failed to compile expression '" + node.toExpressionString() + "', using interpreted evaluation: " + ex.getMessage(), ex);
+            return interpreted;
+        }
+        catch (Exception ex)
+        {
+            log.debug("Failed to compile expression '" + node.toExpressionString() + "', using interpreted evaluation: " + ex.getMessage(), ex);
+            return interpreted;
+        }
+    }
+
+    private static ExprEvaluator generate(ExprNode node, Class type) throws Exception
+    {
+        String className = CLASS_PREFIX + classNumber.incrementAndGet();
+        String internalName = className.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internalName, null, BASE_CLASS, null);
+
+        MethodVisitor ctor = cw.visitMethod(ACC_PUBLIC, "<init>", CTOR_DESC, null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn(ALOAD, 0);
+        ctor.visitVarInsn(ALOAD, 1);
+        ctor.visitVarInsn(ALOAD, 2);
+        ctor.visitVarInsn(ALOAD, 3);
+        ctor.visitVarInsn(ALOAD, 4);
+        ctor.visitMethodInsn(INVOKESPECIAL, BASE_CLASS, "<init>", CTOR_DESC);
+        ctor.visitInsn(RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, "evaluate", EVALUATE_DESC, null, null);
+        mv.visitCode();
+        ExprNodeCompiler compiler = new ExprNodeCompiler(mv);
+        Label isNull = new Label();
+        Local result = compiler.gen(node, isNull);
+        compiler.load(result);
+        compiler.box(result.kind);
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(isNull);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        CompiledClassLoader loader = new CompiledClassLoader(ExprNodeCompiledEvaluatorBase.class.getClassLoader());
+        Class clazz = loader.define(className, cw.toByteArray());
+        Constructor ctorMethod = clazz.getConstructor(ExprEvaluator[].class, Object[].class, EventPropertyGetter[].class, Class.class);
+        return (ExprEvaluator) ctorMethod.newInstance(
+                compiler.evaluators.toArray(new ExprEvaluator[compiler.evaluators.size()]),
+                compiler.constants.toArray(),
+                compiler.getters.toArray(new EventPropertyGetter[compiler.getters.size()]),
+                type);
+    }
+
+    private ExprNodeCompiler(MethodVisitor mv)
+    {
+        this.mv = mv;
+    }
+
+    /**
+     * Returns the result kind of a node that is compiled, or null if the node is evaluated by its interpreted evaluator.
+     */
+    private static Kind compiledKind(ExprNode node)
+    {
+        ExprNode[] childNodes = node.getChildNodes();
+        if (node instanceof ExprMathNode)
+        {
+            Kind kind = arithKind(((ExprMathNode) node).getType());
+            if ((kind == null) || (childNodes.length != 2) ||
+                (!operandKind(childNodes[0]).isNumeric()) || (!operandKind(childNodes[1]).isNumeric()))
+            {
+                return null;
+            }
+            return kind;
+        }
+        if (node instanceof ExprRelationalOpNodeImpl)
+        {
+            if ((childNodes.length != 2) || (relationalCompareKind(childNodes) == null))
+            {
+                return null;
+            }
+            return Kind.BOOLEAN;
+        }
+        if (node instanceof ExprEqualsNodeImpl)
+        {
+            if ((childNodes.length != 2) || (equalsCompareKind(childNodes) == null))
+            {
+                return null;
+            }
+            return Kind.BOOLEAN;
+        }
+        if ((node instanceof ExprAndNodeImpl) || (node instanceof ExprOrNode) || (node instanceof ExprNotNode))
+        {
+            if ((childNodes.length == 0) || ((node instanceof ExprNotNode) && (childNodes.length != 1)))
+            {
+                return null;
+            }
+            for (ExprNode child : childNodes)
+            {
+                if (operandKind(child) != Kind.BOOLEAN)
+                {
+                    return null;
+                }
+            }
+            return Kind.BOOLEAN;
+        }
+        return null;
+    }
+
+    private static Kind operandKind(ExprNode node)
+    {
+        Kind kind = compiledKind(node);
+        if (kind != null)
+        {
+            return kind;
+        }
+        return kindOf(node.getExprEvaluator().getType());
+    }
+
+    private static Kind kindOf(Class type)
+    {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if ((boxed == Integer.class) || (boxed == Short.class) || (boxed == Byte.class))
+        {
+            return Kind.INT;
+        }
+        if (boxed == Long.class)
+        {
+            return Kind.LONG;
+        }
+        if (boxed == Float.class)
+        {
+            return Kind.FLOAT;
+        }
+        if (boxed == Double.class)
+        {
+            return Kind.DOUBLE;
+        }
+        if (boxed == Boolean.class)
+        {
+            return Kind.BOOLEAN;
+        }
+        return Kind.OBJECT;
+    }
+
+    private static Kind arithKind(Class type)
+    {
+        if (type == Integer.class)
+        {
+            return Kind.INT;
+        }
+        if (type == Long.class)
+        {
+            return Kind.LONG;
+        }
+        if (type == Float.class)
+        {
+            return Kind.FLOAT;
+        }
+        if (type == Double.class)
+        {
+            return Kind.DOUBLE;
+        }
+        return null;
+    }
+
+    private static Kind relationalCompareKind(ExprNode[] childNodes)
+    {
+        if ((!operandKind(childNodes[0]).isNumeric()) || (!operandKind(childNodes[1]).isNumeric()))
+        {
+            return null;
+        }
+        try
+        {
+            Class typeOne = JavaClassHelper.getBoxedType(childNodes[0].getExprEvaluator().getType());
+            Class typeTwo = JavaClassHelper.getBoxedType(childNodes[1].getExprEvaluator().getType());
+            return arithKind(JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo));
+        }
+        catch (CoercionException ex)
+        {
+            return null;
+        }
+    }
+
+    private static Kind equalsCompareKind(ExprNode[] childNodes)
+    {
+        Class typeOne = JavaClassHelper.getBoxedType(childNodes[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(childNodes[1].getExprEvaluator().getType());
+        if ((typeOne == null) || (typeTwo == null))
+        {
+            return null;
+        }
+        Kind kindOne = operandKind(childNodes[0]);
+        Kind kindTwo = operandKind(childNodes[1]);
+        if (!isEqualsCoercing(childNodes))
+        {
+            return kindOne == kindTwo ? kindOne : null;
+        }
+        if ((!kindOne.isNumeric()) || (!kindTwo.isNumeric()))
+        {
+            return null;
+        }
+        try
+        {
+            return arithKind(JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo));
+        }
+        catch (CoercionException ex)
+        {
+            return null;
+        }
+    }
+
+    private static boolean isEqualsCoercing(ExprNode[] childNodes)
+    {
+        // same decision as the equals node validation
+        Class typeOne = JavaClassHelper.getBoxedType(childNodes[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(childNodes[1].getExprEvaluator().getType());
+        return !(typeOne.equals(typeTwo) || typeOne.isAssignableFrom(typeTwo));
+    }
+
+    private Local gen(ExprNode node, Label onNull)
+    {
+        Kind kind = compiledKind(node);
+        if (kind == null)
+        {
+            return genLeaf(node, onNull);
+        }
+        if (node instanceof ExprMathNode)
+        {
+            return genMath((ExprMathNode) node, kind, onNull);
+        }
+        if (node instanceof ExprRelationalOpNodeImpl)
+        {
+            return genRelational((ExprRelationalOpNodeImpl) node, onNull);
+        }
+        if (node instanceof ExprEqualsNodeImpl)
+        {
+            return genEquals((ExprEqualsNodeImpl) node, onNull);
+        }
+        if (node instanceof ExprNotNode)
+        {
+            Local result = newLocal(Kind.BOOLEAN);
+            Local value = gen(node.getChildNodes()[0], onNull);
+            load(value);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IXOR);
+            store(result);
+            return result;
+        }
+        return genAndOr(node, node instanceof ExprAndNodeImpl, onNull);
+    }
+
+    private Local genLeaf(ExprNode node, Label onNull)
+    {
+        ExprEvaluator evaluator = node.getExprEvaluator();
+        Kind kind = kindOf(evaluator.getType());
+
+        if ((node instanceof ExprConstantNode) && (((ExprConstantNode) node).isConstantValue()) &&
+            (((ExprConstantNode) node).getValue() != null) && (kind != Kind.OBJECT))
+        {
+            Local result = newLocal(kind);
+            pushConstant(kind, ((ExprConstantNode) node).getValue());
+            store(result);
+            return result;
+        }
+
+        Local result = kind == Kind.OBJECT ? null : newLocal(kind);
+        Local value = newLocal(Kind.OBJECT);
+        if (evaluator.getClass() == ExprIdentNodeEvaluatorImpl.class)
+        {
+            ExprIdentNodeEvaluatorImpl identEvaluator = (ExprIdentNodeEvaluatorImpl) evaluator;
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(identEvaluator.getStreamNum());
+            mv.visitInsn(AALOAD);
+            store(value);
+            load(value);
+            mv.visitJumpInsn(IFNULL, onNull);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, BASE_CLASS, "getters", "[L" + GETTER + ";");
+            pushInt(getters.size());
+            getters.add(identEvaluator.getGetter());
+            mv.visitInsn(AALOAD);
+            load(value);
+            mv.visitMethodInsn(INVOKEINTERFACE, GETTER, "get", "(Lcom/espertech/esper/client/EventBean;)Ljava/lang/Object;");
+        }
+        else
+        {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, BASE_CLASS, "evaluators", "[L" + EVALUATOR + ";");
+            pushInt(evaluators.size());
+            evaluators.add(evaluator);
+            mv.visitInsn(AALOAD);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKEINTERFACE, EVALUATOR, "evaluate", EVALUATE_DESC);
+        }
+        store(value);
+        load(value);
+        mv.visitJumpInsn(IFNULL, onNull);
+        if (result == null)
+        {
+            return value;
+        }
+
+        load(value);
+        if (kind == Kind.BOOLEAN)
+        {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+        }
+        else
+        {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Number");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", kind.getUnboxMethod(), "()" + kind.getDescriptor());
+        }
+        store(result);
+        return result;
+    }
+
+    private Local genMath(ExprMathNode node, Kind kind, Label onNull)
+    {
+        Local result = newLocal(kind);
+        Local left = gen(node.getChildNodes()[0], onNull);
+        Local right = gen(node.getChildNodes()[1], onNull);
+
+        MathArithTypeEnum arith = node.getMathArithTypeEnum();
+        if ((arith == MathArithTypeEnum.DIVIDE) && ((kind != Kind.DOUBLE) || node.isDivisionByZeroReturnsNull()))
+        {
+            loadAs(right, kind);
+            switch (kind)
+            {
+                case LONG:
+                    mv.visitInsn(LCONST_0);
+                    mv.visitInsn(LCMP);
+                    break;
+                case FLOAT:
+                    mv.visitInsn(FCONST_0);
+                    mv.visitInsn(FCMPL);
+                    break;
+                case DOUBLE:
+                    mv.visitInsn(DCONST_0);
+                    mv.visitInsn(DCMPL);
+                    break;
+                default:
+                    break;
+            }
+            mv.visitJumpInsn(IFEQ, onNull);
+        }
+
+        loadAs(left, kind);
+        loadAs(right, kind);
+        int opcode;
+        switch (arith)
+        {
+            case ADD:
+                opcode = IADD;
+                break;
+            case SUBTRACT:
+                opcode = ISUB;
+                break;
+            case MULTIPLY:
+                opcode = IMUL;
+                break;
+            case DIVIDE:
+                opcode = IDIV;
+                break;
+            case MODULO:
+                opcode = IREM;
+                break;
+            default:
+                throw new IllegalStateException("Unrecognized arithmetic operator " + arith);
+        }
+        mv.visitInsn(opcode + kind.getArithOffset());
+        store(result);
+        return result;
+    }
+
+    private Local genRelational(ExprRelationalOpNodeImpl node, Label onNull)
+    {
+        Kind compareKind = relationalCompareKind(node.getChildNodes());
+        Local result = newLocal(Kind.BOOLEAN);
+        Local left = gen(node.getChildNodes()[0], onNull);
+        Local right = gen(node.getChildNodes()[1], onNull);
+
+        RelationalOpEnum op = node.getRelationalOpEnum();
+        boolean greater = (op == RelationalOpEnum.GT) || (op == RelationalOpEnum.GE);
+        loadAs(left, compareKind);
+        loadAs(right, compareKind);
+        int jump;
+        if (compareKind == Kind.INT)
+        {
+            jump = IF_ICMPEQ;
+        }
+        else
+        {
+            jump = IFEQ;
+            switch (compareKind)
+            {
+                case LONG:
+                    mv.visitInsn(LCMP);
+                    break;
+                case FLOAT:
+                    mv.visitInsn(greater ? FCMPL : FCMPG);  // NaN compares false
+                    break;
+                default:
+                    mv.visitInsn(greater ? DCMPL : DCMPG);
+                    break;
+            }
+        }
+        switch (op)
+        {
+            case GT:
+                jump += IFGT - IFEQ;
+                break;
+            case GE:
+                jump += IFGE - IFEQ;
+                break;
+            case LT:
+                jump += IFLT - IFEQ;
+                break;
+            default:
+                jump += IFLE - IFEQ;
+                break;
+        }
+        pushCondition(jump);
+        store(result);
+        return result;
+    }
+
+    private Local genEquals(ExprEqualsNodeImpl node, Label onNull)
+    {
+        ExprNode[] childNodes = node.getChildNodes();
+        Kind compareKind = equalsCompareKind(childNodes);
+        boolean coercing = isEqualsCoercing(childNodes);
+        boolean notEquals = node.isNotEquals();
+
+        Local result = newLocal(Kind.BOOLEAN);
+        Local leftNull = newLocal(Kind.BOOLEAN);
+        Local rightNull = newLocal(Kind.BOOLEAN);
+        Local left = genNullFlagged(childNodes[0], leftNull);
+        Local right = genNullFlagged(childNodes[1], rightNull);
+        Label done = new Label();
+
+        if (!node.isIs())
+        {
+            load(leftNull);
+            mv.visitJumpInsn(IFNE, onNull);
+            load(rightNull);
+            mv.visitJumpInsn(IFNE, onNull);
+        }
+        else
+        {
+            Label leftNotNull = new Label();
+            load(leftNull);
+            mv.visitJumpInsn(IFEQ, leftNotNull);
+            load(rightNull);
+            if (!coercing && notEquals)
+            {
+                mv.visitInsn(ICONST_1);
+                mv.visitInsn(IXOR);
+            }
+            store(result);
+            mv.visitJumpInsn(GOTO, done);
+
+            mv.visitLabel(leftNotNull);
+            Label bothNotNull = new Label();
+            load(rightNull);
+            mv.visitJumpInsn(IFEQ, bothNotNull);
+            mv.visitInsn(!coercing && notEquals ? ICONST_1 : ICONST_0);
+            store(result);
+            mv.visitJumpInsn(GOTO, done);
+            mv.visitLabel(bothNotNull);
+        }
+
+        switch (compareKind)
+        {
+            case INT:
+            case BOOLEAN:
+                loadAs(left, compareKind);
+                loadAs(right, compareKind);
+                pushCondition(IF_ICMPEQ);
+                break;
+            case LONG:
+                loadAs(left, compareKind);
+                loadAs(right, compareKind);
+                mv.visitInsn(LCMP);
+                pushCondition(IFEQ);
+                break;
+            case FLOAT:
+                // Float.equals semantics
+                loadAs(left, compareKind);
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "floatToIntBits", "(F)I");
+                loadAs(right, compareKind);
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float", "floatToIntBits", "(F)I");
+                pushCondition(IF_ICMPEQ);
+                break;
+            case DOUBLE:
+                // Double.equals semantics
+                loadAs(left, compareKind);
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "doubleToLongBits", "(D)J");
+                loadAs(right, compareKind);
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "doubleToLongBits", "(D)J");
+                mv.visitInsn(LCMP);
+                pushCondition(IFEQ);
+                break;
+            default:
+                load(left);
+                load(right);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "equals", "(Ljava/lang/Object;)Z");
+                break;
+        }
+        if (notEquals)
+        {
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IXOR);
+        }
+        store(result);
+        mv.visitLabel(done);
+        return result;
+    }
+
+    private Local genNullFlagged(ExprNode node, Local nullFlag)
+    {
+        Label isNull = new Label();
+        Label evaluated = new Label();
+        Local value = gen(node, isNull);
+        mv.visitJumpInsn(GOTO, evaluated);
+        mv.visitLabel(isNull);
+        mv.visitInsn(ICONST_1);
+        store(nullFlag);
+        mv.visitLabel(evaluated);
+        return value;
+    }
+
+    private Local genAndOr(ExprNode node, boolean isAnd, Label onNull)
+    {
+        Local result = newLocal(Kind.BOOLEAN);
+        Local sawNull = newLocal(Kind.BOOLEAN);
+        Label decided = new Label();
+        Label done = new Label();
+
+        // an and-node returns false for the first false child, an or-node true for the first true child
+        for (ExprNode child : node.getChildNodes())
+        {
+            Label isNull = new Label();
+            Label next = new Label();
+            Local value = gen(child, isNull);
+            load(value);
+            mv.visitJumpInsn(isAnd ? IFEQ : IFNE, decided);
+            mv.visitJumpInsn(GOTO, next);
+            mv.visitLabel(isNull);
+            mv.visitInsn(ICONST_1);
+            store(sawNull);
+            mv.visitLabel(next);
+        }
+        load(sawNull);
+        mv.visitJumpInsn(IFNE, onNull);
+        mv.visitInsn(isAnd ? ICONST_1 : ICONST_0);
+        store(result);
+        mv.visitJumpInsn(GOTO, done);
+        mv.visitLabel(decided);
+        mv.visitInsn(isAnd ? ICONST_0 : ICONST_1);
+        store(result);
+        mv.visitLabel(done);
+        return result;
+    }
+
+    /**
+     * Replaces the int values compared by the jump instruction with 1 when the jump is taken and 0 otherwise.
+     */
+    private void pushCondition(int jumpOpcode)
+    {
+        Label isTrue = new Label();
+        Label done = new Label();
+        mv.visitJumpInsn(jumpOpcode, isTrue);
+        mv.visitInsn(ICONST_0);
+        mv.visitJumpInsn(GOTO, done);
+        mv.visitLabel(isTrue);
+        mv.visitInsn(ICONST_1);
+        mv.visitLabel(done);
+    }
+
+    private Local newLocal(Kind kind)
+    {
+        // locals are initialized where allocated so that they are definitely assigned at any later merge point
+        Local local = new Local(kind, nextLocal);
+        nextLocal += kind.getSize();
+        switch (kind)
+        {
+            case LONG:
+                mv.visitInsn(LCONST_0);
+                break;
+            case FLOAT:
+                mv.visitInsn(FCONST_0);
+                break;
+            case DOUBLE:
+                mv.visitInsn(DCONST_0);
+                break;
+            case OBJECT:
+                mv.visitInsn(ACONST_NULL);
+                break;
+            default:
+                mv.visitInsn(ICONST_0);
+                break;
+        }
+        store(local);
+        return local;
+    }
+
+    private void load(Local local)
+    {
+        mv.visitVarInsn(local.kind.getLoadOpcode(), local.slot);
+    }
+
+    private void store(Local local)
+    {
+        mv.visitVarInsn(local.kind.getLoadOpcode() + (ISTORE - ILOAD), local.slot);
+    }
+
+    /**
+     * Loads the local converted to the target kind, following the Number.xxxValue() conversions.
+     */
+    private void loadAs(Local local, Kind target)
+    {
+        load(local);
+        Kind source = local.kind;
+        if ((source == target) || (!source.isNumeric()))
+        {
+            return;
+        }
+        // conversion opcodes I2L to D2F are laid out as 3 per source type, skipping the identity conversion
+        int index = target.getArithOffset() < source.getArithOffset() ? target.getArithOffset() : target.getArithOffset() - 1;
+        mv.visitInsn(I2L + source.getArithOffset() * 3 + index);
+    }
+
+    private void box(Kind kind)
+    {
+        if (kind == Kind.OBJECT)
+        {
+            return;
+        }
+        mv.visitMethodInsn(INVOKESTATIC, kind.getBoxedName(), "valueOf", "(" + kind.getDescriptor() + ")L" + kind.getBoxedName() + ";");
+    }
+
+    private void pushConstant(Kind kind, Object value)
+    {
+        switch (kind)
+        {
+            case BOOLEAN:
+                mv.visitInsn((Boolean) value ? ICONST_1 : ICONST_0);
+                break;
+            case LONG:
+                mv.visitLdcInsn(((Number) value).longValue());
+                break;
+            case FLOAT:
+                mv.visitLdcInsn(((Number) value).floatValue());
+                break;
+            case DOUBLE:
+                mv.visitLdcInsn(((Number) value).doubleValue());
+                break;
+            default:
+                pushInt(((Number) value).intValue());
+                break;
+        }
+    }
+
+    private void pushInt(int value)
+    {
+        if ((value >= -1) && (value <= 5))
+        {
+            mv.visitInsn(ICONST_0 + value);
+        }
+        else if ((value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE))
+        {
+            mv.visitIntInsn(BIPUSH, value);
+        }
+        else if ((value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE))
+        {
+            mv.visitIntInsn(SIPUSH, value);
+        }
+        else
+        {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private static enum Kind
+    {
+        INT(ILOAD, 1, 0, "I", "java/lang/Integer", "intValue"),
+        LONG(LLOAD, 2, 1, "J", "java/lang/Long", "longValue"),
+        FLOAT(FLOAD, 1, 2, "F", "java/lang/Float", "floatValue"),
+        DOUBLE(DLOAD, 2, 3, "D", "java/lang/Double", "doubleValue"),
+        BOOLEAN(ILOAD, 1, -1, "Z", "java/lang/Boolean", "booleanValue"),
+        OBJECT(ALOAD, 1, -1, "Ljava/lang/Object;", null, null);
+
+        private final int loadOpcode;
+        private final int size;
+        private final int arithOffset;
+        private final String descriptor;
+        private final String boxedName;
+        private final String unboxMethod;
+
+        private Kind(int loadOpcode, int size, int arithOffset, String descriptor, String boxedName, String unboxMethod)
+        {
+            this.loadOpcode = loadOpcode;
+            this.size = size;
+            this.arithOffset = arithOffset;
+            this.descriptor = descriptor;
+            this.boxedName = boxedName;
+            this.unboxMethod = unboxMethod;
+        }
+
+        public int getLoadOpcode()
+        {
+            return loadOpcode;
+        }
+
+        public int getSize()
+        {
+            return size;
+        }
+
+        public int getArithOffset()
+        {
+            return arithOffset;
+        }
+
+        public boolean isNumeric()
+        {
+            return arithOffset >= 0;
+        }
+
+        public String getDescriptor()
+        {
+            return descriptor;
+        }
+
+        public String getBoxedName()
+        {
+            return boxedName;
+        }
+
+        public String getUnboxMethod()
+        {
+            return unboxMethod;
+        }
+    }
+
+    private static class Local
+    {
+        private final Kind kind;
+        private final int slot;
+
+        private Local(Kind kind, int slot)
+        {
+            this.kind = kind;
+            this.slot = slot;
+        }
+    }
+
+    private static class CompiledClassLoader extends ClassLoader
+    {
+        private CompiledClassLoader(ClassLoader parent)
+        {
+            super(parent);
+        }
+
+        private Class define(String name, byte[] bytes)
+        {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.expression;
+
+/**
+ * Visitor for expression node trees that determines if the expressions within consist only of property
+ * references, constants, operators and built-in aggregations, i.e. return the same result for the same events.
+ * <p>
+ * Any other node, such as the current timestamp, variables, subselects, method invocations and
+ * user-defined single-row or aggregation functions, renders the expressions non-deterministic.
+ */
+public class ExprNodeDeterministicVisitor implements ExprNodeVisitor
+{
+    private boolean deterministic = true;
+
+    public boolean isVisit(ExprNode exprNode)
+    {
+        return deterministic;
+    }
+
+    /**
+     * Returns true if all expressions visited are deterministic.
+     * @return deterministic indicator
+     */
+    public boolean isDeterministic()
+    {
+        return deterministic;
+    }
+
+    public void visit(ExprNode exprNode)
+    {
+        if (exprNode instanceof ExprIdentNode ||
+            exprNode instanceof ExprStreamUnderlyingNode ||
+            exprNode instanceof ExprConstantNode ||
+            exprNode instanceof ExprEqualsNode ||
+            exprNode instanceof ExprEqualsAllAnyNode ||
+            exprNode instanceof ExprRelationalOpNode ||
+            exprNode instanceof ExprRelationalOpAllAnyNode ||
+            exprNode instanceof ExprAndNode ||
+            exprNode instanceof ExprOrNode ||
+            exprNode instanceof ExprNotNode ||
+            exprNode instanceof ExprMathNode ||
+            exprNode instanceof ExprBitWiseNode ||
+            exprNode instanceof ExprBetweenNode ||
+            exprNode instanceof ExprInNode ||
+            exprNode instanceof ExprConcatNode ||
+            exprNode instanceof ExprLikeNode ||
+            exprNode instanceof ExprRegexpNode ||
+            exprNode instanceof ExprCaseNode ||
+            exprNode instanceof ExprCoalesceNode ||
+            exprNode instanceof ExprCastNode ||
+            exprNode instanceof ExprMinMaxRowNode ||
+            exprNode instanceof ExprArrayNode ||
+            exprNode instanceof ExprInstanceofNode ||
+            exprNode instanceof ExprTypeofNode ||
+            exprNode instanceof ExprPropertyExistsNode ||
+            exprNode instanceof ExprCountNode ||
+            exprNode instanceof ExprSumNode ||
+            exprNode instanceof ExprAvgNode ||
+            exprNode instanceof ExprMinMaxAggrNode ||
+            exprNode instanceof ExprMedianNode ||
+            exprNode instanceof ExprStddevNode ||
+            exprNode instanceof ExprAvedevNode)
+        {
+            return;
+        }
+        deterministic = false;
+    }
+}
@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.join.base;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayBackedUncheckedSet;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
@@ -35,6 +36,10 @@ public class JoinSetComposerImpl implements JoinSetComposer
     protected Set<MultiKey<EventBean>> oldResults = new LinkedHashSet<MultiKey<EventBean>>();
     protected Set<MultiKey<EventBean>> newResults = new LinkedHashSet<MultiKey<EventBean>>();
 
+    // When a single stream provides lookup events the tuples are unique by construction, skip hashing
+    private final ArrayBackedUncheckedSet<MultiKey<EventBean>> oldResultsUnchecked = new ArrayBackedUncheckedSet<MultiKey<EventBean>>(16);
+    private final ArrayBackedUncheckedSet<MultiKey<EventBean>> newResultsUnchecked = new ArrayBackedUncheckedSet<MultiKey<EventBean>>(16);
+
     /**
      * Ctor.
      * @param repositories - for each stream an array of (indexed/unindexed) tables for lookup.
@@ -84,14 +89,18 @@ public class JoinSetComposerImpl implements JoinSetComposer
     {
         oldResults.clear();
         newResults.clear();
+        oldResultsUnchecked.clear();
+        newResultsUnchecked.clear();
 
         // join old data
+        Set<MultiKey<EventBean>> oldResultsJoin = oldResults;
         if (joinRemoveStream) {
+            oldResultsJoin = selectResultSet(oldDataPerStream, oldResults, oldResultsUnchecked);
             for (int i = 0; i < oldDataPerStream.length; i++)
             {
                 if (oldDataPerStream[i] != null)
                 {
-                    queryStrategies[i].lookup(oldDataPerStream[i], oldResults, exprEvaluatorContext);
+                    queryStrategies[i].lookup(oldDataPerStream[i], oldResultsJoin, exprEvaluatorContext);
                 }
             }
         }
@@ -107,11 +116,12 @@ public class JoinSetComposerImpl implements JoinSetComposer
         }
 
         // join new data
+        Set<MultiKey<EventBean>> newResultsJoin = selectResultSet(newDataPerStream, newResults, newResultsUnchecked);
         for (int i = 0; i < newDataPerStream.length; i++)
         {
             if (newDataPerStream[i] != null)
             {
-                queryStrategies[i].lookup(newDataPerStream[i], newResults, exprEvaluatorContext);
+                queryStrategies[i].lookup(newDataPerStream[i], newResultsJoin, exprEvaluatorContext);
             }
         }
 
@@ -127,7 +137,32 @@ public class JoinSetComposerImpl implements JoinSetComposer
             }
         }
 
-        return new UniformPair<Set<MultiKey<EventBean>>>(newResults, oldResults);
+        return new UniformPair<Set<MultiKey<EventBean>>>(newResultsJoin, oldResultsJoin);
+    }
+
+    /**
+     * Returns the result set to populate: duplicate tuples can only arise when lookups are performed
+     * for more than one stream, or for self-joins, otherwise the unchecked set is returned.
+     * @param dataPerStream lookup events per stream
+     * @param checked set that eliminates duplicates
+     * @param unchecked set that does not check for duplicates
+     * @return result set to use
+     */
+    private Set<MultiKey<EventBean>> selectResultSet(EventBean[][] dataPerStream, Set<MultiKey<EventBean>> checked, Set<MultiKey<EventBean>> unchecked)
+    {
+        if (isPureSelfJoin)
+        {
+            return checked;
+        }
+        int numStreams = 0;
+        for (EventBean[] data : dataPerStream)
+        {
+            if (data != null && data.length > 0)
+            {
+                numStreams++;
+            }
+        }
+        return numStreams > 1 ? checked : unchecked;
     }
 
     /**
@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.join.base;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayBackedUncheckedSet;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.UniformPair;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
@@ -33,7 +34,7 @@ public class JoinSetComposerStreamToWinImpl implements JoinSetComposer
     private final boolean[] selfJoinRepositoryResets;
 
     private Set<MultiKey<EventBean>> emptyResults = new LinkedHashSet<MultiKey<EventBean>>();
-    private Set<MultiKey<EventBean>> newResults = new LinkedHashSet<MultiKey<EventBean>>();
+    private final Set<MultiKey<EventBean>> newResults;
 
     /**
      * Ctor.
@@ -49,6 +50,16 @@ public class JoinSetComposerStreamToWinImpl implements JoinSetComposer
         this.streamNumber = streamNumber;
         this.queryStrategy = queryStrategy;
 
+        // lookups are for a single stream only and thus produce unique tuples, unless self-joined
+        if (isPureSelfJoin)
+        {
+            newResults = new LinkedHashSet<MultiKey<EventBean>>();
+        }
+        else
+        {
+            newResults = new ArrayBackedUncheckedSet<MultiKey<EventBean>>(16);
+        }
+
         this.selfJoinRepositoryResets = selfJoinRepositoryResets;
         if (isPureSelfJoin)
         {
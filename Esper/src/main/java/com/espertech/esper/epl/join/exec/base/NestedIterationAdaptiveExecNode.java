@@ -0,0 +1,155 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.exec.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+import com.espertech.esper.util.AuditPath;
+import com.espertech.esper.util.IndentWriter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Execution node that chooses among alternative nested iterations, each for a different lookup order,
+ * based on lookup cost observed at runtime.
+ * <p>
+ * For a sample of the lookups the node executes all alternatives and records the lookups performed and rows
+ * returned by each. After each interval of lookups the node switches to the cheapest alternative
+ * if that alternative's sampled cost is no more than half of the current alternative's cost.
+ */
+public class NestedIterationAdaptiveExecNode extends ExecNode
+{
+    private static final Log queryPlanLog = LogFactory.getLog(AuditPath.QUERYPLAN_LOG);
+
+    /**
+     * Number of sampled lookups per interval.
+     */
+    public final static int SAMPLES_PER_INTERVAL = 16;
+
+    /**
+     * Cost ratio an alternative must reach relative to the current alternative to be switched to.
+     */
+    public final static double SWITCH_COST_RATIO = 0.5;
+
+    private final String statementName;
+    private final int lookupStream;
+    private final int[][] nestingOrders;
+    private final NestedIterationExecNode[] alternatives;
+    private final int interval;
+    private final int sampleFrequency;
+    private final boolean isQueryPlanLogging;
+    private final long[] sampledRows;
+    private final List<EventBean[]> sampleResult = new ArrayList<EventBean[]>();
+    private int active;
+    private int numLookups;
+
+    /**
+     * Ctor.
+     * @param statementName - statement name for logging
+     * @param lookupStream - stream providing lookup events
+     * @param nestingOrders - order of streams for each alternative
+     * @param alternatives - nested iterations, the first is the initial one
+     * @param interval - number of lookups between re-evaluating the lookup order
+     * @param isQueryPlanLogging - whether to log changes of lookup order
+     */
+    public NestedIterationAdaptiveExecNode(String statementName, int lookupStream, int[][] nestingOrders, NestedIterationExecNode[] alternatives, int interval, boolean isQueryPlanLogging)
+    {
+        this.statementName = statementName;
+        this.lookupStream = lookupStream;
+        this.nestingOrders = nestingOrders;
+        this.alternatives = alternatives;
+        this.interval = interval;
+        this.sampleFrequency = Math.max(1, interval / SAMPLES_PER_INTERVAL);
+        this.isQueryPlanLogging = isQueryPlanLogging;
+        this.sampledRows = new long[alternatives.length];
+    }
+
+    public void process(EventBean lookupEvent, EventBean[] prefillPath, Collection<EventBean[]> result, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        numLookups++;
+        if (numLookups % sampleFrequency != 0)
+        {
+            alternatives[active].process(lookupEvent, prefillPath, result, exprEvaluatorContext);
+            return;
+        }
+
+        // sample: execute each alternative, only the current one contributes to the result
+        for (int i = 0; i < alternatives.length; i++)
+        {
+            NestedIterationExecNode alternative = alternatives[i];
+            long before = alternative.getRowsVisited();
+            if (i == active)
+            {
+                alternative.process(lookupEvent, prefillPath, result, exprEvaluatorContext);
+            }
+            else
+            {
+                alternative.process(lookupEvent, prefillPath, sampleResult, exprEvaluatorContext);
+                sampleResult.clear();
+            }
+            sampledRows[i] += alternative.getRowsVisited() - before;
+        }
+
+        if (numLookups >= interval)
+        {
+            evaluate();
+        }
+    }
+
+    /**
+     * Returns the index of the alternative currently in use.
+     * @return alternative index
+     */
+    public int getActive()
+    {
+        return active;
+    }
+
+    private void evaluate()
+    {
+        int best = active;
+        for (int i = 0; i < alternatives.length; i++)
+        {
+            if (sampledRows[i] < sampledRows[best])
+            {
+                best = i;
+            }
+        }
+
+        if ((best != active) && (sampledRows[best] <= sampledRows[active] * SWITCH_COST_RATIO))
+        {
+            if (isQueryPlanLogging && queryPlanLog.isInfoEnabled())
+            {
+                queryPlanLog.info("Adaptive join plan for statement '" + statementName + "' stream " + lookupStream +
+                        " changes lookup order from " + Arrays.toString(nestingOrders[active]) + " to " + Arrays.toString(nestingOrders[best]) +
+                        ", sampled cost " + sampledRows[active] + " versus " + sampledRows[best] + " rows for " + (numLookups / sampleFrequency) + " sampled lookups");
+            }
+            active = best;
+        }
+
+        numLookups = 0;
+        Arrays.fill(sampledRows, 0);
+    }
+
+    public void print(IndentWriter writer)
+    {
+        writer.println("NestedIterationAdaptiveExecNode active nesting order " + Arrays.toString(nestingOrders[active]));
+        writer.incrIndent();
+        for (ExecNode alternative : alternatives)
+        {
+            alternative.print(writer);
+        }
+        writer.decrIndent();
+    }
+}
@@ -29,6 +29,7 @@ public class NestedIterationExecNode extends ExecNode
     private final LinkedList<ExecNode> childNodes;
     private final int[] nestedStreams;
     private int nestingOrderLength;
+    private long rowsVisited;
 
     /**
      * Ctor.
@@ -69,6 +70,7 @@ public class NestedIterationExecNode extends ExecNode
         List<EventBean[]> nestedResult = new LinkedList<EventBean[]>();
         ExecNode nestedExecNode = childNodes.get(nestingOrderIndex);
         nestedExecNode.process(lookupEvent, currentPath, nestedResult, exprEvaluatorContext);
+        rowsVisited += nestedResult.size() + 1;
         boolean isLastStream = (nestingOrderIndex == nestingOrderLength - 1);
 
         // This is not the last nesting level so no result rows are added. Invoke next nesting level for
@@ -90,6 +92,15 @@ public class NestedIterationExecNode extends ExecNode
         }
     }
 
+    /**
+     * Returns the running count of lookups performed and rows returned by child nodes, as a measure of lookup cost.
+     * @return rows visited
+     */
+    public long getRowsVisited()
+    {
+        return rowsVisited;
+    }
+
     public void print(IndentWriter writer)
     {
         writer.println("NestedIterationExecNode");
@@ -102,12 +102,19 @@ import java.util.*;
  */
 public class NStreamQueryPlanBuilder
 {
+    /**
+     * Maximum number of lookup orders per stream kept by an adaptive plan, including the initial order.
+     */
+    public final static int MAX_ADAPTIVE_CHAINS = 4;
+
     /**
      * Build a query plan based on the stream property relationships indicated in queryGraph.
      * @param queryGraph - navigation info between streams
      * @param typesPerStream - event types for each stream
      * @param dependencyGraph - dependencies between historical streams
      * @param historicalStreamIndexLists - index management, populated for the query plan
+     * @param adaptiveInterval - number of lookups between re-evaluating the lookup order, or zero for a static plan
+     * @param isQueryPlanLogging - whether to log changes of lookup order
      * @return query plan
      */
     protected static QueryPlan build(QueryGraph queryGraph,
@@ -116,7 +123,9 @@ public class NStreamQueryPlanBuilder
                                      DependencyGraph dependencyGraph,
                                      HistoricalStreamIndexList[] historicalStreamIndexLists,
                                      boolean hasForceNestedIter,
-                                     String[][][] indexedStreamsUniqueProps)
+                                     String[][][] indexedStreamsUniqueProps,
+                                     int adaptiveInterval,
+                                     boolean isQueryPlanLogging)
     {
         if (log.isDebugEnabled())
         {
@@ -165,6 +174,22 @@ public class NStreamQueryPlanBuilder
             }
 
             planNodeSpecs[streamNo] = createStreamPlan(streamNo, bestChain, queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists);
+
+            // keep alternative fully-navigable lookup orders for re-planning at runtime
+            if ((adaptiveInterval > 0) && (!historicalViewableDesc.isHasHistorical()) && (bestChainResult.depth == numStreams - 1))
+            {
+                List<int[]> chains = computeNavigableChains(streamNo, bestChain, queryGraph, MAX_ADAPTIVE_CHAINS);
+                if (chains.size() > 1)
+                {
+                    NestedIterationNode[] alternatives = new NestedIterationNode[chains.size()];
+                    alternatives[0] = (NestedIterationNode) planNodeSpecs[streamNo];
+                    for (int i = 1; i < chains.size(); i++)
+                    {
+                        alternatives[i] = (NestedIterationNode) createStreamPlan(streamNo, chains.get(i), queryGraph, indexSpecs, typesPerStream, historicalViewableDesc.getHistorical(), historicalStreamIndexLists);
+                    }
+                    planNodeSpecs[streamNo] = new NestedIterationAdaptiveNode(streamNo, chains.toArray(new int[chains.size()][]), alternatives, adaptiveInterval, isQueryPlanLogging);
+                }
+            }
             if (log.isDebugEnabled())
             {
                 log.debug(".build spec=" + planNodeSpecs[streamNo]);
@@ -387,6 +412,44 @@ public class NStreamQueryPlanBuilder
         return new BestChainResult(bestDepth, bestPermutation);
     }
 
+    /**
+     * Compute the chains for the lookup stream that can be navigated entirely via index, starting with the
+     * best chain as determined by {@link #computeBestPath}.
+     * @param lookupStream - stream to start look up
+     * @param bestChain - best chain, returned first
+     * @param queryGraph - navigability between streams
+     * @param maxChains - maximum number of chains to return
+     * @return list of chains
+     */
+    protected static List<int[]> computeNavigableChains(int lookupStream, int[] bestChain, QueryGraph queryGraph, int maxChains)
+    {
+        List<int[]> chains = new ArrayList<int[]>();
+        chains.add(bestChain);
+
+        int[] defNestingorder = buildDefaultNestingOrder(queryGraph.getNumStreams(), lookupStream);
+        Enumeration<int[]> streamEnum;
+        if (defNestingorder.length < 6) {
+            streamEnum = new NumberSetPermutationEnumeration(defNestingorder);
+        }
+        else {
+            streamEnum = new NumberSetShiftGroupEnumeration(defNestingorder);
+        }
+
+        while (streamEnum.hasMoreElements() && chains.size() < maxChains)
+        {
+            int[] permutation = streamEnum.nextElement();
+            if (Arrays.equals(permutation, bestChain))
+            {
+                continue;
+            }
+            if (computeNavigableDepth(lookupStream, permutation, queryGraph) == queryGraph.getNumStreams() - 1)
+            {
+                chains.add(permutation);
+            }
+        }
+        return chains;
+    }
+
     /**
      * Determine if the proposed permutation of lookups passes dependencies
      * @param lookupStream stream to initiate
@@ -0,0 +1,92 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.join.plan;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.join.exec.base.ExecNode;
+import com.espertech.esper.epl.join.exec.base.NestedIterationAdaptiveExecNode;
+import com.espertech.esper.epl.join.exec.base.NestedIterationExecNode;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
+import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.util.IndentWriter;
+import com.espertech.esper.view.Viewable;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Plan for a stream's lookups that holds alternative nested iteration plans, each for a different lookup order,
+ * and that chooses among the alternatives at runtime based on the observed lookup cost.
+ */
+public class NestedIterationAdaptiveNode extends QueryPlanNode
+{
+    private final int lookupStream;
+    private final int[][] nestingOrders;
+    private final NestedIterationNode[] alternatives;
+    private final int interval;
+    private final boolean isQueryPlanLogging;
+
+    /**
+     * Ctor.
+     * @param lookupStream - stream providing lookup events
+     * @param nestingOrders - order of streams for each alternative
+     * @param alternatives - nested iteration plans, the first is the initial plan
+     * @param interval - number of lookups between re-evaluating the lookup order
+     * @param isQueryPlanLogging - whether to log changes of lookup order
+     */
+    public NestedIterationAdaptiveNode(int lookupStream, int[][] nestingOrders, NestedIterationNode[] alternatives, int interval, boolean isQueryPlanLogging)
+    {
+        this.lookupStream = lookupStream;
+        this.nestingOrders = nestingOrders;
+        this.alternatives = alternatives;
+        this.interval = interval;
+        this.isQueryPlanLogging = isQueryPlanLogging;
+    }
+
+    /**
+     * Returns the alternative plans.
+     * @return plans
+     */
+    public NestedIterationNode[] getAlternatives()
+    {
+        return alternatives;
+    }
+
+    public ExecNode makeExec(String statementName, String statementId, Annotation[] annotations, Map<String, EventTable>[] indexPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexList, VirtualDWView[] viewExternal)
+    {
+        NestedIterationExecNode[] execNodes = new NestedIterationExecNode[alternatives.length];
+        for (int i = 0; i < alternatives.length; i++)
+        {
+            execNodes[i] = (NestedIterationExecNode) alternatives[i].makeExec(statementName, statementId, annotations, indexPerStream, streamTypes, streamViews, historicalStreamIndexList, viewExternal);
+        }
+        return new NestedIterationAdaptiveExecNode(statementName, lookupStream, nestingOrders, execNodes, interval, isQueryPlanLogging);
+    }
+
+    public void addIndexes(HashSet<String> usedIndexes)
+    {
+        for (NestedIterationNode alternative : alternatives)
+        {
+            alternative.addIndexes(usedIndexes);
+        }
+    }
+
+    public void print(IndentWriter indentWriter)
+    {
+        indentWriter.println("NestedIterationAdaptiveNode with interval " + interval + " and nesting orders " + Arrays.deepToString(nestingOrders));
+        indentWriter.incrIndent();
+        for (NestedIterationNode alternative : alternatives)
+        {
+            alternative.print(indentWriter);
+        }
+        indentWriter.decrIndent();
+    }
+}
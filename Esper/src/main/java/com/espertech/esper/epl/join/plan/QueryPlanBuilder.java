@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.join.plan;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.Hint;
 import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
@@ -90,12 +91,13 @@ public class QueryPlanBuilder
         boolean hasPreferMergeJoin = HintEnum.PREFER_MERGE_JOIN.getHint(annotations) != null;
         boolean hasForceNestedIter = HintEnum.FORCE_NESTED_ITER.getHint(annotations) != null;
         boolean isAllInnerJoins = outerJoinDescList.length == 0 || OuterJoinDesc.consistsOfAllInnerJoins(outerJoinDescList);
+        int adaptiveInterval = getAdaptiveInterval(annotations);
         
         if (isAllInnerJoins && !hasPreferMergeJoin)
         {
             QueryPlan queryPlan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream,
                                     historicalViewableDesc, dependencyGraph, historicalStreamIndexLists,
-                                    hasForceNestedIter, streamJoinAnalysisResult.getUniqueKeys());
+                                    hasForceNestedIter, streamJoinAnalysisResult.getUniqueKeys(), adaptiveInterval, isQueryPlanLogging);
 
             if (queryPlan != null) {
                 removeUnidirectional(queryPlan, streamJoinAnalysisResult);
@@ -118,6 +120,29 @@ public class QueryPlanBuilder
         return queryPlan;
     }
 
+    private static int getAdaptiveInterval(Annotation[] annotations) throws ExprValidationException
+    {
+        Hint hint = HintEnum.ADAPTIVE_JOIN_PLAN.getHint(annotations);
+        if (hint == null) {
+            return 0;
+        }
+        String value = HintEnum.ADAPTIVE_JOIN_PLAN.getHintAssignedValue(hint);
+        if (value == null) {
+            throw new ExprValidationException("Required hint value for hint '" + HintEnum.ADAPTIVE_JOIN_PLAN + "' has not been provided");
+        }
+        int interval;
+        try {
+            interval = Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new ExprValidationException("Required hint value for hint '" + HintEnum.ADAPTIVE_JOIN_PLAN + "' value '" + value + "' could not be parsed as an integer value");
+        }
+        if (interval < 1) {
+            throw new ExprValidationException("Hint value for hint '" + HintEnum.ADAPTIVE_JOIN_PLAN + "' must be a positive number of lookups");
+        }
+        return interval;
+    }
+
     // Remove plans for non-unidirectional streams
     private static void removeUnidirectional(QueryPlan queryPlan, StreamJoinAnalysisResult streamJoinAnalysisResult) {
         for (int streamNum = 0; streamNum < queryPlan.getExecNodeSpecs().length; streamNum++) {
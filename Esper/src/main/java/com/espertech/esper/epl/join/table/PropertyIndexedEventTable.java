@@ -11,6 +11,7 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedProbe;
 import com.espertech.esper.event.EventBeanUtility;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,10 +31,14 @@ public class PropertyIndexedEventTable implements EventTable
     protected final EventPropertyGetter[] propertyGetters;
     protected final Map<MultiKeyUntyped, Set<EventBean>> propertyIndex;
 
+    // reusable key for add and remove, which are not concurrent with each other
+    private final MultiKeyUntypedProbe probe;
+
     public PropertyIndexedEventTable(int streamNum, EventPropertyGetter[] propertyGetters) {
         this.streamNum = streamNum;
         this.propertyGetters = propertyGetters;
         propertyIndex = new HashMap<MultiKeyUntyped, Set<EventBean>>();
+        probe = new MultiKeyUntypedProbe(propertyGetters.length);
     }
 
     /**
@@ -46,6 +51,17 @@ public class PropertyIndexedEventTable implements EventTable
         return EventBeanUtility.getMultiKey(theEvent, propertyGetters);
     }
 
+    /**
+     * Determine a key value for index access.
+     * @param theEvent to get properties from for key
+     * @param index is the key position
+     * @return key value
+     */
+    protected Object getKeyValue(EventBean theEvent, int index)
+    {
+        return propertyGetters[index].get(theEvent);
+    }
+
     public void addRemove(EventBean[] newData, EventBean[] oldData) {
         add(newData);
         remove(oldData);
@@ -97,15 +113,25 @@ public class PropertyIndexedEventTable implements EventTable
         return propertyIndex.get(key);
     }
 
+    private MultiKeyUntypedProbe getProbe(EventBean theEvent)
+    {
+        for (int i = 0; i < propertyGetters.length; i++)
+        {
+            probe.set(i, getKeyValue(theEvent, i));
+        }
+        probe.computeHashCode();
+        return probe;
+    }
+
     private void add(EventBean theEvent)
     {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        MultiKeyUntypedProbe key = getProbe(theEvent);
 
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null)
         {
             events = new LinkedHashSet<EventBean>();
-            propertyIndex.put(key, events);
+            propertyIndex.put(key.toKey(), events);
         }
 
         events.add(theEvent);
@@ -113,7 +139,7 @@ public class PropertyIndexedEventTable implements EventTable
 
     private void remove(EventBean theEvent)
     {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        MultiKeyUntypedProbe key = getProbe(theEvent);
 
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null)
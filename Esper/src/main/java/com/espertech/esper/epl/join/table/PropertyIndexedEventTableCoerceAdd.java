@@ -42,16 +42,22 @@ public class PropertyIndexedEventTableCoerceAdd extends PropertyIndexedEventTabl
         Object[] keyValues = new Object[propertyGetters.length];
         for (int i = 0; i < propertyGetters.length; i++)
         {
-            Object value = propertyGetters[i].get(theEvent);
-            if ((value != null) && (!value.getClass().equals(coercionTypes[i])))
+            keyValues[i] = getKeyValue(theEvent, i);
+        }
+        return new MultiKeyUntyped(keyValues);
+    }
+
+    @Override
+    protected Object getKeyValue(EventBean theEvent, int index)
+    {
+        Object value = propertyGetters[index].get(theEvent);
+        if ((value != null) && (!value.getClass().equals(coercionTypes[index])))
+        {
+            if (value instanceof Number)
             {
-                if (value instanceof Number)
-                {
-                    value = coercers[i].coerceBoxed((Number) value);
-                }
+                value = coercers[index].coerceBoxed((Number) value);
             }
-            keyValues[i] = value;
         }
-        return new MultiKeyUntyped(keyValues);
+        return value;
     }
 }
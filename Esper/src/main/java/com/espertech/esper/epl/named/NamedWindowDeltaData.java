@@ -10,6 +10,8 @@ package com.espertech.esper.epl.named;
 
 import com.espertech.esper.client.EventBean;
 
+import java.util.List;
+
 /**
  * A holder for events posted by a named window as an insert and remove stream.
  */
@@ -40,6 +42,40 @@ public class NamedWindowDeltaData
         this.oldData = aggregate(deltaOne.getOldData(), deltaTwo.getOldData());
     }
 
+    /**
+     * Ctor aggregates any number of deltas into a single delta.
+     * @param deltas is the insert and remove stream events of each result, in order
+     */
+    public NamedWindowDeltaData(List<NamedWindowDeltaData> deltas)
+    {
+        int newCount = 0;
+        int oldCount = 0;
+        for (NamedWindowDeltaData delta : deltas)
+        {
+            newCount += delta.getNewData() == null ? 0 : delta.getNewData().length;
+            oldCount += delta.getOldData() == null ? 0 : delta.getOldData().length;
+        }
+        EventBean[] newArr = newCount == 0 ? null : new EventBean[newCount];
+        EventBean[] oldArr = oldCount == 0 ? null : new EventBean[oldCount];
+        int newIndex = 0;
+        int oldIndex = 0;
+        for (NamedWindowDeltaData delta : deltas)
+        {
+            if (delta.getNewData() != null)
+            {
+                System.arraycopy(delta.getNewData(), 0, newArr, newIndex, delta.getNewData().length);
+                newIndex += delta.getNewData().length;
+            }
+            if (delta.getOldData() != null)
+            {
+                System.arraycopy(delta.getOldData(), 0, oldArr, oldIndex, delta.getOldData().length);
+                oldIndex += delta.getOldData().length;
+            }
+        }
+        this.newData = newArr;
+        this.oldData = oldArr;
+    }
+
     /**
      * Returns the insert stream events.
      * @return insert stream
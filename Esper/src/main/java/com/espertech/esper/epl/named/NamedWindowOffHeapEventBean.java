@@ -0,0 +1,162 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+
+/**
+ * Event held by a named window in off-heap storage, materializing its underlying object on access.
+ * <p>
+ * When the event leaves the named window it is detached: the underlying is copied to heap and the slab is no longer referenced.
+ * The block of a detached event may be reused by another row, therefore a reader checks after reading the row that the event
+ * was not detached meanwhile.
+ */
+public abstract class NamedWindowOffHeapEventBean implements EventBean
+{
+    private final NamedWindowOffHeapStore store;
+    private final int offset;
+    private volatile NamedWindowOffHeapSlab slab;
+    private volatile Object detached;
+    private volatile Object decoded;
+
+    /**
+     * Ctor.
+     * @param store - owning store
+     * @param slab - slab holding the row
+     * @param offset - row offset
+     */
+    protected NamedWindowOffHeapEventBean(NamedWindowOffHeapStore store, NamedWindowOffHeapSlab slab, int offset)
+    {
+        this.store = store;
+        this.slab = slab;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the owning store.
+     * @return store
+     */
+    public NamedWindowOffHeapStore getStore()
+    {
+        return store;
+    }
+
+    /**
+     * Returns true when the event has left the named window and is held on-heap.
+     * @return detached indicator
+     */
+    public boolean isDetached()
+    {
+        return detached != null;
+    }
+
+    /**
+     * Returns the row offset within the slab.
+     * @return offset
+     */
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Copy the underlying to heap and release the reference to the slab.
+     * @return slab that held the row, or null if already detached
+     */
+    public NamedWindowOffHeapSlab detach()
+    {
+        NamedWindowOffHeapSlab current = slab;
+        if (current == null)
+        {
+            return null;
+        }
+        Object value = decoded;
+        detached = value != null ? value : store.materialize(current, offset);
+        slab = null;
+        decoded = null;
+        return current;
+    }
+
+    /**
+     * Release the retained materialized row.
+     */
+    protected void clearDecoded()
+    {
+        decoded = null;
+    }
+
+    public EventType getEventType()
+    {
+        return store.getEventType();
+    }
+
+    public Object getUnderlying()
+    {
+        Object value = detached;
+        if (value != null)
+        {
+            return value;
+        }
+        value = decoded;
+        if (value != null)
+        {
+            return value;
+        }
+        NamedWindowOffHeapSlab current = slab;
+        if (current == null)
+        {
+            return detached;
+        }
+
+        byte[] row;
+        try
+        {
+            row = current.read(offset);
+        }
+        catch (RuntimeException ex)
+        {
+            if (slab == null)
+            {
+                return detached;
+            }
+            throw ex;
+        }
+        if (slab == null)
+        {
+            return detached;
+        }
+        value = store.decode(row);
+        decoded = value;
+        store.retainDecoded(this);
+        return value;
+    }
+
+    public Object get(String property) throws PropertyAccessException
+    {
+        EventPropertyGetter getter = store.getEventType().getGetter(property);
+        if (getter == null)
+        {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException
+    {
+        EventPropertyGetter getter = store.getEventType().getGetter(propertyExpression);
+        if (getter == null)
+        {
+            throw new PropertyAccessException("Property named '" + propertyExpression + "' is not a valid property name for this type");
+        }
+        return getter.getFragment(this);
+    }
+}
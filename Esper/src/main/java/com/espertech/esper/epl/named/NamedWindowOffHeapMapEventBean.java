@@ -0,0 +1,35 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.event.MappedEventBean;
+
+import java.util.Map;
+
+/**
+ * Map event held by a named window in off-heap storage.
+ */
+public class NamedWindowOffHeapMapEventBean extends NamedWindowOffHeapEventBean implements MappedEventBean
+{
+    /**
+     * Ctor.
+     * @param store - owning store
+     * @param slab - slab holding the row
+     * @param offset - row offset
+     */
+    public NamedWindowOffHeapMapEventBean(NamedWindowOffHeapStore store, NamedWindowOffHeapSlab slab, int offset)
+    {
+        super(store, slab, offset);
+    }
+
+    public Map<String, Object> getProperties()
+    {
+        return (Map<String, Object>) getUnderlying();
+    }
+}
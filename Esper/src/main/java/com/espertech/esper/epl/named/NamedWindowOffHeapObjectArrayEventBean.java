@@ -0,0 +1,33 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Object-array event held by a named window in off-heap storage.
+ */
+public class NamedWindowOffHeapObjectArrayEventBean extends NamedWindowOffHeapEventBean implements ObjectArrayBackedEventBean
+{
+    /**
+     * Ctor.
+     * @param store - owning store
+     * @param slab - slab holding the row
+     * @param offset - row offset
+     */
+    public NamedWindowOffHeapObjectArrayEventBean(NamedWindowOffHeapStore store, NamedWindowOffHeapSlab slab, int offset)
+    {
+        super(store, slab, offset);
+    }
+
+    public Object[] getProperties()
+    {
+        return (Object[]) getUnderlying();
+    }
+}
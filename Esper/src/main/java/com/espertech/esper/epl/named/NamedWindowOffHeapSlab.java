@@ -0,0 +1,123 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A slab of off-heap memory holding serialized named window rows.
+ * <p>
+ * Rows are written into blocks of a multiple of {@link #BLOCK_ALIGNMENT} bytes. The block of a released row may be
+ * reused for a new row of the same block size, which happens only after the event of the released row is detached.
+ * A slab is reclaimed by the garbage collector when no event and no free block references it.
+ * <p>
+ * Changes are made by the owning store under the named window lock, reads may take place from any thread.
+ */
+public class NamedWindowOffHeapSlab
+{
+    /**
+     * Alignment of row blocks in bytes.
+     */
+    public final static int BLOCK_ALIGNMENT = 16;
+
+    private final ByteBuffer buffer;
+    private int position;
+    private int liveRows;
+
+    /**
+     * Ctor.
+     * @param capacity - size in bytes
+     */
+    public NamedWindowOffHeapSlab(int capacity)
+    {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Returns the block size of a row of the given length, including the length prefix.
+     * @param rowLength - serialized row length
+     * @return block size
+     */
+    public static int getBlockSize(int rowLength)
+    {
+        return (rowLength + 4 + BLOCK_ALIGNMENT - 1) & ~(BLOCK_ALIGNMENT - 1);
+    }
+
+    /**
+     * Append a row.
+     * @param row - serialized row
+     * @return offset of the row or -1 if the slab does not have room
+     */
+    public int append(byte[] row)
+    {
+        int blockSize = getBlockSize(row.length);
+        if (buffer.capacity() - position < blockSize)
+        {
+            return -1;
+        }
+        int offset = position;
+        write(offset, row);
+        position += blockSize;
+        return offset;
+    }
+
+    /**
+     * Write a row into a block previously released that has the block size of the row.
+     * @param offset - offset of the released block
+     * @param row - serialized row
+     */
+    public void write(int offset, byte[] row)
+    {
+        buffer.putInt(offset, row.length);
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset + 4);
+        target.put(row);
+        liveRows++;
+    }
+
+    /**
+     * Read a row.
+     * @param offset - offset returned by append
+     * @return serialized row
+     * @throws IllegalStateException if the offset does not hold a row
+     */
+    public byte[] read(int offset)
+    {
+        int length = buffer.getInt(offset);
+        if (length < 0 || length > buffer.capacity() - offset - 4)
+        {
+            throw new IllegalStateException("Invalid off-heap row length " + length + " at offset " + offset);
+        }
+        byte[] row = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + 4);
+        source.get(row);
+        return row;
+    }
+
+    /**
+     * Release the row at the offset.
+     * @param offset - row offset
+     * @return block size of the released row
+     */
+    public int release(int offset)
+    {
+        liveRows--;
+        return getBlockSize(buffer.getInt(offset));
+    }
+
+    /**
+     * Returns the number of rows not released.
+     * @return row count
+     */
+    public int getLiveRows()
+    {
+        return liveRows;
+    }
+}
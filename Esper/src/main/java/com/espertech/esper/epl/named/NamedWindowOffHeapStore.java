@@ -0,0 +1,482 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Off-heap row store for a named window instance holding object-array or map events.
+ * <p>
+ * Events entering the named window are serialized into direct-memory slabs and replaced by thin events
+ * that hold only the slab and offset, so that window contents and indexes reference small objects only.
+ * Event properties are materialized when accessed, and the materialized row of the most recently accessed events
+ * is retained so that reading multiple properties of an event decodes the row once. Events whose values cannot be
+ * serialized remain on-heap.
+ * <p>
+ * Events leaving the window are detached, i.e. their properties are copied back to heap so that
+ * consumers may still access them. The blocks of detached rows are reused for new rows of the same block size,
+ * and slabs other than the current slab are dropped when they hold no row.
+ */
+public class NamedWindowOffHeapStore
+{
+    private static final Log log = LogFactory.getLog(NamedWindowOffHeapStore.class);
+
+    /**
+     * Default slab size.
+     */
+    public final static int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Number of events retaining their materialized row.
+     */
+    public final static int DECODED_CACHE_SIZE = 256;
+
+    private final static byte TYPE_NULL = 0;
+    private final static byte TYPE_STRING = 1;
+    private final static byte TYPE_INT = 2;
+    private final static byte TYPE_LONG = 3;
+    private final static byte TYPE_DOUBLE = 4;
+    private final static byte TYPE_BOOLEAN = 5;
+    private final static byte TYPE_FLOAT = 6;
+    private final static byte TYPE_SHORT = 7;
+    private final static byte TYPE_BYTE = 8;
+    private final static byte TYPE_CHAR = 9;
+    private final static byte TYPE_SERIALIZED = 10;
+
+    private final EventType eventType;
+    private final boolean isObjectArray;
+    private final int slabSize;
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream output;
+    private final Map<Integer, ArrayDeque<FreeBlock>> freeBlocks = new HashMap<Integer, ArrayDeque<FreeBlock>>();
+    private final AtomicReferenceArray<NamedWindowOffHeapEventBean> decodedCache = new AtomicReferenceArray<NamedWindowOffHeapEventBean>(DECODED_CACHE_SIZE);
+    private final AtomicInteger decodedCacheIndex = new AtomicInteger();
+    private NamedWindowOffHeapSlab currentSlab;
+
+    /**
+     * Returns a store for the event type, or null if the event type is not an object-array or map type.
+     * @param eventType - named window type
+     * @return store or null
+     */
+    public static NamedWindowOffHeapStore make(EventType eventType)
+    {
+        if (eventType instanceof ObjectArrayEventType)
+        {
+            return new NamedWindowOffHeapStore(eventType, true, DEFAULT_SLAB_SIZE);
+        }
+        if (eventType instanceof MapEventType)
+        {
+            return new NamedWindowOffHeapStore(eventType, false, DEFAULT_SLAB_SIZE);
+        }
+        log.warn("Off-heap storage requires an object-array or map event type, ignoring hint for type '" + eventType.getName() + "'");
+        return null;
+    }
+
+    /**
+     * Ctor.
+     * @param eventType - named window type
+     * @param isObjectArray - true for object-array, false for map
+     * @param slabSize - size of each slab in bytes
+     */
+    public NamedWindowOffHeapStore(EventType eventType, boolean isObjectArray, int slabSize)
+    {
+        this.eventType = eventType;
+        this.isObjectArray = isObjectArray;
+        this.slabSize = slabSize;
+        this.bytes = new ByteArrayOutputStream(256);
+        this.output = new DataOutputStream(bytes);
+    }
+
+    /**
+     * Returns the named window type.
+     * @return type
+     */
+    public EventType getEventType()
+    {
+        return eventType;
+    }
+
+    /**
+     * Moves events to off-heap storage, returning a new array of thin events.
+     * @param events to store
+     * @return stored events, or events themselves if none could be stored
+     */
+    public EventBean[] store(EventBean[] events)
+    {
+        EventBean[] result = null;
+        for (int i = 0; i < events.length; i++)
+        {
+            EventBean stored = store(events[i]);
+            if (stored != events[i] && result == null)
+            {
+                result = new EventBean[events.length];
+                System.arraycopy(events, 0, result, 0, i);
+            }
+            if (result != null)
+            {
+                result[i] = stored;
+            }
+        }
+        return result == null ? events : result;
+    }
+
+    /**
+     * Moves an event to off-heap storage.
+     * @param theEvent to store
+     * @return thin event, or the event itself if it cannot be stored
+     */
+    public EventBean store(EventBean theEvent)
+    {
+        if (theEvent == null || theEvent.getEventType() != eventType)
+        {
+            return theEvent;
+        }
+        if (theEvent instanceof NamedWindowOffHeapEventBean && ((NamedWindowOffHeapEventBean) theEvent).getStore() == this)
+        {
+            return theEvent;
+        }
+
+        byte[] row;
+        try
+        {
+            row = encode(theEvent.getUnderlying());
+        }
+        catch (IOException ex)
+        {
+            if (log.isDebugEnabled())
+            {
+                log.debug("Event cannot be stored off-heap, retaining on heap: " + ex.getMessage());
+            }
+            return theEvent;
+        }
+
+        NamedWindowOffHeapSlab slab;
+        int offset;
+        ArrayDeque<FreeBlock> free = freeBlocks.get(NamedWindowOffHeapSlab.getBlockSize(row.length));
+        if (free != null && !free.isEmpty())
+        {
+            FreeBlock block = free.poll();
+            slab = block.slab;
+            offset = block.offset;
+            slab.write(offset, row);
+        }
+        else
+        {
+            offset = currentSlab == null ? -1 : currentSlab.append(row);
+            if (offset == -1)
+            {
+                NamedWindowOffHeapSlab previous = currentSlab;
+                currentSlab = new NamedWindowOffHeapSlab(Math.max(slabSize, NamedWindowOffHeapSlab.getBlockSize(row.length)));
+                offset = currentSlab.append(row);
+                if (previous != null && previous.getLiveRows() == 0)
+                {
+                    dropFreeBlocks(previous);
+                }
+            }
+            slab = currentSlab;
+        }
+
+        if (isObjectArray)
+        {
+            return new NamedWindowOffHeapObjectArrayEventBean(this, slab, offset);
+        }
+        return new NamedWindowOffHeapMapEventBean(this, slab, offset);
+    }
+
+    /**
+     * Detaches events leaving the named window from off-heap storage.
+     * @param events removed events
+     */
+    public void release(EventBean[] events)
+    {
+        for (EventBean theEvent : events)
+        {
+            if (!(theEvent instanceof NamedWindowOffHeapEventBean))
+            {
+                continue;
+            }
+            NamedWindowOffHeapEventBean offHeapEvent = (NamedWindowOffHeapEventBean) theEvent;
+            if (offHeapEvent.getStore() != this)
+            {
+                continue;
+            }
+
+            // the block is released only after the event is detached, so readers never see a reused block as the event's row
+            NamedWindowOffHeapSlab slab = offHeapEvent.detach();
+            if (slab == null)
+            {
+                continue;
+            }
+            int blockSize = slab.release(offHeapEvent.getOffset());
+            if (slab != currentSlab && slab.getLiveRows() == 0)
+            {
+                dropFreeBlocks(slab);
+                continue;
+            }
+            ArrayDeque<FreeBlock> free = freeBlocks.get(blockSize);
+            if (free == null)
+            {
+                free = new ArrayDeque<FreeBlock>();
+                freeBlocks.put(blockSize, free);
+            }
+            free.add(new FreeBlock(slab, offHeapEvent.getOffset()));
+        }
+    }
+
+    /**
+     * Release all slabs.
+     */
+    public void destroy()
+    {
+        currentSlab = null;
+        freeBlocks.clear();
+        for (int i = 0; i < DECODED_CACHE_SIZE; i++)
+        {
+            decodedCache.set(i, null);
+        }
+    }
+
+    /**
+     * Retain the materialized row of an event, releasing the row retained by the least recently added event.
+     * @param theEvent - event that materialized its row
+     */
+    protected void retainDecoded(NamedWindowOffHeapEventBean theEvent)
+    {
+        int index = (decodedCacheIndex.getAndIncrement() & Integer.MAX_VALUE) % DECODED_CACHE_SIZE;
+        NamedWindowOffHeapEventBean evicted = decodedCache.getAndSet(index, theEvent);
+        if (evicted != null && evicted != theEvent)
+        {
+            evicted.clearDecoded();
+        }
+    }
+
+    private void dropFreeBlocks(NamedWindowOffHeapSlab slab)
+    {
+        for (ArrayDeque<FreeBlock> free : freeBlocks.values())
+        {
+            for (Iterator<FreeBlock> it = free.iterator(); it.hasNext();)
+            {
+                if (it.next().slab == slab)
+                {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Materialize a row.
+     * @param slab - slab holding the row
+     * @param offset - row offset
+     * @return object-array or map
+     */
+    protected Object materialize(NamedWindowOffHeapSlab slab, int offset)
+    {
+        return decode(slab.read(offset));
+    }
+
+    /**
+     * Decode a serialized row.
+     * @param row - row as read from a slab
+     * @return object-array or map
+     */
+    protected Object decode(byte[] row)
+    {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(row));
+        try
+        {
+            int size = input.readInt();
+            if (isObjectArray)
+            {
+                Object[] values = new Object[size];
+                for (int i = 0; i < size; i++)
+                {
+                    values[i] = readValue(input);
+                }
+                return values;
+            }
+            Map<String, Object> values = new HashMap<String, Object>((int) (size / 0.75f) + 1);
+            for (int i = 0; i < size; i++)
+            {
+                String key = input.readUTF();
+                values.put(key, readValue(input));
+            }
+            return values;
+        }
+        catch (IOException ex)
+        {
+            throw new IllegalStateException("Failed to read off-heap row: " + ex.getMessage(), ex);
+        }
+        catch (ClassNotFoundException ex)
+        {
+            throw new IllegalStateException("Failed to read off-heap row: " + ex.getMessage(), ex);
+        }
+    }
+
+    private byte[] encode(Object underlying) throws IOException
+    {
+        bytes.reset();
+        if (isObjectArray)
+        {
+            Object[] values = (Object[]) underlying;
+            output.writeInt(values.length);
+            for (Object value : values)
+            {
+                writeValue(value);
+            }
+        }
+        else
+        {
+            Map<String, Object> values = (Map<String, Object>) underlying;
+            output.writeInt(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet())
+            {
+                output.writeUTF(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeValue(Object value) throws IOException
+    {
+        if (value == null)
+        {
+            output.writeByte(TYPE_NULL);
+        }
+        else if (value instanceof String)
+        {
+            byte[] utf = ((String) value).getBytes("UTF-8");
+            output.writeByte(TYPE_STRING);
+            output.writeInt(utf.length);
+            output.write(utf);
+        }
+        else if (value instanceof Integer)
+        {
+            output.writeByte(TYPE_INT);
+            output.writeInt((Integer) value);
+        }
+        else if (value instanceof Long)
+        {
+            output.writeByte(TYPE_LONG);
+            output.writeLong((Long) value);
+        }
+        else if (value instanceof Double)
+        {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        }
+        else if (value instanceof Boolean)
+        {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        }
+        else if (value instanceof Float)
+        {
+            output.writeByte(TYPE_FLOAT);
+            output.writeFloat((Float) value);
+        }
+        else if (value instanceof Short)
+        {
+            output.writeByte(TYPE_SHORT);
+            output.writeShort((Short) value);
+        }
+        else if (value instanceof Byte)
+        {
+            output.writeByte(TYPE_BYTE);
+            output.writeByte((Byte) value);
+        }
+        else if (value instanceof Character)
+        {
+            output.writeByte(TYPE_CHAR);
+            output.writeChar((Character) value);
+        }
+        else
+        {
+            // Java serialization of any other type, failing for non-serializable values
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            ObjectOutputStream objectOutput = new ObjectOutputStream(serialized);
+            objectOutput.writeObject(value);
+            objectOutput.close();
+            output.writeByte(TYPE_SERIALIZED);
+            output.writeInt(serialized.size());
+            serialized.writeTo(output);
+        }
+    }
+
+    private Object readValue(DataInputStream input) throws IOException, ClassNotFoundException
+    {
+        byte type = input.readByte();
+        switch (type)
+        {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                byte[] utf = new byte[input.readInt()];
+                input.readFully(utf);
+                return new String(utf, "UTF-8");
+            case TYPE_INT:
+                return input.readInt();
+            case TYPE_LONG:
+                return input.readLong();
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_BOOLEAN:
+                return input.readBoolean();
+            case TYPE_FLOAT:
+                return input.readFloat();
+            case TYPE_SHORT:
+                return input.readShort();
+            case TYPE_BYTE:
+                return input.readByte();
+            case TYPE_CHAR:
+                return input.readChar();
+            case TYPE_SERIALIZED:
+                byte[] serialized = new byte[input.readInt()];
+                input.readFully(serialized);
+                ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(serialized));
+                try
+                {
+                    return objectInput.readObject();
+                }
+                finally
+                {
+                    objectInput.close();
+                }
+            default:
+                throw new IOException("Unrecognized value type " + type);
+        }
+    }
+
+    private static class FreeBlock
+    {
+        private final NamedWindowOffHeapSlab slab;
+        private final int offset;
+
+        private FreeBlock(NamedWindowOffHeapSlab slab, int offset)
+        {
+            this.slab = slab;
+            this.offset = offset;
+        }
+    }
+}
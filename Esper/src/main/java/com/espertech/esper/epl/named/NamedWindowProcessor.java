@@ -50,8 +50,9 @@ public class NamedWindowProcessor
      * @param eplExpression epl expression
      * @param statementName statement name
      * @param isPrioritized if the engine is running with prioritized execution
+     * @param isOffHeapStorage if rows are held in off-heap storage
      */
-    public NamedWindowProcessor(String namedWindowName, NamedWindowService namedWindowService, String contextName, boolean singleInstanceContext, EventType eventType, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized, boolean isEnableSubqueryIndexShare, boolean enableQueryPlanLog, MetricReportingService metricReportingService, boolean isBatchingDataWindow, boolean isVirtualDataWindow, StatementMetricHandle statementMetricHandle, Set<String> optionalUniqueKeyProps)
+    public NamedWindowProcessor(String namedWindowName, NamedWindowService namedWindowService, String contextName, boolean singleInstanceContext, EventType eventType, StatementResultService statementResultService, ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized, boolean isEnableSubqueryIndexShare, boolean enableQueryPlanLog, MetricReportingService metricReportingService, boolean isBatchingDataWindow, boolean isVirtualDataWindow, StatementMetricHandle statementMetricHandle, Set<String> optionalUniqueKeyProps, boolean isOffHeapStorage)
     {
         this.namedWindowName = namedWindowName;
         this.contextName = contextName;
@@ -64,11 +65,12 @@ public class NamedWindowProcessor
         this.statementMetricHandle = statementMetricHandle;
         this.optionalUniqueKeyProps = optionalUniqueKeyProps;
 
-        rootView = new NamedWindowRootView(revisionProcessor, enableQueryPlanLog, metricReportingService, eventType, isBatchingDataWindow, isEnableSubqueryIndexShare, optionalUniqueKeyProps);
+        rootView = new NamedWindowRootView(revisionProcessor, enableQueryPlanLog, metricReportingService, eventType, isBatchingDataWindow, isEnableSubqueryIndexShare, optionalUniqueKeyProps, isOffHeapStorage);
         tailView = new NamedWindowTailView(eventType, namedWindowService, statementResultService, revisionProcessor, isPrioritized, isBatchingDataWindow);
     }
 
     public synchronized NamedWindowProcessorInstance addInstance(AgentInstanceContext agentInstanceContext) {
+        rootView.incrementVersion();
 
         if (contextName == null) {
             if (instanceNoContext != null) {
@@ -85,6 +87,7 @@ public class NamedWindowProcessor
     }
 
     public synchronized void removeProcessorInstance(NamedWindowProcessorInstance instance) {
+        rootView.incrementVersion();
         if (contextName == null) {
             instanceNoContext = null;
             return;
@@ -92,6 +95,21 @@ public class NamedWindowProcessor
         instances.remove(instance.getAgentInstanceId());
     }
 
+    /**
+     * Returns the change version of the named window, changing upon any change to contents or context partitions.
+     * @return version
+     */
+    public long getVersion() {
+        return rootView.getVersion();
+    }
+
+    /**
+     * Enable tracking the change version.
+     */
+    public void enableVersionTracking() {
+        rootView.enableVersionTracking();
+    }
+
     public NamedWindowProcessorInstance getProcessorInstanceNoContext() {
         return instanceNoContext;
     }
@@ -32,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import java.lang.annotation.Annotation;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The root window in a named window plays multiple roles: It holds the indexes for deleting rows, if any on-delete statement
@@ -49,14 +50,18 @@ public class NamedWindowRootView
     private final boolean isChildBatching;
     private final boolean isEnableIndexShare;
     private final Set<String> optionalUniqueKeyProps;
+    private final boolean isOffHeapStorage;
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean isTrackVersion;
 
-    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps) {
+    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps, boolean isOffHeapStorage) {
         this.revisionProcessor = revisionProcessor;
         this.queryPlanLogging = queryPlanLogging;
         this.eventType = eventType;
         this.isChildBatching = childBatching;
         this.isEnableIndexShare = isEnableIndexShare;
         this.optionalUniqueKeyProps = optionalUniqueKeyProps;
+        this.isOffHeapStorage = isOffHeapStorage;
     }
 
     public Set<String> getOptionalUniqueKeyProps() {
@@ -83,7 +88,35 @@ public class NamedWindowRootView
         return eventType;
     }
 
+    /**
+     * Returns the change version, incremented upon any change to the contents of any of the named window's context partitions.
+     * @return version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Increment the change version, if version tracking is enabled.
+     */
+    public void incrementVersion() {
+        if (isTrackVersion) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Enable tracking the change version, which is not tracked unless results of queries against the named window are cached.
+     */
+    public void enableVersionTracking() {
+        isTrackVersion = true;
+    }
+
     public boolean isEnableIndexShare() {
         return isEnableIndexShare;
     }
+
+    public boolean isOffHeapStorage() {
+        return isOffHeapStorage;
+    }
 }
@@ -57,6 +57,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
     private final Map<NamedWindowLookupStrategy, EventTable> tablePerMultiLookup;
     private final Map<SubordTableLookupStrategy, EventTable> tablePerSingleLookup;
     private final ConcurrentHashMap<String, EventTable> explicitIndexes;
+    private final NamedWindowOffHeapStore offHeapStore;
 
     private Iterable<EventBean> dataWindowContents;
 
@@ -68,6 +69,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
         this.tablePerMultiLookup = new HashMap<NamedWindowLookupStrategy, EventTable>();
         this.tablePerSingleLookup = new HashMap<SubordTableLookupStrategy, EventTable>();
         this.explicitIndexes = new ConcurrentHashMap<String, EventTable>();
+        this.offHeapStore = rootView.isOffHeapStorage() ? NamedWindowOffHeapStore.make(rootView.getEventType()) : null;
     }
 
     public IndexMultiKey[] getIndexes() {
@@ -89,6 +91,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
      */
     public void removeOldData(EventBean[] oldData)
     {
+        rootView.incrementVersion();
         if (rootView.getRevisionProcessor() != null)
         {
             rootView.getRevisionProcessor().removeOldData(oldData, indexRepository);
@@ -99,6 +102,9 @@ public class NamedWindowRootViewInstance extends ViewSupport
             {
                 table.remove(oldData);
             }
+            if (offHeapStore != null) {
+                offHeapStore.release(oldData);
+            }
         }
     }
 
@@ -108,6 +114,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
      */
     public void addNewData(EventBean[] newData)
     {
+        rootView.incrementVersion();
         if (rootView.getRevisionProcessor() == null) {
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables())
@@ -120,12 +127,18 @@ public class NamedWindowRootViewInstance extends ViewSupport
     // Called by deletion strategy and also the insert-into for new events only
     public void update(EventBean[] newData, EventBean[] oldData)
     {
+        rootView.incrementVersion();
         if (rootView.getRevisionProcessor() != null)
         {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
         }
         else
         {
+            // Move new events to off-heap storage, the data window and indexes hold the thin events
+            if (offHeapStore != null && newData != null) {
+                newData = offHeapStore.store(newData);
+            }
+
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables())
             {
@@ -160,6 +173,9 @@ public class NamedWindowRootViewInstance extends ViewSupport
     public void destroy()
     {
         indexRepository.destroy();
+        if (offHeapStore != null) {
+            offHeapStore.destroy();
+        }
         tablePerMultiLookup.clear();
         tablePerSingleLookup.clear();
     }
@@ -58,6 +58,7 @@ public interface NamedWindowService
      * @param eplExpression is the expression
      * @param statementName the name of the statement
      * @param isPrioritized if the engine is running with prioritized execution
+     * @param isOffHeapStorage if rows are held in off-heap storage
      * @return processor for the named window
      * @throws ViewProcessingException if the named window already exists
      */
@@ -74,7 +75,8 @@ public interface NamedWindowService
                                              boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow,
                                              StatementMetricHandle statementMetricHandle,
-                                             Set<String> optionalUniqueKeyProps) throws ViewProcessingException;
+                                             Set<String> optionalUniqueKeyProps,
+                                             boolean isOffHeapStorage) throws ViewProcessingException;
 
     /**
      * Returns the processing instance for a given named window.
@@ -93,9 +95,17 @@ public interface NamedWindowService
      * Dispatch events of the insert and remove stream of named windows to consumers, as part of the
      * main event processing or dispatch loop.
      * @param exprEvaluatorContext context for expression evalauation
+     * @param isAllowThreading false to process consumers on the calling thread even when named window dispatch
+     * threading is enabled, as the dispatch threads complete their work on the engine runtime and not an isolated runtime
      * @return send events to consuming statements
      */
-    public boolean dispatch(ExprEvaluatorContext exprEvaluatorContext);
+    public boolean dispatch(ExprEvaluatorContext exprEvaluatorContext, boolean isAllowThreading);
+
+    /**
+     * Returns true if the current thread has named window results that are waiting for dispatch to consumers.
+     * @return indicator whether a dispatch is pending
+     */
+    public boolean isDispatchPending();
 
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
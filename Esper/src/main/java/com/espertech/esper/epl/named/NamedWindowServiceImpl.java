@@ -16,6 +16,7 @@ import com.espertech.esper.core.service.ExceptionHandlingService;
 import com.espertech.esper.core.service.StatementAgentInstanceLock;
 import com.espertech.esper.core.service.StatementLockFactory;
 import com.espertech.esper.core.service.StatementResultService;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.epl.metric.MetricReportingService;
@@ -44,6 +45,7 @@ public class NamedWindowServiceImpl implements NamedWindowService
     private final ManagedReadWriteLock eventProcessingRWLock;
     private final boolean enableQueryPlanLog;
     private final MetricReportingService metricReportingService;
+    private final ThreadingService threadingService;
 
     private ThreadLocal<List<NamedWindowConsumerDispatchUnit>> threadLocal = new ThreadLocal<List<NamedWindowConsumerDispatchUnit>>()
     {
@@ -53,6 +55,14 @@ public class NamedWindowServiceImpl implements NamedWindowService
         }
     };
 
+    private ThreadLocal<LinkedHashMap<NamedWindowConsumerView, Object>> deltaPerConsumerTL = new ThreadLocal<LinkedHashMap<NamedWindowConsumerView, Object>>()
+    {
+        protected synchronized LinkedHashMap<NamedWindowConsumerView, Object> initialValue()
+        {
+            return new LinkedHashMap<NamedWindowConsumerView, Object>();
+        }
+    };
+
     private ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> dispatchesPerStmtTL = new ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>>()
     {
         protected synchronized Map<EPStatementAgentInstanceHandle, Object> initialValue()
@@ -66,10 +76,11 @@ public class NamedWindowServiceImpl implements NamedWindowService
      * @param statementLockFactory statement lock factory
      * @param variableService is for variable access
      * @param isPrioritized if the engine is running with prioritized execution
+     * @param threadingService for dispatching to consumers by a thread pool
      */
     public NamedWindowServiceImpl(StatementLockFactory statementLockFactory, VariableService variableService, boolean isPrioritized,
                                   ManagedReadWriteLock eventProcessingRWLock, ExceptionHandlingService exceptionHandlingService, boolean enableQueryPlanLog,
-                                  MetricReportingService metricReportingService)
+                                  MetricReportingService metricReportingService, ThreadingService threadingService)
     {
         this.processors = new HashMap<String, NamedWindowProcessor>();
         this.windowStatementLocks = new HashMap<String, NamedWindowLockPair>();
@@ -81,6 +92,7 @@ public class NamedWindowServiceImpl implements NamedWindowService
         this.exceptionHandlingService = exceptionHandlingService;
         this.enableQueryPlanLog = enableQueryPlanLog;
         this.metricReportingService = metricReportingService;
+        this.threadingService = threadingService;
     }
 
     public void destroy()
@@ -88,6 +100,7 @@ public class NamedWindowServiceImpl implements NamedWindowService
         processors.clear();
         threadLocal.remove();
         dispatchesPerStmtTL.remove();
+        deltaPerConsumerTL.remove();
     }
 
     public String[] getNamedWindows()
@@ -142,14 +155,14 @@ public class NamedWindowServiceImpl implements NamedWindowService
                                              ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized,
                                              boolean isEnableSubqueryIndexShare, boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow, StatementMetricHandle statementMetricHandle,
-                                             Set<String> optionalUniqueKeyProps) throws ViewProcessingException
+                                             Set<String> optionalUniqueKeyProps, boolean isOffHeapStorage) throws ViewProcessingException
     {
         if (processors.containsKey(name))
         {
             throw new ViewProcessingException("A named window by name '" + name + "' has already been created");
         }
 
-        NamedWindowProcessor processor = new NamedWindowProcessor(name, this, contextName, singleInstanceContext, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, statementMetricHandle, optionalUniqueKeyProps);
+        NamedWindowProcessor processor = new NamedWindowProcessor(name, this, contextName, singleInstanceContext, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, statementMetricHandle, optionalUniqueKeyProps, isOffHeapStorage);
         processors.put(name, processor);
 
         if (!observers.isEmpty())
@@ -191,7 +204,12 @@ public class NamedWindowServiceImpl implements NamedWindowService
         }
     }
 
-    public boolean dispatch(ExprEvaluatorContext exprEvaluatorContext)
+    public boolean isDispatchPending()
+    {
+        return !threadLocal.get().isEmpty();
+    }
+
+    public boolean dispatch(ExprEvaluatorContext exprEvaluatorContext, boolean isAllowThreading)
     {
         List<NamedWindowConsumerDispatchUnit> dispatches = threadLocal.get();
         if (dispatches.isEmpty())
@@ -207,7 +225,7 @@ public class NamedWindowServiceImpl implements NamedWindowService
             {
                 NamedWindowConsumerDispatchUnit[] units = dispatches.toArray(new NamedWindowConsumerDispatchUnit[dispatches.size()]);
                 dispatches.clear();
-                processDispatches(exprEvaluatorContext, units);
+                processDispatches(exprEvaluatorContext, units, isAllowThreading);
             }
             catch (RuntimeException ex)
             {
@@ -219,54 +237,36 @@ public class NamedWindowServiceImpl implements NamedWindowService
             }
         }
 
+        // submitting to the dispatch threads does not block, wait for the dispatch threads to catch up outside of the lock
+        if (isAllowThreading && !isPrioritized && threadingService.isNamedWindowDispatchThreading())
+        {
+            threadingService.awaitNamedWindowDispatchCapacity();
+        }
+
         return true;
     }
 
-    private void processDispatches(ExprEvaluatorContext exprEvaluatorContext, NamedWindowConsumerDispatchUnit[] dispatches) {
+    private void processDispatches(ExprEvaluatorContext exprEvaluatorContext, NamedWindowConsumerDispatchUnit[] dispatches, boolean isAllowThreading) {
+
+        // preemptive statements require the consuming statements to be processed in order by the producing thread
+        boolean isThreading = isAllowThreading && !isPrioritized && threadingService.isNamedWindowDispatchThreading();
 
         if (dispatches.length == 1)
         {
             NamedWindowConsumerDispatchUnit unit = dispatches[0];
-            EventBean[] newData = unit.getDeltaData().getNewData();
-            EventBean[] oldData = unit.getDeltaData().getOldData();
-
-            if (MetricReportingPath.isMetricsEnabled)
+            for (EPStatementAgentInstanceHandle handle : unit.getDispatchTo().keySet())
             {
-                for (Map.Entry<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> entry : unit.getDispatchTo().entrySet())
+                if (isThreading)
                 {
-                    EPStatementAgentInstanceHandle handle = entry.getKey();
-                    if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
-                        long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
-                        long wallTimeBefore = MetricUtil.getWall();
-
-                        processHandle(handle, entry.getValue(), newData, oldData, exprEvaluatorContext);
-
-                        long wallTimeAfter = MetricUtil.getWall();
-                        long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
-                        long deltaCPU = cpuTimeAfter - cpuTimeBefore;
-                        long deltaWall = wallTimeAfter - wallTimeBefore;
-                        metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
-                    }
-                    else {
-                        processHandle(handle, entry.getValue(), newData, oldData, exprEvaluatorContext);
-                    }
-
-                    if ((isPrioritized) && (handle.isPreemptive()))
-                    {
-                        break;
-                    }
+                    submitHandle(handle, unit, exprEvaluatorContext);
+                    continue;
                 }
-            }
-            else {
-                for (Map.Entry<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> entry : unit.getDispatchTo().entrySet())
-                {
-                    EPStatementAgentInstanceHandle handle = entry.getKey();
-                    processHandle(handle, entry.getValue(), newData, oldData, exprEvaluatorContext);
 
-                    if ((isPrioritized) && (handle.isPreemptive()))
-                    {
-                        break;
-                    }
+                processHandleMetrics(handle, unit, exprEvaluatorContext);
+
+                if ((isPrioritized) && (handle.isPreemptive()))
+                {
+                    break;
                 }
             }
 
@@ -283,9 +283,8 @@ public class NamedWindowServiceImpl implements NamedWindowService
         Map<EPStatementAgentInstanceHandle, Object> dispatchesPerStmt = dispatchesPerStmtTL.get();
         for (NamedWindowConsumerDispatchUnit unit : dispatches)
         {
-            for (Map.Entry<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> entry : unit.getDispatchTo().entrySet())
+            for (EPStatementAgentInstanceHandle handle : unit.getDispatchTo().keySet())
             {
-                EPStatementAgentInstanceHandle handle = entry.getKey();
                 Object perStmtObj = dispatchesPerStmt.get(handle);
                 if (perStmtObj == null)
                 {
@@ -307,66 +306,18 @@ public class NamedWindowServiceImpl implements NamedWindowService
             }
         }
 
-        // Dispatch - with or without metrics reporting
-        if (MetricReportingPath.isMetricsEnabled)
+        try
         {
             for (Map.Entry<EPStatementAgentInstanceHandle, Object> entry : dispatchesPerStmt.entrySet())
             {
                 EPStatementAgentInstanceHandle handle = entry.getKey();
-                Object perStmtObj = entry.getValue();
-
-                // dispatch of a single result to the statement
-                if (perStmtObj instanceof NamedWindowConsumerDispatchUnit)
+                if (isThreading)
                 {
-                    NamedWindowConsumerDispatchUnit unit = (NamedWindowConsumerDispatchUnit) perStmtObj;
-                    EventBean[] newData = unit.getDeltaData().getNewData();
-                    EventBean[] oldData = unit.getDeltaData().getOldData();
-
-                    if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
-                        long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
-                        long wallTimeBefore = MetricUtil.getWall();
-
-                        processHandle(handle, unit.getDispatchTo().get(handle), newData, oldData, exprEvaluatorContext);
-
-                        long wallTimeAfter = MetricUtil.getWall();
-                        long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
-                        long deltaCPU = cpuTimeAfter - cpuTimeBefore;
-                        long deltaWall = wallTimeAfter - wallTimeBefore;
-                        metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
-                    }
-                    else {
-                        Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> entries = unit.getDispatchTo();
-                    	List<NamedWindowConsumerView> items = entries.get(handle);
-                    	if (items != null) {
-							processHandle(handle, items, newData, oldData, exprEvaluatorContext);
-						}
-                    }
-
-                    if ((isPrioritized) && (handle.isPreemptive()))
-                    {
-                        break;
-                    }
-
+                    submitHandle(handle, entry.getValue(), exprEvaluatorContext);
                     continue;
                 }
 
-                // dispatch of multiple results to a the same statement, need to aggregate per consumer view
-                LinkedHashMap<NamedWindowConsumerView, NamedWindowDeltaData> deltaPerConsumer = getDeltaPerConsumer(perStmtObj, handle);
-                if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
-                    long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
-                    long wallTimeBefore = MetricUtil.getWall();
-
-                    processHandleMultiple(handle, deltaPerConsumer, exprEvaluatorContext);
-
-                    long wallTimeAfter = MetricUtil.getWall();
-                    long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
-                    long deltaCPU = cpuTimeAfter - cpuTimeBefore;
-                    long deltaWall = wallTimeAfter - wallTimeBefore;
-                    metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
-                }
-                else {
-                    processHandleMultiple(handle, deltaPerConsumer, exprEvaluatorContext);
-                }
+                processHandleMetrics(handle, entry.getValue(), exprEvaluatorContext);
 
                 if ((isPrioritized) && (handle.isPreemptive()))
                 {
@@ -374,46 +325,83 @@ public class NamedWindowServiceImpl implements NamedWindowService
                 }
             }
         }
-        else {
+        finally
+        {
+            dispatchesPerStmt.clear();
+        }
+    }
 
-            for (Map.Entry<EPStatementAgentInstanceHandle, Object> entry : dispatchesPerStmt.entrySet())
+    private void submitHandle(final EPStatementAgentInstanceHandle handle, final Object perStmtObj, final ExprEvaluatorContext exprEvaluatorContext) {
+        threadingService.submitNamedWindowDispatch(handle, new Runnable() {
+            public void run()
             {
-                EPStatementAgentInstanceHandle handle = entry.getKey();
-                Object perStmtObj = entry.getValue();
-
-                // dispatch of a single result to the statement
-                if (perStmtObj instanceof NamedWindowConsumerDispatchUnit)
+                // the producing thread does not wait for consumers, therefore lock out statement management here
+                eventProcessingRWLock.acquireReadLock();
+                try
                 {
-                    NamedWindowConsumerDispatchUnit unit = (NamedWindowConsumerDispatchUnit) perStmtObj;
-                    EventBean[] newData = unit.getDeltaData().getNewData();
-                    EventBean[] oldData = unit.getDeltaData().getOldData();
-
-                    processHandle(handle, unit.getDispatchTo().get(handle), newData, oldData, exprEvaluatorContext);
-
-                    if ((isPrioritized) && (handle.isPreemptive()))
+                    if (!handle.isDestroyed())
                     {
-                        break;
+                        processHandleMetrics(handle, perStmtObj, exprEvaluatorContext);
                     }
-
-                    continue;
                 }
-
-                // dispatch of multiple results to a the same statement, need to aggregate per consumer view
-                LinkedHashMap<NamedWindowConsumerView, NamedWindowDeltaData> deltaPerConsumer = getDeltaPerConsumer(perStmtObj, handle);
-                processHandleMultiple(handle, deltaPerConsumer, exprEvaluatorContext);
-
-                if ((isPrioritized) && (handle.isPreemptive()))
+                finally
                 {
-                    break;
+                    eventProcessingRWLock.releaseReadLock();
                 }
             }
+        });
+    }
+
+    private void processHandleMetrics(EPStatementAgentInstanceHandle handle, Object perStmtObj, ExprEvaluatorContext exprEvaluatorContext) {
+        if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
+        {
+            long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
+            long wallTimeBefore = MetricUtil.getWall();
+
+            processHandleUnits(handle, perStmtObj, exprEvaluatorContext);
+
+            long wallTimeAfter = MetricUtil.getWall();
+            long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
+            long deltaCPU = cpuTimeAfter - cpuTimeBefore;
+            long deltaWall = wallTimeAfter - wallTimeBefore;
+            metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+        }
+        else
+        {
+            processHandleUnits(handle, perStmtObj, exprEvaluatorContext);
         }
+    }
+
+    private void processHandleUnits(EPStatementAgentInstanceHandle handle, Object perStmtObj, ExprEvaluatorContext exprEvaluatorContext) {
 
-        dispatchesPerStmt.clear();
-        return;
+        // dispatch of a single result to the statement
+        if (perStmtObj instanceof NamedWindowConsumerDispatchUnit)
+        {
+            NamedWindowConsumerDispatchUnit unit = (NamedWindowConsumerDispatchUnit) perStmtObj;
+            List<NamedWindowConsumerView> items = unit.getDispatchTo().get(handle);
+            if (items != null) {
+                processHandle(handle, items, unit.getDeltaData().getNewData(), unit.getDeltaData().getOldData(), exprEvaluatorContext);
+            }
+            return;
+        }
+
+        // dispatch of multiple results to a the same statement, need to aggregate per consumer view
+        LinkedHashMap<NamedWindowConsumerView, Object> deltaPerConsumer = deltaPerConsumerTL.get();
+        if (!deltaPerConsumer.isEmpty()) {
+            deltaPerConsumer = new LinkedHashMap<NamedWindowConsumerView, Object>();  // reentrant dispatch
+        }
+        try
+        {
+            addDeltaPerConsumer(deltaPerConsumer, (List<NamedWindowConsumerDispatchUnit>) perStmtObj, handle);
+            processHandleMultiple(handle, deltaPerConsumer, exprEvaluatorContext);
+        }
+        finally
+        {
+            deltaPerConsumer.clear();
+        }
     }
 
-    private void processHandleMultiple(EPStatementAgentInstanceHandle handle, Map<NamedWindowConsumerView, NamedWindowDeltaData> deltaPerConsumer, ExprEvaluatorContext exprEvaluatorContext) {
+    private void processHandleMultiple(EPStatementAgentInstanceHandle handle, Map<NamedWindowConsumerView, Object> deltaPerConsumer, ExprEvaluatorContext exprEvaluatorContext) {
         handle.getStatementAgentInstanceLock().acquireWriteLock(statementLockFactory);
         try
         {
@@ -421,11 +409,18 @@ public class NamedWindowServiceImpl implements NamedWindowService
             {
                 variableService.setLocalVersion();
             }
-            for (Map.Entry<NamedWindowConsumerView, NamedWindowDeltaData> entryDelta : deltaPerConsumer.entrySet())
+            for (Map.Entry<NamedWindowConsumerView, Object> entryDelta : deltaPerConsumer.entrySet())
             {
-                EventBean[] newData = entryDelta.getValue().getNewData();
-                EventBean[] oldData = entryDelta.getValue().getOldData();
-                entryDelta.getKey().update(newData, oldData);
+                NamedWindowDeltaData delta;
+                if (entryDelta.getValue() instanceof NamedWindowDeltaData)
+                {
+                    delta = (NamedWindowDeltaData) entryDelta.getValue();
+                }
+                else
+                {
+                    delta = new NamedWindowDeltaData((List<NamedWindowDeltaData>) entryDelta.getValue());
+                }
+                entryDelta.getKey().update(delta.getNewData(), delta.getOldData());
             }
 
             // internal join processing, if applicable
@@ -476,26 +471,31 @@ public class NamedWindowServiceImpl implements NamedWindowService
         observers.remove(observer);
     }
 
-    public LinkedHashMap<NamedWindowConsumerView, NamedWindowDeltaData> getDeltaPerConsumer(Object perStmtObj, EPStatementAgentInstanceHandle handle) {
-        List<NamedWindowConsumerDispatchUnit> list = (List<NamedWindowConsumerDispatchUnit>) perStmtObj;
-        LinkedHashMap<NamedWindowConsumerView, NamedWindowDeltaData> deltaPerConsumer = new LinkedHashMap<NamedWindowConsumerView, NamedWindowDeltaData>();
-        for (NamedWindowConsumerDispatchUnit unit : list)   // for each unit
+    private static void addDeltaPerConsumer(Map<NamedWindowConsumerView, Object> deltaPerConsumer, List<NamedWindowConsumerDispatchUnit> units, EPStatementAgentInstanceHandle handle) {
+        for (NamedWindowConsumerDispatchUnit unit : units)   // for each unit
         {
             for (NamedWindowConsumerView consumerView : unit.getDispatchTo().get(handle))   // each consumer
             {
-                NamedWindowDeltaData deltaForConsumer = deltaPerConsumer.get(consumerView);
+                // keep the deltas of a consumer as a single delta or a list of deltas, the list is aggregated once when processed
+                Object deltaForConsumer = deltaPerConsumer.get(consumerView);
                 if (deltaForConsumer == null)
                 {
                     deltaPerConsumer.put(consumerView, unit.getDeltaData());
                 }
+                else if (deltaForConsumer instanceof List)
+                {
+                    List<NamedWindowDeltaData> list = (List<NamedWindowDeltaData>) deltaForConsumer;
+                    list.add(unit.getDeltaData());
+                }
                 else
                 {
-                    NamedWindowDeltaData aggregated = new NamedWindowDeltaData(deltaForConsumer, unit.getDeltaData());
-                    deltaPerConsumer.put(consumerView, aggregated);
+                    List<NamedWindowDeltaData> list = new ArrayList<NamedWindowDeltaData>(units.size());
+                    list.add((NamedWindowDeltaData) deltaForConsumer);
+                    list.add(unit.getDeltaData());
+                    deltaPerConsumer.put(consumerView, list);
                 }
             }
         }
-        return deltaPerConsumer;
     }
 
     private static class NamedWindowLockPair {
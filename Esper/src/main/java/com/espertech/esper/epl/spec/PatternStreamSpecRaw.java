@@ -22,8 +22,11 @@ import com.espertech.esper.epl.property.PropertyEvaluator;
 import com.espertech.esper.epl.property.PropertyEvaluatorFactory;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventTypeSPI;
+import com.espertech.esper.filter.FilterOperator;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.filter.FilterSpecCompiler;
+import com.espertech.esper.filter.FilterSpecParam;
+import com.espertech.esper.filter.FilterSpecParamEventProp;
 import com.espertech.esper.pattern.*;
 import com.espertech.esper.pattern.guard.GuardFactory;
 import com.espertech.esper.pattern.guard.GuardParameterException;
@@ -265,6 +268,11 @@ public class PatternStreamSpecRaw extends StreamSpecBase implements StreamSpecRa
                     filterNode.getRawFilterSpec().getOptionalPropertyEvalSpec(),  filterTaggedEventTypes, arrayCompositeEventTypes, streamTypeService,
                    null, context, subexpressionIdStack);
             filterNode.setFilterSpec(spec);
+
+            if (context.getConfigSnapshot().getEngineDefaults().getPatterns().isSharedCorrelatedFilters() &&
+                !isPropertyEvaluation && isCorrelatedFollowedByEvery(evalNode, parentNodeStack)) {
+                filterNode.setSharedFilterParamIndex(getSharedFilterParamIndex(spec));
+            }
         }
         else if (evalNode instanceof EvalObserverFactoryNode)
         {
@@ -488,6 +496,56 @@ public class PatternStreamSpecRaw extends StreamSpecBase implements StreamSpecRa
     }
 
 
+    // Determine whether the filter is in a non-first subexpression of a followed-by that repeats through "every",
+    // i.e. multiple instances of the filter may be outstanding at the same time
+    private static boolean isCorrelatedFollowedByEvery(EvalFactoryNode currentNode, Stack<EvalFactoryNode> parentNodeStack) {
+        boolean everyAbove = false;
+        for (int i = 0; i < parentNodeStack.size(); i++) {
+            EvalFactoryNode parent = parentNodeStack.get(i);
+            if (parent instanceof EvalMatchUntilFactoryNode) {
+                return false;
+            }
+            if (parent instanceof EvalEveryFactoryNode) {
+                everyAbove = true;
+            }
+            if (parent instanceof EvalFollowedByFactoryNode) {
+                EvalFactoryNode childOnPath = i + 1 < parentNodeStack.size() ? parentNodeStack.get(i + 1) : currentNode;
+                EvalFactoryNode firstChild = parent.getChildNodes().get(0);
+                if (firstChild != childOnPath && (everyAbove || containsEvery(firstChild))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsEvery(EvalFactoryNode node) {
+        if (node instanceof EvalEveryFactoryNode) {
+            return true;
+        }
+        for (EvalFactoryNode child : node.getChildNodes()) {
+            if (containsEvery(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the index of the first equals-parameter that compares to a prior tagged event property without coercion
+    private static int getSharedFilterParamIndex(FilterSpecCompiled spec) {
+        FilterSpecParam[] params = spec.getParameters();
+        for (int i = 0; i < params.length; i++) {
+            if (!(params[i] instanceof FilterSpecParamEventProp) || params[i].getFilterOperator() != FilterOperator.EQUAL) {
+                continue;
+            }
+            FilterSpecParamEventProp eventProp = (FilterSpecParamEventProp) params[i];
+            if (!eventProp.isMustCoerce() && eventProp.getLookupable().getGetter() != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private static boolean isParentMatchUntil(EvalFactoryNode currentNode, Stack<EvalFactoryNode> parentNodeStack) {
         if (parentNodeStack.isEmpty()) {
             return false;
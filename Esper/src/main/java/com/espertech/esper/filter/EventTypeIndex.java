@@ -14,11 +14,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Mapping of event type to a tree-like structure
@@ -27,7 +25,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * This class evaluates events for the purpose of filtering by (1) looking up the event's {@link EventType}
  * and (2) asking the subtree for this event type to evaluate the event.
  * <p>
- * The class performs all the locking required for multithreaded access.
+ * The class performs all the locking required for multithreaded access, using the locks provided by
+ * the {@link FilterIndexStructureFactory}.
  */
 public class EventTypeIndex implements EventEvaluator
 {
@@ -36,11 +35,12 @@ public class EventTypeIndex implements EventEvaluator
 
     /**
      * Constructor.
+     * @param structureFactory factory for index structures
      */
-    public EventTypeIndex()
+    public EventTypeIndex(FilterIndexStructureFactory structureFactory)
     {
-        eventTypes = new HashMap<EventType, FilterHandleSetNode>();
-        eventTypesRWLock = new ReentrantReadWriteLock();
+        eventTypes = structureFactory.makeMap();
+        eventTypesRWLock = structureFactory.makeLock();
     }
 
     /**
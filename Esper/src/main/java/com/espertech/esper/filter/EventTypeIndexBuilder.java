@@ -25,14 +25,17 @@ public class EventTypeIndexBuilder
     private final Map<FilterHandle, EventTypeIndexBuilderValueIndexesPair> callbacks;
     private final Lock callbacksLock;
     private final EventTypeIndex eventTypeIndex;
+    private final FilterIndexStructureFactory structureFactory;
 
     /**
      * Constructor - takes the event type index to manipulate as its parameter.
      * @param eventTypeIndex - index to manipulate
+     * @param structureFactory - factory for index structures
      */
-    public EventTypeIndexBuilder(EventTypeIndex eventTypeIndex)
+    public EventTypeIndexBuilder(EventTypeIndex eventTypeIndex, FilterIndexStructureFactory structureFactory)
     {
         this.eventTypeIndex = eventTypeIndex;
+        this.structureFactory = structureFactory;
 
         this.callbacks = new HashMap<FilterHandle, EventTypeIndexBuilderValueIndexesPair>();
         this.callbacksLock = new ReentrantLock();
@@ -68,7 +71,7 @@ public class EventTypeIndexBuilder
                 rootNode = eventTypeIndex.get(eventType);
                 if (rootNode == null)
                 {
-                    rootNode = new FilterHandleSetNode();
+                    rootNode = new FilterHandleSetNode(structureFactory);
                     eventTypeIndex.add(eventType, rootNode);
                 }
             }
@@ -93,7 +96,7 @@ public class EventTypeIndexBuilder
         }
 
         // Now add to tree
-        IndexTreeBuilder treeBuilder = new IndexTreeBuilder();
+        IndexTreeBuilder treeBuilder = new IndexTreeBuilder(structureFactory);
         IndexTreePath path = treeBuilder.add(filterValueSet, filterCallback, rootNode);
         EventTypeIndexBuilderIndexLookupablePair[] pathArray = path.toArray();
         EventTypeIndexBuilderValueIndexesPair pair = new EventTypeIndexBuilderValueIndexesPair(filterValueSet, pathArray);
@@ -136,7 +139,7 @@ public class EventTypeIndexBuilder
 
         // Now remove from tree
         if (rootNode != null) {
-            IndexTreeBuilder treeBuilder = new IndexTreeBuilder();
+            IndexTreeBuilder treeBuilder = new IndexTreeBuilder(structureFactory);
             treeBuilder.remove(eventType, filterCallback, new EventTypeIndexBuilderIndexLookupableIterator(pair.getIndexPairs()), rootNode);
         }
 
@@ -174,7 +177,7 @@ public class EventTypeIndexBuilder
                     FilterHandleSetNode rootNode = eventTypeIndex.get(eventType);
 
                     // Now remove from tree
-                    IndexTreeBuilder treeBuilder = new IndexTreeBuilder();
+                    IndexTreeBuilder treeBuilder = new IndexTreeBuilder(structureFactory);
                     treeBuilder.remove(eventType, entry.getKey(), new EventTypeIndexBuilderIndexLookupableIterator(pair.getIndexPairs()), rootNode);
                 }
             }
@@ -27,12 +27,13 @@ public class ExprNodeAdapterBase
     /**
      * Ctor.
      * @param exprNode is the boolean expression
+     * @param exprNodeEval is the evaluator for the boolean expression
      */
-    public ExprNodeAdapterBase(String statementName, ExprNode exprNode, ExprEvaluatorContext evaluatorContext)
+    public ExprNodeAdapterBase(String statementName, ExprNode exprNode, ExprEvaluator exprNodeEval, ExprEvaluatorContext evaluatorContext)
     {
         this.statementName = statementName;
         this.exprNode = exprNode;
-        this.exprNodeEval = exprNode.getExprEvaluator();
+        this.exprNodeEval = exprNodeEval;
         this.evaluatorContext = evaluatorContext;
     }
 
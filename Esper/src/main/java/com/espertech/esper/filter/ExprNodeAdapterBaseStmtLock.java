@@ -10,6 +10,7 @@ package com.espertech.esper.filter;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.ExprEvaluator;
 import com.espertech.esper.epl.expression.ExprNode;
 import com.espertech.esper.epl.variable.VariableService;
 import org.apache.commons.logging.Log;
@@ -21,8 +22,8 @@ public class ExprNodeAdapterBaseStmtLock extends ExprNodeAdapterBase
 
     protected final VariableService variableService;
 
-    public ExprNodeAdapterBaseStmtLock(String statementName, ExprNode exprNode, ExprEvaluatorContext evaluatorContext, VariableService variableService) {
-        super(statementName, exprNode, evaluatorContext);
+    public ExprNodeAdapterBaseStmtLock(String statementName, ExprNode exprNode, ExprEvaluator exprNodeEval, ExprEvaluatorContext evaluatorContext, VariableService variableService) {
+        super(statementName, exprNode, exprNodeEval, evaluatorContext);
         this.variableService = variableService;
     }
 
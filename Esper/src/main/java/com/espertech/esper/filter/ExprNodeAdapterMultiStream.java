@@ -10,6 +10,7 @@ package com.espertech.esper.filter;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.ExprEvaluator;
 import com.espertech.esper.epl.expression.ExprNode;
 import com.espertech.esper.epl.variable.VariableService;
 
@@ -23,8 +24,8 @@ public class ExprNodeAdapterMultiStream extends ExprNodeAdapterBaseVariables
     protected final EventBean[] prototypeArray;
     private final ThreadLocal<EventBean[]> arrayPerThread;
 
-    public ExprNodeAdapterMultiStream(String statementName, ExprNode exprNode, ExprEvaluatorContext evaluatorContext, VariableService variableService, EventBean[] prototype) {
-        super(statementName, exprNode, evaluatorContext, variableService);
+    public ExprNodeAdapterMultiStream(String statementName, ExprNode exprNode, ExprEvaluator exprNodeEval, ExprEvaluatorContext evaluatorContext, VariableService variableService, EventBean[] prototype) {
+        super(statementName, exprNode, exprNodeEval, evaluatorContext, variableService);
         this.prototypeArray = prototype;
 
         arrayPerThread = new ThreadLocal<EventBean[]>()
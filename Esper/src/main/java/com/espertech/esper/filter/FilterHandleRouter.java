@@ -0,0 +1,27 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Collection;
+
+/**
+ * Filter handle that is not itself a match but that, for a matching event, adds the filter handles the
+ * event routes to, for use with a single filter shared by many handles that differ only in a key.
+ */
+public interface FilterHandleRouter extends FilterHandle
+{
+    /**
+     * Add the filter handles for the event to the matches.
+     * @param theEvent event that matched the router's filter
+     * @param matches is the list of callbacks to add to
+     */
+    public void route(EventBean theEvent, Collection<FilterHandle> matches);
+}
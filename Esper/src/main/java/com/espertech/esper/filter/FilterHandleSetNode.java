@@ -10,7 +10,6 @@ package com.espertech.esper.filter;
 
 import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.espertech.esper.client.EventBean;
 import org.apache.commons.logging.LogFactory;
@@ -27,17 +26,20 @@ import org.apache.commons.logging.Log;
 public final class FilterHandleSetNode implements EventEvaluator
 {
     private final Set<FilterHandle> callbackSet;
+    private final Set<FilterHandleRouter> routerSet;
     private final List<FilterParamIndexBase> indizes;
     private final ReadWriteLock nodeRWLock;
 
     /**
      * Constructor.
+     * @param structureFactory factory for node structures
      */
-    public FilterHandleSetNode()
+    public FilterHandleSetNode(FilterIndexStructureFactory structureFactory)
     {
-        callbackSet = new LinkedHashSet<FilterHandle>();
-        indizes = new LinkedList<FilterParamIndexBase>();
-        nodeRWLock = new ReentrantReadWriteLock();
+        callbackSet = structureFactory.makeOrderedSet();
+        routerSet = structureFactory.makeOrderedSet();
+        indizes = structureFactory.makeList();
+        nodeRWLock = structureFactory.makeLock();
     }
 
     /**
@@ -48,7 +50,7 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     protected boolean isEmpty()
     {
-        return callbackSet.isEmpty() && indizes.isEmpty();
+        return callbackSet.isEmpty() && routerSet.isEmpty() && indizes.isEmpty();
     }
 
     /**
@@ -59,7 +61,7 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     protected int getFilterCallbackCount()
     {
-        return callbackSet.size();
+        return callbackSet.size() + routerSet.size();
     }
 
     /**
@@ -102,6 +104,15 @@ public final class FilterHandleSetNode implements EventEvaluator
             {
                 matches.add(filterCallback);
             }
+
+            // Let each router add the callbacks it routes the event to
+            if (!routerSet.isEmpty())
+            {
+                for (FilterHandleRouter router : routerSet)
+                {
+                    router.route(theEvent, matches);
+                }
+            }
         }
         finally {
             nodeRWLock.readLock().unlock();
@@ -117,6 +128,10 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     protected boolean contains(FilterHandle filterCallback)
     {
+        if (filterCallback instanceof FilterHandleRouter)
+        {
+            return routerSet.contains(filterCallback);
+        }
         return callbackSet.contains(filterCallback);
     }
 
@@ -152,6 +167,11 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     protected final void add(FilterHandle filterCallback)
     {
+        if (filterCallback instanceof FilterHandleRouter)
+        {
+            routerSet.add((FilterHandleRouter) filterCallback);
+            return;
+        }
         callbackSet.add(filterCallback);
     }
 
@@ -164,6 +184,10 @@ public final class FilterHandleSetNode implements EventEvaluator
      */
     protected final boolean remove(FilterHandle filterCallback)
     {
+        if (filterCallback instanceof FilterHandleRouter)
+        {
+            return routerSet.remove(filterCallback);
+        }
         return callbackSet.remove(filterCallback);
     }
 
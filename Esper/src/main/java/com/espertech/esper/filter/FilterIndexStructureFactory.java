@@ -0,0 +1,72 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Factory for the locks and collections that make up the filter index tree, allowing the filter service
+ * to either protect the tree by granular read-write locks or to match events without locking.
+ * <p>
+ * Collections returned by the factory are read by event matching and changed by filter add and remove.
+ */
+public interface FilterIndexStructureFactory
+{
+    /**
+     * Returns the lock that serializes filter service changes (add, remove, take and apply),
+     * or a lock that doesn't lock if changes are instead coordinated by the granular locks.
+     * @return lock for filter service changes
+     */
+    public Lock getServiceWriteLock();
+
+    /**
+     * Returns a new lock for an index or node.
+     * @return lock
+     */
+    public ReadWriteLock makeLock();
+
+    /**
+     * Returns a new hash-based map that allows a null key.
+     * @return map
+     */
+    public <K, V> Map<K, V> makeMap();
+
+    /**
+     * Returns a new map that, if supported, keeps insertion order for iteration.
+     * @return map
+     */
+    public <K, V> Map<K, V> makeLinkedMap();
+
+    /**
+     * Returns a new sorted map.
+     * @param comparator comparator or null for natural ordering
+     * @return sorted map
+     */
+    public <K, V> NavigableMap<K, V> makeSortedMap(Comparator<? super K> comparator);
+
+    /**
+     * Returns a new hash-based set.
+     * @return set
+     */
+    public <E> Set<E> makeSet();
+
+    /**
+     * Returns a new set that keeps insertion order for iteration.
+     * @return set
+     */
+    public <E> Set<E> makeOrderedSet();
+
+    /**
+     * Returns a new list.
+     * @return list
+     */
+    public <E> List<E> makeList();
+}
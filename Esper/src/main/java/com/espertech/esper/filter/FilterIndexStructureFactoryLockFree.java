@@ -0,0 +1,72 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.collection.NullKeyConcurrentMap;
+import com.espertech.esper.util.VoidReadWriteLock;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filter index structures that can be read without locking: keyed collections are concurrent maps
+ * and small collections are copy-on-write, while index and node locks don't lock.
+ * <p>
+ * Changes to the filter index tree are serialized by a single filter service lock, therefore
+ * adding and removing filters does not scale with threads, while matching events takes no locks at all.
+ */
+public class FilterIndexStructureFactoryLockFree implements FilterIndexStructureFactory
+{
+    private final Lock serviceWriteLock = new ReentrantLock();
+
+    public Lock getServiceWriteLock()
+    {
+        return serviceWriteLock;
+    }
+
+    public ReadWriteLock makeLock()
+    {
+        return VoidReadWriteLock.INSTANCE;
+    }
+
+    public <K, V> Map<K, V> makeMap()
+    {
+        return new NullKeyConcurrentMap<K, V>();
+    }
+
+    public <K, V> Map<K, V> makeLinkedMap()
+    {
+        return new NullKeyConcurrentMap<K, V>();
+    }
+
+    public <K, V> NavigableMap<K, V> makeSortedMap(Comparator<? super K> comparator)
+    {
+        return new ConcurrentSkipListMap<K, V>(comparator);
+    }
+
+    public <E> Set<E> makeSet()
+    {
+        return Collections.newSetFromMap(new NullKeyConcurrentMap<E, Boolean>());
+    }
+
+    public <E> Set<E> makeOrderedSet()
+    {
+        return new CopyOnWriteArraySet<E>();
+    }
+
+    public <E> List<E> makeList()
+    {
+        return new CopyOnWriteArrayList<E>();
+    }
+}
@@ -0,0 +1,68 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.util.VoidReadWriteLock;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filter index structures protected by read-write locks for each index and node of the filter index tree,
+ * such that filters can be added and removed by many threads in parallel.
+ */
+public class FilterIndexStructureFactoryLocking implements FilterIndexStructureFactory
+{
+    /**
+     * Shared instance, the factory is stateless.
+     */
+    public final static FilterIndexStructureFactoryLocking INSTANCE = new FilterIndexStructureFactoryLocking();
+
+    public Lock getServiceWriteLock()
+    {
+        return VoidReadWriteLock.INSTANCE.writeLock();
+    }
+
+    public ReadWriteLock makeLock()
+    {
+        return new ReentrantReadWriteLock();
+    }
+
+    public <K, V> Map<K, V> makeMap()
+    {
+        return new HashMap<K, V>();
+    }
+
+    public <K, V> Map<K, V> makeLinkedMap()
+    {
+        return new LinkedHashMap<K, V>();
+    }
+
+    public <K, V> NavigableMap<K, V> makeSortedMap(Comparator<? super K> comparator)
+    {
+        return new TreeMap<K, V>(comparator);
+    }
+
+    public <E> Set<E> makeSet()
+    {
+        return new HashSet<E>();
+    }
+
+    public <E> Set<E> makeOrderedSet()
+    {
+        return new LinkedHashSet<E>();
+    }
+
+    public <E> List<E> makeList()
+    {
+        return new LinkedList<E>();
+    }
+}
@@ -14,10 +14,8 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Index that simply maintains a list of boolean expressions.
@@ -29,13 +27,14 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase
 
     /**
      * Constructs the index for multiple-exact matches.
+     * @param structureFactory factory for index structures
      */
-    public FilterParamIndexBooleanExpr()
+    public FilterParamIndexBooleanExpr(FilterIndexStructureFactory structureFactory)
     {
         super(FilterOperator.BOOLEAN_EXPRESSION);
 
-        evaluatorsMap = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>();
-        constantsMapRWLock = new ReentrantReadWriteLock();
+        evaluatorsMap = structureFactory.makeLinkedMap();
+        constantsMapRWLock = structureFactory.makeLock();
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -15,9 +15,8 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.NavigableMap;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Index for filter parameter constants for the comparison operators (less, greater, etc).
@@ -27,17 +26,17 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public final class FilterParamIndexCompare extends FilterParamIndexLookupableBase
 {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private final NavigableMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
 
-    private Double lowerBounds;
-    private Double upperBounds;
+    private volatile Double lowerBounds;
+    private volatile Double upperBounds;
 
-    public FilterParamIndexCompare(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
+    public FilterParamIndexCompare(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
         super(filterOperator, lookupable);
 
-        constantsMap = new TreeMap<Object, EventEvaluator>();
-        constantsMapRWLock = new ReentrantReadWriteLock();
+        constantsMap = structureFactory.makeSortedMap(null);
+        constantsMapRWLock = structureFactory.makeLock();
 
         if ((filterOperator != FilterOperator.GREATER) &&
             (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -101,7 +100,9 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         }
 
         // A undefine lower bound indicates an empty index
-        if (lowerBounds == null)
+        Double lowerBounds = this.lowerBounds;
+        Double upperBounds = this.upperBounds;
+        if ((lowerBounds == null) || (upperBounds == null))
         {
             return;
         }
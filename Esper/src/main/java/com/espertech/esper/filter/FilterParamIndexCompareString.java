@@ -15,9 +15,8 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.NavigableMap;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Index for filter parameter constants for the comparison operators (less, greater, etc).
@@ -27,14 +26,14 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public final class FilterParamIndexCompareString extends FilterParamIndexLookupableBase
 {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private final NavigableMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
 
-    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
+    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
         super(filterOperator, lookupable);
 
-        constantsMap = new TreeMap<Object, EventEvaluator>();
-        constantsMapRWLock = new ReentrantReadWriteLock();
+        constantsMap = structureFactory.makeSortedMap(null);
+        constantsMapRWLock = structureFactory.makeLock();
 
         if ((filterOperator != FilterOperator.GREATER) &&
             (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -23,8 +23,8 @@ import java.util.SortedMap;
  */
 public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRangeBase
 {
-    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
-        super(lookupable, filterOperator);
+    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, filterOperator, structureFactory);
         if (!(filterOperator.isRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
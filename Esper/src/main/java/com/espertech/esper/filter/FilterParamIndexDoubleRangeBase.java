@@ -12,9 +12,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.IdentityHashMap;
-import java.util.TreeMap;
+import java.util.NavigableMap;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Index for filter parameter constants for the range operators (range open/closed/half).
@@ -23,18 +22,18 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase
 {
-    protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected final NavigableMap<DoubleRange, EventEvaluator> ranges;
     private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
 
-    protected double largestRangeValueDouble = Double.MIN_VALUE;
+    protected volatile double largestRangeValueDouble = Double.MIN_VALUE;
 
-    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
+    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
         super(filterOperator, lookupable);
 
-        ranges = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
+        ranges = structureFactory.makeSortedMap(new DoubleRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
-        rangesRWLock = new ReentrantReadWriteLock();
+        rangesRWLock = structureFactory.makeLock();
     }
 
     public final EventEvaluator get(Object expressionValue)
@@ -23,8 +23,8 @@ import java.util.Map;
  */
 public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexDoubleRangeBase
 {
-    public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
-        super(lookupable, filterOperator);
+    public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, filterOperator, structureFactory);
         if (!(filterOperator.isInvertedRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
@@ -19,8 +19,8 @@ import java.util.Collection;
  */
 public final class FilterParamIndexEquals extends FilterParamIndexEqualsBase
 {
-    public FilterParamIndexEquals(FilterSpecLookupable lookupable) {
-        super(lookupable, FilterOperator.EQUAL);
+    public FilterParamIndexEquals(FilterSpecLookupable lookupable, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, FilterOperator.EQUAL, structureFactory);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -20,8 +20,8 @@ import java.util.Collection;
  */
 public final class FilterParamIndexEqualsIs extends FilterParamIndexEqualsBase
 {
-    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable) {
-        super(lookupable, FilterOperator.IS);
+    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, FilterOperator.IS, structureFactory);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -16,7 +16,6 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Index for filter parameter constants to match using the 'in' operator to match against a supplied set of values
@@ -28,13 +27,15 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
     private final Map<Object, List<EventEvaluator>> constantsMap;
     private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final FilterIndexStructureFactory structureFactory;
 
-    public FilterParamIndexIn(FilterSpecLookupable lookupable) {
+    public FilterParamIndexIn(FilterSpecLookupable lookupable, FilterIndexStructureFactory structureFactory) {
         super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
 
-        constantsMap = new HashMap<Object, List<EventEvaluator>>();
+        this.structureFactory = structureFactory;
+        constantsMap = structureFactory.makeMap();
         evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
-        constantsMapRWLock = new ReentrantReadWriteLock();
+        constantsMapRWLock = structureFactory.makeLock();
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -58,7 +59,7 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase
             List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
             if (evaluators == null)
             {
-                evaluators = new LinkedList<EventEvaluator>();
+                evaluators = structureFactory.makeList();
                 constantsMap.put(keyValues[i], evaluators);
             }
             else
@@ -23,8 +23,8 @@ import java.util.Map;
  */
 public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBase
 {
-    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable) {
-        super(lookupable, FilterOperator.NOT_EQUAL);
+    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, FilterOperator.NOT_EQUAL, structureFactory);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -23,8 +23,8 @@ import java.util.Map;
  */
 public final class FilterParamIndexNotEqualsIs extends FilterParamIndexNotEqualsBase
 {
-    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable) {
-        super(lookupable, FilterOperator.IS_NOT);
+    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, FilterOperator.IS_NOT, structureFactory);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
@@ -15,7 +15,6 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Index for filter parameter constants to match using the 'not in' operator to match against a
@@ -27,15 +26,17 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
     private final Map<MultiKeyUntyped, EventEvaluator> filterValueEvaluators;
     private final Set<EventEvaluator> evaluatorsSet;
     private final ReadWriteLock constantsMapRWLock;
+    private final FilterIndexStructureFactory structureFactory;
 
-    public FilterParamIndexNotIn(FilterSpecLookupable lookupable)
+    public FilterParamIndexNotIn(FilterSpecLookupable lookupable, FilterIndexStructureFactory structureFactory)
     {
         super(FilterOperator.NOT_IN_LIST_OF_VALUES, lookupable);
 
-        constantsMap = new HashMap<Object, Set<EventEvaluator>>();
+        this.structureFactory = structureFactory;
+        constantsMap = structureFactory.makeMap();
         filterValueEvaluators = new HashMap<MultiKeyUntyped, EventEvaluator>();
-        evaluatorsSet = new HashSet<EventEvaluator>();
-        constantsMapRWLock = new ReentrantReadWriteLock();
+        evaluatorsSet = structureFactory.makeSet();
+        constantsMapRWLock = structureFactory.makeLock();
     }
 
     public final EventEvaluator get(Object filterConstant)
@@ -58,7 +59,7 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
             Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
             if (evaluators == null)
             {
-                evaluators = new HashSet<EventEvaluator>();
+                evaluators = structureFactory.makeSet();
                 constantsMap.put(keyValue, evaluators);
             }
             evaluators.add(evaluator);
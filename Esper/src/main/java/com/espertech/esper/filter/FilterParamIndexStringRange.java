@@ -27,8 +27,8 @@ import java.util.*;
  */
 public final class FilterParamIndexStringRange extends FilterParamIndexStringRangeBase
 {
-    public FilterParamIndexStringRange(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
-        super(lookupable, filterOperator);
+    public FilterParamIndexStringRange(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, filterOperator, structureFactory);
 
         if (!(filterOperator.isRangeOperator()))
         {
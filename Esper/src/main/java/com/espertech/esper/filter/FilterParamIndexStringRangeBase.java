@@ -17,22 +17,21 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.IdentityHashMap;
-import java.util.TreeMap;
+import java.util.NavigableMap;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLookupableBase
 {
-    protected final TreeMap<StringRange, EventEvaluator> ranges;
+    protected final NavigableMap<StringRange, EventEvaluator> ranges;
     private final IdentityHashMap<StringRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
 
-    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
+    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
         super(filterOperator, lookupable);
 
-        ranges = new TreeMap<StringRange, EventEvaluator>(new StringRangeComparator());
+        ranges = structureFactory.makeSortedMap(new StringRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<StringRange, EventEvaluator>();
-        rangesRWLock = new ReentrantReadWriteLock();
+        rangesRWLock = structureFactory.makeLock();
     }
 
     public final EventEvaluator get(Object expressionValue)
@@ -24,8 +24,8 @@ import java.util.Map;
  */
 public final class FilterParamIndexStringRangeInverted extends FilterParamIndexStringRangeBase
 {
-    public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, FilterOperator filterOperator) {
-        super(lookupable, filterOperator);
+    public FilterParamIndexStringRangeInverted(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory) {
+        super(lookupable, filterOperator, structureFactory);
         if (!(filterOperator.isInvertedRangeOperator()))
         {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
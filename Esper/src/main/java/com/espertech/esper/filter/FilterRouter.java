@@ -0,0 +1,210 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.MultiKeyUntyped;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes events that match a shared filter to the filter handles registered for the event's key,
+ * using a direct key-to-handles index.
+ * <p>
+ * Changes are made under the lock of the {@link FilterRouterIndex}, lookups are lock-free.
+ */
+public final class FilterRouter implements FilterHandleRouter
+{
+    private static final Object NULL_KEY = new Object();
+
+    private final String statementId;
+    private final EventPropertyGetter[] getters;
+    private final ConcurrentHashMap<Object, Handles> handlesPerKey = new ConcurrentHashMap<Object, Handles>();
+
+    /**
+     * Ctor.
+     * @param statementId - statement id of the routed handles
+     * @param getters - key property getters
+     */
+    public FilterRouter(String statementId, EventPropertyGetter[] getters)
+    {
+        this.statementId = statementId;
+        this.getters = getters;
+    }
+
+    public String getStatementId()
+    {
+        return statementId;
+    }
+
+    public void route(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object key;
+        if (getters.length == 1) {
+            key = getters[0].get(theEvent);
+        }
+        else {
+            Object[] keys = new Object[getters.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = getters[i].get(theEvent);
+            }
+            key = new MultiKeyUntyped(keys);
+        }
+
+        Handles handles = handlesPerKey.get(key == null ? NULL_KEY : key);
+        if (handles == null) {
+            return;
+        }
+        for (FilterHandle handle : handles.array) {
+            if (handle != null) {
+                matches.add(handle);
+            }
+        }
+    }
+
+    /**
+     * Add a handle for the key.
+     * @param key key value
+     * @param handle to route to
+     */
+    public void add(Object key, FilterHandle handle)
+    {
+        Object mapKey = key == null ? NULL_KEY : key;
+        Handles handles = handlesPerKey.get(mapKey);
+        if (handles == null) {
+            handlesPerKey.put(mapKey, new Handles(handle));
+            return;
+        }
+        handles.add(handle);
+    }
+
+    /**
+     * Remove a handle for the key.
+     * @param key key value
+     * @param handle to remove
+     * @return true if no handles remain for any key
+     */
+    public boolean remove(Object key, FilterHandle handle)
+    {
+        Object mapKey = key == null ? NULL_KEY : key;
+        Handles handles = handlesPerKey.get(mapKey);
+        if (handles != null && handles.remove(handle) && handles.isEmpty()) {
+            handlesPerKey.remove(mapKey);
+        }
+        return handlesPerKey.isEmpty();
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return count
+     */
+    public int size()
+    {
+        return handlesPerKey.size();
+    }
+
+    /**
+     * Handles of a key: the array grows by doubling and removed handles leave an empty slot, so that lock-free lookups
+     * never miss a handle that is not removed. Empty slots are compacted when the array is full or mostly empty.
+     * Positions are kept in an identity map once the array is large, so adding and removing are constant time on average.
+     */
+    private static final class Handles
+    {
+        private static final int POSITIONS_THRESHOLD = 8;
+
+        private volatile FilterHandle[] array;
+        private int used;
+        private int count;
+        private IdentityHashMap<FilterHandle, Integer> positions;
+
+        private Handles(FilterHandle handle)
+        {
+            array = new FilterHandle[] {handle};
+            used = 1;
+            count = 1;
+        }
+
+        private void add(FilterHandle handle)
+        {
+            if (used == array.length) {
+                resize(count == array.length ? array.length * 2 : Math.max(1, count * 2));
+            }
+            FilterHandle[] current = array;
+            current[used] = handle;
+            if (positions != null) {
+                positions.put(handle, used);
+            }
+            used++;
+            count++;
+            array = current;    // volatile write publishes the new slot to lookups
+        }
+
+        private boolean remove(FilterHandle handle)
+        {
+            FilterHandle[] current = array;
+            int index = -1;
+            if (positions != null) {
+                Integer position = positions.remove(handle);
+                if (position != null) {
+                    index = position;
+                }
+            }
+            else {
+                for (int i = 0; i < used; i++) {
+                    if (current[i] == handle) {
+                        index = i;
+                        break;
+                    }
+                }
+            }
+            if (index == -1) {
+                return false;
+            }
+            current[index] = null;
+            count--;
+            if (index == used - 1) {
+                used--;
+            }
+            if (count > 0 && count < current.length / 4) {
+                resize(count * 2);
+            }
+            else {
+                array = current;
+            }
+            return true;
+        }
+
+        private boolean isEmpty()
+        {
+            return count == 0;
+        }
+
+        private void resize(int length)
+        {
+            FilterHandle[] current = array;
+            FilterHandle[] resized = new FilterHandle[length];
+            IdentityHashMap<FilterHandle, Integer> resizedPositions = length > POSITIONS_THRESHOLD ? new IdentityHashMap<FilterHandle, Integer>(length) : null;
+            int next = 0;
+            for (int i = 0; i < used; i++) {
+                if (current[i] != null) {
+                    if (resizedPositions != null) {
+                        resizedPositions.put(current[i], next);
+                    }
+                    resized[next++] = current[i];
+                }
+            }
+            used = next;
+            positions = resizedPositions;
+            array = resized;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the {@link FilterRouter} instances of a filter service: filters that carry a {@link FilterValueSetParamRouted}
+ * parameter are registered with a router that is shared by all filters of the same group, statement, event type and
+ * remaining parameters, and only the router is entered into the filter index tree.
+ * <p>
+ * Changes are made under a lock of the index, as the filter service write lock does not exclude concurrent
+ * changes for all filter service locking configurations.
+ */
+public class FilterRouterIndex
+{
+    private final Map<RouterKey, FilterRouter> routers = new HashMap<RouterKey, FilterRouter>();
+    private final Map<FilterHandle, RoutedEntry> routedHandles = new HashMap<FilterHandle, RoutedEntry>();
+    private final Lock routersLock = new ReentrantLock();
+
+    /**
+     * Returns the routed parameter of the filter, if any.
+     * @param filterValueSet filter
+     * @return routed parameter or null if none
+     */
+    public static FilterValueSetParamRouted getRoutedParam(FilterValueSet filterValueSet)
+    {
+        if (filterValueSet.getParameters() == null) {
+            return null;
+        }
+        for (FilterValueSetParam param : filterValueSet.getParameters()) {
+            if (param instanceof FilterValueSetParamRouted) {
+                return (FilterValueSetParamRouted) param;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a routed filter.
+     * @param filterValueSet the filter including the routed parameter
+     * @param routedParam the routed parameter
+     * @param filterCallback callback to route to
+     * @param indexBuilder index builder for entering new routers into the filter tree
+     */
+    public void add(FilterValueSet filterValueSet, FilterValueSetParamRouted routedParam, FilterHandle filterCallback, EventTypeIndexBuilder indexBuilder)
+    {
+        List<FilterValueSetParam> remaining = new ArrayList<FilterValueSetParam>(filterValueSet.getParameters().length - 1);
+        for (FilterValueSetParam param : filterValueSet.getParameters()) {
+            if (param != routedParam) {
+                remaining.add(param);
+            }
+        }
+        RouterKey routerKey = new RouterKey(routedParam.getGroup(), filterCallback.getStatementId(), filterValueSet.getEventType(), remaining);
+
+        routersLock.lock();
+        try {
+            if (routedHandles.containsKey(filterCallback)) {
+                throw new IllegalStateException("Callback for filter specification already exists in collection");
+            }
+
+            FilterRouter router = routers.get(routerKey);
+            if (router == null) {
+                router = new FilterRouter(filterCallback.getStatementId(), routedParam.getGetters());
+                FilterValueSetParam[] params = remaining.toArray(new FilterValueSetParam[remaining.size()]);
+                indexBuilder.add(new FilterValueSetImpl(filterValueSet.getEventType(), params), router);
+                routers.put(routerKey, router);
+            }
+            router.add(routedParam.getFilterForValue(), filterCallback);
+            routedHandles.put(filterCallback, new RoutedEntry(routerKey, router, routedParam.getFilterForValue(), filterValueSet));
+        }
+        finally {
+            routersLock.unlock();
+        }
+    }
+
+    /**
+     * Remove a filter callback if it is routed.
+     * @param filterCallback callback to remove
+     * @param indexBuilder index builder for removing unused routers from the filter tree
+     * @return true if the callback was routed and is removed, false if not routed
+     */
+    public boolean remove(FilterHandle filterCallback, EventTypeIndexBuilder indexBuilder)
+    {
+        routersLock.lock();
+        try {
+            if (routedHandles.isEmpty()) {
+                return false;
+            }
+            RoutedEntry entry = routedHandles.remove(filterCallback);
+            if (entry == null) {
+                return false;
+            }
+            boolean empty = entry.router.remove(entry.key, filterCallback);
+            if (empty) {
+                routers.remove(entry.routerKey);
+                indexBuilder.remove(entry.router);
+            }
+            return true;
+        }
+        finally {
+            routersLock.unlock();
+        }
+    }
+
+    /**
+     * Remove the routed filters of the statements, for moving the filters to another filter service.
+     * @param statementIds statements to remove routed filters for
+     * @param indexBuilder index builder for removing unused routers from the filter tree
+     * @return removed filters including the routed parameter, for adding to another filter service
+     */
+    public List<FilterSetEntry> take(Set<String> statementIds, EventTypeIndexBuilder indexBuilder)
+    {
+        List<FilterSetEntry> list = new ArrayList<FilterSetEntry>();
+        routersLock.lock();
+        try {
+            if (routedHandles.isEmpty()) {
+                return list;
+            }
+            for (Map.Entry<FilterHandle, RoutedEntry> entry : routedHandles.entrySet()) {
+                if (statementIds.contains(entry.getKey().getStatementId())) {
+                    list.add(new FilterSetEntry(entry.getKey(), entry.getValue().filterValueSet));
+                }
+            }
+            for (FilterSetEntry removed : list) {
+                remove(removed.getHandle(), indexBuilder);
+            }
+            return list;
+        }
+        finally {
+            routersLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of routers.
+     * @return count
+     */
+    public int getRouterCount()
+    {
+        routersLock.lock();
+        try {
+            return routers.size();
+        }
+        finally {
+            routersLock.unlock();
+        }
+    }
+
+    public void destroy()
+    {
+        routersLock.lock();
+        try {
+            routers.clear();
+            routedHandles.clear();
+        }
+        finally {
+            routersLock.unlock();
+        }
+    }
+
+    private static class RoutedEntry
+    {
+        private final RouterKey routerKey;
+        private final FilterRouter router;
+        private final Object key;
+        private final FilterValueSet filterValueSet;
+
+        private RoutedEntry(RouterKey routerKey, FilterRouter router, Object key, FilterValueSet filterValueSet) {
+            this.routerKey = routerKey;
+            this.router = router;
+            this.key = key;
+            this.filterValueSet = filterValueSet;
+        }
+    }
+
+    private static class RouterKey
+    {
+        private final Object group;
+        private final String statementId;
+        private final EventType eventType;
+        private final List<FilterValueSetParam> params;
+        private final int hashCode;
+
+        private RouterKey(Object group, String statementId, EventType eventType, List<FilterValueSetParam> params) {
+            this.group = group;
+            this.statementId = statementId;
+            this.eventType = eventType;
+            this.params = params;
+            int hash = System.identityHashCode(group);
+            hash = 31 * hash + statementId.hashCode();
+            hash = 31 * hash + System.identityHashCode(eventType);
+            for (FilterValueSetParam param : params) {
+                hash = 31 * hash + param.getLookupable().hashCode();
+                hash = 31 * hash + param.getFilterOperator().hashCode();
+            }
+            this.hashCode = hash;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RouterKey)) return false;
+            RouterKey other = (RouterKey) o;
+            if (group != other.group || eventType != other.eventType || !statementId.equals(other.statementId)) {
+                return false;
+            }
+            if (params.size() != other.params.size()) {
+                return false;
+            }
+            for (int i = 0; i < params.size(); i++) {
+                FilterValueSetParam mine = params.get(i);
+                FilterValueSetParam theirs = other.params.get(i);
+                if (mine.getFilterOperator() != theirs.getFilterOperator() || !mine.getLookupable().equals(theirs.getLookupable())) {
+                    return false;
+                }
+                Object mineValue = mine.getFilterForValue();
+                Object theirsValue = theirs.getFilterForValue();
+                if (mineValue == null ? theirsValue != null : !mineValue.equals(theirsValue)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
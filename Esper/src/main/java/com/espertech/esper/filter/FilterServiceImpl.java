@@ -16,31 +16,41 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Implementation of the filter service interface.
  * Does not allow the same filter callback to be added more then once.
+ * <p>
+ * The {@link FilterIndexStructureFactory} determines whether the filter index tree is protected
+ * by granular read-write locks or whether events are matched without locking.
  */
 public final class FilterServiceImpl implements FilterServiceSPI
 {
     private static final Log log = LogFactory.getLog(FilterServiceImpl.class);
     private final EventTypeIndexBuilder indexBuilder;
+    private final FilterRouterIndex routerIndex;
     private final EventTypeIndex eventTypeIndex;
     private final AtomicLong numEventsEvaluated = new AtomicLong();
     private volatile long filtersVersion = 1;
     private final CopyOnWriteArraySet<FilterServiceListener> filterServiceListeners;
+    private final Lock serviceWriteLock;
 
     /**
      * Constructor.
+     * @param structureFactory factory for index structures
      */
-    protected FilterServiceImpl()
+    protected FilterServiceImpl(FilterIndexStructureFactory structureFactory)
     {
-        eventTypeIndex = new EventTypeIndex();
-        indexBuilder = new EventTypeIndexBuilder(eventTypeIndex);
+        eventTypeIndex = new EventTypeIndex(structureFactory);
+        indexBuilder = new EventTypeIndexBuilder(eventTypeIndex, structureFactory);
+        routerIndex = new FilterRouterIndex();
         filterServiceListeners = new CopyOnWriteArraySet<FilterServiceListener>();
+        serviceWriteLock = structureFactory.getServiceWriteLock();
     }
 
     public long getFiltersVersion() {
@@ -52,18 +62,37 @@ public final class FilterServiceImpl implements FilterServiceSPI
         log.debug("Destroying filter service");
         eventTypeIndex.destroy();
         indexBuilder.destroy();
+        routerIndex.destroy();
     }
 
     public final void add(FilterValueSet filterValueSet, FilterHandle filterCallback)
     {
-        indexBuilder.add(filterValueSet, filterCallback);
-        filtersVersion++;
+        serviceWriteLock.lock();
+        try
+        {
+            addInternal(filterValueSet, filterCallback);
+            filtersVersion++;
+        }
+        finally
+        {
+            serviceWriteLock.unlock();
+        }
     }
 
     public final void remove(FilterHandle filterCallback)
     {
-        indexBuilder.remove(filterCallback);
-        filtersVersion++;
+        serviceWriteLock.lock();
+        try
+        {
+            if (!routerIndex.remove(filterCallback, indexBuilder)) {
+                indexBuilder.remove(filterCallback);
+            }
+            filtersVersion++;
+        }
+        finally
+        {
+            serviceWriteLock.unlock();
+        }
     }
 
     public final long evaluate(EventBean theEvent, Collection<FilterHandle> matches)
@@ -128,14 +157,48 @@ public final class FilterServiceImpl implements FilterServiceSPI
 
     public FilterSet take(Set<String> statementIds)
     {
-        filtersVersion++;
-        return indexBuilder.take(statementIds);
+        serviceWriteLock.lock();
+        try
+        {
+            filtersVersion++;
+            // routers are not moved as filters, the routed filters are moved instead
+            List<FilterSetEntry> routed = routerIndex.take(statementIds, indexBuilder);
+            FilterSet filterSet = indexBuilder.take(statementIds);
+            filterSet.getFilters().addAll(routed);
+            return filterSet;
+        }
+        finally
+        {
+            serviceWriteLock.unlock();
+        }
     }
 
     public void apply(FilterSet filterSet)
     {
-        filtersVersion++;
-        indexBuilder.apply(filterSet);
+        serviceWriteLock.lock();
+        try
+        {
+            filtersVersion++;
+            for (FilterSetEntry entry : filterSet.getFilters())
+            {
+                addInternal(entry.getFilterValueSet(), entry.getHandle());
+            }
+        }
+        finally
+        {
+            serviceWriteLock.unlock();
+        }
+    }
+
+    private void addInternal(FilterValueSet filterValueSet, FilterHandle filterCallback)
+    {
+        FilterValueSetParamRouted routedParam = FilterRouterIndex.getRoutedParam(filterValueSet);
+        if (routedParam != null) {
+            routerIndex.add(filterValueSet, routedParam, filterCallback, indexBuilder);
+        }
+        else {
+            indexBuilder.add(filterValueSet, filterCallback);
+        }
     }
 
     public int getFilterCountApprox() {
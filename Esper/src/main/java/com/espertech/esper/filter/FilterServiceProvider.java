@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.filter;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+
 /**
  * Static factory for implementations of the {@link FilterService} interface.
  */
@@ -15,10 +17,15 @@ public final class FilterServiceProvider
 {
     /**
      * Creates an implementation of the FilterEvaluationService interface.
+     * @param profile filter service profile determining the locking of the filter index tree
      * @return implementation
      */
-    public static FilterServiceSPI newService()
+    public static FilterServiceSPI newService(ConfigurationEngineDefaults.FilterServiceProfile profile)
     {
-        return new FilterServiceImpl();
+        if (profile == ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY)
+        {
+            return new FilterServiceImpl(new FilterIndexStructureFactoryLockFree());
+        }
+        return new FilterServiceImpl(FilterIndexStructureFactoryLocking.INSTANCE);
     }
 }
@@ -13,8 +13,10 @@ import com.espertech.esper.client.ConfigurationInformation;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.Pair;
+import com.espertech.esper.epl.expression.ExprEvaluator;
 import com.espertech.esper.epl.expression.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.ExprNode;
+import com.espertech.esper.epl.expression.ExprNodeCompiler;
 import com.espertech.esper.epl.expression.ExprNodeVariableVisitor;
 import com.espertech.esper.epl.variable.VariableService;
 import com.espertech.esper.event.EventAdapterService;
@@ -30,6 +32,7 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
 {
     private final String statementName;
     private final ExprNode exprNode;
+    private final transient ExprEvaluator exprNodeEval;
     private final LinkedHashMap<String, Pair<EventType, String>> taggedEventTypes;
     private final LinkedHashMap<String, Pair<EventType, String>> arrayEventTypes;
     private final transient EventAdapterService eventAdapterService;
@@ -68,6 +71,7 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
             throw new IllegalArgumentException("Invalid filter operator for filter expression node");
         }
         this.exprNode = exprNode;
+        this.exprNodeEval = ExprNodeCompiler.compile(exprNode, configurationInformation);
         this.taggedEventTypes = taggedEventTypes;
         this.arrayEventTypes = arrayEventTypes;
         this.variableService = variableService;
@@ -135,14 +139,14 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
         if (events == null) {
             // if a subquery is present in a filter stream acquire the agent instance lock
             if (hasFilterStreamSubquery) {
-                return new ExprNodeAdapterBaseStmtLock(statementName, exprNode, exprEvaluatorContext, variableService);
+                return new ExprNodeAdapterBaseStmtLock(statementName, exprNode, exprNodeEval, exprEvaluatorContext, variableService);
             }
             // no-variable no-prior event evaluation
             if (!hasVariable) {
-                return new ExprNodeAdapterBase(statementName, exprNode, exprEvaluatorContext);
+                return new ExprNodeAdapterBase(statementName, exprNode, exprNodeEval, exprEvaluatorContext);
             }
             // with-variable no-prior event evaluation
-            return new ExprNodeAdapterBaseVariables(statementName, exprNode, exprEvaluatorContext, variableService);
+            return new ExprNodeAdapterBaseVariables(statementName, exprNode, exprNodeEval, exprEvaluatorContext, variableService);
         }
 
         // pattern cases
@@ -151,16 +155,16 @@ public final class FilterSpecParamExprNode extends FilterSpecParam
             // no-threadlocal evaluation
             // if a subquery is present in a pattern filter acquire the agent instance lock
             if (hasFilterStreamSubquery) {
-                return new ExprNodeAdapterMultiStreamNoTLStmtLock(statementName, exprNode, exprEvaluatorContext, variableServiceToUse, events);
+                return new ExprNodeAdapterMultiStreamNoTLStmtLock(statementName, exprNode, exprNodeEval, exprEvaluatorContext, variableServiceToUse, events);
             }
-            return new ExprNodeAdapterMultiStreamNoTL(statementName, exprNode, exprEvaluatorContext, variableServiceToUse, events);
+            return new ExprNodeAdapterMultiStreamNoTL(statementName, exprNode, exprNodeEval, exprEvaluatorContext, variableServiceToUse, events);
         }
         else {
             if (hasFilterStreamSubquery) {
-                return new ExprNodeAdapterMultiStreamStmtLock(statementName, exprNode, exprEvaluatorContext, variableServiceToUse, events);
+                return new ExprNodeAdapterMultiStreamStmtLock(statementName, exprNode, exprNodeEval, exprEvaluatorContext, variableServiceToUse, events);
             }
             // evaluation with threadlocal cache
-            return new ExprNodeAdapterMultiStream(statementName, exprNode, exprEvaluatorContext, variableServiceToUse, events);
+            return new ExprNodeAdapterMultiStream(statementName, exprNode, exprNodeEval, exprEvaluatorContext, variableServiceToUse, events);
         }
     }
 
@@ -0,0 +1,86 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventPropertyGetter;
+
+import java.io.StringWriter;
+
+/**
+ * Filter parameter for an equals-match on a key computed from one or more event properties that, rather than
+ * being entered into the filter index tree, is handled by a {@link FilterRouter} that is shared by all
+ * filters of the same group and that differ only in the key value.
+ */
+public class FilterValueSetParamRouted implements FilterValueSetParam
+{
+    private static final long serialVersionUID = -3117412493766580731L;
+
+    private final FilterSpecLookupable lookupable;
+    private final transient EventPropertyGetter[] getters;
+    private final Object key;
+    private final transient Object group;
+
+    /**
+     * Ctor.
+     * @param lookupable - lookupable of the first key property, for display
+     * @param getters - getters for the key properties, a multi-key is used for more then one getter
+     * @param key - key value to look for
+     * @param group - identifies the owner of the routed filters, routers are not shared between groups
+     */
+    public FilterValueSetParamRouted(FilterSpecLookupable lookupable, EventPropertyGetter[] getters, Object key, Object group)
+    {
+        this.lookupable = lookupable;
+        this.getters = getters;
+        this.key = key;
+        this.group = group;
+    }
+
+    public FilterSpecLookupable getLookupable() {
+        return lookupable;
+    }
+
+    public FilterOperator getFilterOperator()
+    {
+        return FilterOperator.EQUAL;
+    }
+
+    public Object getFilterForValue()
+    {
+        return key;
+    }
+
+    /**
+     * Returns the key property getters.
+     * @return getters
+     */
+    public EventPropertyGetter[] getGetters() {
+        return getters;
+    }
+
+    /**
+     * Returns the group.
+     * @return group
+     */
+    public Object getGroup() {
+        return group;
+    }
+
+    public String toString() {
+        return "FilterValueSetParamRouted{" +
+                "lookupable='" + lookupable + '\'' +
+                ", key=" + key +
+                '}';
+    }
+
+    public void appendTo(StringWriter writer) {
+        lookupable.appendTo(writer);
+        writer.append(FilterOperator.EQUAL.getTextualOp());
+        writer.append(key == null ? "null" : key.toString());
+    }
+}
@@ -21,9 +21,10 @@ public class IndexFactory
      * <p>Does not perform any check of validity of property name.
      *
      * @param filterOperator is the type of index to use
+     * @param structureFactory factory for index structures
      * @return the proper index based on the filter operator type
      */
-    public static FilterParamIndexBase createIndex(FilterSpecLookupable lookupable, FilterOperator filterOperator)
+    public static FilterParamIndexBase createIndex(FilterSpecLookupable lookupable, FilterOperator filterOperator, FilterIndexStructureFactory structureFactory)
     {
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
@@ -31,26 +32,26 @@ public class IndexFactory
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL)
         {
-            index = new FilterParamIndexEquals(lookupable);
+            index = new FilterParamIndexEquals(lookupable, structureFactory);
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL)
         {
-            index = new FilterParamIndexNotEquals(lookupable);
+            index = new FilterParamIndexNotEquals(lookupable, structureFactory);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS)
         {
-            index = new FilterParamIndexEqualsIs(lookupable);
+            index = new FilterParamIndexEqualsIs(lookupable, structureFactory);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS_NOT)
         {
-            index = new FilterParamIndexNotEqualsIs(lookupable);
+            index = new FilterParamIndexNotEqualsIs(lookupable, structureFactory);
             return index;
         }
 
@@ -61,10 +62,10 @@ public class IndexFactory
             (filterOperator == FilterOperator.LESS_OR_EQUAL))
         {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexCompare(lookupable, filterOperator);
+                index = new FilterParamIndexCompare(lookupable, filterOperator, structureFactory);
             }
             else {
-                index = new FilterParamIndexCompareString(lookupable, filterOperator);
+                index = new FilterParamIndexCompareString(lookupable, filterOperator, structureFactory);
             }
             return index;
         }
@@ -73,37 +74,37 @@ public class IndexFactory
         if (filterOperator.isRangeOperator())
         {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexDoubleRange(lookupable, filterOperator);
+                index = new FilterParamIndexDoubleRange(lookupable, filterOperator, structureFactory);
             }
             else {
-                index = new FilterParamIndexStringRange(lookupable, filterOperator);
+                index = new FilterParamIndexStringRange(lookupable, filterOperator, structureFactory);
             }
             return index;
         }
         if (filterOperator.isInvertedRangeOperator())
         {
             if (returnValueType != String.class) {
-                return new FilterParamIndexDoubleRangeInverted(lookupable, filterOperator);
+                return new FilterParamIndexDoubleRangeInverted(lookupable, filterOperator, structureFactory);
             }
             else {
-                return new FilterParamIndexStringRangeInverted(lookupable, filterOperator);
+                return new FilterParamIndexStringRangeInverted(lookupable, filterOperator, structureFactory);
             }
         }
 
         // Handle all IN and NOT IN comparisons
         if (filterOperator == FilterOperator.IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexIn(lookupable);
+            return new FilterParamIndexIn(lookupable, structureFactory);
         }
         if (filterOperator == FilterOperator.NOT_IN_LIST_OF_VALUES)
         {
-            return new FilterParamIndexNotIn(lookupable);
+            return new FilterParamIndexNotIn(lookupable, structureFactory);
         }
 
         // Handle all boolean expression
         if (filterOperator == FilterOperator.BOOLEAN_EXPRESSION)
         {
-            return new FilterParamIndexBooleanExpr();
+            return new FilterParamIndexBooleanExpr(structureFactory);
         }
         throw new IllegalArgumentException("Cannot create filter index instance for filter operator " + filterOperator);
     }
@@ -29,12 +29,15 @@ public final class IndexTreeBuilder
     private ArrayDeque<FilterValueSetParam> remainingParameters;
     private FilterHandle filterCallback;
     private long currentThreadId;
+    private final FilterIndexStructureFactory structureFactory;
 
     /**
      * Constructor.
+     * @param structureFactory factory for index structures
      */
-    public IndexTreeBuilder()
+    public IndexTreeBuilder(FilterIndexStructureFactory structureFactory)
     {
+        this.structureFactory = structureFactory;
     }
 
     /**
@@ -173,7 +176,7 @@ public final class IndexTreeBuilder
             // Pick the next parameter for an index
             FilterValueSetParam parameterPickedForIndex = remainingParameters.removeFirst();
 
-            FilterParamIndexBase index = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), parameterPickedForIndex.getFilterOperator());
+            FilterParamIndexBase index = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), parameterPickedForIndex.getFilterOperator(), structureFactory);
 
             currentNode.getIndizes().add(index);
             treePathInfo.add(index, parameterPickedForIndex.getFilterForValue());
@@ -376,7 +379,7 @@ public final class IndexTreeBuilder
 
                 // The found eventEvaluator must be converted to a new FilterHandleSetNode
                 FilterParamIndexBase nextIndex = (FilterParamIndexBase) eventEvaluator;
-                FilterHandleSetNode newNode = new FilterHandleSetNode();
+                FilterHandleSetNode newNode = new FilterHandleSetNode(structureFactory);
                 newNode.add(nextIndex);
                 index.put(filterForValue, newNode);
                 addToNode(newNode, treePathInfo);
@@ -388,7 +391,7 @@ public final class IndexTreeBuilder
             // if there are no remaining parameters, create a node
             if (remainingParameters.isEmpty())
             {
-                FilterHandleSetNode node = new FilterHandleSetNode();
+                FilterHandleSetNode node = new FilterHandleSetNode(structureFactory);
                 addToNode(node, treePathInfo);
                 index.put(filterForValue, node);
                 return;
@@ -397,7 +400,7 @@ public final class IndexTreeBuilder
             // If there are remaining parameters, create a new index for the next parameter
             FilterValueSetParam parameterPickedForIndex = remainingParameters.removeFirst();
 
-            FilterParamIndexBase nextIndex = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), parameterPickedForIndex.getFilterOperator());
+            FilterParamIndexBase nextIndex = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), parameterPickedForIndex.getFilterOperator(), structureFactory);
 
             index.put(filterForValue, nextIndex);
             treePathInfo.add(nextIndex, parameterPickedForIndex.getFilterForValue());
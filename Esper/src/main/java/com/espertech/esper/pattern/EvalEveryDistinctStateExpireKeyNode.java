@@ -25,6 +25,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
     protected final EvalEveryDistinctNode everyNode;
     protected final Map<EvalStateNode, LinkedHashMap<Object, Long>> spawnedNodes;
     protected MatchedEventMap beginState;
+    private final EvalEveryStateSpawnEvaluator spawnEvaluator;
 
     /**
      * Constructor.
@@ -38,6 +39,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
 
         this.everyNode = everyNode;
         this.spawnedNodes = new LinkedHashMap<EvalStateNode, LinkedHashMap<Object, Long>>();
+        this.spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyNode.getContext().getPatternContext().getStatementName());
 
     }
 
@@ -55,7 +57,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         // During the start of the child we need to use the temporary evaluator to catch any event created during a start.
         // Events created during the start would likely come from the "not" operator.
         // Quit the new child again if
-        EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyNode.getContext().getPatternContext().getStatementName());
+        spawnEvaluator.reset();
         childState.setParentEvaluator(spawnEvaluator);
         childState.start(beginState);
 
@@ -78,7 +80,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         // Spawn all nodes below this EVERY node
         // During the start of a child we need to use the temporary evaluator to catch any event created during a start
         // Such events can be raised when the "not" operator is used.
-        EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyNode.getContext().getPatternContext().getStatementName());
+        spawnEvaluator.reset();
         EvalStateNode spawned = everyNode.getChildNode().newState(spawnEvaluator, null, 0L);
         spawned.start(beginState);
 
@@ -140,7 +142,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
             // Spawn all nodes below this EVERY node
             // During the start of a child we need to use the temporary evaluator to catch any event created during a start
             // Such events can be raised when the "not" operator is used.
-            EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyNode.getContext().getPatternContext().getStatementName());
+            spawnEvaluator.reset();
             EvalStateNode spawned = everyNode.getChildNode().newState(spawnEvaluator, null, 0L);
             spawned.start(beginState);
 
@@ -26,6 +26,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
     protected final EvalEveryDistinctNode everyDistinctNode;
     protected final Map<EvalStateNode, Set<Object>> spawnedNodes;
     protected MatchedEventMap beginState;
+    private final EvalEveryStateSpawnEvaluator spawnEvaluator;
 
     /**
      * Constructor.
@@ -39,6 +40,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
 
         this.everyDistinctNode = everyDistinctNode;
         this.spawnedNodes = new LinkedHashMap<EvalStateNode, Set<Object>>();
+        this.spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyDistinctNode.getContext().getPatternContext().getStatementName());
     }
 
     @Override
@@ -60,7 +62,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         // During the start of the child we need to use the temporary evaluator to catch any event created during a start.
         // Events created during the start would likely come from the "not" operator.
         // Quit the new child again if
-        EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyDistinctNode.getContext().getPatternContext().getStatementName());
+        spawnEvaluator.reset();
         childState.setParentEvaluator(spawnEvaluator);
         childState.start(beginState);
 
@@ -83,7 +85,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         // Spawn all nodes below this EVERY node
         // During the start of a child we need to use the temporary evaluator to catch any event created during a start
         // Such events can be raised when the "not" operator is used.
-        EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyDistinctNode.getContext().getPatternContext().getStatementName());
+        spawnEvaluator.reset();
         EvalStateNode spawned = everyDistinctNode.getChildNode().newState(spawnEvaluator, null, 0L);
         spawned.start(beginState);
 
@@ -132,7 +134,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
             // Spawn all nodes below this EVERY node
             // During the start of a child we need to use the temporary evaluator to catch any event created during a start
             // Such events can be raised when the "not" operator is used.
-            EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(everyDistinctNode.getContext().getPatternContext().getStatementName());
+            spawnEvaluator.reset();
             EvalStateNode spawned = everyDistinctNode.getChildNode().newState(spawnEvaluator, null, 0L);
             spawned.start(beginState);
 
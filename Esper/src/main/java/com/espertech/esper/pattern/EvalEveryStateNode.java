@@ -23,6 +23,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
     protected final EvalEveryNode evalEveryNode;
     protected final List<EvalStateNode> spawnedNodes;
     protected MatchedEventMap beginState;
+    private final EvalEveryStateSpawnEvaluator spawnEvaluator;
 
     /**
      * Constructor.
@@ -36,6 +37,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
 
         this.evalEveryNode = evalEveryNode;
         this.spawnedNodes = new ArrayList<EvalStateNode>();
+        this.spawnEvaluator = new EvalEveryStateSpawnEvaluator(evalEveryNode.getContext().getPatternContext().getStatementName());
     }
 
     @Override
@@ -52,7 +54,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
         // During the start of the child we need to use the temporary evaluator to catch any event created during a start.
         // Events created during the start would likely come from the "not" operator.
         // Quit the new child again if
-        EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(evalEveryNode.getContext().getPatternContext().getStatementName());
+        spawnEvaluator.reset();
         childState.setParentEvaluator(spawnEvaluator);
         childState.start(beginState);
 
@@ -75,7 +77,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
         // Spawn all nodes below this EVERY node
         // During the start of a child we need to use the temporary evaluator to catch any event created during a start
         // Such events can be raised when the "not" operator is used.
-        EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(evalEveryNode.getContext().getPatternContext().getStatementName());
+        spawnEvaluator.reset();
         EvalStateNode spawned = evalEveryNode.getChildNode().newState(spawnEvaluator, null, 0L);
         spawned.start(beginState);
 
@@ -108,7 +110,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator
             // Spawn all nodes below this EVERY node
             // During the start of a child we need to use the temporary evaluator to catch any event created during a start
             // Such events can be raised when the "not" operator is used.
-            EvalEveryStateSpawnEvaluator spawnEvaluator = new EvalEveryStateSpawnEvaluator(evalEveryNode.getContext().getPatternContext().getStatementName());
+            spawnEvaluator.reset();
             EvalStateNode spawned = evalEveryNode.getChildNode().newState(spawnEvaluator, null, 0L);
             spawned.start(beginState);
 
@@ -32,6 +32,14 @@ public final class EvalEveryStateSpawnEvaluator implements Evaluator
         this.statementName = statementName;
     }
 
+    /**
+     * Reset for use with the next spawned child, the evaluator is reused by the owning node for all children it spawns.
+     */
+    public final void reset()
+    {
+        isEvaluatedTrue = false;
+    }
+
     public final boolean isEvaluatedTrue()
     {
         return isEvaluatedTrue;
@@ -25,6 +25,7 @@ public class EvalFilterFactoryNode extends EvalNodeFactoryBase
     private final Integer consumptionLevel;
 
     private int eventAsTagNumber = -1;
+    private int sharedFilterParamIndex = -1;
 
     /**
      * Constructor.
@@ -107,6 +108,18 @@ public class EvalFilterFactoryNode extends EvalNodeFactoryBase
         this.eventAsTagNumber = eventAsTagNumber;
     }
 
+    /**
+     * Returns the index of the filter parameter that routes to outstanding instances through a shared filter, or -1 if not shared.
+     * @return parameter index
+     */
+    public int getSharedFilterParamIndex() {
+        return sharedFilterParamIndex;
+    }
+
+    public void setSharedFilterParamIndex(int sharedFilterParamIndex) {
+        this.sharedFilterParamIndex = sharedFilterParamIndex;
+    }
+
     public boolean isStateful() {
         return false;
     }
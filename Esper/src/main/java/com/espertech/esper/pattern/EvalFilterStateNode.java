@@ -9,10 +9,15 @@
 package com.espertech.esper.pattern;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
 import com.espertech.esper.filter.FilterHandleCallback;
+import com.espertech.esper.filter.FilterRouterIndex;
 import com.espertech.esper.filter.FilterService;
+import com.espertech.esper.filter.FilterSpecLookupable;
 import com.espertech.esper.filter.FilterValueSet;
+import com.espertech.esper.filter.FilterValueSetParam;
+import com.espertech.esper.filter.FilterValueSetParamRouted;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -163,11 +168,27 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         FilterService filterService = evalFilterNode.getContext().getPatternContext().getFilterService();
         handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
         FilterValueSet filterValues = evalFilterNode.getFactoryNode().getFilterSpec().getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
+        int sharedIndex = evalFilterNode.getFactoryNode().getSharedFilterParamIndex();
+        if (sharedIndex != -1) {
+            routeSharedFilterParam(filterValues, sharedIndex);
+        }
         filterService.add(filterValues, handle);
         long filtersVersion = filterService.getFiltersVersion();
         evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
     }
 
+    // Outstanding instances of the same filter that differ only in the correlation value share a single router
+    private void routeSharedFilterParam(FilterValueSet filterValues, int sharedIndex)
+    {
+        FilterValueSetParam[] params = filterValues.getParameters();
+        FilterValueSetParam param = params[sharedIndex];
+        if (param.getFilterForValue() == null || FilterRouterIndex.getRoutedParam(filterValues) != null) {
+            return;
+        }
+        FilterSpecLookupable lookupable = param.getLookupable();
+        params[sharedIndex] = new FilterValueSetParamRouted(lookupable, new EventPropertyGetter[] {lookupable.getGetter()}, param.getFilterForValue(), evalFilterNode);
+    }
+
     private void stopFiltering()
     {
         PatternContext context = evalFilterNode.getContext().getPatternContext();
@@ -18,11 +18,15 @@ import java.util.Map;
  * that holds the one or more events that could match any defined event expressions.
  * The optional tag value supplied when an event expression is created is used as a key for placing
  * matching event objects into this collection.
+ * <p>
+ * A shallow copy shares the array of tagged events with the original and the array is only copied
+ * by the first of the two that changes it (copy-on-write), so that copies that are never changed do not allocate an array.
  */
 public final class MatchedEventMapImpl implements MatchedEventMap
 {
     private final MatchedEventMapMeta meta;
-    private final Object[] matches;
+    private Object[] matches;
+    private boolean shared;
 
     /**
      * Constructor creates an empty collection of events.
@@ -45,6 +49,9 @@ public final class MatchedEventMapImpl implements MatchedEventMap
      */
     public void add(final int tag, final Object theEvent)
     {
+        if (shared) {
+            unshare();
+        }
         matches[tag] = theEvent;
     }
 
@@ -55,6 +62,9 @@ public final class MatchedEventMapImpl implements MatchedEventMap
      */
     public Object[] getMatchingEvents()
     {
+        if (shared) {
+            unshare();
+        }
         return matches;
     }
 
@@ -102,14 +112,10 @@ public final class MatchedEventMapImpl implements MatchedEventMap
             return this;
         }
 
-        Object[] copy = new Object[matches.length];
-        if (matches.length > 1) {
-            System.arraycopy(matches, 0, copy, 0, matches.length);
-        }
-        else {
-            copy[0] = matches[0];
-        }
-        return new MatchedEventMapImpl(meta, copy);
+        shared = true;
+        MatchedEventMapImpl copy = new MatchedEventMapImpl(meta, matches);
+        copy.shared = true;
+        return copy;
     }
 
     /**
@@ -124,6 +130,12 @@ public final class MatchedEventMapImpl implements MatchedEventMap
             throw new UnsupportedOperationException("Merge requires same types");
         }
         MatchedEventMapImpl otherImpl = (MatchedEventMapImpl) other;
+        if (otherImpl.matches == matches) {
+            return;
+        }
+        if (shared) {
+            unshare();
+        }
         for (int i = 0; i < matches.length; i++) {
             if (otherImpl.matches[i] == null) {
                 continue;
@@ -143,6 +155,18 @@ public final class MatchedEventMapImpl implements MatchedEventMap
         return map;
     }
 
+    private void unshare() {
+        Object[] copy = new Object[matches.length];
+        if (matches.length > 1) {
+            System.arraycopy(matches, 0, copy, 0, matches.length);
+        }
+        else {
+            copy[0] = matches[0];
+        }
+        matches = copy;
+        shared = false;
+    }
+
     public MatchedEventMapMeta getMeta() {
         return meta;
     }
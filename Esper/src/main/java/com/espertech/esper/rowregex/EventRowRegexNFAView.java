@@ -13,6 +13,7 @@ package com.espertech.esper.rowregex;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.hook.ConditionMatchRecognizeStatesMax;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.collection.SingleEventIterator;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
@@ -73,11 +74,16 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
     private final LinkedHashMap<String, Pair<Integer, Boolean>> variableStreams;
     private final Map<Integer, String> streamsVariables;
     private final Set<String> variablesSingle;
+    private final EventBean[] startEventsPerStream;
+    private final long maxStates;
+    private final boolean maxStatesPreventStart;
 
     // state
     private RegexPartitionStateRepo regexPartitionStateRepo;
     private LinkedHashSet<EventBean> windowMatchedEventset; // this is NOT per partition - some optimizations are done for batch-processing (minus is out-of-sequence in partition) 
     private int eventSequenceNumber;
+    private int stateCount;
+    private boolean isMaxStatesReached;
 
     /**
      * Ctor.
@@ -118,6 +124,11 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         this.isIterateOnly = isIterateOnly;
         this.agentInstanceContext = agentInstanceContext;
         this.isSelectAsksMultimatches = isSelectAsksMultimatches;
+        this.startEventsPerStream = new EventBean[variableStreams.size()];
+
+        Long maxStatesConfigured = agentInstanceContext.getStatementContext().getConfigSnapshot().getEngineDefaults().getMatchRecognize().getMaxStates();
+        this.maxStates = maxStatesConfigured == null ? -1 : maxStatesConfigured;
+        this.maxStatesPreventStart = agentInstanceContext.getStatementContext().getConfigSnapshot().getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart();
 
         if (matchRecognizeSpec.getInterval() != null)
         {
@@ -281,7 +292,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
             }
 
             // remove old events from repository - and let the repository know there are no interesting events left
-            regexPartitionStateRepo.removeOld(oldData, windowMatchedEventset.isEmpty(), found);
+            stateCount -= regexPartitionStateRepo.removeOld(oldData, windowMatchedEventset.isEmpty(), found);
 
             // reset, rebuilding state
             if (isOutOfSequenceRemove)
@@ -291,6 +302,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 Iterator<EventBean> parentEvents = this.getParent().iterator();
                 EventRowRegexIteratorResult iteratorResult = processIterator(startStates, parentEvents, regexPartitionStateRepo);
                 eventSequenceNumber = iteratorResult.getEventSequenceNum();
+                stateCount = regexPartitionStateRepo.getStateCount();
             }
         }
 
@@ -309,16 +321,26 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
             // get state holder for this event
             RegexPartitionState partitionState = regexPartitionStateRepo.getState(newEvent, true);
             List<RegexNFAStateEntry> currentStates = partitionState.getCurrentStates();
-            
-            // add start states for each new event
-            for (RegexNFAState startState : startStates)
+            int countBefore = currentStates.size();
+
+            // start states for each new event, unless the limit is reached
+            RegexNFAState[] startStatesForEvent = startStates;
+            if ((maxStates >= 0) && (stateCount >= maxStates))
             {
-                long time = 0;
-                if (matchRecognizeSpec.getInterval() != null)
+                // report the condition once when the limit is reached, and again only after falling below the limit
+                if (!isMaxStatesReached)
+                {
+                    isMaxStatesReached = true;
+                    agentInstanceContext.getStatementContext().getExceptionHandlingService().handleCondition(new ConditionMatchRecognizeStatesMax(maxStates), agentInstanceContext.getStatementContext().getEpStatementHandle());
+                }
+                if (maxStatesPreventStart)
                 {
-                    time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+                    startStatesForEvent = null;
                 }
-                currentStates.add(new RegexNFAStateEntry(eventSequenceNumber, time, startState, new EventBean[variableStreams.size()], new int[allStates.length], null, partitionState.getOptionalKeys()));
+            }
+            else
+            {
+                isMaxStatesReached = false;
             }
 
             if (partitionState.getRandomAccess() != null)
@@ -332,7 +354,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     "current : " + printStates(currentStates));
             }
 
-            step(currentStates, newEvent, nextStates, endStates, !isUnbound, eventSequenceNumber, partitionState.getOptionalKeys());
+            step(currentStates, startStatesForEvent, newEvent, nextStates, endStates, !isUnbound, eventSequenceNumber, partitionState.getOptionalKeys());
 
             if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || (IS_DEBUG))
             {
@@ -341,9 +363,17 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     "end : " + printStates(endStates));
             }
 
+            stateCount += nextStates.size() - countBefore;
             partitionState.setCurrentStates(nextStates);
             nextStates = currentStates;
             nextStates.clear();
+
+            // evict a partition without partial matches, unless an end state of the partition remains to be processed
+            if ((partitionState.getOptionalKeys() != null) && (partitionState.getCurrentStates().isEmpty()) && (endStates.isEmpty()) &&
+                (partitionState.getRandomAccess() == null || partitionState.getRandomAccess().isEmpty()))
+            {
+                regexPartitionStateRepo.removeState(partitionState.getOptionalKeys());
+            }
         }
 
         if (endStates.isEmpty())
@@ -416,6 +446,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     if (currentState.getMatchBeginEventSeqNo() <= endState.getMatchEndEventSeqNo())
                     {
                         stateIter.remove();
+                        stateCount--;
                     }
                 }
             }
@@ -440,6 +471,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     if (currentState.getMatchBeginEventSeqNo() <= endState.getMatchBeginEventSeqNo())
                     {
                         stateIter.remove();
+                        stateCount--;
                     }
                 }
             }
@@ -559,17 +591,6 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
             RegexPartitionState partitionState = regexPartitionStateRepo.getState(theEvent, false);
             currentStates = partitionState.getCurrentStates();
 
-            // add start states for each new event
-            for (RegexNFAState startState : startStates)
-            {
-                long time = 0;
-                if (matchRecognizeSpec.getInterval() != null)
-                {
-                    time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
-                }
-                currentStates.add(new RegexNFAStateEntry(eventSequenceNumber, time, startState, new EventBean[variableStreams.size()], new int[allStates.length], null, partitionState.getOptionalKeys()));
-            }
-
             if (partitionState.getRandomAccess() != null)
             {
                 partitionState.getRandomAccess().existingEventPrepare(theEvent);
@@ -581,7 +602,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     "current : " + printStates(currentStates));
             }
 
-            step(currentStates, theEvent, nextStates, endStates, false, eventSequenceNumber, partitionState.getOptionalKeys());
+            step(currentStates, startStates, theEvent, nextStates, endStates, false, eventSequenceNumber, partitionState.getOptionalKeys());
 
             if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || (IS_DEBUG))
             {
@@ -815,7 +836,9 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         }
     }
 
+    // Evaluates the current states and then the start states, a start state entry is only allocated when the start state matches
     private void step(List<RegexNFAStateEntry> currentStates,
+                      RegexNFAState[] startStates,
                       EventBean theEvent,
                       List<RegexNFAStateEntry> nextStates,
                       List<RegexNFAStateEntry> endStates,
@@ -831,56 +854,107 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
 
             if (currentState.getState().matches(eventsPerStream, agentInstanceContext))
             {
-                if (isRetainEventSet)
-                {
-                    this.windowMatchedEventset.add(theEvent);
-                }
-                List<RegexNFAState> nextStatesFromHere = currentState.getState().getNextStates();
+                transition(currentState, theEvent, nextStates, endStates, isRetainEventSet, currentEventSequenceNumber, partitionKey);
+            }
+        }
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
-                for (RegexNFAState next : nextStatesFromHere)
-                {
-                    EventBean[] eventsForState = eventsPerStream;
-                    MultimatchState[] multimatches = currentState.getOptionalMultiMatches();
-                    int[] greedyCounts = currentState.getGreedycountPerState();
+        if (startStates == null)
+        {
+            return;
+        }
 
-                    if (copy)
-                    {
-                        eventsForState = new EventBean[eventsForState.length];
-                        System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
+        long time = 0;
+        if (matchRecognizeSpec.getInterval() != null)
+        {
+            time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+        }
 
-                        int[] greedyCountsCopy = new int[greedyCounts.length];
-                        System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
-                        greedyCounts = greedyCountsCopy;
+        for (RegexNFAState startState : startStates)
+        {
+            int startStateStreamNum = startState.getStreamNum();
+            startEventsPerStream[startStateStreamNum] = theEvent;
+            boolean matches = startState.matches(startEventsPerStream, agentInstanceContext);
+            startEventsPerStream[startStateStreamNum] = null;
 
-                        if (isSelectAsksMultimatches) {
-                            multimatches = deepCopy(multimatches);
-                        }
-                    }
+            if (matches)
+            {
+                EventBean[] eventsPerStream = new EventBean[variableStreams.size()];
+                eventsPerStream[startStateStreamNum] = theEvent;
+                RegexNFAStateEntry startEntry = new RegexNFAStateEntry(currentEventSequenceNumber, time, startState, eventsPerStream, new int[allStates.length], null, partitionKey);
+                transition(startEntry, theEvent, nextStates, endStates, isRetainEventSet, currentEventSequenceNumber, partitionKey);
+            }
+        }
+    }
 
-                    if ((isSelectAsksMultimatches) && (currentState.getState().isMultiple()))
-                    {
-                        multimatches = addTag(currentState.getState().getStreamNum(), theEvent, multimatches);
-                    }
+    // Transition a matching state to its next states, the entry itself moves to the next state if there is only one
+    private void transition(RegexNFAStateEntry currentState,
+                            EventBean theEvent,
+                            List<RegexNFAStateEntry> nextStates,
+                            List<RegexNFAStateEntry> endStates,
+                            boolean isRetainEventSet,
+                            int currentEventSequenceNumber,
+                            Object partitionKey)
+    {
+        if (isRetainEventSet)
+        {
+            this.windowMatchedEventset.add(theEvent);
+        }
+        EventBean[] eventsPerStream = currentState.getEventsPerStream();
+        RegexNFAState state = currentState.getState();
+        List<RegexNFAState> nextStatesFromHere = state.getNextStates();
 
-                    if ((currentState.getState().isGreedy() != null) && (currentState.getState().isGreedy()))
-                    {
-                        greedyCounts[currentState.getState().getNodeNumFlat()]++;
-                    }
+        // save state for each next state
+        boolean copy = nextStatesFromHere.size() > 1;
+        for (RegexNFAState next : nextStatesFromHere)
+        {
+            EventBean[] eventsForState = eventsPerStream;
+            MultimatchState[] multimatches = currentState.getOptionalMultiMatches();
+            int[] greedyCounts = currentState.getGreedycountPerState();
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), next, eventsForState, greedyCounts, multimatches, partitionKey);
-                    if (next instanceof RegexNFAStateEnd)
-                    {
-                        entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
-                        endStates.add(entry);
-                    }
-                    else
-                    {
-                        nextStates.add(entry);
-                    }
+            if (copy)
+            {
+                eventsForState = new EventBean[eventsForState.length];
+                System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
+
+                int[] greedyCountsCopy = new int[greedyCounts.length];
+                System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
+                greedyCounts = greedyCountsCopy;
+
+                if (isSelectAsksMultimatches) {
+                    multimatches = deepCopy(multimatches);
                 }
             }
+
+            if ((isSelectAsksMultimatches) && (state.isMultiple()))
+            {
+                multimatches = addTag(state.getStreamNum(), theEvent, multimatches);
+            }
+
+            if ((state.isGreedy() != null) && (state.isGreedy()))
+            {
+                greedyCounts[state.getNodeNumFlat()]++;
+            }
+
+            RegexNFAStateEntry entry;
+            if (copy)
+            {
+                entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), next, eventsForState, greedyCounts, multimatches, partitionKey);
+            }
+            else
+            {
+                entry = currentState;
+                entry.advance(next, multimatches);
+            }
+
+            if (next instanceof RegexNFAStateEnd)
+            {
+                entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
+                endStates.add(entry);
+            }
+            else
+            {
+                nextStates.add(entry);
+            }
         }
     }
 
@@ -21,10 +21,10 @@ public class RegexNFAStateEntry
 {
     private final int matchBeginEventSeqNo;
     private final long matchBeginEventTime;
-    private final RegexNFAState state;
+    private RegexNFAState state;
     private final EventBean[] eventsPerStream;
     private final int[] greedycountPerState;
-    private final MultimatchState[] optionalMultiMatches;
+    private MultimatchState[] optionalMultiMatches;
     private final Object partitionKey;
     private int matchEndEventSeqNo;
 
@@ -98,6 +98,17 @@ public class RegexNFAStateEntry
         return greedycountPerState;
     }
 
+    /**
+     * Moves this entry to the next state, for use when the entry transitions to a single next state
+     * and is not retained in its current state.
+     * @param state next state
+     * @param optionalMultiMatches multi-matches after the transition
+     */
+    public void advance(RegexNFAState state, MultimatchState[] optionalMultiMatches) {
+        this.state = state;
+        this.optionalMultiMatches = optionalMultiMatches;
+    }
+
     /**
      * Sets the match end event number.
      * @param matchEndEventSeqNo match end event num
@@ -129,15 +129,15 @@ public class RegexPartitionStateRandomAccessImpl implements RegexPartitionStateR
     }
 
     /**
-     * Returns true for empty collection.
+     * Returns true for empty collection, i.e. no event was added and there is no history for "prev" to return.
      * @return indicator if empty
      */
     public boolean isEmpty()
     {
-        if (priorEventMap != null)
+        if (newEvents.get(0) != null)
         {
-            priorEventMap.isEmpty();
+            return false;
         }
-        return true;
+        return priorEventMap == null || priorEventMap.isEmpty();
     }
 }
\ No newline at end of file
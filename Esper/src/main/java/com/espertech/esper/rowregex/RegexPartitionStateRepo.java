@@ -40,8 +40,9 @@ public interface RegexPartitionStateRepo
      * @param events to remove
      * @param isEmpty indicator if there are not matches
      * @param found indicator if any partial matches exist to be deleted
+     * @return number of partial match states removed
      */
-    public void removeOld(EventBean[] events, boolean isEmpty, boolean found[]);
+    public int removeOld(EventBean[] events, boolean isEmpty, boolean found[]);
 
     /**
      * Copy state for iteration.
@@ -50,4 +51,10 @@ public interface RegexPartitionStateRepo
     public RegexPartitionStateRepo copyForIterate();
 
     public void removeState(Object partitionKey);
+
+    /**
+     * Returns the number of partial match states of all partitions.
+     * @return state count
+     */
+    public int getStateCount();
 }
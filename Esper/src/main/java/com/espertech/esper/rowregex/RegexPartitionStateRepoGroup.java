@@ -72,10 +72,11 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo
         return copy;
     }
 
-    public void removeOld(EventBean[] oldData, boolean isEmpty, boolean[] found)
+    public int removeOld(EventBean[] oldData, boolean isEmpty, boolean[] found)
     {
         if (isEmpty)
         {
+            int removed = getStateCount();
             if (getter == null)
             {
                 // no "prev" used, clear all state
@@ -95,7 +96,7 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo
                 // we will need to remove event-by-event
                 for (int i = 0; i < oldData.length; i++)
                 {
-                    RegexPartitionState partitionState = getState(oldData[i], true);
+                    RegexPartitionState partitionState = states.get(getKeys(oldData[i]));
                     if (partitionState == null)
                     {
                         continue;
@@ -104,13 +105,14 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo
                 }
             }
 
-            return;
+            return removed;
         }
 
-        // we will need to remove event-by-event
+        // we will need to remove event-by-event, partitions that do not exist hold no state for the event
+        int removed = 0;
         for (int i = 0; i < oldData.length; i++)
         {
-            RegexPartitionState partitionState = getState(oldData[i], true);
+            RegexPartitionState partitionState = states.get(getKeys(oldData[i]));
             if (partitionState == null)
             {
                 continue;
@@ -118,7 +120,9 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo
 
             if (found[i])
             {
+                int countBefore = partitionState.getCurrentStates().size();
                 boolean cleared = partitionState.removeEventFromState(oldData[i]);
+                removed += countBefore - partitionState.getCurrentStates().size();
                 if (cleared)
                 {
                     if (getter == null)
@@ -130,6 +134,17 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo
 
             partitionState.removeEventFromPrev(oldData[i]);
         }
+        return removed;
+    }
+
+    public int getStateCount()
+    {
+        int count = 0;
+        for (RegexPartitionState state : states.values())
+        {
+            count += state.getCurrentStates().size();
+        }
+        return count;
     }
    
     public RegexPartitionState getState(Object key)
@@ -59,8 +59,9 @@ public class RegexPartitionStateRepoNoGroup implements RegexPartitionStateRepo
         return new RegexPartitionStateRepoNoGroup(state, hasInterval);
     }
 
-    public void removeOld(EventBean[] oldEvents, boolean isEmpty, boolean[] found)
+    public int removeOld(EventBean[] oldEvents, boolean isEmpty, boolean[] found)
     {
+        int countBefore = singletonState.getCurrentStates().size();
         if (isEmpty)
         {
             singletonState.getCurrentStates().clear();
@@ -73,6 +74,12 @@ public class RegexPartitionStateRepoNoGroup implements RegexPartitionStateRepo
             }
         }
         singletonState.removeEventFromPrev(oldEvents);
+        return countBefore - singletonState.getCurrentStates().size();
+    }
+
+    public int getStateCount()
+    {
+        return singletonState.getCurrentStates().size();
     }
 
     public RegexPartitionState getState(EventBean theEvent, boolean collect)
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.schedule;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.timer.TimeSourceService;
 
 /**
@@ -18,10 +19,15 @@ public final class SchedulingServiceProvider
     /**
      * Creates an implementation of the SchedulingService interface.
      * @param timeSourceService time source provider
+     * @param type implementation type
      * @return implementation
      */
-    public static SchedulingServiceSPI newService(TimeSourceService timeSourceService)
+    public static SchedulingServiceSPI newService(TimeSourceService timeSourceService, ConfigurationEngineDefaults.SchedulingServiceType type)
     {
+        if (type == ConfigurationEngineDefaults.SchedulingServiceType.TIMINGWHEEL)
+        {
+            return new SchedulingServiceTimingWheel(timeSourceService);
+        }
         return new SchedulingServiceImpl(timeSourceService);
     }
 }
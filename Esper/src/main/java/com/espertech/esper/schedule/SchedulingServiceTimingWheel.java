@@ -0,0 +1,530 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.timer.TimeSourceService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel, for constant-time add and remove
+ * of schedules regardless of the number of schedules outstanding.
+ * <p>
+ * The wheel has 8 levels of 256 buckets each, level N covering 2^(8*N) milliseconds per bucket, such that
+ * the full range of long millisecond values is covered without overflow list. A handle is placed at the level
+ * that corresponds to the highest byte in which its time differs from the wheel time, and handles
+ * cascade down one or more levels when the wheel time reaches the bucket. Occupied buckets are kept in a bitmap per
+ * level so that advancing the wheel skips empty buckets and time can jump forward any amount.
+ * <p>
+ * Handles triggering for the same millisecond are returned ordered by their {@link ScheduleSlot}, same as for
+ * {@link SchedulingServiceImpl}. Handles added for a time before the wheel time, such as a handle added for
+ * the current time after the current time was evaluated, are kept in a separate bucket and triggered first
+ * when evaluating next.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI
+{
+    private static final int LEVEL_BITS = 8;
+    private static final int NUM_BUCKETS = 1 << LEVEL_BITS;
+    private static final int BUCKET_MASK = NUM_BUCKETS - 1;
+    private static final int NUM_LEVELS = 64 / LEVEL_BITS;
+    private static final int BITMAP_WORDS = NUM_BUCKETS / 64;
+
+    private static final Comparator<WheelEntry> SLOT_COMPARATOR = new Comparator<WheelEntry>() {
+        public int compare(WheelEntry o1, WheelEntry o2) {
+            return o1.slot.compareTo(o2.slot);
+        }
+    };
+
+    private static final Comparator<WheelEntry> TIME_SLOT_COMPARATOR = new Comparator<WheelEntry>() {
+        public int compare(WheelEntry o1, WheelEntry o2) {
+            if (o1.time != o2.time) {
+                return o1.time < o2.time ? -1 : 1;
+            }
+            return o1.slot.compareTo(o2.slot);
+        }
+    };
+
+    // Buckets per level, allocated on first use
+    private final WheelBucket[][] buckets;
+
+    // Bitmap of non-empty buckets per level
+    private final long[][] occupied;
+
+    // Number of handles per level
+    private final int[] levelCounts;
+
+    // Handles with a time before the wheel time
+    private final WheelBucket overdue;
+
+    // Map of handle and entry for removal
+    private final Map<ScheduleHandle, WheelEntry> handleEntries;
+
+    // Reused buffer for ordering handles of a bucket
+    private final ArrayList<WheelEntry> bucketBuffer;
+
+    // All handles before the wheel time have been triggered, or are overdue
+    private long wheelTime;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheel(TimeSourceService timeSourceService)
+    {
+        this.buckets = new WheelBucket[NUM_LEVELS][];
+        this.occupied = new long[NUM_LEVELS][BITMAP_WORDS];
+        this.levelCounts = new int[NUM_LEVELS];
+        this.overdue = new WheelBucket(-1, -1);
+        this.handleEntries = new HashMap<ScheduleHandle, WheelEntry>();
+        this.bucketBuffer = new ArrayList<WheelEntry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public synchronized void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        handleEntries.clear();
+        clearWheel();
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+
+        // time moved backwards: handles are placed relative to the new time
+        if (currentTime < wheelTime - 1)
+        {
+            List<WheelEntry> entries = new ArrayList<WheelEntry>(handleEntries.values());
+            clearWheel();
+            wheelTime = currentTime;
+            for (WheelEntry entry : entries)
+            {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized final void add(long afterMSec, ScheduleHandle handle, ScheduleSlot slot)
+            throws ScheduleServiceException
+    {
+        if (handleEntries.containsKey(handle))
+        {
+            remove(handle, slot);
+        }
+
+        WheelEntry entry = new WheelEntry(handle, slot, currentTime + afterMSec);
+        handleEntries.put(handle, entry);
+        place(entry);
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, ScheduleSlot slot)
+    {
+        WheelEntry entry = handleEntries.remove(handle);
+        if (entry == null)
+        {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            return;
+        }
+        WheelBucket bucket = entry.bucket;
+        bucket.remove(entry);
+        if (bucket.level >= 0)
+        {
+            levelCounts[bucket.level]--;
+            if (bucket.size == 0)
+            {
+                occupied[bucket.level][bucket.index >>> 6] &= ~(1L << (bucket.index & 63));
+            }
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        long target = currentTime;
+
+        // Overdue handles are earlier than any handle in the wheel
+        if (overdue.size > 0)
+        {
+            drainSorted(overdue, TIME_SLOT_COMPARATOR, handles);
+        }
+
+        while (true)
+        {
+            // Find the bucket to process next: the earliest, and for the same time cascade before trigger
+            int nextLevel = -1;
+            int nextIndex = -1;
+            long nextTime = Long.MAX_VALUE;
+            for (int level = NUM_LEVELS - 1; level >= 0; level--)
+            {
+                if (levelCounts[level] == 0)
+                {
+                    continue;
+                }
+                int index = nextOccupied(level, digit(wheelTime, level));
+                if (index == -1)
+                {
+                    continue;
+                }
+                long time = Math.max(bucketTime(level, index), wheelTime);
+                if (time < nextTime)
+                {
+                    nextTime = time;
+                    nextLevel = level;
+                    nextIndex = index;
+                }
+            }
+            if ((nextLevel == -1) || (nextTime > target))
+            {
+                break;
+            }
+
+            wheelTime = nextTime;
+            WheelBucket bucket = buckets[nextLevel][nextIndex];
+            levelCounts[nextLevel] -= bucket.size;
+            occupied[nextLevel][nextIndex >>> 6] &= ~(1L << (nextIndex & 63));
+
+            if (nextLevel == 0)
+            {
+                drainSorted(bucket, SLOT_COMPARATOR, handles);
+            }
+            else
+            {
+                // cascade to lower levels relative to the new wheel time
+                WheelEntry entry = bucket.clear();
+                while (entry != null)
+                {
+                    WheelEntry next = entry.next;
+                    entry.next = null;
+                    entry.prev = null;
+                    place(entry);
+                    entry = next;
+                }
+            }
+        }
+
+        if (target >= wheelTime)
+        {
+            wheelTime = target + 1;
+        }
+    }
+
+    public synchronized ScheduleSet take(Set<String> statementIds)
+    {
+        List<WheelEntry> taken = new ArrayList<WheelEntry>();
+        for (WheelEntry entry : handleEntries.values())
+        {
+            if (statementIds.contains(entry.handle.getStatementId()))
+            {
+                taken.add(entry);
+            }
+        }
+        Collections.sort(taken, TIME_SLOT_COMPARATOR);
+
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (WheelEntry entry : taken)
+        {
+            list.add(new ScheduleSetEntry(entry.time - currentTime, entry.slot, entry.handle));
+            remove(entry.handle, entry.slot);
+        }
+        return new ScheduleSet(list);
+    }
+
+    public synchronized void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getSlot());
+        }
+    }
+
+    public synchronized int getTimeHandleCount()
+    {
+        Set<Long> times = new HashSet<Long>();
+        for (WheelEntry entry : handleEntries.values())
+        {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    public synchronized Long getFurthestTimeHandle()
+    {
+        Long furthest = null;
+        for (WheelEntry entry : handleEntries.values())
+        {
+            if ((furthest == null) || (entry.time > furthest))
+            {
+                furthest = entry.time;
+            }
+        }
+        return furthest;
+    }
+
+    public synchronized int getScheduleHandleCount()
+    {
+        return handleEntries.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleEntries.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle()
+    {
+        if (handleEntries.isEmpty())
+        {
+            return null;
+        }
+
+        // The earliest handle is in the overdue bucket or in the first occupied bucket of any level
+        long nearest = Long.MAX_VALUE;
+        for (WheelEntry entry = overdue.head; entry != null; entry = entry.next)
+        {
+            nearest = Math.min(nearest, entry.time);
+        }
+        for (int level = 0; level < NUM_LEVELS; level++)
+        {
+            if (levelCounts[level] == 0)
+            {
+                continue;
+            }
+            int index = nextOccupied(level, digit(wheelTime, level));
+            if (index == -1)
+            {
+                continue;
+            }
+            for (WheelEntry entry = buckets[level][index].head; entry != null; entry = entry.next)
+            {
+                nearest = Math.min(nearest, entry.time);
+            }
+        }
+        return nearest;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor)
+    {
+        List<WheelEntry> entries = new ArrayList<WheelEntry>(handleEntries.values());
+        Collections.sort(entries, TIME_SLOT_COMPARATOR);
+
+        ScheduleVisit visit = new ScheduleVisit();
+        for (WheelEntry entry : entries)
+        {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private void place(WheelEntry entry)
+    {
+        if (entry.time < wheelTime)
+        {
+            overdue.add(entry);
+            return;
+        }
+
+        long diff = entry.time ^ wheelTime;
+        int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / LEVEL_BITS;
+        int index = digit(entry.time, level);
+
+        WheelBucket[] levelBuckets = buckets[level];
+        if (levelBuckets == null)
+        {
+            levelBuckets = new WheelBucket[NUM_BUCKETS];
+            buckets[level] = levelBuckets;
+        }
+        WheelBucket bucket = levelBuckets[index];
+        if (bucket == null)
+        {
+            bucket = new WheelBucket(level, index);
+            levelBuckets[index] = bucket;
+        }
+        bucket.add(entry);
+        levelCounts[level]++;
+        occupied[level][index >>> 6] |= 1L << (index & 63);
+    }
+
+    private void drainSorted(WheelBucket bucket, Comparator<WheelEntry> comparator, Collection<ScheduleHandle> handles)
+    {
+        WheelEntry entry = bucket.clear();
+        if (entry.next == null)
+        {
+            handleEntries.remove(entry.handle);
+            entry.bucket = null;
+            handles.add(entry.handle);
+            return;
+        }
+
+        while (entry != null)
+        {
+            bucketBuffer.add(entry);
+            handleEntries.remove(entry.handle);
+            WheelEntry next = entry.next;
+            entry.next = null;
+            entry.prev = null;
+            entry.bucket = null;
+            entry = next;
+        }
+        Collections.sort(bucketBuffer, comparator);
+        for (WheelEntry sorted : bucketBuffer)
+        {
+            handles.add(sorted.handle);
+        }
+        bucketBuffer.clear();
+    }
+
+    private void clearWheel()
+    {
+        for (int level = 0; level < NUM_LEVELS; level++)
+        {
+            buckets[level] = null;
+            Arrays.fill(occupied[level], 0);
+            levelCounts[level] = 0;
+        }
+        overdue.clear();
+    }
+
+    private int nextOccupied(int level, int fromIndex)
+    {
+        long[] bits = occupied[level];
+        int word = fromIndex >>> 6;
+        long value = bits[word] & (-1L << (fromIndex & 63));
+        while (true)
+        {
+            if (value != 0)
+            {
+                return (word << 6) + Long.numberOfTrailingZeros(value);
+            }
+            if (++word == BITMAP_WORDS)
+            {
+                return -1;
+            }
+            value = bits[word];
+        }
+    }
+
+    // Bucket index of a time at the level, times are offset to compare as unsigned values
+    private static int digit(long time, int level)
+    {
+        return (int) (((time ^ Long.MIN_VALUE) >>> (level * LEVEL_BITS)) & BUCKET_MASK);
+    }
+
+    // Time at which a bucket at the level, in the range of the current wheel time, starts
+    private long bucketTime(int level, int index)
+    {
+        int shift = level * LEVEL_BITS;
+        long key = wheelTime ^ Long.MIN_VALUE;
+        long high = level == NUM_LEVELS - 1 ? 0 : (key >>> (shift + LEVEL_BITS)) << (shift + LEVEL_BITS);
+        return (high | ((long) index << shift)) ^ Long.MIN_VALUE;
+    }
+
+    private static final class WheelEntry
+    {
+        private final ScheduleHandle handle;
+        private final ScheduleSlot slot;
+        private final long time;
+        private WheelBucket bucket;
+        private WheelEntry prev;
+        private WheelEntry next;
+
+        private WheelEntry(ScheduleHandle handle, ScheduleSlot slot, long time)
+        {
+            this.handle = handle;
+            this.slot = slot;
+            this.time = time;
+        }
+    }
+
+    private static final class WheelBucket
+    {
+        private final int level;
+        private final int index;
+        private WheelEntry head;
+        private WheelEntry tail;
+        private int size;
+
+        private WheelBucket(int level, int index)
+        {
+            this.level = level;
+            this.index = index;
+        }
+
+        private void add(WheelEntry entry)
+        {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null)
+            {
+                head = entry;
+            }
+            else
+            {
+                tail.next = entry;
+            }
+            tail = entry;
+            size++;
+        }
+
+        private void remove(WheelEntry entry)
+        {
+            if (entry.prev == null)
+            {
+                head = entry.next;
+            }
+            else
+            {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null)
+            {
+                tail = entry.prev;
+            }
+            else
+            {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+            size--;
+        }
+
+        // Empties the bucket returning the first entry of the still-linked entries
+        private WheelEntry clear()
+        {
+            WheelEntry first = head;
+            head = null;
+            tail = null;
+            size = 0;
+            return first;
+        }
+    }
+
+    private static final Log log = LogFactory.getLog(SchedulingServiceTimingWheel.class);
+}
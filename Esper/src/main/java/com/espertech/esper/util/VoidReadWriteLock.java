@@ -0,0 +1,72 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Read-write lock that doesn't lock, for use by structures that are safe for concurrent reading
+ * and for which writers are serialized elsewhere.
+ */
+public final class VoidReadWriteLock implements ReadWriteLock
+{
+    /**
+     * Shared instance, the lock is stateless.
+     */
+    public final static VoidReadWriteLock INSTANCE = new VoidReadWriteLock();
+
+    private final static Lock VOID_LOCK = new VoidLock();
+
+    private VoidReadWriteLock()
+    {
+    }
+
+    public Lock readLock()
+    {
+        return VOID_LOCK;
+    }
+
+    public Lock writeLock()
+    {
+        return VOID_LOCK;
+    }
+
+    private static final class VoidLock implements Lock
+    {
+        public void lock()
+        {
+        }
+
+        public void lockInterruptibly() throws InterruptedException
+        {
+        }
+
+        public boolean tryLock()
+        {
+            return true;
+        }
+
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException
+        {
+            return true;
+        }
+
+        public void unlock()
+        {
+        }
+
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException("Void lock does not provide conditions");
+        }
+    }
+}
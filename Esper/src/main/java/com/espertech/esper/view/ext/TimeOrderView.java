@@ -26,6 +26,8 @@ import org.apache.commons.logging.LogFactory;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
@@ -285,46 +287,39 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
         long expireBeforeTimestamp = agentInstanceContext.getStatementContext().getSchedulingService().getTime() - intervalSize + 1;
         isCallbackScheduled = false;
 
-        List<EventBean> releaseEvents = null;
-        Long oldestKey;
-        while(true)
+        // expired events are copied from the sorted map directly into the old-events array, without an intermediate buffer
+        EventBean[] oldEvents = null;
+        SortedMap<Object, Object> expired = sortedEvents.headMap(expireBeforeTimestamp);
+        if (!expired.isEmpty())
         {
-            if (sortedEvents.isEmpty())
+            int count = 0;
+            for (Object released : expired.values())
             {
-                oldestKey = null;
-                break;
+                count += released instanceof List ? ((List) released).size() : 1;
             }
 
-            oldestKey = (Long) sortedEvents.firstKey();
-            if (oldestKey >= expireBeforeTimestamp)
+            oldEvents = new EventBean[count];
+            int index = 0;
+            for (Map.Entry<Object, Object> entry : expired.entrySet())
             {
-                break;
-            }
-
-            Object released = sortedEvents.remove(oldestKey);
-            if (released != null) {
+                Object released = entry.getValue();
                 if (released instanceof List) {
                     List<EventBean> releasedEventList = (List<EventBean>) released;
-                    if (releaseEvents == null) {
-                        releaseEvents = releasedEventList;
+                    for (EventBean releasedEvent : releasedEventList) {
+                        oldEvents[index++] = releasedEvent;
                     }
-                    else {
-                        releaseEvents.addAll(releasedEventList);
-                    }
-                    eventCount -= releasedEventList.size();
-                    internalHandleExpired(oldestKey, releasedEventList);
+                    internalHandleExpired(entry.getKey(), releasedEventList);
                 }
                 else {
                     EventBean releasedEvent = (EventBean) released;
-                    if (releaseEvents == null) {
-                        releaseEvents = new ArrayList<EventBean>(4);
-                    }
-                    releaseEvents.add(releasedEvent);
-                    eventCount--;
-                    internalHandleExpired(oldestKey, releasedEvent);
+                    oldEvents[index++] = releasedEvent;
+                    internalHandleExpired(entry.getKey(), releasedEvent);
                 }
             }
+            eventCount -= count;
+            expired.clear();
         }
+        Long oldestKey = sortedEvents.isEmpty() ? null : (Long) sortedEvents.firstKey();
 
         if (optionalSortedRandomAccess != null)
         {
@@ -332,13 +327,9 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
         }
 
         // If there are child views, do the update method
-        if (this.hasViews())
+        if (this.hasViews() && oldEvents != null)
         {
-            if ((releaseEvents != null) && (!releaseEvents.isEmpty()))
-            {
-                EventBean[] oldEvents = releaseEvents.toArray(new EventBean[releaseEvents.size()]);
-                updateChildren(null, oldEvents);
-            }
+            updateChildren(null, oldEvents);
         }
 
         // If we still have events in the window, schedule new callback
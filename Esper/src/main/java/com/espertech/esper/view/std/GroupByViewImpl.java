@@ -11,7 +11,7 @@ package com.espertech.esper.view.std;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedProbe;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.ExprEvaluator;
@@ -47,6 +47,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
     private final ExprEvaluator[] criteriaEvaluators;
     protected final AgentInstanceViewFactoryChainContext agentInstanceContext;
     private EventBean[] eventsPerStream = new EventBean[1];
+    private final MultiKeyUntypedProbe probe;
 
     protected String[] propertyNames;
     protected final Map<Object, Object> subViewsPerKey = new HashMap<Object, Object>();
@@ -63,6 +64,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         this.agentInstanceContext = agentInstanceContext;
         this.criteriaExpressions = criteriaExpressions;
         this.criteriaEvaluators = criteriaEvaluators;
+        this.probe = criteriaEvaluators.length == 1 ? null : new MultiKeyUntypedProbe(criteriaEvaluators.length);
 
         propertyNames = new String[criteriaExpressions.length];
         for (int i = 0; i < criteriaExpressions.length; i++)
@@ -107,6 +109,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
             // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
             if (subViews == null)
             {
+                groupByValuesKey = toStoredKey(groupByValuesKey);
                 subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
                 subViewsPerKey.put(groupByValuesKey, subViews);
             }
@@ -211,6 +214,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
 
         // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
         if (subViews == null) {
+            groupByValuesKey = toStoredKey(groupByValuesKey);
             subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
             subViewsPerKey.put(groupByValuesKey, subViews);
         }
@@ -303,12 +307,22 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
             return criteriaEvaluators[0].evaluate(eventsPerStream, true, agentInstanceContext);
         }
 
-        Object[] values = new Object[criteriaEvaluators.length];
+        // populate the reusable probe, a lookup that finds an existing group does not allocate a key
         for (int i = 0; i < criteriaEvaluators.length; i++)
         {
-            values[i] = criteriaEvaluators[i].evaluate(eventsPerStream, true, agentInstanceContext);
+            probe.set(i, criteriaEvaluators[i].evaluate(eventsPerStream, true, agentInstanceContext));
         }
-        return new MultiKeyUntyped(values);
+        probe.computeHashCode();
+        return probe;
+    }
+
+    private Object toStoredKey(Object groupKey)
+    {
+        if (groupKey == probe)
+        {
+            return probe.toKey();
+        }
+        return groupKey;
     }
 
     protected static Object addUpgradeToDequeIfPopulated(Object holder, EventBean theEvent) {
@@ -10,7 +10,7 @@ package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.TimeWindow;
+import com.espertech.esper.collection.RingBufferTimeWindow;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.ExprEvaluator;
@@ -21,7 +21,6 @@ import com.espertech.esper.view.DataWindowView;
 import com.espertech.esper.view.View;
 import com.espertech.esper.view.ViewSupport;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -50,7 +49,7 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
     private final long millisecondsBeforeExpiry;
 
     private final EventBean[] eventsPerStream = new EventBean[1];
-    protected final TimeWindow timeWindow;
+    protected final RingBufferTimeWindow timeWindow;
     private ViewUpdatedCollection viewUpdatedCollection;
     protected AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
@@ -76,7 +75,7 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
         this.timestampExpressionEval = timestampExpressionEval;
         this.millisecondsBeforeExpiry = msecBeforeExpiry;
         this.viewUpdatedCollection = viewUpdatedCollection;
-        this.timeWindow = new TimeWindow(agentInstanceViewFactoryContext.isRemoveStream());
+        this.timeWindow = new RingBufferTimeWindow(agentInstanceViewFactoryContext.isRemoveStream());
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
     }
 
@@ -125,16 +124,10 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
         }
 
         // Remove from the window any events that have an older timestamp then the last event's timestamp
-        ArrayDeque<EventBean> expired = null;
-        if (timestamp != -1)
-        {
-            expired = timeWindow.expireEvents(timestamp - millisecondsBeforeExpiry + 1);
-        }
-
         EventBean[] oldDataUpdate = null;
-        if ((expired != null) && (!expired.isEmpty()))
+        if (timestamp != -1)
         {
-            oldDataUpdate = expired.toArray(new EventBean[expired.size()]);
+            oldDataUpdate = timeWindow.expireEvents(timestamp - millisecondsBeforeExpiry + 1);
         }
 
         if ((oldData != null) && (agentInstanceViewFactoryContext.isRemoveStream()))
@@ -10,7 +10,7 @@ package com.espertech.esper.view.window;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.TimeWindow;
+import com.espertech.esper.collection.RingBufferTimeWindow;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
@@ -23,7 +23,6 @@ import com.espertech.esper.view.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -41,7 +40,7 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
 {
     private final TimeWindowViewFactory timeWindowViewFactory;
     private final long millisecondsBeforeExpiry;
-    protected final TimeWindow timeWindow;
+    protected final RingBufferTimeWindow timeWindow;
     private final ViewUpdatedCollection viewUpdatedCollection;
     protected final AgentInstanceViewFactoryChainContext agentInstanceContext;
     private final ScheduleSlot scheduleSlot;
@@ -61,7 +60,7 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
         this.millisecondsBeforeExpiry = millisecondsBeforeExpiry;
         this.viewUpdatedCollection = viewUpdatedCollection;
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
-        this.timeWindow = new TimeWindow(agentInstanceContext.isRemoveStream());
+        this.timeWindow = new RingBufferTimeWindow(agentInstanceContext.isRemoveStream());
 
         ScheduleHandleCallback callback = new ScheduleHandleCallback() {
             public void scheduledTrigger(ExtensionServicesContext extensionServicesContext)
@@ -159,19 +158,18 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
 
         // Remove from the timeWindow any events that have an older or timestamp then the given timestamp
         // The window extends from X to (X - millisecondsBeforeExpiry + 1)
-        ArrayDeque<EventBean> expired = timeWindow.expireEvents(expireBeforeTimestamp);
+        EventBean[] expired = timeWindow.expireEvents(expireBeforeTimestamp);
 
         // If there are child views, fireStatementStopped update method
         if (this.hasViews())
         {
-            if ((expired != null) && (!expired.isEmpty()))
+            if (expired != null)
             {
-                EventBean[] oldEvents = expired.toArray(new EventBean[expired.size()]);
                 if (viewUpdatedCollection != null)
                 {
-                    viewUpdatedCollection.update(null, oldEvents);
+                    viewUpdatedCollection.update(null, expired);
                 }
-                updateChildren(null, oldEvents);
+                updateChildren(null, expired);
             }
         }
 
@@ -0,0 +1,82 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.context;
+
+import com.espertech.esper.client.*;
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestContextHashParallelPartitions extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration configuration = new Configuration();
+        Map<String, Object> type = new HashMap<String, Object>();
+        type.put("id", String.class);
+        type.put("value", Integer.class);
+        configuration.addEventType("EventOne", type);
+        configuration.addEventType("EventTwo", type);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getProvider(TestContextHashParallelPartitions.class.getName(), configuration);
+        epService.initialize();
+    }
+
+    public void tearDown()
+    {
+        epService.destroy();
+    }
+
+    public void testInsertIntoOtherPartition() throws Exception
+    {
+        epService.getEPAdministrator().createEPL("@Hint('PARALLEL_CONTEXT_PARTITIONS=4') create context HashContext " +
+                "coalesce by consistent_hash_crc32(id) from EventOne, consistent_hash_crc32(id) from EventTwo granularity 16 preallocate");
+
+        // each EventOne is inserted as an EventTwo with a different id, therefore mostly for another partition and worker
+        epService.getEPAdministrator().createEPL("context HashContext insert into EventTwo select 'x' || id as id, value from EventOne");
+
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong sum = new AtomicLong();
+        epService.getEPAdministrator().createEPL("context HashContext select value from EventTwo").addListener(new UpdateListener()
+        {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents)
+            {
+                count.incrementAndGet();
+                sum.addAndGet((Integer) newEvents[0].get("value"));
+            }
+        });
+
+        // more events than fit into the rings of the workers
+        int numEvents = 200000;
+        long expectedSum = 0;
+        for (int i = 0; i < numEvents; i++)
+        {
+            Map<String, Object> event = new HashMap<String, Object>();
+            event.put("id", Integer.toString(i));
+            event.put("value", i);
+            epService.getEPRuntime().sendEvent(event, "EventOne");
+            expectedSum += i;
+        }
+
+        long deadline = System.currentTimeMillis() + 60000;
+        while (count.get() < numEvents && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(numEvents, count.get());
+        assertEquals(expectedSum, sum.get());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestRingBufferExecutor extends TestCase
+{
+    private static final int NUM_UNITS = 10000;
+
+    public void testConsumersPublishToEachOtherFullRing() throws Exception
+    {
+        RingBufferExecutor first = new RingBufferExecutor(null, "first", 2, 1, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, null, null);
+        RingBufferExecutor second = new RingBufferExecutor(null, "second", 2, 1, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, null, null);
+        try
+        {
+            CountDownLatch latch = new CountDownLatch(2 * NUM_UNITS);
+            List<Integer> receivedFirst = new ArrayList<Integer>();
+            List<Integer> receivedSecond = new ArrayList<Integer>();
+            first.submit(new PublishingUnit(second, receivedSecond, latch));
+            second.submit(new PublishingUnit(first, receivedFirst, latch));
+
+            assertTrue("consumers publishing to each other's full ring did not complete", latch.await(30, TimeUnit.SECONDS));
+            assertInOrder(receivedFirst);
+            assertInOrder(receivedSecond);
+        }
+        finally
+        {
+            first.destroy();
+            second.destroy();
+        }
+    }
+
+    public void testConsumerPublishesToOwnFullRing() throws Exception
+    {
+        final RingBufferExecutor executor = new RingBufferExecutor(null, "self", 2, 1, ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, null, null);
+        try
+        {
+            CountDownLatch latch = new CountDownLatch(NUM_UNITS);
+            List<Integer> received = new ArrayList<Integer>();
+            executor.submit(new PublishingUnit(executor, received, latch));
+
+            assertTrue("consumer publishing to its own full ring did not complete", latch.await(30, TimeUnit.SECONDS));
+            assertInOrder(received);
+        }
+        finally
+        {
+            executor.destroy();
+        }
+    }
+
+    private static void assertInOrder(List<Integer> received)
+    {
+        assertEquals(NUM_UNITS, received.size());
+        for (int i = 0; i < NUM_UNITS; i++)
+        {
+            assertEquals(i, (int) received.get(i));
+        }
+    }
+
+    private static class PublishingUnit implements Runnable
+    {
+        private final RingBufferExecutor target;
+        private final List<Integer> received;
+        private final CountDownLatch latch;
+
+        private PublishingUnit(RingBufferExecutor target, List<Integer> received, CountDownLatch latch)
+        {
+            this.target = target;
+            this.received = received;
+            this.latch = latch;
+        }
+
+        public void run()
+        {
+            for (int i = 0; i < NUM_UNITS; i++)
+            {
+                final int value = i;
+                target.submit(new Runnable()
+                {
+                    public void run()
+                    {
+                        received.add(value);
+                        latch.countDown();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ *  http://esper.codehaus.org                                                          *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.*;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestRowPatternPrevPartition extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration configuration = new Configuration();
+        Map<String, Object> type = new HashMap<String, Object>();
+        type.put("s", String.class);
+        type.put("id", Integer.class);
+        type.put("v", Integer.class);
+        configuration.addEventType("MyEvent", type);
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getProvider(TestRowPatternPrevPartition.class.getName(), configuration);
+        epService.initialize();
+    }
+
+    public void tearDown()
+    {
+        epService.destroy();
+    }
+
+    public void testPrevAcrossIdlePartition()
+    {
+        String text = "select * from MyEvent " +
+                "match_recognize (" +
+                "  partition by s" +
+                "  measures A.id as a, C.id as c" +
+                "  pattern (A B? C)" +
+                "  define A as A.v = 1, B as B.v = 2, C as C.v = prev(C.v, 2)" +
+                ")";
+
+        final List<EventBean> received = new ArrayList<EventBean>();
+        epService.getEPAdministrator().createEPL(text).addListener(new UpdateListener()
+        {
+            public void update(EventBean[] newEvents, EventBean[] oldEvents)
+            {
+                for (EventBean theEvent : newEvents)
+                {
+                    received.add(theEvent);
+                }
+            }
+        });
+
+        // the partition has no partial match for the first events, their history is still needed by "prev"
+        int[] values = new int[] {6, 2, 4, 1, 4};
+        for (int i = 0; i < values.length; i++)
+        {
+            sendEvent("S1", i, values[i]);
+            sendEvent("S2", i, 0);
+        }
+
+        assertEquals(1, received.size());
+        assertEquals(3, received.get(0).get("a"));
+        assertEquals(4, received.get(0).get("c"));
+    }
+
+    private void sendEvent(String s, int id, int v)
+    {
+        Map<String, Object> event = new HashMap<String, Object>();
+        event.put("s", s);
+        event.put("id", id);
+        event.put("v", v);
+        epService.getEPRuntime().sendEvent(event, "MyEvent");
+    }
+}
@@ -0,0 +1,107 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.timer.TimeSourceService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the sorted and the timing-wheel scheduling service for a sliding set of outstanding schedules,
+ * as kept by time windows and timer patterns: each simulated millisecond adds, cancels and triggers schedules.
+ * <p>
+ * Run as a main program, arguments are the number of outstanding schedules (default 100000) and
+ * the number of milliseconds to simulate (default 100000).
+ */
+public class SchedulingServiceBenchmark
+{
+    private static final int ADDS_PER_MSEC = 10;
+    private static final int REMOVES_PER_MSEC = 2;
+
+    public static void main(String[] args)
+    {
+        int numSchedules = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int numMSec = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+
+        // warm up, then measure
+        for (int run = 0; run < 2; run++)
+        {
+            for (ConfigurationEngineDefaults.SchedulingServiceType type : ConfigurationEngineDefaults.SchedulingServiceType.values())
+            {
+                long delta = runBenchmark(type, numSchedules, numMSec);
+                if (run > 0)
+                {
+                    System.out.println(type + " schedules=" + numSchedules + " msec=" + numMSec + " took " + delta / 1000000 + " msec");
+                }
+            }
+        }
+    }
+
+    private static long runBenchmark(ConfigurationEngineDefaults.SchedulingServiceType type, int numSchedules, int numMSec)
+    {
+        SchedulingServiceSPI service = SchedulingServiceProvider.newService(new TimeSourceService() {
+            public long getTimeMillis() {
+                return 1;
+            }
+        }, type);
+        service.setTime(0);
+
+        Random random = new Random(42);
+        int maxAfter = numSchedules / ADDS_PER_MSEC;
+        List<BenchmarkHandle> handles = new ArrayList<BenchmarkHandle>();
+        List<ScheduleHandle> triggered = new ArrayList<ScheduleHandle>();
+        ScheduleBucket bucket = new ScheduleBucket(0);
+        int handleNum = 0;
+
+        long start = System.nanoTime();
+        for (int time = 1; time <= numMSec; time++)
+        {
+            service.setTime(time);
+            for (int i = 0; i < ADDS_PER_MSEC; i++)
+            {
+                BenchmarkHandle handle = new BenchmarkHandle(handleNum++, bucket.allocateSlot());
+                handles.add(handle);
+                service.add(1 + random.nextInt(maxAfter), handle, handle.slot);
+            }
+            for (int i = 0; i < REMOVES_PER_MSEC && !handles.isEmpty(); i++)
+            {
+                BenchmarkHandle handle = handles.remove(handles.size() - 1 - random.nextInt(Math.min(100, handles.size())));
+                service.remove(handle, handle.slot);
+            }
+            service.evaluate(triggered);
+            triggered.clear();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static class BenchmarkHandle implements ScheduleHandle
+    {
+        private final int num;
+        private final ScheduleSlot slot;
+
+        private BenchmarkHandle(int num, ScheduleSlot slot)
+        {
+            this.num = num;
+            this.slot = slot;
+        }
+
+        public String getStatementId()
+        {
+            return "s" + (num % 10);
+        }
+
+        public int getAgentInstanceId()
+        {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates the object-array event data for benchmarks from a fixed seed.
+ */
+public class BenchmarkEvents
+{
+    /**
+     * Generate "Tick" events.
+     * @param numSymbols number of distinct symbols and ids
+     * @return events
+     */
+    public static Object[][] makeTicks(int numSymbols)
+    {
+        String[] symbols = makeSymbols(numSymbols);
+        Random random = new Random(EngineBenchmarkBase.SEED);
+        Object[][] events = new Object[EngineBenchmarkBase.NUM_EVENTS][];
+        for (int i = 0; i < events.length; i++)
+        {
+            int id = random.nextInt(numSymbols);
+            events[i] = new Object[] {symbols[id], id, 10 + random.nextInt(10000) / 100d, (long) random.nextInt(1000)};
+        }
+        return events;
+    }
+
+    /**
+     * Generate "A" or "B" events.
+     * @param numIds number of distinct ids
+     * @param seedOffset to distinguish the A and B streams
+     * @return events
+     */
+    public static Object[][] makeIdValue(int numIds, int seedOffset)
+    {
+        Random random = new Random(EngineBenchmarkBase.SEED + seedOffset);
+        Object[][] events = new Object[EngineBenchmarkBase.NUM_EVENTS][];
+        for (int i = 0; i < events.length; i++)
+        {
+            events[i] = new Object[] {random.nextInt(numIds), random.nextInt(1000)};
+        }
+        return events;
+    }
+
+    private static String[] makeSymbols(int numSymbols)
+    {
+        String[] symbols = new String[numSymbols];
+        for (int i = 0; i < numSymbols; i++)
+        {
+            symbols[i] = "S" + i;
+        }
+        return symbols;
+    }
+}
@@ -0,0 +1,48 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Keyed-segmented and hash-segmented contexts with a count per context partition.
+ */
+public class ContextPartitionBenchmark extends EngineBenchmarkBase
+{
+    @Param({"segmented", "hash"})
+    public String context;
+
+    @Param({"10", "10000"})
+    public int numPartitions;
+
+    private Object[][] events;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        if (context.equals("segmented"))
+        {
+            admin.createEPL("create context TickContext partition by symbol from Tick");
+        }
+        else
+        {
+            admin.createEPL("create context TickContext coalesce by consistent_hash_crc32(symbol) from Tick granularity " + numPartitions + " preallocate");
+        }
+        createWithListener(admin, "context TickContext select symbol, count(*) as cnt from Tick");
+        events = BenchmarkEvents.makeTicks(numPartitions);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)], "Tick");
+    }
+}
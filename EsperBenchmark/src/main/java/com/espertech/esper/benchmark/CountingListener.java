@@ -0,0 +1,41 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+
+/**
+ * Listener that counts output events, so that statements produce output without retaining it.
+ */
+public class CountingListener implements UpdateListener
+{
+    private long count;
+
+    public void update(EventBean[] newEvents, EventBean[] oldEvents)
+    {
+        if (newEvents != null)
+        {
+            count += newEvents.length;
+        }
+        if (oldEvents != null)
+        {
+            count += oldEvents.length;
+        }
+    }
+
+    /**
+     * Returns the number of events received.
+     * @return count
+     */
+    public long getCount()
+    {
+        return count;
+    }
+}
@@ -0,0 +1,110 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base for engine benchmarks: allocates an engine with the benchmark event types, external timer and
+ * a counting listener per trial, and destroys it after the trial.
+ * <p>
+ * All benchmarks measure throughput and sampled latency of a single send-event invocation.
+ * Event data is generated up-front from a fixed seed so that results are comparable between releases.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public abstract class EngineBenchmarkBase
+{
+    /**
+     * Seed for generating event data.
+     */
+    public final static long SEED = 4711L;
+
+    /**
+     * Number of pre-generated events, a power of 2.
+     */
+    public final static int NUM_EVENTS = 1 << 16;
+
+    protected EPServiceProvider engine;
+    protected EPRuntime runtime;
+    protected CountingListener listener;
+    private long currentTime;
+
+    /**
+     * Configure the engine, the event types are already added.
+     * @param configuration to change
+     */
+    protected void configure(Configuration configuration)
+    {
+    }
+
+    /**
+     * Create the statements under test and generate event data.
+     * @param admin to create statements
+     */
+    protected abstract void setupStatements(EPAdministrator admin);
+
+    @Setup(Level.Trial)
+    public void setupEngine()
+    {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getLogging().setEnableExecutionDebug(false);
+        configuration.getEngineDefaults().getLogging().setEnableTimerDebug(false);
+        configuration.addEventType("Tick", new String[] {"symbol", "id", "price", "volume"}, new Object[] {String.class, int.class, double.class, long.class});
+        configuration.addEventType("A", new String[] {"id", "value"}, new Object[] {int.class, int.class});
+        configuration.addEventType("B", new String[] {"id", "value"}, new Object[] {int.class, int.class});
+        configure(configuration);
+
+        engine = EPServiceProviderManager.getProvider(getClass().getName(), configuration);
+        engine.initialize();
+        runtime = engine.getEPRuntime();
+        currentTime = 0;
+        runtime.sendEvent(new CurrentTimeEvent(currentTime));
+        listener = new CountingListener();
+        setupStatements(engine.getEPAdministrator());
+    }
+
+    @TearDown(Level.Trial)
+    public void destroyEngine()
+    {
+        engine.destroy();
+    }
+
+    /**
+     * Advance engine time.
+     * @param msec to advance
+     */
+    protected void advanceTime(long msec)
+    {
+        currentTime += msec;
+        runtime.sendEvent(new CurrentTimeEvent(currentTime));
+    }
+
+    /**
+     * Create a statement and attach the counting listener.
+     * @param admin to use
+     * @param epl statement text
+     * @return statement
+     */
+    protected EPStatement createWithListener(EPAdministrator admin, String epl)
+    {
+        EPStatement statement = admin.createEPL(epl);
+        statement.addListener(listener);
+        return statement;
+    }
+}
@@ -0,0 +1,40 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Filter-only statements, each filtering on a distinct id, with half of the events matching a filter.
+ */
+public class FilterBenchmark extends EngineBenchmarkBase
+{
+    @Param({"1", "1000", "100000"})
+    public int numFilters;
+
+    private Object[][] events;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        for (int i = 0; i < numFilters; i++)
+        {
+            createWithListener(admin, "select * from Tick(id = " + i + ")");
+        }
+        events = BenchmarkEvents.makeTicks(numFilters * 2);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)], "Tick");
+    }
+}
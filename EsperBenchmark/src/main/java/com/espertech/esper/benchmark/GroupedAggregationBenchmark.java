@@ -0,0 +1,41 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Grouped aggregation without data window, for the given number of groups and aggregation state representation.
+ */
+public class GroupedAggregationBenchmark extends EngineBenchmarkBase
+{
+    @Param({"10", "10000", "1000000"})
+    public int numGroups;
+
+    @Param({"default", "compact"})
+    public String groupState;
+
+    private Object[][] events;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        String hint = groupState.equals("compact") ? "@Hint('COMPACT_GROUP_STATE') " : "";
+        createWithListener(admin, hint + "select symbol, sum(volume) as sumVolume, avg(price) as avgPrice, count(*) as cnt from Tick group by symbol");
+        events = BenchmarkEvents.makeTicks(numGroups);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)], "Tick");
+    }
+}
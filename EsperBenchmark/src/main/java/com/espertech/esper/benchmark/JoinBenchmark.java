@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Two-stream equi-join of unique windows, alternating events between both streams.
+ */
+public class JoinBenchmark extends EngineBenchmarkBase
+{
+    @Param({"100", "100000"})
+    public int numKeys;
+
+    private Object[][] eventsA;
+    private Object[][] eventsB;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        createWithListener(admin, "select a.value as va, b.value as vb from A.std:unique(id) as a, B.std:unique(id) as b where a.id = b.id");
+        eventsA = BenchmarkEvents.makeIdValue(numKeys, 1);
+        eventsB = BenchmarkEvents.makeIdValue(numKeys, 2);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        int current = index++;
+        if ((current & 1) == 0)
+        {
+            runtime.sendEvent(eventsA[(current >> 1) & (NUM_EVENTS - 1)], "A");
+        }
+        else
+        {
+            runtime.sendEvent(eventsB[(current >> 1) & (NUM_EVENTS - 1)], "B");
+        }
+    }
+}
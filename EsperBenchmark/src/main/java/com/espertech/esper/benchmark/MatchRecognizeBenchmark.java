@@ -0,0 +1,52 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Match-recognize per symbol partition, detecting a rising price ("rising") or a selective
+ * high-volume start followed by one or more rising prices and a drop ("selective").
+ */
+public class MatchRecognizeBenchmark extends EngineBenchmarkBase
+{
+    @Param({"10", "10000"})
+    public int numPartitions;
+
+    @Param({"rising", "selective"})
+    public String pattern;
+
+    private Object[][] events;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        if (pattern.equals("rising"))
+        {
+            createWithListener(admin, "select * from Tick match_recognize (" +
+                    "partition by symbol measures A.price as priceA, B.price as priceB " +
+                    "pattern (A B) define B as B.price > A.price)");
+        }
+        else
+        {
+            createWithListener(admin, "select * from Tick match_recognize (" +
+                    "partition by symbol measures A.price as priceA, last(B.price) as priceB, C.price as priceC " +
+                    "pattern (A B+ C) define A as A.volume > 900, B as B.price > prev(B.price), C as C.price < prev(C.price))");
+        }
+        events = BenchmarkEvents.makeTicks(numPartitions);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)], "Tick");
+    }
+}
@@ -0,0 +1,44 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Named window on-merge upsert keyed by symbol, for the given number of keys and window storage.
+ */
+public class NamedWindowMergeBenchmark extends EngineBenchmarkBase
+{
+    @Param({"100", "100000"})
+    public int numKeys;
+
+    @Param({"heap", "offheap"})
+    public String storage;
+
+    private Object[][] events;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        String hint = storage.equals("offheap") ? "@Hint('OFFHEAP_STORAGE') " : "";
+        admin.createEPL(hint + "create window TickWindow.std:unique(symbol) as Tick");
+        createWithListener(admin, "on Tick as t merge TickWindow as w where t.symbol = w.symbol " +
+                "when matched then update set price = t.price, volume = w.volume + t.volume " +
+                "when not matched then insert select *");
+        events = BenchmarkEvents.makeTicks(numKeys);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)], "Tick");
+    }
+}
@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Followed-by pattern correlating on id, {@code every a=A -> b=B(id=a.id)}, alternating A and B events.
+ */
+public class PatternBenchmark extends EngineBenchmarkBase
+{
+    @Param({"10", "1000"})
+    public int numKeys;
+
+    private Object[][] eventsA;
+    private Object[][] eventsB;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        createWithListener(admin, "select a.value as va, b.value as vb from pattern [every a=A -> b=B(id=a.id)]");
+        eventsA = BenchmarkEvents.makeIdValue(numKeys, 1);
+        eventsB = BenchmarkEvents.makeIdValue(numKeys, 2);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        int current = index++;
+        if ((current & 1) == 0)
+        {
+            runtime.sendEvent(eventsA[(current >> 1) & (NUM_EVENTS - 1)], "A");
+        }
+        else
+        {
+            runtime.sendEvent(eventsB[(current >> 1) & (NUM_EVENTS - 1)], "B");
+        }
+    }
+}
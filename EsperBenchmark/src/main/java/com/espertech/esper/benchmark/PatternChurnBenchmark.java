@@ -0,0 +1,66 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * High-churn patterns that start and end many pattern subexpressions per event, for use with the
+ * GC profiler ({@code -prof gc}) to compare the allocation per event ({@code gc.alloc.rate.norm}).
+ * Engine time advances by 100 milliseconds per event so that {@code timer:within} subexpressions expire.
+ */
+public class PatternChurnBenchmark extends EngineBenchmarkBase
+{
+    @Param({"every", "everyWithin", "everyNested"})
+    public String pattern;
+
+    @Param({"1000"})
+    public int numKeys;
+
+    private Object[][] eventsA;
+    private Object[][] eventsB;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        String expression;
+        if (pattern.equals("every"))
+        {
+            expression = "every a=A -> b=B(id=a.id)";
+        }
+        else if (pattern.equals("everyWithin"))
+        {
+            expression = "every a=A -> (b=B(id=a.id) where timer:within(5 sec))";
+        }
+        else
+        {
+            expression = "every (a=A -> b=B(id=a.id) where timer:within(5 sec))";
+        }
+        createWithListener(admin, "select a.value as va, b.value as vb from pattern [" + expression + "]");
+        eventsA = BenchmarkEvents.makeIdValue(numKeys, 1);
+        eventsB = BenchmarkEvents.makeIdValue(numKeys, 2);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        int current = index++;
+        if ((current & 1) == 0)
+        {
+            runtime.sendEvent(eventsA[(current >> 1) & (NUM_EVENTS - 1)], "A");
+        }
+        else
+        {
+            runtime.sendEvent(eventsB[(current >> 1) & (NUM_EVENTS - 1)], "B");
+        }
+        advanceTime(100);
+    }
+}
@@ -0,0 +1,43 @@
+/**************************************************************************************
+ * Copyright (C) 2008 EsperTech, Inc. All rights reserved.                            *
+ * http://esper.codehaus.org                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPAdministrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Time and length windows with an aggregation, for the given window size.
+ * Engine time advances by one millisecond per event, so that a time window holds as many events as a length window of the same size.
+ */
+public class WindowBenchmark extends EngineBenchmarkBase
+{
+    @Param({"time", "length"})
+    public String window;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Object[][] events;
+    private int index;
+
+    protected void setupStatements(EPAdministrator admin)
+    {
+        String view = window.equals("time") ? "win:time(" + size + " msec)" : "win:length(" + size + ")";
+        createWithListener(admin, "select avg(price) as avgPrice, sum(volume) as sumVolume from Tick." + view);
+        events = BenchmarkEvents.makeTicks(1000);
+    }
+
+    @Benchmark
+    public void sendEvent()
+    {
+        advanceTime(1);
+        runtime.sendEvent(events[index++ & (NUM_EVENTS - 1)], "Tick");
+    }
+}